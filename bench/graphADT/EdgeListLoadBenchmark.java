@@ -0,0 +1,106 @@
+package graphADT;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EdgeListLoadBenchmark measures the time to load the synthetic graph from a
+ * text edge list file, reading it line by line into addEdge, and with the
+ * memory-mapped parallel loader into a mutable or a compact graph. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EdgeListLoadBenchmark {
+
+    /**
+     * FileState writes the synthetic graph to a temporary edge list file and
+     * adds the pool parallelism to the synthetic graph state.
+     */
+    @State(Scope.Thread)
+    public static class FileState extends GraphState {
+
+        @Param({ "1", "4" })
+        public int parallelism;
+
+        Path                            file;
+        EdgeListLoader<Integer,Integer> loader;
+        ForkJoinPool                    pool;
+
+        @Override
+        protected void prepare() {
+            try {
+                file = Files.createTempFile("edges", ".txt");
+                try (BufferedWriter out = Files.newBufferedWriter(file,
+                        StandardCharsets.UTF_8)) {
+                    for (EdgeTriple<Integer,Integer> edge : edgeList) {
+                        out.write(edge.getV1() + " " + edge.getV2() + " "
+                                + edge.getE() + "\n");
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            loader = new EdgeListLoader<Integer,Integer>(Integer::valueOf,
+                    Integer::valueOf);
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            pool.shutdown();
+            Files.deleteIfExists(file);
+        }
+
+    }
+
+    @Benchmark
+    public Object readLines(FileState state) throws IOException {
+        UndirectedGraph<Integer,Integer> graph;
+        graph = new UndirectedGraph<Integer,Integer>();
+        for (String line : Files.readAllLines(state.file)) {
+            String[] fields = line.split(" ");
+            Integer v1 = Integer.valueOf(fields[0]);
+            Integer v2 = Integer.valueOf(fields[1]);
+            graph.addVertex(v1);
+            graph.addVertex(v2);
+            graph.addEdge(v1, v2, Integer.valueOf(fields[2]));
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public Object load(FileState state) throws IOException {
+        return state.loader.load(state.file, state.pool);
+    }
+
+    @Benchmark
+    public Object loadCompact(FileState state) throws IOException {
+        return state.loader.loadCompact(state.file, state.pool);
+    }
+
+}
@@ -0,0 +1,94 @@
+package graphADT;
+
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import graphADT.SyntheticGraph.Distribution;
+
+/**
+ * GraphState is the benchmark state shared by the graph benchmarks. It builds
+ * a synthetic UndirectedGraph for every combination of parameters and hands
+ * out probe vertices and edges in a fixed pseudo-random order so benchmarks do
+ * not repeatedly hit the same cache lines. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@State(Scope.Thread)
+public class GraphState {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({ "10000", "1000000" })
+    public int vertices;
+
+    @Param({ "8" })
+    public int degree;
+
+    @Param({ "UNIFORM", "SKEWED" })
+    public Distribution distribution;
+
+    List<Integer>                     vertexList;
+    List<EdgeTriple<Integer,Integer>> edgeList;
+    UndirectedGraph<Integer,Integer>  graph;
+
+    // number of new vertex or edge values added by benchmarks
+    int added;
+
+    private int[] probeVertices;
+    private int[] probeEdges;
+    private int   cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vertexList = SyntheticGraph.vertices(vertices);
+        edgeList = SyntheticGraph.edges(vertices, degree, distribution);
+        graph = SyntheticGraph.graph(vertexList, edgeList);
+
+        Random random = new Random(vertices);
+        probeVertices = new int[PROBES];
+        probeEdges = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeVertices[i] = random.nextInt(vertices);
+            probeEdges[i] = random.nextInt(edgeList.size());
+        }
+        prepare();
+    }
+
+    /**
+     * Called at the end of trial setup, subclasses override to derive more
+     * state from the synthetic graph.
+     */
+    protected void prepare() {
+        // nothing to derive by default
+    }
+
+    /**
+     * Advances to and returns the next probe index.
+     */
+    int next() {
+        cursor = (cursor + 1) & (PROBES - 1);
+        return cursor;
+    }
+
+    /**
+     * Returns a probe vertex for the probe index.
+     */
+    Integer vertex(int probe) {
+        return vertexList.get(probeVertices[probe]);
+    }
+
+    /**
+     * Returns a probe edge, contained in the graph, for the probe index.
+     */
+    EdgeTriple<Integer,Integer> edge(int probe) {
+        return edgeList.get(probeEdges[probe]);
+    }
+
+}
@@ -0,0 +1,85 @@
+package graphADT;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JournalBenchmark measures the throughput of the modifying operations of an
+ * UndirectedGraph journaled by a GraphJournal, for comparison with the same
+ * operations of MutationBenchmark on a graph without a journal. <br/>
+ * 
+ * @author Drew Reese
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+
+    /**
+     * JournalState attaches a journal with the sync interval under benchmark
+     * to the synthetic graph.
+     */
+    @State(Scope.Thread)
+    public static class JournalState extends GraphState {
+
+        @Param({ "1", "10", "100" })
+        public long syncMillis;
+
+        Path                          file;
+        GraphJournal<Integer,Integer> journal;
+
+        @Override
+        protected void prepare() {
+            try {
+                file = Files.createTempFile("graph", ".journal");
+                journal = GraphJournal.attach(graph, file,
+                        Serializer.integers(), Serializer.integers(),
+                        syncMillis, TimeUnit.MILLISECONDS);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            journal.close();
+            Files.deleteIfExists(file);
+        }
+
+    }
+
+    @Benchmark
+    public boolean addEdge(JournalState state) {
+        int probe = state.next();
+        // edge values at or above the edge count are not in the graph yet
+        return state.graph.addEdge(state.vertex(probe),
+                state.vertex(probe ^ 1), state.edgeList.size() + state.added++);
+    }
+
+    @Benchmark
+    public boolean removeEdgeBetween(JournalState state) {
+        EdgeTriple<Integer,Integer> edge = state.edge(state.next());
+        Integer removed = state.graph.removeEdge(edge.getV1(), edge.getV2());
+        return state.graph.addEdge(edge.getV1(), edge.getV2(), removed);
+    }
+
+}
@@ -0,0 +1,124 @@
+package graphADT;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * LoadBenchmark measures the time to build a whole graph from the vertices
+ * and edges of a synthetic graph, one element at a time, in bulk, by
+ * freezing into a compact graph, and by opening a snapshot file of it. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+
+    /**
+     * SnapshotState writes a snapshot of the synthetic graph to a temporary
+     * file.
+     */
+    @State(Scope.Thread)
+    public static class SnapshotState extends GraphState {
+
+        CompactGraph<Integer,Integer> compact;
+        Path                          snapshot;
+
+        @Override
+        protected void prepare() {
+            compact = graph.freeze();
+            try {
+                snapshot = Files.createTempFile("graph", ".snapshot");
+                MappedGraph.write(compact, snapshot, Serializer.integers(),
+                        Serializer.integers());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(snapshot);
+        }
+
+    }
+
+    @Benchmark
+    public Object addEach(GraphState state) {
+        UndirectedGraph<Integer,Integer> graph;
+        graph = new UndirectedGraph<Integer,Integer>();
+        for (Integer v : state.vertexList) {
+            graph.addVertex(v);
+        }
+        for (EdgeTriple<Integer,Integer> edge : state.edgeList) {
+            graph.addEdge(edge.getV1(), edge.getV2(), edge.getE());
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public Object addAll(GraphState state) {
+        UndirectedGraph<Integer,Integer> graph;
+        graph = new UndirectedGraph<Integer,Integer>();
+        graph.addAllVertices(state.vertexList);
+        graph.addAllEdges(state.edgeList);
+        return graph;
+    }
+
+    @Benchmark
+    public Object addAllPresized(GraphState state) {
+        UndirectedGraph<Integer,Integer> graph;
+        graph = new UndirectedGraph<Integer,Integer>(state.vertexList.size(),
+                state.edgeList.size());
+        graph.addAllVertices(state.vertexList);
+        graph.addAllEdges(state.edgeList);
+        return graph;
+    }
+
+    @Benchmark
+    public Object addAllEdgeTable(GraphState state) {
+        EdgeTableGraph<Integer,Integer> graph;
+        graph = new EdgeTableGraph<Integer,Integer>(state.vertexList.size(),
+                state.edgeList.size());
+        graph.addAllVertices(state.vertexList);
+        graph.addAllEdges(state.edgeList);
+        return graph;
+    }
+
+    @Benchmark
+    public Object freeze(GraphState state) {
+        return state.graph.freeze();
+    }
+
+    @Benchmark
+    public void writeSnapshot(SnapshotState state) throws IOException {
+        MappedGraph.write(state.compact, state.snapshot, Serializer.integers(),
+                Serializer.integers());
+    }
+
+    @Benchmark
+    public Object openSnapshot(SnapshotState state) throws IOException {
+        return MappedGraph.open(state.snapshot, Serializer.integers(),
+                Serializer.integers());
+    }
+
+}
@@ -0,0 +1,79 @@
+package graphADT;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MutationBenchmark measures the throughput of the AbstractGraph operations
+ * that modify an UndirectedGraph. Add benchmarks grow the graph for the
+ * length of an iteration, while remove benchmarks restore what they removed
+ * so the graph stays the same size and each operation is measured together
+ * with its inverse. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutationBenchmark {
+
+    @Benchmark
+    public boolean addVertex(GraphState state) {
+        // vertex values at or above vertices are not in the graph yet
+        return state.graph.addVertex(state.vertices + state.added++);
+    }
+
+    @Benchmark
+    public boolean addEdge(GraphState state) {
+        int probe = state.next();
+        // edge values at or above the edge count are not in the graph yet
+        return state.graph.addEdge(state.vertex(probe),
+                state.vertex(probe ^ 1), state.edgeList.size() + state.added++);
+    }
+
+    @Benchmark
+    public boolean removeEdgeValue(GraphState state) {
+        EdgeTriple<Integer,Integer> edge = state.edge(state.next());
+        state.graph.removeEdge(edge.getE());
+        return state.graph.addEdge(edge.getV1(), edge.getV2(), edge.getE());
+    }
+
+    @Benchmark
+    public boolean removeEdgeBetween(GraphState state) {
+        EdgeTriple<Integer,Integer> edge = state.edge(state.next());
+        Integer removed = state.graph.removeEdge(edge.getV1(), edge.getV2());
+        return state.graph.addEdge(edge.getV1(), edge.getV2(), removed);
+    }
+
+    @Benchmark
+    public boolean removeAllEdgeValues(GraphState state) {
+        EdgeTriple<Integer,Integer> edge = state.edge(state.next());
+        state.graph.removeAllEdges(Collections.singleton(edge.getE()));
+        return state.graph.addEdge(edge.getV1(), edge.getV2(), edge.getE());
+    }
+
+    @Benchmark
+    public boolean removeAllEdgesBetween(GraphState state) {
+        EdgeTriple<Integer,Integer> edge = state.edge(state.next());
+        Set<Integer> removed = state.graph.removeAllEdges(edge.getV1(),
+                edge.getV2());
+        boolean modified = false;
+        for (Integer e : removed) {
+            modified |= state.graph.addEdge(edge.getV1(), edge.getV2(), e);
+        }
+        return modified;
+    }
+
+}
@@ -0,0 +1,187 @@
+package graphADT;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * QueryBenchmark measures the throughput of the read-only AbstractGraph
+ * operations for each graph implementation. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    /**
+     * Graph implementation under benchmark.
+     */
+    public enum Implementation {
+        UNDIRECTED, COMPACT, MAPPED, OFF_HEAP, EDGE_TABLE
+    }
+
+    /**
+     * QueryState adds the graph implementation to the synthetic graph state.
+     */
+    @State(Scope.Thread)
+    public static class QueryState extends GraphState {
+
+        @Param({ "UNDIRECTED", "COMPACT", "MAPPED", "OFF_HEAP",
+                "EDGE_TABLE" })
+        public Implementation implementation;
+
+        AbstractGraph<Integer,Integer> queried;
+        Path                           snapshot;
+
+        @Override
+        protected void prepare() {
+            if (implementation == Implementation.MAPPED) {
+                try {
+                    snapshot = Files.createTempFile("graph", ".snapshot");
+                    MappedGraph.write(graph.freeze(), snapshot,
+                            Serializer.integers(), Serializer.integers());
+                    queried = MappedGraph.open(snapshot,
+                            Serializer.integers(), Serializer.integers());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else if (implementation == Implementation.OFF_HEAP) {
+                OffHeapGraph<Integer,Integer> offHeap;
+                offHeap = new OffHeapGraph<Integer,Integer>(vertices);
+                offHeap.addAllVertices(vertexList);
+                offHeap.addAllEdges(edgeList);
+                queried = offHeap;
+            } else if (implementation == Implementation.EDGE_TABLE) {
+                EdgeTableGraph<Integer,Integer> edgeTable;
+                edgeTable = new EdgeTableGraph<Integer,Integer>(vertices,
+                        edgeList.size());
+                edgeTable.addAllVertices(vertexList);
+                edgeTable.addAllEdges(edgeList);
+                queried = edgeTable;
+            } else {
+                queried = (implementation == Implementation.COMPACT)
+                        ? graph.freeze() : graph;
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (snapshot != null) {
+                Files.deleteIfExists(snapshot);
+            }
+            if (queried instanceof OffHeapGraph) {
+                ((OffHeapGraph<?,?>) queried).close();
+            }
+        }
+
+    }
+
+    @Benchmark
+    public boolean containsVertex(QueryState state) {
+        return state.queried.containsVertex(state.vertex(state.next()));
+    }
+
+    @Benchmark
+    public boolean containsEdgeValue(QueryState state) {
+        return state.queried.containsEdge(state.edge(state.next()).getE());
+    }
+
+    @Benchmark
+    public boolean containsEdgeBetween(QueryState state) {
+        int probe = state.next();
+        return state.queried.containsEdge(state.vertex(probe),
+                state.vertex(probe ^ 1));
+    }
+
+    @Benchmark
+    public Object vertexSet(QueryState state) {
+        return state.queried.vertexSet();
+    }
+
+    @Benchmark
+    public Object edgeSet(QueryState state) {
+        return state.queried.edgeSet();
+    }
+
+    @Benchmark
+    public Object edgeSetOfVertex(QueryState state) {
+        return state.queried.edgeSet(state.vertex(state.next()));
+    }
+
+    @Benchmark
+    public Object edgeSetBetween(QueryState state) {
+        EdgeTriple<Integer,Integer> edge = state.edge(state.next());
+        return state.queried.edgeSet(edge.getV1(), edge.getV2());
+    }
+
+    @Benchmark
+    public Integer getEdge(QueryState state) {
+        EdgeTriple<Integer,Integer> edge = state.edge(state.next());
+        return state.queried.getEdge(edge.getV1(), edge.getV2());
+    }
+
+    @Benchmark
+    public void vertexView(QueryState state, Blackhole blackhole) {
+        for (Integer v : state.queried.vertexView()) {
+            blackhole.consume(v);
+        }
+    }
+
+    @Benchmark
+    public void edgeView(QueryState state, Blackhole blackhole) {
+        for (Integer e : state.queried.edgeView()) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void edgeViewOfVertex(QueryState state, Blackhole blackhole) {
+        for (Integer e : state.queried.edgeView(state.vertex(state.next()))) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public int degree(QueryState state) {
+        return state.queried.degree(state.vertex(state.next()));
+    }
+
+    @Benchmark
+    public boolean forEachNeighbor(QueryState state,
+            final Blackhole blackhole) {
+        return state.queried.forEachNeighbor(state.vertex(state.next()),
+                blackhole::consume);
+    }
+
+    @Benchmark
+    public boolean forEachIncidentEdge(QueryState state,
+            final Blackhole blackhole) {
+        return state.queried.forEachIncidentEdge(state.vertex(state.next()),
+                (other, e) -> {
+                    blackhole.consume(other);
+                    blackhole.consume(e);
+                });
+    }
+
+}
@@ -0,0 +1,175 @@
+package graphADT;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphADT.SyntheticGraph.Distribution;
+
+/**
+ * ReadScalingBenchmark measures how query throughput of a graph shared by
+ * many threads scales with the number of threads. Run the read benchmarks
+ * with increasing thread counts, e.g. -t 1, -t 4 and -t 16, to see scaling.
+ * The mixed group adds a writer to seven readers. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadScalingBenchmark {
+
+    /**
+     * Thread-safe graph under benchmark.
+     */
+    public enum Implementation {
+        SYNCHRONIZED, READ_MOSTLY, CONCURRENT
+    }
+
+    /**
+     * SharedGraph is a synthetic graph shared by all benchmark threads.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedGraph {
+
+        @Param({ "100000" })
+        public int vertices;
+
+        @Param({ "8" })
+        public int degree;
+
+        @Param({ "UNIFORM", "SKEWED" })
+        public Distribution distribution;
+
+        @Param({ "SYNCHRONIZED", "READ_MOSTLY", "CONCURRENT" })
+        public Implementation implementation;
+
+        List<Integer>                     vertexList;
+        List<EdgeTriple<Integer,Integer>> edgeList;
+        AbstractGraph<Integer,Integer>    graph;
+
+        // monitor guarding synchronized graph, null for thread-safe graphs
+        Object monitor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            vertexList = SyntheticGraph.vertices(vertices);
+            edgeList = SyntheticGraph.edges(vertices, degree, distribution);
+            switch (implementation) {
+            case SYNCHRONIZED:
+                graph = SyntheticGraph.graph(vertexList, edgeList);
+                monitor = graph;
+                break;
+            case READ_MOSTLY:
+                graph = Graphs.readMostlyGraph(
+                        SyntheticGraph.graph(vertexList, edgeList));
+                break;
+            default:
+                graph = new ConcurrentUndirectedGraph<Integer,Integer>(
+                        vertices);
+                graph.addAllVertices(vertexList);
+                graph.addAllEdges(edgeList);
+            }
+        }
+
+    }
+
+    /**
+     * Probes hands out pseudo-random probe indices to a single thread.
+     */
+    @State(Scope.Thread)
+    public static class Probes {
+
+        private Random random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            random = new Random(Thread.currentThread().getId());
+        }
+
+        Integer vertex(SharedGraph shared) {
+            return shared.vertexList.get(random.nextInt(shared.vertices));
+        }
+
+        EdgeTriple<Integer,Integer> edge(SharedGraph shared) {
+            return shared.edgeList.get(random.nextInt(shared.edgeList.size()));
+        }
+
+    }
+
+    @Benchmark
+    public boolean containsVertex(SharedGraph shared, Probes probes) {
+        Integer v = probes.vertex(shared);
+        if (shared.monitor != null) {
+            synchronized (shared.monitor) {
+                return shared.graph.containsVertex(v);
+            }
+        }
+        return shared.graph.containsVertex(v);
+    }
+
+    @Benchmark
+    public boolean containsEdge(SharedGraph shared, Probes probes) {
+        EdgeTriple<Integer,Integer> edge = probes.edge(shared);
+        if (shared.monitor != null) {
+            synchronized (shared.monitor) {
+                return shared.graph.containsEdge(edge.getV1(), edge.getV2());
+            }
+        }
+        return shared.graph.containsEdge(edge.getV1(), edge.getV2());
+    }
+
+    @Benchmark
+    public Object edgeSetOfVertex(SharedGraph shared, Probes probes) {
+        Integer v = probes.vertex(shared);
+        if (shared.monitor != null) {
+            synchronized (shared.monitor) {
+                return shared.graph.edgeSet(v);
+            }
+        }
+        return shared.graph.edgeSet(v);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(7)
+    public boolean mixedRead(SharedGraph shared, Probes probes) {
+        return containsEdge(shared, probes);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean mixedWrite(SharedGraph shared, Probes probes) {
+        // remove and restore an edge, the graph stays the same size
+        EdgeTriple<Integer,Integer> edge = probes.edge(shared);
+        if (shared.monitor != null) {
+            synchronized (shared.monitor) {
+                shared.graph.removeEdge(edge.getE());
+                return shared.graph.addEdge(edge.getV1(), edge.getV2(),
+                        edge.getE());
+            }
+        }
+        shared.graph.removeEdge(edge.getE());
+        return shared.graph.addEdge(edge.getV1(), edge.getV2(), edge.getE());
+    }
+
+}
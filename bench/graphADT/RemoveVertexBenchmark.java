@@ -0,0 +1,83 @@
+package graphADT;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphADT.SyntheticGraph.Distribution;
+
+/**
+ * RemoveVertexBenchmark measures removing vertices together with all the
+ * edges touching them. In skewed graphs the removed vertices are the largest
+ * hubs. Every measurement removes from a freshly built graph. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class RemoveVertexBenchmark {
+
+    /**
+     * RemoveState rebuilds the synthetic graph before every removal. The
+     * graph sizes are smaller than those of GraphState since the graph is
+     * rebuilt for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class RemoveState {
+
+        @Param({ "10000", "100000" })
+        public int vertices;
+
+        @Param({ "8" })
+        public int degree;
+
+        @Param({ "UNIFORM", "SKEWED" })
+        public Distribution distribution;
+
+        List<Integer>                     vertexList;
+        List<EdgeTriple<Integer,Integer>> edgeList;
+        UndirectedGraph<Integer,Integer>  graph;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            vertexList = SyntheticGraph.vertices(vertices);
+            edgeList = SyntheticGraph.edges(vertices, degree, distribution);
+        }
+
+        @Setup(Level.Invocation)
+        public void rebuild() {
+            graph = SyntheticGraph.graph(vertexList, edgeList);
+        }
+
+    }
+
+    @Benchmark
+    public boolean removeVertex(RemoveState state) {
+        // vertex 0 has the highest degree in skewed graphs
+        return state.graph.removeVertex(state.vertexList.get(0));
+    }
+
+    @Benchmark
+    public boolean removeAllVertices(RemoveState state) {
+        // the lowest percent of vertex values are the hubs of skewed graphs
+        return state.graph.removeAllVertices(
+                state.vertexList.subList(0, state.vertexList.size() / 100));
+    }
+
+}
@@ -0,0 +1,65 @@
+package graphADT;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ShortestPathBenchmark measures the latency of point-to-point and
+ * single-source shortest path queries between probe vertices, weighting
+ * every edge by its integer edge value. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortestPathBenchmark {
+
+    /**
+     * ShortestPathState adds the graph implementation and its shortest paths
+     * to the synthetic graph state.
+     */
+    @State(Scope.Thread)
+    public static class ShortestPathState extends GraphState {
+
+        @Param({ "UNDIRECTED", "COMPACT" })
+        public QueryBenchmark.Implementation implementation;
+
+        ShortestPaths<Integer,Integer> paths;
+
+        @Override
+        protected void prepare() {
+            AbstractGraph<Integer,Integer> searched;
+            searched = (implementation == QueryBenchmark.Implementation.COMPACT)
+                    ? graph.freeze() : graph;
+            paths = new ShortestPaths<Integer,Integer>(searched,
+                    (e) -> e % 100);
+        }
+
+    }
+
+    @Benchmark
+    public Object path(ShortestPathState state) {
+        return state.paths.path(state.vertex(state.next()),
+                state.vertex(state.next()));
+    }
+
+    @Benchmark
+    public Object search(ShortestPathState state) {
+        return state.paths.search(state.vertex(state.next()));
+    }
+
+}
@@ -0,0 +1,106 @@
+package graphADT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SyntheticGraph generates reproducible random graphs for benchmarks. Vertices
+ * are the integers <code>[0, vertices)</code> and every edge has a distinct
+ * integer edge value. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+public final class SyntheticGraph {
+
+    /**
+     * Distribution of edge endpoints over the vertices of a synthetic graph.
+     */
+    public enum Distribution {
+        /**
+         * Endpoints are picked uniformly, all vertices have about the average
+         * degree.
+         */
+        UNIFORM,
+        /**
+         * Endpoints are biased towards low vertex values, vertex
+         * <code>0</code> is the largest hub and degrees follow a heavy tailed
+         * distribution.
+         */
+        SKEWED
+    }
+
+    private static final long SEED = 0x5EEDL;
+
+    private SyntheticGraph() {
+        // static factory methods only
+    }
+
+    /**
+     * Returns the vertices of a synthetic graph.
+     * 
+     * @param vertices - number of vertices
+     * @return list of vertex values <code>[0, vertices)</code>
+     */
+    static List<Integer> vertices(int vertices) {
+        List<Integer> vertexList = new ArrayList<Integer>(vertices);
+        for (int v = 0; v < vertices; v++) {
+            vertexList.add(v);
+        }
+        return vertexList;
+    }
+
+    /**
+     * Returns the edges of a synthetic graph with the specified number of
+     * vertices and average degree.
+     * 
+     * @param vertices - number of vertices
+     * @param degree - average number of edges touching a vertex
+     * @param distribution - distribution of edge endpoints
+     * @return list of <code>vertices * degree / 2</code> edges
+     */
+    static List<EdgeTriple<Integer,Integer>> edges(int vertices, int degree,
+            Distribution distribution) {
+        Random random = new Random(SEED);
+        int edges = (int) ((long) vertices * degree / 2);
+        List<EdgeTriple<Integer,Integer>> edgeList;
+        edgeList = new ArrayList<EdgeTriple<Integer,Integer>>(edges);
+        for (int e = 0; e < edges; e++) {
+            edgeList.add(new EdgeTriple<Integer,Integer>(
+                    endpoint(random, vertices, distribution),
+                    endpoint(random, vertices, distribution), e));
+        }
+        return edgeList;
+    }
+
+    /**
+     * Returns a new graph holding the specified vertices and edges.
+     */
+    static UndirectedGraph<Integer,Integer> graph(List<Integer> vertices,
+            List<EdgeTriple<Integer,Integer>> edges) {
+        UndirectedGraph<Integer,Integer> graph;
+        graph = new UndirectedGraph<Integer,Integer>(vertices.size(),
+                edges.size());
+        graph.addAllVertices(vertices);
+        graph.addAllEdges(edges);
+        return graph;
+    }
+
+    /**
+     * Returns a random edge endpoint.
+     */
+    private static int endpoint(Random random, int vertices,
+            Distribution distribution) {
+        switch (distribution) {
+        case SKEWED:
+            // cubing a uniform variate concentrates endpoints near zero
+            double u = random.nextDouble();
+            return (int) (vertices * u * u * u);
+        case UNIFORM:
+        default:
+            return random.nextInt(vertices);
+        }
+    }
+
+}
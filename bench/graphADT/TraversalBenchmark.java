@@ -0,0 +1,93 @@
+package graphADT;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TraversalBenchmark measures the time of a whole breadth-first search from
+ * a probe vertex, comparing the parallel search over each graph
+ * implementation with a sequential search over the public graph API. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraversalBenchmark {
+
+    /**
+     * TraversalState adds the graph implementation and the pool parallelism
+     * to the synthetic graph state.
+     */
+    @State(Scope.Thread)
+    public static class TraversalState extends GraphState {
+
+        @Param({ "UNDIRECTED", "COMPACT" })
+        public QueryBenchmark.Implementation implementation;
+
+        @Param({ "1", "4" })
+        public int parallelism;
+
+        AbstractGraph<Integer,Integer> searched;
+        ForkJoinPool                   pool;
+
+        @Override
+        protected void prepare() {
+            searched = (implementation == QueryBenchmark.Implementation.COMPACT)
+                    ? graph.freeze() : graph;
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+
+    }
+
+    @Benchmark
+    public Object parallelSearch(TraversalState state) {
+        return BreadthFirstSearch.search(state.searched,
+                state.vertex(state.next()), state.pool);
+    }
+
+    @Benchmark
+    public Object sequentialSearch(TraversalState state) {
+        final Map<Integer,Integer> distances = new HashMap<Integer,Integer>();
+        final ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+        Integer source = state.vertex(state.next());
+        distances.put(source, 0);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            Integer u = queue.remove();
+            final int distance = distances.get(u) + 1;
+            state.searched.forEachNeighbor(u, (w) -> {
+                if (!distances.containsKey(w)) {
+                    distances.put(w, distance);
+                    queue.add(w);
+                }
+            });
+        }
+        return distances;
+    }
+
+}
@@ -0,0 +1,68 @@
+package graphADT;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TrianglesBenchmark measures the time of a whole triangle count of each
+ * graph implementation, including packing its sorted neighbor rows. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrianglesBenchmark {
+
+    /**
+     * TrianglesState adds the graph implementation and the pool parallelism
+     * to the synthetic graph state.
+     */
+    @State(Scope.Thread)
+    public static class TrianglesState extends GraphState {
+
+        @Param({ "UNDIRECTED", "COMPACT" })
+        public QueryBenchmark.Implementation implementation;
+
+        @Param({ "1", "4" })
+        public int parallelism;
+
+        AbstractGraph<Integer,Integer> counted;
+        ForkJoinPool                   pool;
+
+        @Override
+        protected void prepare() {
+            counted = (implementation == QueryBenchmark.Implementation.COMPACT)
+                    ? graph.freeze() : graph;
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+
+    }
+
+    @Benchmark
+    public Object count(TrianglesState state) {
+        return Triangles.count(state.counted, state.pool);
+    }
+
+}
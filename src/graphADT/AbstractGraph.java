@@ -2,6 +2,8 @@ package graphADT;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * AbstractGraph is a graph storing vertex and edge abstract data types.
@@ -53,6 +55,38 @@ public interface AbstractGraph<V, E> {
      */
     boolean addEdge(V v1, V v2, E e) throws NullPointerException;
 
+    /**
+     * Adds all vertex values in the specified vertex collection that are not
+     * already present to this graph. This is equivalent to calling
+     * {@link #addVertex(Object)} for each vertex value, but lets the graph
+     * size its internal structures for the whole collection at once.
+     * 
+     * @param vertices - the vertex values to be added to this graph
+     * @return <code>true</code> if this graph was modified, <code>false</code>
+     *         otherwise
+     * @throws NullPointerException if specified vertex collection or any of
+     *             its vertex values is <code>null</code>
+     */
+    boolean addAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException;
+
+    /**
+     * Adds all edges in the specified edge collection to this graph. This is
+     * equivalent to calling {@link #addEdge(Object, Object, Object)} for each
+     * edge, so edges with a vertex not contained in this graph and duplicate
+     * edges are skipped, but lets the graph size its internal structures for
+     * the whole collection at once.
+     * 
+     * @param edges - the edges to be added to this graph
+     * @return <code>true</code> if this graph was modified, <code>false</code>
+     *         otherwise
+     * @throws NullPointerException if specified edge collection or any of its
+     *             edges is <code>null</code>
+     */
+    boolean addAllEdges(
+            Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+            throws NullPointerException;
+
     /**
      * Returns <code>true</code> if this graph contains the specified vertex
      * value. Formally, returns <code>true</code> iff this graph contains vertex
@@ -121,6 +155,94 @@ public interface AbstractGraph<V, E> {
      */
     Set<E> edgeSet(V v) throws NullPointerException;
 
+    /**
+     * Returns an unmodifiable live view of the vertices contained in this
+     * graph. Unlike {@link #vertexSet()} the vertices are not copied, changes
+     * to this graph are reflected in the returned view.
+     * 
+     * @return an unmodifiable live view of all the vertices contained in this
+     *         graph
+     */
+    Set<V> vertexView();
+
+    /**
+     * Returns an unmodifiable live view of the edges contained in this graph.
+     * Unlike {@link #edgeSet()} the edges are not copied, changes to this
+     * graph are reflected in the returned view.
+     * 
+     * @return an unmodifiable live view of all the edges contained in this
+     *         graph
+     */
+    Set<E> edgeView();
+
+    /**
+     * Returns an unmodifiable live view of the edges touching the specified
+     * vertex <code>v</code>. Unlike {@link #edgeSet(Object)} the edges are not
+     * copied, and the view holds one element per touching edge, so it may
+     * contain duplicate edge values. Changes to the edges touching
+     * <code>v</code> are reflected in the returned view, the view is undefined
+     * once <code>v</code> is removed from this graph. If <code>v</code> is not
+     * a part of this graph, then <code>null</code> is returned.
+     * 
+     * @param v - the vertex for which a view of connected edges is returned
+     * @return an unmodifiable live view of all edges touching the specified
+     *         vertex <code>v</code>, or null if <code>v</code> not contained in
+     *         this graph
+     * @throws NullPointerException if vertex <code>v</code> is
+     *             <code>null</code>
+     */
+    Collection<E> edgeView(V v) throws NullPointerException;
+
+    /**
+     * Returns the degree of the specified vertex <code>v</code>, the number of
+     * edges touching <code>v</code>. A self-edge of <code>v</code> is counted
+     * once. If <code>v</code> is not a part of this graph, then -1 is
+     * returned.
+     * 
+     * @param v - the vertex for which the degree is returned
+     * @return the number of edges touching the specified vertex
+     *         <code>v</code>, or -1 if <code>v</code> not contained in this
+     *         graph
+     * @throws NullPointerException if vertex <code>v</code> is
+     *             <code>null</code>
+     */
+    int degree(V v) throws NullPointerException;
+
+    /**
+     * Performs the specified action for the neighbor at the other end of each
+     * edge touching the specified vertex <code>v</code>, without creating any
+     * intermediate collection. A neighbor connected by multiple edges is
+     * passed once per edge, and a self-edge of <code>v</code> passes
+     * <code>v</code> itself. The action must not modify this graph.
+     * 
+     * @param v - the vertex whose neighbors are passed to the action
+     * @param action - the action to be performed for each neighbor
+     * @return <code>true</code> iff this graph contains vertex <code>v</code>,
+     *         <code>false</code> otherwise
+     * @throws NullPointerException if vertex <code>v</code> or the action is
+     *             <code>null</code>
+     */
+    boolean forEachNeighbor(V v, Consumer<? super V> action)
+            throws NullPointerException;
+
+    /**
+     * Performs the specified action for each edge touching the specified
+     * vertex <code>v</code>, passing the neighbor at the other end of the edge
+     * and the edge value, without creating any intermediate collection. A
+     * self-edge of <code>v</code> passes <code>v</code> itself as neighbor.
+     * The action must not modify this graph.
+     * 
+     * @param v - the vertex whose edges are passed to the action
+     * @param action - the action to be performed for each neighbor and edge
+     *            value
+     * @return <code>true</code> iff this graph contains vertex <code>v</code>,
+     *         <code>false</code> otherwise
+     * @throws NullPointerException if vertex <code>v</code> or the action is
+     *             <code>null</code>
+     */
+    boolean forEachIncidentEdge(V v, BiConsumer<? super V,? super E> action)
+            throws NullPointerException;
+
     /**
      * Returns a set of the edges connecting the specified vertices
      * <code>v1</code> and <code>v2</code>. If vertices <code>v1</code> and
@@ -0,0 +1,505 @@
+package graphADT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntPredicate;
+
+/**
+ * BreadthFirstSearch finds the hop distance and a shortest path parent of
+ * every vertex reachable from a source vertex. The search is level
+ * synchronous, every level is expanded by tasks of a {@link ForkJoinPool},
+ * and switches direction by frontier size:
+ * <ul>
+ * <li>top-down, while the frontier is small, the frontier vertices claim
+ * their unreached neighbors</li>
+ * <li>bottom-up, once the edges of the frontier outnumber a fraction of the
+ * edges of unreached vertices, every unreached vertex looks for a neighbor in
+ * the frontier and stops at the first one found</li>
+ * </ul>
+ * {@link CompactGraph} and {@link UndirectedGraph} are searched in place,
+ * a compact graph being the faster of the two, while other graphs are
+ * packed into a compact adjacency first. The graph must not be modified
+ * during a search. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+public final class BreadthFirstSearch {
+
+    // switch to bottom-up once the frontier edges exceed the unexplored
+    // edges divided by ALPHA
+    private static final int ALPHA = 14;
+
+    // switch back to top-down once a shrinking frontier holds fewer than
+    // the vertices divided by BETA
+    private static final int BETA = 24;
+
+    // vertices per task, a multiple of 64 so that bottom-up tasks own whole
+    // words of the frontier bitmap
+    private static final int GRAIN = 1024;
+
+    private BreadthFirstSearch() {
+    }
+
+    /**
+     * Searches the specified graph breadth-first from the specified source
+     * vertex on the common fork join pool.
+     * 
+     * @param graph - graph to search
+     * @param source - vertex to search from
+     * @return result of search, or <code>null</code> if <code>source</code>
+     *         is not in <code>graph</code>
+     * @throws NullPointerException if <code>graph</code> or
+     *         <code>source</code> is <code>null</code>
+     */
+    public static <V> Result<V> search(AbstractGraph<V,?> graph, V source)
+            throws NullPointerException {
+        return search(graph, source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Searches the specified graph breadth-first from the specified source
+     * vertex on the specified fork join pool.
+     * 
+     * @param graph - graph to search
+     * @param source - vertex to search from
+     * @param pool - pool to run search tasks on
+     * @return result of search, or <code>null</code> if <code>source</code>
+     *         is not in <code>graph</code>
+     * @throws NullPointerException if <code>graph</code>,
+     *         <code>source</code> or <code>pool</code> is <code>null</code>
+     */
+    public static <V> Result<V> search(AbstractGraph<V,?> graph, V source,
+            ForkJoinPool pool) throws NullPointerException {
+        if (graph == null) {
+            throw new NullPointerException("Graph null");
+        } else if (source == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (pool == null) {
+            throw new NullPointerException("Pool null");
+        }
+        IndexedGraph<V,?> indexed = IndexedGraph.of(graph);
+        int id = indexed.idOf(source);
+        return (id >= 0) ? new Search<V>(indexed, pool).run(id, source) : null;
+    }
+
+    /**
+     * Result class holds the hop distances and parents found by a search. A
+     * result describes the graph at the time of the search, vertices added to
+     * or removed from the graph after the search are reported as not
+     * reached.
+     * 
+     * @author Drew Reese
+     *
+     * @param <V> - data type of vertex values
+     */
+    public static final class Result<V> {
+
+        /*
+         * Internal representation of search result
+         * 
+         * graph - indexed graph searched. source - vertex searched from.
+         * values - vertex value of every reached vertex id, null for ids not
+         * reached. distances - hop distance by vertex id, -1 if not reached.
+         * parents - parent vertex id plus one by vertex id, 0 if not reached.
+         * reached - number of vertices reached. depth - greatest hop distance.
+         */
+        private final IndexedGraph<V,?>   graph;
+        private final V                  source;
+        private final V[]                values;
+        private final int[]              distances;
+        private final AtomicIntegerArray parents;
+        private final int                reached;
+        private final int                depth;
+
+        private Result(IndexedGraph<V,?> graph, V source, V[] values,
+                int[] distances, AtomicIntegerArray parents, int reached,
+                int depth) {
+            this.graph = graph;
+            this.source = source;
+            this.values = values;
+            this.distances = distances;
+            this.parents = parents;
+            this.reached = reached;
+            this.depth = depth;
+        }
+
+        /**
+         * Returns the vertex searched from.
+         */
+        public V source() {
+            return source;
+        }
+
+        /**
+         * Returns the number of vertices reached, including the source.
+         */
+        public int reachedCount() {
+            return reached;
+        }
+
+        /**
+         * Returns the greatest hop distance of a reached vertex.
+         */
+        public int depth() {
+            return depth;
+        }
+
+        /**
+         * Returns the number of edges on a shortest path from the source to
+         * the specified vertex.
+         * 
+         * @param v - vertex to get distance of
+         * @return hop distance of <code>v</code>, or <code>-1</code> if
+         *         <code>v</code> was not reached
+         * @throws NullPointerException if <code>v</code> is <code>null</code>
+         */
+        public int distance(V v) throws NullPointerException {
+            int id = idOf(v);
+            return (id >= 0) ? distances[id] : -1;
+        }
+
+        /**
+         * Returns the vertex preceding the specified vertex on a shortest
+         * path from the source.
+         * 
+         * @param v - vertex to get parent of
+         * @return parent of <code>v</code>, or <code>null</code> if
+         *         <code>v</code> is the source or was not reached
+         * @throws NullPointerException if <code>v</code> is <code>null</code>
+         */
+        public V parent(V v) throws NullPointerException {
+            int id = idOf(v);
+            if (id < 0 || distances[id] == 0) {
+                return null;
+            }
+            return values[parents.get(id) - 1];
+        }
+
+        /**
+         * Returns the vertices of a shortest path from the source to the
+         * specified vertex, both included.
+         * 
+         * @param v - vertex to get path to
+         * @return list of vertices from source to <code>v</code>, or
+         *         <code>null</code> if <code>v</code> was not reached
+         * @throws NullPointerException if <code>v</code> is <code>null</code>
+         */
+        public List<V> pathTo(V v) throws NullPointerException {
+            int id = idOf(v);
+            if (id < 0) {
+                return null;
+            }
+            List<V> path = new ArrayList<V>(distances[id] + 1);
+            for (int u = id; distances[u] > 0; u = parents.get(u) - 1) {
+                path.add(values[u]);
+            }
+            path.add(source);
+            Collections.reverse(path);
+            return path;
+        }
+
+        /**
+         * Returns the id of the specified vertex if it was reached, or
+         * <code>-1</code> otherwise.
+         */
+        private int idOf(V v) throws NullPointerException {
+            if (v == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+            int id = graph.idOf(v);
+            return (id >= 0 && id < values.length && v.equals(values[id]))
+                    ? id : -1;
+        }
+
+    }
+
+    /**
+     * Search class holds the state of a single search.
+     */
+    private static final class Search<V> {
+
+        /*
+         * Internal representation of search
+         * 
+         * graph - indexed graph searched. pool - pool running tasks. n - bound
+         * of vertex ids. distances - hop distance by vertex id, -1 if not yet
+         * reached, written once by the task reaching the vertex. parents -
+         * parent vertex id plus one by vertex id, 0 if not yet reached,
+         * claimed by compare and set in top-down levels. level - distance of
+         * vertices reached by the current level.
+         */
+        private final IndexedGraph<V,?>   graph;
+        private final ForkJoinPool       pool;
+        private final int                n;
+        private final int[]              distances;
+        private final AtomicIntegerArray parents;
+        private int                      level;
+
+        Search(IndexedGraph<V,?> graph, ForkJoinPool pool) {
+            this.graph = graph;
+            this.pool = pool;
+            this.n = graph.bound();
+            this.distances = new int[n];
+            Arrays.fill(distances, -1);
+            this.parents = new AtomicIntegerArray(n);
+        }
+
+        /**
+         * Runs the search from the vertex of the specified id.
+         */
+        Result<V> run(int sourceId, V source) {
+            distances[sourceId] = 0;
+            parents.set(sourceId, sourceId + 1);
+
+            long unexplored = 0;
+            for (int u = 0; u < n; u++) {
+                unexplored += graph.degree(u);
+            }
+
+            int[] frontier = { sourceId };
+            long[] frontierBits = null;
+            int frontierSize = 1;
+            long frontierEdges = graph.degree(sourceId);
+            unexplored -= frontierEdges;
+            int reached = 1;
+            while (frontierSize > 0) {
+                int previousSize = frontierSize;
+                level++;
+                if (frontierBits == null
+                        && frontierEdges > unexplored / ALPHA) {
+                    frontierBits = toBits(frontier, frontierSize);
+                    frontier = null;
+                }
+
+                Step[] steps;
+                long[] nextBits = null;
+                if (frontierBits == null) {
+                    steps = topDown(frontier, frontierSize);
+                } else {
+                    nextBits = new long[frontierBits.length];
+                    steps = bottomUp(frontierBits, nextBits);
+                }
+                frontierSize = 0;
+                frontierEdges = 0;
+                for (Step step : steps) {
+                    frontierSize += step.count;
+                    frontierEdges += step.edges;
+                }
+                unexplored -= frontierEdges;
+                reached += frontierSize;
+
+                if (frontierBits == null) {
+                    frontier = concat(steps, frontierSize);
+                } else {
+                    frontierBits = nextBits;
+                    if (frontierSize < previousSize
+                            && frontierSize < n / BETA) {
+                        frontier = toList(frontierBits, frontierSize);
+                        frontierBits = null;
+                    }
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            V[] values = (V[]) new Object[n];
+            for (int u = 0; u < n; u++) {
+                if (distances[u] >= 0) {
+                    values[u] = graph.valueOf(u);
+                }
+            }
+            return new Result<V>(graph, source, values, distances, parents,
+                    reached, level - 1);
+        }
+
+        /**
+         * Expands the specified frontier top-down, returns the finished
+         * tasks.
+         */
+        private Step[] topDown(int[] frontier, int size) {
+            Step[] steps = new Step[(size + GRAIN - 1) / GRAIN];
+            for (int i = 0; i < steps.length; i++) {
+                steps[i] = new TopDown(frontier, i * GRAIN,
+                        Math.min(size, (i + 1) * GRAIN));
+            }
+            invokeAll(steps);
+            return steps;
+        }
+
+        /**
+         * Expands the specified frontier bitmap bottom-up into the next
+         * frontier bitmap, returns the finished tasks.
+         */
+        private Step[] bottomUp(long[] frontierBits, long[] next) {
+            Step[] steps = new Step[Math.max(1, (n + GRAIN - 1) / GRAIN)];
+            for (int i = 0; i < steps.length; i++) {
+                steps[i] = new BottomUp(frontierBits, next, i * GRAIN,
+                        Math.min(n, (i + 1) * GRAIN));
+            }
+            invokeAll(steps);
+            return steps;
+        }
+
+        /**
+         * Runs the specified tasks on the pool and waits for all of them.
+         */
+        private void invokeAll(final Step[] steps) {
+            if (steps.length == 1) {
+                // a single task runs in the calling thread
+                steps[0].invoke();
+                return;
+            }
+            pool.invoke(new RecursiveAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(steps);
+                }
+
+            });
+        }
+
+        private long[] toBits(int[] frontier, int size) {
+            long[] bits = new long[(n + 63) >>> 6];
+            for (int i = 0; i < size; i++) {
+                bits[frontier[i] >>> 6] |= 1L << frontier[i];
+            }
+            return bits;
+        }
+
+        private int[] toList(long[] bits, int size) {
+            int[] frontier = new int[size];
+            int i = 0;
+            for (int word = 0; word < bits.length; word++) {
+                for (long b = bits[word]; b != 0; b &= b - 1) {
+                    frontier[i++] = (word << 6) + Long.numberOfTrailingZeros(b);
+                }
+            }
+            return frontier;
+        }
+
+        private int[] concat(Step[] steps, int size) {
+            int[] frontier = new int[size];
+            int i = 0;
+            for (Step step : steps) {
+                System.arraycopy(step.found, 0, frontier, i, step.count);
+                i += step.count;
+            }
+            return frontier;
+        }
+
+        /**
+         * Step class is a task expanding part of a level. It counts the
+         * vertices it reached and their edges, and top-down steps list the
+         * vertices in found.
+         */
+        private abstract static class Step extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            int[] found;
+            int   count;
+            long  edges;
+
+        }
+
+        /**
+         * TopDown class claims the unreached neighbors of a range of the
+         * frontier.
+         */
+        private final class TopDown extends Step implements IntPredicate {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int[] frontier;
+            private final int   from;
+            private final int   to;
+            private int         parent;
+
+            TopDown(int[] frontier, int from, int to) {
+                this.frontier = frontier;
+                this.from = from;
+                this.to = to;
+                this.found = new int[16];
+            }
+
+            @Override
+            protected void compute() {
+                for (int i = from; i < to; i++) {
+                    parent = frontier[i];
+                    graph.findNeighbor(parent, this);
+                }
+            }
+
+            @Override
+            public boolean test(int w) {
+                // the distance check skips most claimed vertices without
+                // a compare and set
+                if (distances[w] < 0 && parents.compareAndSet(w, 0,
+                        parent + 1)) {
+                    distances[w] = level;
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = w;
+                    edges += graph.degree(w);
+                }
+                return false;
+            }
+
+        }
+
+        /**
+         * BottomUp class looks for a frontier neighbor of every unreached
+         * vertex of a range of vertex ids.
+         */
+        private final class BottomUp extends Step implements IntPredicate {
+
+            private static final long serialVersionUID = 1L;
+
+            private final long[] frontierBits;
+            private final long[] next;
+            private final int    from;
+            private final int    to;
+
+            BottomUp(long[] frontierBits, long[] next, int from, int to) {
+                this.frontierBits = frontierBits;
+                this.next = next;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                for (int u = from; u < to; u++) {
+                    if (distances[u] < 0) {
+                        int parent = graph.findNeighbor(u, this);
+                        if (parent >= 0) {
+                            parents.set(u, parent + 1);
+                            distances[u] = level;
+                            next[u >>> 6] |= 1L << u;
+                            count++;
+                            edges += graph.degree(u);
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public boolean test(int w) {
+                return (frontierBits[w >>> 6] & (1L << w)) != 0;
+            }
+
+        }
+
+    }
+
+}
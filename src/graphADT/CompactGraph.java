@@ -0,0 +1,626 @@
+package graphADT;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * CompactGraph<V,E> represents an immutable undirected multi-graph stored in
+ * compressed sparse row (CSR) form. It is created by freezing a mutable graph,
+ * see {@link UndirectedGraph#freeze()}, and answers the same queries as the
+ * graph it was created from without hashing edges or copying adjacency sets.
+ * All operations that would modify this graph throw
+ * {@link UnsupportedOperationException}. <br/>
+ * 
+ * <h5>Abstract Invariant:</h5>
+ * foreach vertex in graph
+ * <ul>
+ * <li>vertex value is not null</li>
+ * <li>vertex value is unique</li>
+ * </ul>
+ * foreach edge connecting vertices in graph
+ * <ul>
+ * <li>edge value can be null</li>
+ * <li>edge vertices in graph</li>
+ * </ul>
+ * 
+ * @author Drew Reese
+ *
+ * @param <V> - data type to store as vertices
+ * @param <E> - data type to store as edges
+ * 
+ */
+public final class CompactGraph<V, E> implements AbstractGraph<V,E> {
+
+    // DEBUGGING EXPENSIVE CHECKREP FLAG
+    private static final boolean RUN_CHECKREP = false;
+
+    // kept labels of a run of equal neighbors scanned for duplicates, longer
+    // runs are checked through a hash set
+    private static final int SCAN_LIMIT = 8;
+
+    /*
+     * Internal representation of compact undirected graph
+     * 
+     * vertices - maps vertex id to vertex value. vertexIds - maps vertex value
+     * to vertex id. offsets - row boundaries, row of vertex id u is the range
+     * [offsets[u], offsets[u + 1]). neighbors - packed neighbor vertex ids of
+     * every row, sorted ascending within each row. labels - edge value of the
+     * edge stored in the matching neighbors slot. edgeValues - set of all edge
+     * values in the graph.
+     */
+    private final V[]               vertices;
+    private final Map<V,Integer>    vertexIds;
+    private final int[]             offsets;
+    private final int[]             neighbors;
+    private final E[]               labels;
+    private final Set<E>            edgeValues;
+
+    /*
+     * Abstraction Function:
+     * 
+     * A compact undirected graph stores the vertices of the graph in a dense
+     * array indexed by vertex id, and the edges as a row of (neighbor, label)
+     * slots per vertex. An edge between distinct vertices u and w occupies one
+     * slot in the row of u and one slot in the row of w, while a self edge of
+     * u occupies a single slot in the row of u.
+     */
+
+    // Representation Invariant:
+    //
+    // vertices.length == vertexIds.size()
+    // offsets.length == vertices.length + 1
+    // offsets[0] == 0, offsets[n] == neighbors.length == labels.length
+    // offsets[u] <= offsets[u + 1]
+    //
+    // foreach vertex id u
+    // vertices[u] != null
+    // vertexIds.get(vertices[u]) == u
+    // neighbors in row u are sorted ascending and within [0, n)
+
+    /**
+     * Constructs a new compact graph from already packed arrays. The arrays
+     * are taken over by this graph and must not be modified afterwards.
+     * 
+     * @param vertices - vertex values indexed by vertex id
+     * @param vertexIds - mapping of vertex values to vertex id
+     * @param offsets - row boundaries indexed by vertex id
+     * @param neighbors - packed neighbor vertex ids
+     * @param labels - packed edge values matching neighbor slots
+     */
+    CompactGraph(V[] vertices, Map<V,Integer> vertexIds, int[] offsets,
+            int[] neighbors, E[] labels) {
+        this.vertices = vertices;
+        this.vertexIds = vertexIds;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.labels = labels;
+
+        Set<E> edgeValues = new HashSet<E>();
+        for (E e : labels) {
+            edgeValues.add(e);
+        }
+        this.edgeValues = Collections.unmodifiableSet(edgeValues);
+        checkRep();
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addVertex(V v) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addEdge(V v1, V v2) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addEdge(V v1, V v2, E e) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addAllEdges(
+            Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+            throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return vertexIds.containsKey(v);
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return edgeValues.contains(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Integer id1 = vertexIds.get(v1);
+        Integer id2 = vertexIds.get(v2);
+        if (id1 == null || id2 == null) {
+            return false;
+        }
+        return firstSlot(id1, id2) >= 0;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the returned set is an unmodifiable view of this graph's vertices.
+     */
+    @Override
+    public Set<V> vertexSet() {
+        return Collections.unmodifiableSet(vertexIds.keySet());
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the returned set is an unmodifiable view of this graph's edges.
+     */
+    @Override
+    public Set<E> edgeSet() {
+        return edgeValues;
+    }
+
+    @Override
+    public Set<E> edgeSet(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Integer id = vertexIds.get(v);
+        if (id == null) {
+            return null;
+        }
+        Set<E> returnEdgeSet = new HashSet<E>();
+        for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+            returnEdgeSet.add(labels[i]);
+        }
+        return returnEdgeSet;
+    }
+
+    @Override
+    public Set<V> vertexView() {
+        return vertexSet();
+    }
+
+    @Override
+    public Set<E> edgeView() {
+        return edgeValues;
+    }
+
+    @Override
+    public Collection<E> edgeView(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Integer id = vertexIds.get(v);
+        if (id == null) {
+            return null;
+        }
+        return Collections.unmodifiableList(
+                Arrays.asList(labels).subList(offsets[id], offsets[id + 1]));
+    }
+
+    @Override
+    public int degree(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Integer id = vertexIds.get(v);
+        return (id != null) ? offsets[id + 1] - offsets[id] : -1;
+    }
+
+    @Override
+    public boolean forEachNeighbor(V v, Consumer<? super V> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        Integer id = vertexIds.get(v);
+        if (id == null) {
+            return false;
+        }
+        for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+            action.accept(vertices[neighbors[i]]);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachIncidentEdge(V v,
+            BiConsumer<? super V,? super E> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        Integer id = vertexIds.get(v);
+        if (id == null) {
+            return false;
+        }
+        for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+            action.accept(vertices[neighbors[i]], labels[i]);
+        }
+        return true;
+    }
+
+    @Override
+    public Set<E> edgeSet(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Integer id1 = vertexIds.get(v1);
+        Integer id2 = vertexIds.get(v2);
+        if (id1 == null || id2 == null) {
+            return null;
+        }
+        Set<E> edgesBetween = new HashSet<E>();
+        int end = offsets[id1 + 1];
+        for (int i = firstSlot(id1, id2); i >= 0 && i < end
+                && neighbors[i] == id2; i++) {
+            edgesBetween.add(labels[i]);
+        }
+        return edgesBetween;
+    }
+
+    @Override
+    public E getEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Integer id1 = vertexIds.get(v1);
+        Integer id2 = vertexIds.get(v2);
+        if (id1 == null || id2 == null) {
+            return null;
+        }
+        int slot = firstSlot(id1, id2);
+        return (slot >= 0) ? labels[slot] : null;
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean removeAllEdges(Collection<? extends E> edges)
+            throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Set<E> removeAllEdges(V v1, V v2) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean removeAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean removeEdge(E e) {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public E removeEdge(V v1, V v2) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean removeVertex(V v) {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder edges = new StringBuilder("[");
+        for (int u = 0; u < vertices.length; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                // print each edge once, from its lower vertex id row
+                if (u <= neighbors[i]) {
+                    if (edges.length() > 1) {
+                        edges.append(", ");
+                    }
+                    edges.append(labels[i]).append("=(").append(vertices[u])
+                            .append("<->").append(vertices[neighbors[i]])
+                            .append(")");
+                }
+            }
+        }
+        return vertexIds.keySet() + "\n" + edges.append("]");
+    }
+
+    /**
+     * Constructs a new compact graph holding the vertices and edges of the
+     * specified indexed graph. Vertex ids are compacted, skipping ids without
+     * a vertex value.
+     * 
+     * @param graph - indexed graph to copy
+     * @return compact copy of <code>graph</code>
+     */
+    static <V, E> CompactGraph<V,E> of(IndexedGraph<V,E> graph) {
+        int n = 0;
+        for (int id = 0; id < graph.bound(); id++) {
+            if (graph.valueOf(id) != null) {
+                n++;
+            }
+        }
+
+        // assign dense compact ids, skipping free vertex ids
+        @SuppressWarnings("unchecked")
+        V[] vertices = (V[]) new Object[n];
+        Map<V,Integer> vertexIds = new HashMap<V,Integer>(
+                (int) (n / 0.75f) + 1);
+        final int[] compactId = new int[graph.bound()];
+        int[] vertexId = new int[n];
+        for (int id = 0; id < graph.bound(); id++) {
+            V v = graph.valueOf(id);
+            if (v != null) {
+                compactId[id] = vertexIds.size();
+                vertexId[vertexIds.size()] = id;
+                vertices[vertexIds.size()] = v;
+                vertexIds.put(v, vertexIds.size());
+            }
+        }
+
+        // row boundaries from vertex degrees
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.degree(vertexId[u]);
+        }
+
+        // fill rows by visiting neighbors in ascending id order, which leaves
+        // every row sorted without a separate sort pass
+        final int[] neighbors = new int[offsets[n]];
+        @SuppressWarnings("unchecked")
+        final E[] labels = (E[]) new Object[offsets[n]];
+        final int[] cursor = Arrays.copyOf(offsets, n);
+        for (int w = 0; w < n; w++) {
+            final int row = w;
+            graph.forEachEdge(vertexId[w], (neighbor, e) -> {
+                int u = compactId[neighbor];
+                neighbors[cursor[u]] = row;
+                labels[cursor[u]++] = e;
+            });
+        }
+
+        return new CompactGraph<V,E>(vertices, vertexIds, offsets, neighbors,
+                labels);
+    }
+
+    /**
+     * Constructs a new compact graph from a list of edges between vertex ids.
+     * Duplicate edges, connecting the same vertices with equal edge values,
+     * are only kept once, as in {@link UndirectedGraph}. The vertex arrays
+     * are taken over by the new graph and must not be modified afterwards.
+     * 
+     * @param vertices - vertex values indexed by vertex id
+     * @param vertexIds - mapping of vertex values to vertex id
+     * @param ends1 - first vertex id of each edge
+     * @param ends2 - second vertex id of each edge
+     * @param edgeLabels - edge value of each edge
+     * @param edgeCount - number of edges in the lists
+     * @return compact graph of the vertices and edges
+     */
+    static <V, E> CompactGraph<V,E> fromEdges(V[] vertices,
+            Map<V,Integer> vertexIds, int[] ends1, int[] ends2,
+            E[] edgeLabels, int edgeCount) {
+        int n = vertices.length;
+
+        // rows of edge indexes in list order, a self edge taking one slot
+        int[] edgeOffsets = new int[n + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            edgeOffsets[ends1[i] + 1]++;
+            if (ends1[i] != ends2[i]) {
+                edgeOffsets[ends2[i] + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            edgeOffsets[u + 1] += edgeOffsets[u];
+        }
+        int[] edges = new int[edgeOffsets[n]];
+        int[] cursor = Arrays.copyOf(edgeOffsets, n);
+        for (int i = 0; i < edgeCount; i++) {
+            edges[cursor[ends1[i]]++] = i;
+            if (ends1[i] != ends2[i]) {
+                edges[cursor[ends2[i]]++] = i;
+            }
+        }
+
+        // fill rows by visiting neighbors in ascending id order, which leaves
+        // every row sorted without a separate sort pass
+        int[] neighbors = new int[edges.length];
+        @SuppressWarnings("unchecked")
+        E[] labels = (E[]) new Object[edges.length];
+        cursor = Arrays.copyOf(edgeOffsets, n);
+        for (int w = 0; w < n; w++) {
+            for (int j = edgeOffsets[w]; j < edgeOffsets[w + 1]; j++) {
+                int i = edges[j];
+                int u = (ends1[i] == w) ? ends2[i] : ends1[i];
+                neighbors[cursor[u]] = w;
+                labels[cursor[u]++] = edgeLabels[i];
+            }
+        }
+
+        // drop duplicates within each run of equal neighbors, both rows of
+        // an edge hold the same labels for the pair so they stay symmetric
+        int[] offsets = new int[n + 1];
+        int size = 0;
+        for (int u = 0; u < n; u++) {
+            int run = size;
+            Set<E> kept = null;
+            for (int i = edgeOffsets[u]; i < edgeOffsets[u + 1]; i++) {
+                if (i == edgeOffsets[u] || neighbors[i] != neighbors[i - 1]) {
+                    run = size;
+                    kept = null;
+                }
+                boolean duplicate = false;
+                if (size - run < SCAN_LIMIT) {
+                    for (int k = run; k < size && !duplicate; k++) {
+                        duplicate = Objects.equals(labels[k], labels[i]);
+                    }
+                } else {
+                    if (kept == null) {
+                        kept = new HashSet<E>(Arrays.asList(labels)
+                                .subList(run, size));
+                    }
+                    duplicate = !kept.add(labels[i]);
+                }
+                if (!duplicate) {
+                    neighbors[size] = neighbors[i];
+                    labels[size++] = labels[i];
+                }
+            }
+            offsets[u + 1] = size;
+        }
+
+        return new CompactGraph<V,E>(vertices, vertexIds, offsets,
+                Arrays.copyOf(neighbors, size), Arrays.copyOf(labels, size));
+    }
+
+    /**
+     * Returns an indexed view of this graph sharing its packed rows.
+     */
+    IndexedGraph.Packed<V,E> indexed() {
+        return new IndexedGraph.Packed<V,E>(vertices, vertexIds, offsets,
+                neighbors, labels);
+    }
+
+    /**
+     * Returns the first slot in the row of vertex id <code>u</code> holding
+     * neighbor vertex id <code>w</code>.
+     * 
+     * @param u - the vertex id of the row to search
+     * @param w - the neighbor vertex id to search for
+     * @return index of first slot holding <code>w</code>, or <code>-1</code> if
+     *         <code>u</code> and <code>w</code> are not connected
+     */
+    private int firstSlot(int u, int w) {
+        int slot = lowerBound(offsets[u], offsets[u + 1], w);
+        return (slot < offsets[u + 1] && neighbors[slot] == w) ? slot : -1;
+    }
+
+    /**
+     * Returns the index of the first neighbor slot in range
+     * <code>[from, to)</code> that is not less than <code>key</code>.
+     */
+    private int lowerBound(int from, int to, int key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (neighbors[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks that the rep invariant holds
+     */
+    private void checkRep() {
+
+        if (RUN_CHECKREP) {
+            assert (vertices.length == vertexIds.size()) : "Vertex count";
+            assert (offsets.length == vertices.length + 1) : "Offsets length";
+            assert (offsets[vertices.length] == neighbors.length) : "Slots";
+            assert (neighbors.length == labels.length) : "Labels length";
+
+            for (int u = 0; u < vertices.length; u++) {
+                assert (vertices[u] != null) : "Null vertex";
+                assert (vertexIds.get(vertices[u]) == u) : "Vertex id";
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    assert (0 <= neighbors[i]
+                            && neighbors[i] < vertices.length) : "Neighbor";
+                    assert (i == offsets[u]
+                            || neighbors[i - 1] <= neighbors[i]) : "Row order";
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,1015 @@
+package graphADT;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * ConcurrentUndirectedGraph<V,E> represents a thread-safe mutable undirected
+ * multi-graph. It stores the same values and supports the same operations as
+ * {@link UndirectedGraph}, but can be read and modified by many threads at
+ * once without external synchronization. <br/>
+ * 
+ * Vertices are assigned to lock stripes by the hash of their value, and the
+ * edges touching a vertex are only modified while holding its stripe. Edge
+ * operations acquire the stripes of both edge vertices in ascending stripe
+ * order, so they cannot deadlock, and modifications of edges between vertices
+ * on different stripes never wait for each other. Queries take no locks and
+ * are weakly consistent, they reflect the state of the graph at some point at
+ * or since the start of the query. Single vertex and edge operations are
+ * atomic, bulk operations are not. <br/>
+ * 
+ * <h5>Abstract Invariant:</h5>
+ * foreach vertex in graph
+ * <ul>
+ * <li>vertex is not null</li>
+ * <li>vertex value is not null</li>
+ * <li>vertex value is unique</li>
+ * </ul>
+ * foreach edge connecting vertices in graph
+ * <ul>
+ * <li>edge is not null</li>
+ * <li>edge value can be null</li>
+ * <li>edge vertices in graph</li>
+ * </ul>
+ * 
+ * @author Drew Reese
+ *
+ * @param <V> - data type to store as vertices
+ * @param <E> - data type to store as edges
+ * 
+ */
+public class ConcurrentUndirectedGraph<V, E> implements AbstractGraph<V,E> {
+
+    // DEBUGGING EXPENSIVE CHECKREP FLAG
+    private static final boolean RUN_CHECKREP = false;
+
+    // default number of lock stripes, a few per processor
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 4
+            * Runtime.getRuntime().availableProcessors();
+
+    // maximum number of lock stripes
+    private static final int MAXIMUM_STRIPES = 1 << 16;
+
+    // stands in for null edge values, concurrent maps do not allow null keys
+    private static final Object NULL = new Object();
+
+    /**
+     * Edge class stores vertex pairing that defines an edge in the parent
+     * graph.
+     * 
+     * While edge values e are allowed to be null, by definition the graph
+     * vertices must not be null.
+     * 
+     * @author Drew Reese
+     */
+    private static final class Edge<V, E> {
+
+        private final V   v1;
+        private final V   v2;
+        private final E   e;
+        private final int hash;
+
+        public Edge(V v1, V v2, E e) {
+            this.v1 = v1;
+            this.v2 = v2;
+            this.e = e;
+            this.hash = 31 * (31 + ((e == null) ? 0 : e.hashCode()))
+                    + v1.hashCode() + v2.hashCode();
+        }
+
+        /**
+         * Returns the vertex at the opposite end of this edge from vertex
+         * <code>v</code>.
+         */
+        private V other(V v) {
+            return v1.equals(v) ? v2 : v1;
+        }
+
+        /**
+         * Returns <code>true</code> iff this edge connects vertices
+         * <code>u1</code> and <code>u2</code>.
+         */
+        private boolean connects(V u1, V u2) {
+            return (v1.equals(u1) && v2.equals(u2))
+                    || (v1.equals(u2) && v2.equals(u1));
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Edge)) {
+                return false;
+            }
+
+            Edge<?,?> other = (Edge<?,?>) obj;
+            if (hash != other.hash || !((v1.equals(other.v1)
+                    && v2.equals(other.v2))
+                    || (v1.equals(other.v2) && v2.equals(other.v1)))) {
+                return false;
+            }
+
+            if (e == null) {
+                if (other.e != null) {
+                    return false;
+                }
+            } else if (!e.equals(other.e)) {
+                return false;
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * EdgeValueSet class holds the edges sharing an edge value. A set is
+     * retired when it is unmapped for being empty, an edge added to a retired
+     * set is moved to the set mapped in its place.
+     * 
+     * @author Drew Reese
+     */
+    private static final class EdgeValueSet<V, E> {
+
+        private final Set<Edge<V,E>> edges = ConcurrentHashMap.newKeySet();
+        private volatile boolean     retired;
+
+    }
+
+    /**
+     * EdgeValueView class is an unmodifiable live view of the edge values
+     * contained in the parent graph.
+     * 
+     * @author Drew Reese
+     */
+    private final class EdgeValueView extends AbstractSet<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<Object> keyIterator = edgeMap.keySet().iterator();
+            return new Iterator<E>() {
+
+                @Override
+                public boolean hasNext() {
+                    return keyIterator.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return unmaskNull(keyIterator.next());
+                }
+
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return edgeMap.containsKey(maskNull(o));
+        }
+
+        @Override
+        public int size() {
+            return edgeMap.size();
+        }
+
+    }
+
+    /**
+     * VertexEdgeView class is an unmodifiable live view of the edge values of
+     * the edges touching a vertex in the parent graph.
+     * 
+     * @author Drew Reese
+     */
+    private static final class VertexEdgeView<V, E>
+            extends AbstractCollection<E> {
+
+        private final Set<Edge<V,E>> edges;
+
+        public VertexEdgeView(Set<Edge<V,E>> edges) {
+            this.edges = edges;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<Edge<V,E>> edgeIterator = edges.iterator();
+            return new Iterator<E>() {
+
+                @Override
+                public boolean hasNext() {
+                    return edgeIterator.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return edgeIterator.next().e;
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return edges.size();
+        }
+
+    }
+
+    /*
+     * Internal representation of concurrent undirected graph
+     * 
+     * adjacency - maps vertex value to a concurrent set of it's connected
+     * edges. edgeMap - maps masked edge value to the set of edges containing
+     * that value. stripes - locks guarding the edge sets of the vertices
+     * hashed to each stripe.
+     */
+    private final ConcurrentHashMap<V,Set<Edge<V,E>>>         adjacency;
+    private final ConcurrentHashMap<Object,EdgeValueSet<V,E>> edgeMap;
+    private final ReentrantLock[]                             stripes;
+
+    /*
+     * Abstraction Function:
+     * 
+     * A concurrent undirected graph is an ADT that contains both vertices and
+     * the edges between them. This graph stores a vertex set and an edge set.
+     * The vertex set is represented by a Key-Value store where the vertex
+     * value is the key and the set of edges connecting that vertex is the
+     * value. Likewise, the edge set is represented by a Key-Value store where
+     * the edge value is the key and a set of edges representing that edge
+     * value is the value.
+     */
+
+    // Representation Invariant:
+    //
+    // vertex set = {v_1, v_2, v_3, ..., v_n}
+    // edge set = {e_1, e_2, e_3, ..., e_n}
+    // edge value = (e_i, v_j, v_k) where
+    // e_i element of edge set
+    // v_j and v_k elements of vertex set
+    //
+    // foreach vertex v in adjacency, while holding the stripe of v
+    // v != null
+    // adjacency.get(v) != null
+    // foreach edge e in adjacency.get(v)
+    // e != null
+    // v is e.v1 or e.v2
+    // e in adjacency.get(e.other(v))
+    // e in edgeMap.get(maskNull(e.e))
+
+    public ConcurrentUndirectedGraph() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new empty graph sized to hold the expected number of
+     * vertices without rehashing.
+     * 
+     * @param expectedVertices - expected number of vertices
+     * @throws IllegalArgumentException if expected number of vertices is
+     *             negative
+     */
+    public ConcurrentUndirectedGraph(int expectedVertices)
+            throws IllegalArgumentException {
+        this(expectedVertices, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructs a new empty graph sized to hold the expected number of
+     * vertices without rehashing, with enough lock stripes for the expected
+     * number of concurrently modifying threads.
+     * 
+     * @param expectedVertices - expected number of vertices
+     * @param concurrencyLevel - expected number of concurrently modifying
+     *            threads
+     * @throws IllegalArgumentException if expected number of vertices is
+     *             negative or concurrency level is not positive
+     */
+    public ConcurrentUndirectedGraph(int expectedVertices,
+            int concurrencyLevel) throws IllegalArgumentException {
+        if (expectedVertices < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal expected vertex count: " + expectedVertices);
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException(
+                    "Illegal concurrency level: " + concurrencyLevel);
+        }
+        this.adjacency = new ConcurrentHashMap<V,Set<Edge<V,E>>>(
+                expectedVertices);
+        this.edgeMap = new ConcurrentHashMap<Object,EdgeValueSet<V,E>>();
+
+        int stripeCount = 1;
+        while (stripeCount < concurrencyLevel
+                && stripeCount < MAXIMUM_STRIPES) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public boolean addVertex(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        return adjacency.putIfAbsent(v,
+                ConcurrentHashMap.<Edge<V,E>> newKeySet()) == null;
+    }
+
+    @Override
+    public boolean addAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+
+        if (vertices == null) {
+            throw new NullPointerException("Vertex collection null");
+        }
+        for (V vertex : vertices) {
+            if (vertex == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+        }
+
+        boolean modified = false;
+        for (V vertex : vertices) {
+            if (addVertex(vertex)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) throws NullPointerException {
+        return addEdge(v1, v2, null);
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2, E e) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+
+        lock(v1, v2);
+        try {
+            Set<Edge<V,E>> edges1 = adjacency.get(v1);
+            Set<Edge<V,E>> edges2 = adjacency.get(v2);
+            if (edges1 == null || edges2 == null) {
+                return false;
+            }
+
+            Edge<V,E> newEdge = new Edge<V,E>(v1, v2, e);
+            if (!mapValue(newEdge)) {
+                return false;
+            }
+            edges1.add(newEdge);
+            edges2.add(newEdge);
+
+            checkRep(v1);
+            checkRep(v2);
+            return true;
+        } finally {
+            unlock(v1, v2);
+        }
+    }
+
+    @Override
+    public boolean addAllEdges(
+            Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+            throws NullPointerException {
+
+        if (edges == null) {
+            throw new NullPointerException("Edge collection null");
+        }
+        for (EdgeTriple<? extends V,? extends E> edge : edges) {
+            if (edge == null) {
+                throw new NullPointerException("Edge triple null");
+            }
+        }
+
+        boolean modified = false;
+        for (EdgeTriple<? extends V,? extends E> edge : edges) {
+            if (addEdge(edge.getV1(), edge.getV2(), edge.getE())) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return v != null && adjacency.containsKey(v);
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        EdgeValueSet<V,E> valueSet = edgeMap.get(maskNull(e));
+        return valueSet != null && !valueSet.edges.isEmpty();
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        return findEdge(v1, v2) != null;
+    }
+
+    @Override
+    public Set<V> vertexSet() {
+        return new HashSet<V>(adjacency.keySet());
+    }
+
+    @Override
+    public Set<E> edgeSet() {
+        return new HashSet<E>(edgeView());
+    }
+
+    @Override
+    public Set<E> edgeSet(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Set<Edge<V,E>> edges = adjacency.get(v);
+        if (edges == null) {
+            return null;
+        }
+        Set<E> returnEdgeSet = new HashSet<E>();
+        for (Edge<V,E> edge : edges) {
+            returnEdgeSet.add(edge.e);
+        }
+        return returnEdgeSet;
+    }
+
+    @Override
+    public Set<V> vertexView() {
+        return Collections.unmodifiableSet(adjacency.keySet());
+    }
+
+    @Override
+    public Set<E> edgeView() {
+        return new EdgeValueView();
+    }
+
+    @Override
+    public Collection<E> edgeView(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Set<Edge<V,E>> edges = adjacency.get(v);
+        return (edges != null) ? new VertexEdgeView<V,E>(edges) : null;
+    }
+
+    @Override
+    public int degree(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Set<Edge<V,E>> edges = adjacency.get(v);
+        return (edges != null) ? edges.size() : -1;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the edges are iterated weakly consistent.
+     */
+    @Override
+    public boolean forEachNeighbor(V v, Consumer<? super V> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        Set<Edge<V,E>> edges = adjacency.get(v);
+        if (edges == null) {
+            return false;
+        }
+        for (Edge<V,E> edge : edges) {
+            action.accept(edge.other(v));
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the edges are iterated weakly consistent.
+     */
+    @Override
+    public boolean forEachIncidentEdge(V v,
+            BiConsumer<? super V,? super E> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        Set<Edge<V,E>> edges = adjacency.get(v);
+        if (edges == null) {
+            return false;
+        }
+        for (Edge<V,E> edge : edges) {
+            action.accept(edge.other(v), edge.e);
+        }
+        return true;
+    }
+
+    @Override
+    public Set<E> edgeSet(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Set<Edge<V,E>> edges1 = adjacency.get(v1);
+        Set<Edge<V,E>> edges2 = adjacency.get(v2);
+        if (edges1 == null || edges2 == null) {
+            return null;
+        }
+        Set<E> edgesBetween = new HashSet<E>();
+        for (Edge<V,E> edge : smaller(edges1, edges2)) {
+            if (edge.connects(v1, v2)) {
+                edgesBetween.add(edge.e);
+            }
+        }
+        return edgesBetween;
+    }
+
+    @Override
+    public E getEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        Edge<V,E> edge = findEdge(v1, v2);
+        return (edge != null) ? edge.e : null;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: each edge value is removed atomically, the collection as a whole
+     * is not.
+     */
+    @Override
+    public boolean removeAllEdges(Collection<? extends E> edges)
+            throws NullPointerException {
+
+        if (edges == null) {
+            throw new NullPointerException("Edge collection null");
+        }
+
+        boolean modified = false;
+        for (E e : edges) {
+            if (this.removeEdge(e)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public Set<E> removeAllEdges(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+
+        lock(v1, v2);
+        try {
+            Set<Edge<V,E>> edges1 = adjacency.get(v1);
+            Set<Edge<V,E>> edges2 = adjacency.get(v2);
+            if (edges1 == null || edges2 == null) {
+                return null;
+            }
+
+            List<Edge<V,E>> edgesBetween = new ArrayList<Edge<V,E>>();
+            for (Edge<V,E> edge : smaller(edges1, edges2)) {
+                if (edge.connects(v1, v2)) {
+                    edgesBetween.add(edge);
+                }
+            }
+
+            Set<E> removed = new HashSet<E>();
+            for (Edge<V,E> edge : edgesBetween) {
+                unlink(edge);
+                removed.add(edge.e);
+            }
+
+            checkRep(v1);
+            checkRep(v2);
+            return removed;
+        } finally {
+            unlock(v1, v2);
+        }
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: each vertex is removed atomically, the collection as a whole is
+     * not.
+     */
+    @Override
+    public boolean removeAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+
+        if (vertices == null) {
+            throw new NullPointerException("Vertex collection null");
+        }
+
+        boolean modified = false;
+        for (V vertex : vertices) {
+            if (this.removeVertex(vertex)) {
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: this method removes all duplicate edge values. Each edge is
+     * removed atomically, edges with this value added concurrently with the
+     * call may remain.
+     */
+    @Override
+    public boolean removeEdge(E e) {
+        EdgeValueSet<V,E> valueSet = edgeMap.get(maskNull(e));
+        if (valueSet == null) {
+            return false;
+        }
+
+        boolean modified = false;
+        for (Edge<V,E> edge : valueSet.edges) {
+            lock(edge.v1, edge.v2);
+            try {
+                if (unlink(edge)) {
+                    modified = true;
+                    checkRep(edge.v1);
+                }
+            } finally {
+                unlock(edge.v1, edge.v2);
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public E removeEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+
+        lock(v1, v2);
+        try {
+            Edge<V,E> edge = findEdge(v1, v2);
+            if (edge == null) {
+                return null;
+            }
+            unlink(edge);
+
+            checkRep(v1);
+            checkRep(v2);
+            return edge.e;
+        } finally {
+            unlock(v1, v2);
+        }
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the stripes of the vertex and all its neighbors are held while
+     * removing, so the vertex and its edges are removed atomically.
+     */
+    @Override
+    public boolean removeVertex(V v) {
+        if (v == null) {
+            return false;
+        }
+
+        for (;;) {
+            Set<Edge<V,E>> edges = adjacency.get(v);
+            if (edges == null) {
+                return false;
+            }
+
+            // edges may be added before the stripes are held, retry if the
+            // locked stripes no longer cover every neighbor
+            BitSet locked = stripesOf(v, edges);
+            lock(locked);
+            try {
+                edges = adjacency.get(v);
+                if (edges == null) {
+                    return false;
+                } else if (!covers(locked, stripesOf(v, edges))) {
+                    continue;
+                }
+
+                adjacency.remove(v);
+                for (Edge<V,E> edge : edges) {
+                    V other = edge.other(v);
+                    if (!other.equals(v)) {
+                        adjacency.get(other).remove(edge);
+                    }
+                    unmapValue(edge);
+                }
+                for (Edge<V,E> edge : edges) {
+                    if (!edge.v1.equals(edge.v2)) {
+                        checkRep(edge.other(v));
+                    }
+                }
+                return true;
+            } finally {
+                unlock(locked);
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder edges = new StringBuilder("{");
+        for (Map.Entry<Object,EdgeValueSet<V,E>> entry : edgeMap.entrySet()) {
+            if (edges.length() > 1) {
+                edges.append(", ");
+            }
+            E value = unmaskNull(entry.getKey());
+            edges.append(value).append("=[");
+            String separator = "";
+            for (Edge<V,E> edge : entry.getValue().edges) {
+                edges.append(separator).append("(").append(edge.v1)
+                        .append("<->").append(edge.v2).append(")");
+                separator = ", ";
+            }
+            edges.append("]");
+        }
+        return adjacency.keySet() + "\n" + edges.append("}");
+    }
+
+    /**
+     * Adds an edge to the set of edges with its edge value, mapping a new set
+     * if there is none.
+     * 
+     * @return <code>true</code> iff edge was added, <code>false</code> if
+     *         graph already contained the edge
+     */
+    private boolean mapValue(Edge<V,E> edge) {
+        Object key = maskNull(edge.e);
+        for (;;) {
+            EdgeValueSet<V,E> valueSet = edgeMap.get(key);
+            if (valueSet == null) {
+                EdgeValueSet<V,E> newSet = new EdgeValueSet<V,E>();
+                valueSet = edgeMap.putIfAbsent(key, newSet);
+                if (valueSet == null) {
+                    valueSet = newSet;
+                }
+            }
+
+            if (!valueSet.edges.add(edge)) {
+                return false;
+            } else if (!valueSet.retired) {
+                // retiring flags the set before checking it is empty, so the
+                // set is either still mapped or the retirement is seen here
+                return true;
+            }
+
+            // set was retired while adding, move edge to set mapped next
+            valueSet.edges.remove(edge);
+            retireIfEmpty(key, valueSet);
+        }
+    }
+
+    /**
+     * Removes an edge from the set of edges with its edge value, retiring the
+     * set if now empty.
+     */
+    private void unmapValue(Edge<V,E> edge) {
+        Object key = maskNull(edge.e);
+        EdgeValueSet<V,E> valueSet = edgeMap.get(key);
+        valueSet.edges.remove(edge);
+        if (valueSet.edges.isEmpty()) {
+            retireIfEmpty(key, valueSet);
+        }
+    }
+
+    /**
+     * Unmaps and retires the specified edge value set if it is still mapped
+     * and empty.
+     */
+    private void retireIfEmpty(Object key, final EdgeValueSet<V,E> valueSet) {
+        edgeMap.computeIfPresent(key,
+                new BiFunction<Object,EdgeValueSet<V,E>,EdgeValueSet<V,E>>() {
+
+                    @Override
+                    public EdgeValueSet<V,E> apply(Object k,
+                            EdgeValueSet<V,E> current) {
+                        if (current != valueSet) {
+                            return current;
+                        }
+                        current.retired = true;
+                        if (current.edges.isEmpty()) {
+                            return null;
+                        }
+                        // edge added concurrently, keep set
+                        current.retired = false;
+                        return current;
+                    }
+
+                });
+    }
+
+    /**
+     * Removes an edge from this graph if still contained. The stripes of both
+     * edge vertices must be held.
+     * 
+     * @return <code>true</code> iff the edge was removed
+     */
+    private boolean unlink(Edge<V,E> edge) {
+        Set<Edge<V,E>> edges1 = adjacency.get(edge.v1);
+        if (edges1 == null || !edges1.remove(edge)) {
+            // removed along with a vertex or by another thread
+            return false;
+        }
+        adjacency.get(edge.v2).remove(edge);
+        unmapValue(edge);
+        return true;
+    }
+
+    /**
+     * Returns an edge connecting the specified vertices, or <code>null</code>
+     * if they are not connected or either is not in this graph.
+     */
+    private Edge<V,E> findEdge(V v1, V v2) {
+        Set<Edge<V,E>> edges1 = adjacency.get(v1);
+        Set<Edge<V,E>> edges2 = adjacency.get(v2);
+        if (edges1 == null || edges2 == null) {
+            return null;
+        }
+        for (Edge<V,E> edge : smaller(edges1, edges2)) {
+            if (edge.connects(v1, v2)) {
+                return edge;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the smaller of two edge sets, the cheaper one to scan for the
+     * edges between two vertices.
+     */
+    private static <V, E> Set<Edge<V,E>> smaller(Set<Edge<V,E>> edges1,
+            Set<Edge<V,E>> edges2) {
+        return (edges1.size() <= edges2.size()) ? edges1 : edges2;
+    }
+
+    /**
+     * Returns the lock stripe index of the specified vertex.
+     */
+    private int stripeOf(Object v) {
+        int h = v.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Acquires the stripes of two vertices in ascending stripe order.
+     */
+    private void lock(V v1, V v2) {
+        int s1 = stripeOf(v1);
+        int s2 = stripeOf(v2);
+        stripes[Math.min(s1, s2)].lock();
+        if (s1 != s2) {
+            stripes[Math.max(s1, s2)].lock();
+        }
+    }
+
+    /**
+     * Releases the stripes of two vertices acquired by
+     * {@link #lock(Object, Object)}.
+     */
+    private void unlock(V v1, V v2) {
+        int s1 = stripeOf(v1);
+        int s2 = stripeOf(v2);
+        if (s1 != s2) {
+            stripes[Math.max(s1, s2)].unlock();
+        }
+        stripes[Math.min(s1, s2)].unlock();
+    }
+
+    /**
+     * Acquires the specified stripes in ascending stripe order.
+     */
+    private void lock(BitSet locked) {
+        for (int s = locked.nextSetBit(0); s >= 0; s = locked
+                .nextSetBit(s + 1)) {
+            stripes[s].lock();
+        }
+    }
+
+    /**
+     * Releases the specified stripes.
+     */
+    private void unlock(BitSet locked) {
+        for (int s = locked.nextSetBit(0); s >= 0; s = locked
+                .nextSetBit(s + 1)) {
+            stripes[s].unlock();
+        }
+    }
+
+    /**
+     * Returns the stripes of a vertex and all vertices connected to it by the
+     * specified edges.
+     */
+    private BitSet stripesOf(V v, Set<Edge<V,E>> edges) {
+        BitSet vertexStripes = new BitSet(stripes.length);
+        vertexStripes.set(stripeOf(v));
+        for (Edge<V,E> edge : edges) {
+            vertexStripes.set(stripeOf(edge.other(v)));
+        }
+        return vertexStripes;
+    }
+
+    /**
+     * Returns <code>true</code> iff every stripe in needed is also locked.
+     */
+    private static boolean covers(BitSet locked, BitSet needed) {
+        BitSet missing = (BitSet) needed.clone();
+        missing.andNot(locked);
+        return missing.isEmpty();
+    }
+
+    /**
+     * Returns the edge map key of an edge value.
+     */
+    private static Object maskNull(Object e) {
+        return (e == null) ? NULL : e;
+    }
+
+    /**
+     * Returns the edge value of an edge map key.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> E unmaskNull(Object key) {
+        return (key == NULL) ? null : (E) key;
+    }
+
+    /**
+     * Checks that the rep invariant holds for the edges of a vertex. The
+     * stripe of the vertex must be held.
+     */
+    private void checkRep(V v) {
+
+        if (RUN_CHECKREP) {
+            Set<Edge<V,E>> edges = adjacency.get(v);
+            assert (edges != null) : "No edges";
+
+            for (Edge<V,E> edge : edges) {
+                assert (edge != null) : "Null edge";
+                assert (edge.v1.equals(v)
+                        || edge.v2.equals(v)) : "Edge not touching vertex";
+                Set<Edge<V,E>> otherEdges = adjacency.get(edge.other(v));
+                assert (otherEdges != null) : "Vertex not in graph";
+                assert (otherEdges
+                        .contains(edge)) : "Edge not in vertex edges";
+                EdgeValueSet<V,E> valueSet = edgeMap.get(maskNull(edge.e));
+                assert (valueSet != null
+                        && valueSet.edges.contains(edge)) : "Edge not in map";
+            }
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package graphADT;
+
+import java.util.Arrays;
+
+/**
+ * DisjointSets partitions dense non-negative integer ids into disjoint sets
+ * with union by rank and path compression, so finding the set of an id and
+ * joining two sets take near constant amortized time. Graphs use it to keep
+ * the connected components of their vertex ids. Ids are added one at a time
+ * and can only be taken out by clearing all sets. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+final class DisjointSets {
+
+    // DEBUGGING EXPENSIVE CHECKREP FLAG
+    private static final boolean RUN_CHECKREP = false;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // parent of an id that is not in any set
+    private static final int ABSENT = -1;
+
+    /*
+     * Internal representation of disjoint sets
+     * 
+     * parents - maps id to its parent id in the tree of its set, an id is the
+     * root of its set if it is its own parent, or ABSENT if not in any set.
+     * ranks - upper bound of the height of the tree rooted at an id. count -
+     * number of disjoint sets.
+     */
+    private int[]  parents;
+    private byte[] ranks;
+    private int    count;
+
+    // Representation Invariant:
+    //
+    // parents.length == ranks.length
+    // count == number of ids u s.t. parents[u] == u
+    // foreach id u with parents[u] != ABSENT
+    // parents[parents[u]] != ABSENT
+    // u == parents[u] or ranks[u] < ranks[parents[u]]
+
+    /**
+     * Constructs new empty disjoint sets sized for ids below the expected
+     * bound.
+     * 
+     * @param expectedBound - expected bound of ids
+     */
+    DisjointSets(int expectedBound) {
+        int capacity = Math.max(expectedBound, DEFAULT_CAPACITY);
+        this.parents = new int[capacity];
+        Arrays.fill(parents, ABSENT);
+        this.ranks = new byte[capacity];
+        checkRep();
+    }
+
+    /**
+     * Adds the specified id, which must not be in any set, as a new set of
+     * its own.
+     * 
+     * @param id - non-negative id to add
+     */
+    void add(int id) {
+        if (id >= parents.length) {
+            int capacity = Math.max(parents.length * 2, id + 1);
+            int length = parents.length;
+            parents = Arrays.copyOf(parents, capacity);
+            Arrays.fill(parents, length, capacity, ABSENT);
+            ranks = Arrays.copyOf(ranks, capacity);
+        }
+        parents[id] = id;
+        ranks[id] = 0;
+        count++;
+        checkRep();
+    }
+
+    /**
+     * Returns the root id of the set containing the specified id, which must
+     * have been added.
+     */
+    int find(int id) {
+        int root = id;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        // compress the path to point directly at the root
+        while (parents[id] != root) {
+            int parent = parents[id];
+            parents[id] = root;
+            id = parent;
+        }
+        return root;
+    }
+
+    /**
+     * Joins the sets containing the specified ids, which must have been
+     * added.
+     * 
+     * @return <code>true</code> iff the ids were in different sets
+     */
+    boolean union(int id1, int id2) {
+        int root1 = find(id1);
+        int root2 = find(id2);
+        if (root1 == root2) {
+            return false;
+        }
+        // hang the lower tree below the higher one
+        if (ranks[root1] < ranks[root2]) {
+            parents[root1] = root2;
+        } else {
+            parents[root2] = root1;
+            if (ranks[root1] == ranks[root2]) {
+                ranks[root1]++;
+            }
+        }
+        count--;
+        checkRep();
+        return true;
+    }
+
+    /**
+     * Returns the number of disjoint sets.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Takes all ids out of their sets, keeping room for ids below the
+     * expected bound.
+     * 
+     * @param expectedBound - expected bound of ids
+     */
+    void clear(int expectedBound) {
+        if (expectedBound > parents.length) {
+            parents = new int[expectedBound];
+            ranks = new byte[expectedBound];
+        } else {
+            Arrays.fill(ranks, (byte) 0);
+        }
+        Arrays.fill(parents, ABSENT);
+        count = 0;
+        checkRep();
+    }
+
+    /**
+     * Checks that the rep invariant holds
+     */
+    private void checkRep() {
+
+        if (RUN_CHECKREP) {
+            assert (parents.length == ranks.length) : "Array length";
+            int roots = 0;
+            for (int u = 0; u < parents.length; u++) {
+                if (parents[u] == u) {
+                    roots++;
+                } else if (parents[u] != ABSENT) {
+                    assert (parents[parents[u]] != ABSENT) : "Absent parent";
+                    assert (ranks[u] < ranks[parents[u]]) : "Rank order";
+                }
+            }
+            assert (roots == count) : "Set count";
+        }
+    }
+
+}
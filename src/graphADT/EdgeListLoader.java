@@ -0,0 +1,441 @@
+package graphADT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * EdgeListLoader<V,E> loads a graph from a UTF-8 text file of edge records,
+ * one record <code>v1 v2 [label]</code> per line. Fields are separated by
+ * spaces or tabs, the label is the rest of the line after the second vertex
+ * and may itself contain spaces, and a record without label is a null-labeled
+ * edge. Blank lines and lines starting with <code>#</code> are skipped. Vertex
+ * values and labels are made from their text by pluggable parsers. <br/>
+ * 
+ * The file is memory-mapped in chunks split on line boundaries, and the
+ * chunks are parsed in parallel by tasks of a {@link ForkJoinPool}. The parsed
+ * records are then interned in file order and handed to the bulk loading API
+ * of {@link UndirectedGraph}, or packed straight into a {@link CompactGraph}
+ * without building the mutable graph first. <br/>
+ * 
+ * @author Drew Reese
+ * 
+ * @param <V> - data type of vertex values
+ * @param <E> - data type of edge values
+ * 
+ */
+public final class EdgeListLoader<V, E> {
+
+    // bytes per chunk, mapped and parsed by one task
+    private static final int CHUNK_SIZE = 1 << 24;
+
+    /*
+     * Internal representation of edge list loader
+     * 
+     * vertexParser - makes vertex values from their text. labelParser - makes
+     * edge values from their text.
+     */
+    private final Function<? super String,? extends V> vertexParser;
+    private final Function<? super String,? extends E> labelParser;
+
+    /**
+     * Constructs a new edge list loader making vertex values and edge values
+     * with the specified parsers. Parsers are called concurrently and must
+     * not return <code>null</code> vertex values.
+     * 
+     * @param vertexParser - makes a vertex value from its text
+     * @param labelParser - makes an edge value from its text
+     * @throws NullPointerException if <code>vertexParser</code> or
+     *             <code>labelParser</code> is <code>null</code>
+     */
+    public EdgeListLoader(Function<? super String,? extends V> vertexParser,
+            Function<? super String,? extends E> labelParser)
+            throws NullPointerException {
+        if (vertexParser == null || labelParser == null) {
+            throw new NullPointerException("Parser null");
+        }
+        this.vertexParser = vertexParser;
+        this.labelParser = labelParser;
+    }
+
+    /**
+     * Loads the specified edge list file into a new mutable graph, parsing on
+     * the common fork join pool.
+     * 
+     * @param file - edge list file to load
+     * @return graph of the vertices and edges of <code>file</code>
+     * @throws IOException if <code>file</code> cannot be read or holds a
+     *             malformed record
+     * @throws NullPointerException if <code>file</code> is <code>null</code>
+     *             or a vertex parser returns <code>null</code>
+     */
+    public UndirectedGraph<V,E> load(Path file)
+            throws IOException, NullPointerException {
+        return load(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads the specified edge list file into a new mutable graph, parsing on
+     * the specified fork join pool.
+     * 
+     * @param file - edge list file to load
+     * @param pool - pool to run parsing tasks on
+     * @return graph of the vertices and edges of <code>file</code>
+     * @throws IOException if <code>file</code> cannot be read or holds a
+     *             malformed record
+     * @throws NullPointerException if <code>file</code> or <code>pool</code>
+     *             is <code>null</code> or a vertex parser returns
+     *             <code>null</code>
+     */
+    public UndirectedGraph<V,E> load(Path file, ForkJoinPool pool)
+            throws IOException, NullPointerException {
+        Records<V,E> records = read(file, pool);
+        UndirectedGraph<V,E> graph = new UndirectedGraph<V,E>(
+                records.vertices.length, records.count);
+        graph.addAllVertices(Arrays.asList(records.vertices));
+
+        // renumber the parsed vertex ids to graph vertex ids in place
+        IndexedGraph<V,E> indexed = graph.indexed();
+        int[] graphIds = new int[records.vertices.length];
+        for (int id = 0; id < graphIds.length; id++) {
+            graphIds[id] = indexed.idOf(records.vertices[id]);
+        }
+        for (int i = 0; i < records.count; i++) {
+            records.ends1[i] = graphIds[records.ends1[i]];
+            records.ends2[i] = graphIds[records.ends2[i]];
+        }
+        graph.addAllEdges(records.ends1, records.ends2, records.labels,
+                records.count);
+        return graph;
+    }
+
+    /**
+     * Loads the specified edge list file into a new compact graph, parsing on
+     * the common fork join pool.
+     * 
+     * @param file - edge list file to load
+     * @return compact graph of the vertices and edges of <code>file</code>
+     * @throws IOException if <code>file</code> cannot be read or holds a
+     *             malformed record
+     * @throws NullPointerException if <code>file</code> is <code>null</code>
+     *             or a vertex parser returns <code>null</code>
+     */
+    public CompactGraph<V,E> loadCompact(Path file)
+            throws IOException, NullPointerException {
+        return loadCompact(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads the specified edge list file into a new compact graph, parsing on
+     * the specified fork join pool. The compact graph holds the same vertices
+     * and edges as the graph loaded by {@link #load(Path, ForkJoinPool)}.
+     * 
+     * @param file - edge list file to load
+     * @param pool - pool to run parsing tasks on
+     * @return compact graph of the vertices and edges of <code>file</code>
+     * @throws IOException if <code>file</code> cannot be read or holds a
+     *             malformed record
+     * @throws NullPointerException if <code>file</code> or <code>pool</code>
+     *             is <code>null</code> or a vertex parser returns
+     *             <code>null</code>
+     */
+    public CompactGraph<V,E> loadCompact(Path file, ForkJoinPool pool)
+            throws IOException, NullPointerException {
+        Records<V,E> records = read(file, pool);
+        return CompactGraph.fromEdges(records.vertices, records.vertexIds,
+                records.ends1, records.ends2, records.labels, records.count);
+    }
+
+    /**
+     * Reads and interns the records of the specified edge list file.
+     */
+    private Records<V,E> read(Path file, ForkJoinPool pool)
+            throws IOException, NullPointerException {
+        if (file == null) {
+            throw new NullPointerException("File null");
+        } else if (pool == null) {
+            throw new NullPointerException("Pool null");
+        }
+
+        List<Chunk> chunks = new ArrayList<Chunk>();
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            while (start < size) {
+                long end = lineEnd(channel, Math.min(size, start + CHUNK_SIZE));
+                // a single line may be longer than a chunk
+                MappedByteBuffer buffer = channel.map(
+                        FileChannel.MapMode.READ_ONLY, start, end - start);
+                chunks.add(new Chunk(buffer, start));
+                start = end;
+            }
+        }
+        invokeAll(pool, chunks);
+        for (Chunk chunk : chunks) {
+            if (chunk.error != null) {
+                throw chunk.error;
+            }
+        }
+
+        // intern vertex values in file order
+        int count = 0;
+        for (Chunk chunk : chunks) {
+            count += chunk.count;
+        }
+        Map<V,Integer> vertexIds = new HashMap<V,Integer>();
+        List<V> vertices = new ArrayList<V>();
+        int[] ends1 = new int[count];
+        int[] ends2 = new int[count];
+        @SuppressWarnings("unchecked")
+        E[] labels = (E[]) new Object[count];
+        int i = 0;
+        for (Chunk chunk : chunks) {
+            for (int j = 0; j < chunk.count; j++) {
+                ends1[i] = intern(chunk.vertices1[j], vertexIds, vertices);
+                ends2[i] = intern(chunk.vertices2[j], vertexIds, vertices);
+                labels[i++] = chunk.labels[j];
+            }
+        }
+        @SuppressWarnings("unchecked")
+        V[] vertexArray = (V[]) vertices.toArray();
+        return new Records<V,E>(vertexArray, vertexIds, ends1, ends2, labels,
+                count);
+    }
+
+    /**
+     * Returns the id of the specified vertex value, assigning the next id if
+     * it is new.
+     */
+    private static <V> int intern(V v, Map<V,Integer> vertexIds,
+            List<V> vertices) {
+        Integer id = vertexIds.get(v);
+        if (id == null) {
+            id = vertices.size();
+            vertexIds.put(v, id);
+            vertices.add(v);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the file position just past the end of the line holding the
+     * byte at the specified position, or the file size.
+     */
+    private static long lineEnd(FileChannel channel, long position)
+            throws IOException {
+        long size = channel.size();
+        if (position >= size) {
+            return size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        // the line may already end at the byte before position
+        long at = position - 1;
+        while (at < size) {
+            buffer.clear();
+            int read = channel.read(buffer, at);
+            if (read <= 0) {
+                return size;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return at + i + 1;
+                }
+            }
+            at += read;
+        }
+        return size;
+    }
+
+    /**
+     * Runs the specified tasks on the pool and waits for all of them.
+     */
+    private static void invokeAll(ForkJoinPool pool,
+            final List<? extends RecursiveAction> tasks) {
+        if (tasks.size() <= 1) {
+            // a single task runs in the calling thread
+            for (RecursiveAction task : tasks) {
+                task.invoke();
+            }
+            return;
+        }
+        pool.invoke(new RecursiveAction() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+
+        });
+    }
+
+    /**
+     * Records class holds the interned records of an edge list, vertex ids
+     * being assigned in order of first appearance.
+     */
+    private static final class Records<V, E> {
+
+        private final V[]            vertices;
+        private final Map<V,Integer> vertexIds;
+        private final int[]          ends1;
+        private final int[]          ends2;
+        private final E[]            labels;
+        private final int            count;
+
+        Records(V[] vertices, Map<V,Integer> vertexIds, int[] ends1,
+                int[] ends2, E[] labels, int count) {
+            this.vertices = vertices;
+            this.vertexIds = vertexIds;
+            this.ends1 = ends1;
+            this.ends2 = ends2;
+            this.labels = labels;
+            this.count = count;
+        }
+
+    }
+
+    /**
+     * Chunk class parses the records of a mapped chunk of whole lines. A
+     * malformed record is kept in error instead of thrown, so that it is
+     * reported as an IOException of the load.
+     */
+    private final class Chunk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MappedByteBuffer buffer;
+        private final long             position;
+        private byte[]                 text;
+        V[]                            vertices1;
+        V[]                            vertices2;
+        E[]                            labels;
+        int                            count;
+        IOException                    error;
+
+        Chunk(MappedByteBuffer buffer, long position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            // about 16 bytes per record
+            int capacity = Math.max(16, buffer.limit() >>> 4);
+            vertices1 = (V[]) new Object[capacity];
+            vertices2 = (V[]) new Object[capacity];
+            labels = (E[]) new Object[capacity];
+            text = new byte[64];
+
+            int limit = buffer.limit();
+            int start = 0;
+            while (start < limit) {
+                int end = start;
+                while (end < limit && buffer.get(end) != '\n') {
+                    end++;
+                }
+                if (!parse(start, end)) {
+                    error = new IOException("Malformed edge record at byte "
+                            + (position + start) + ": "
+                            + string(start, end).trim());
+                    return;
+                }
+                start = end + 1;
+            }
+        }
+
+        /**
+         * Parses the line in the range of the buffer, returns
+         * <code>false</code> if it is malformed.
+         */
+        private boolean parse(int start, int end) {
+            int from = skipBlanks(start, end);
+            if (from == end || buffer.get(from) == '#') {
+                return true;
+            }
+            int to = skipField(from, end);
+            String v1 = string(from, to);
+            from = skipBlanks(to, end);
+            if (from == end) {
+                return false;
+            }
+            to = skipField(from, end);
+            String v2 = string(from, to);
+
+            // the label is the rest of the line without surrounding blanks
+            from = skipBlanks(to, end);
+            to = end;
+            while (to > from && isBlank(buffer.get(to - 1))) {
+                to--;
+            }
+
+            if (count == vertices1.length) {
+                vertices1 = Arrays.copyOf(vertices1, count * 2);
+                vertices2 = Arrays.copyOf(vertices2, count * 2);
+                labels = Arrays.copyOf(labels, count * 2);
+            }
+            vertices1[count] = vertex(v1);
+            vertices2[count] = vertex(v2);
+            labels[count++] = (from < to) ? labelParser.apply(string(from, to))
+                    : null;
+            return true;
+        }
+
+        private V vertex(String s) {
+            V v = vertexParser.apply(s);
+            if (v == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+            return v;
+        }
+
+        private int skipBlanks(int i, int end) {
+            while (i < end && isBlank(buffer.get(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private int skipField(int i, int end) {
+            while (i < end && !isBlank(buffer.get(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private boolean isBlank(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+
+        /**
+         * Decodes the range of the buffer as UTF-8 text.
+         */
+        private String string(int from, int to) {
+            int length = to - from;
+            if (length > text.length) {
+                text = new byte[Math.max(length, text.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                text[i] = buffer.get(from + i);
+            }
+            return new String(text, 0, length, StandardCharsets.UTF_8);
+        }
+
+    }
+
+}
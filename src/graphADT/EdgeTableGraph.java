@@ -0,0 +1,1184 @@
+package graphADT;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * EdgeTableGraph<V,E> represents a mutable undirected multi-graph storing its
+ * edges in an edge table of parallel arrays indexed by edge id, rather than
+ * as edge objects in hash sets. It stores the same vertices and edges as
+ * {@link UndirectedGraph}: non-null vertex values, null-able edge values, and
+ * multiple edges between vertices as long as their edge values differ. <br/>
+ * 
+ * Each edge id has its two vertex ids, its edge value, the hash of its vertex
+ * pair and the hash of its edge value, both computed once when the edge is
+ * added, and the index of the edge id in the row of each of its vertices.
+ * The row of a vertex is an array of the ids of its edges, and an open
+ * addressing table of edge ids keyed by vertex pair finds the edges between
+ * two vertices, comparing cached hashes before edge values. Adding, finding
+ * and removing a single edge take constant expected time without allocating,
+ * and an edge costs about 60 bytes of arrays instead of an edge object in
+ * three hash sets. Edges with an edge value are also listed by edge value,
+ * which adds a map entry per distinct edge value, while unlabeled edges are
+ * only counted, so removing the null edge value scans the edge table. <br/>
+ * 
+ * A graph constructed to count multiplicities keeps a counter per edge id
+ * instead of rejecting a duplicate edge: adding an edge already contained in
+ * the graph increments its multiplicity, {@link #multiplicity} reads it and
+ * {@link #decrementEdge} removes one copy, removing the edge with its last
+ * copy. Repeated edges then cost nothing beyond their counter. The
+ * AbstractGraph queries and views see every edge once whatever its
+ * multiplicity, and the other removals remove all copies of an edge. <br/>
+ * 
+ * This graph is not thread-safe. <br/>
+ * 
+ * <h5>Abstract Invariant:</h5>
+ * foreach vertex in graph
+ * <ul>
+ * <li>vertex value is not null</li>
+ * <li>vertex value is unique</li>
+ * </ul>
+ * foreach edge connecting vertices in graph
+ * <ul>
+ * <li>edge value can be null</li>
+ * <li>edge vertices in graph</li>
+ * </ul>
+ * 
+ * @author Drew Reese
+ * 
+ * @param <V> - data type to store as vertices
+ * @param <E> - data type to store as edges
+ * 
+ */
+public final class EdgeTableGraph<V, E> implements AbstractGraph<V,E> {
+
+    // DEBUGGING EXPENSIVE CHECKREP FLAG
+    private static final boolean RUN_CHECKREP = false;
+
+    // capacity of a new edge table, row and edge value list
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MIN_ROW_CAPACITY = 2;
+
+    // vertex id of both ends of a free edge id
+    private static final int FREE = -1;
+
+    // empty row
+    private static final int[] NO_EDGES = new int[0];
+
+    /**
+     * IdList class is a growable list of edge ids with a single edge value.
+     * 
+     * @author Drew Reese
+     */
+    private static final class IdList {
+
+        private int[] ids = new int[MIN_ROW_CAPACITY];
+        private int   size;
+
+    }
+
+    /*
+     * Internal representation of edge table graph
+     * 
+     * vertexIds - interns vertex values as dense vertex ids. rows - edge ids
+     * by vertex id, rowSizes - number of edge ids in each row. ends - the two
+     * vertex ids of edge id k at 2k and 2k + 1, FREE for free edge ids. slots
+     * - index of edge id k in the row of ends[2k] at 2k and in the row of
+     * ends[2k + 1] at 2k + 1, a self edge only occupies the first. values -
+     * edge value by edge id. pairHashes - hash of the vertex pair by edge id.
+     * valueHashes - hash of the edge value by edge id. valueSlots - index of
+     * edge id k in its list in valueMap. edgeBound - one past the highest edge
+     * id ever handed out. freeEdges - stack of free edge ids below edgeBound.
+     * pairTable - open addressing table of edge id + 1 by pair hash, with
+     * linear probing and 0 for empty slots. edgeCount - number of edges.
+     * valueMap - maps non-null edge value to the list of its edge ids.
+     * nullEdges - number of edges with null edge value. multiplicities -
+     * number of copies by edge id, null unless counting multiplicities.
+     */
+    private final VertexIndex<V>       vertexIds;
+    private int[][]                    rows;
+    private int[]                      rowSizes;
+    private int[]                      ends;
+    private int[]                      slots;
+    private Object[]                   values;
+    private int[]                      pairHashes;
+    private int[]                      valueHashes;
+    private int[]                      valueSlots;
+    private int                        edgeBound;
+    private int[]                      freeEdges;
+    private int                        freeEdgeCount;
+    private int[]                      pairTable;
+    private int                        edgeCount;
+    private final Map<E,IdList>        valueMap;
+    private int                        nullEdges;
+    private int[]                      multiplicities;
+
+    /*
+     * Abstraction Function:
+     * 
+     * An edge table graph has an edge between the values of vertex ids
+     * ends[2k] and ends[2k + 1] with edge value values[k] for each edge id k
+     * below edgeBound that is not free.
+     */
+
+    // Representation Invariant:
+    //
+    // null not in valueMap
+    // edgeCount == edgeBound - freeEdgeCount
+    // nullEdges == number of edges with null edge value
+    //
+    // foreach edge id k < edgeBound not in freeEdges
+    // ends[2k], ends[2k + 1] in vertexIds
+    // rows[ends[2k]][slots[2k]] == k
+    // rows[ends[2k + 1]][slots[2k + 1]] == k if ends[2k] != ends[2k + 1]
+    // pairHashes[k] == pairHash(ends[2k], ends[2k + 1])
+    // valueHashes[k] == hash(values[k])
+    // valueMap.get(values[k]).ids[valueSlots[k]] == k if values[k] != null
+    // k + 1 in pairTable, reachable by probing from pairHashes[k]
+    // no other edge id with the same vertex pair and edge value
+    // multiplicities == null || multiplicities[k] > 0
+
+    /**
+     * Constructs a new empty graph.
+     */
+    public EdgeTableGraph() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a new empty graph sized to hold the expected number of
+     * vertices and edges without growing its tables.
+     * 
+     * @param expectedVertices - expected number of vertices
+     * @param expectedEdges - expected number of edges
+     * @throws IllegalArgumentException if an expected count is negative
+     */
+    public EdgeTableGraph(int expectedVertices, int expectedEdges)
+            throws IllegalArgumentException {
+        this(expectedVertices, expectedEdges, false);
+    }
+
+    /**
+     * Constructs a new empty graph sized to hold the expected number of
+     * vertices and distinct edges without growing its tables, counting the
+     * multiplicity of repeated edges if requested.
+     * 
+     * @param expectedVertices - expected number of vertices
+     * @param expectedEdges - expected number of distinct edges
+     * @param countMultiplicity - whether adding a contained edge increments
+     *            its multiplicity
+     * @throws IllegalArgumentException if an expected count is negative
+     */
+    public EdgeTableGraph(int expectedVertices, int expectedEdges,
+            boolean countMultiplicity) throws IllegalArgumentException {
+        if (expectedVertices < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal expected vertex count: " + expectedVertices);
+        }
+        if (expectedEdges < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal expected edge count: " + expectedEdges);
+        }
+        int capacity = Math.max(DEFAULT_CAPACITY, expectedEdges);
+        this.vertexIds = new VertexIndex<V>(expectedVertices);
+        this.rows = new int[Math.max(DEFAULT_CAPACITY, expectedVertices)][];
+        this.rowSizes = new int[rows.length];
+        this.ends = new int[2 * capacity];
+        this.slots = new int[2 * capacity];
+        this.values = new Object[capacity];
+        this.pairHashes = new int[capacity];
+        this.valueHashes = new int[capacity];
+        this.valueSlots = new int[capacity];
+        this.freeEdges = new int[DEFAULT_CAPACITY];
+        this.pairTable = new int[tableSizeFor(capacity)];
+        this.valueMap = new HashMap<E,IdList>();
+        this.multiplicities = countMultiplicity ? new int[capacity] : null;
+        checkRep();
+    }
+
+    @Override
+    public boolean addVertex(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+
+        if (containsVertex(v)) {
+            return false;
+        } else {
+            insertVertex(v);
+            checkRep();
+            return true;
+        }
+    }
+
+    @Override
+    public boolean addAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+        if (vertices == null) {
+            throw new NullPointerException("Vertex collection null");
+        }
+        for (V vertex : vertices) {
+            if (vertex == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+        }
+
+        vertexIds.ensureCapacity(vertexIds.size() + vertices.size());
+
+        boolean modified = false;
+        for (V vertex : vertices) {
+            if (!containsVertex(vertex)) {
+                insertVertex(vertex);
+                modified = true;
+            }
+        }
+        checkRep();
+        return modified;
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) throws NullPointerException {
+        return addEdge(v1, v2, null);
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: if this graph counts multiplicities, adding an edge it already
+     * contains increments the multiplicity of the edge and returns
+     * <code>true</code>.
+     * 
+     * @throws IllegalStateException if the multiplicity of the edge would
+     *             overflow
+     */
+    @Override
+    public boolean addEdge(V v1, V v2, E e) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return false;
+        }
+
+        boolean modified = insertEdge(id1, id2, e);
+        checkRep();
+        return modified;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the edge table is grown once for the whole collection.
+     */
+    @Override
+    public boolean addAllEdges(
+            Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+            throws NullPointerException {
+        if (edges == null) {
+            throw new NullPointerException("Edge collection null");
+        }
+        for (EdgeTriple<? extends V,? extends E> edge : edges) {
+            if (edge == null) {
+                throw new NullPointerException("Edge triple null");
+            }
+        }
+
+        ensureEdgeCapacity(edgeCount + edges.size());
+
+        boolean modified = false;
+        for (EdgeTriple<? extends V,? extends E> edge : edges) {
+            int id1 = vertexIds.idOf(edge.getV1());
+            int id2 = vertexIds.idOf(edge.getV2());
+            if (id1 >= 0 && id2 >= 0 && insertEdge(id1, id2, edge.getE())) {
+                modified = true;
+            }
+        }
+        checkRep();
+        return modified;
+    }
+
+    /**
+     * Adds a new vertex value not already contained in this graph.
+     */
+    private void insertVertex(V v) {
+        int id = vertexIds.add(v);
+        if (id == rows.length) {
+            rows = Arrays.copyOf(rows, id * 2);
+            rowSizes = Arrays.copyOf(rowSizes, id * 2);
+        }
+        rows[id] = NO_EDGES;
+        rowSizes[id] = 0;
+    }
+
+    /**
+     * Adds a new edge between two vertex ids contained in this graph.
+     * 
+     * @return <code>true</code> iff edge was added to graph, <code>false</code>
+     *         if graph already contained the edge
+     */
+    private boolean insertEdge(int id1, int id2, E e) {
+        int pairHash = pairHash(id1, id2);
+        int valueHash = hash(e);
+        int i = findEdgeSlot(id1, id2, e, pairHash, valueHash);
+        if (i >= 0) {
+            if (multiplicities == null) {
+                return false;
+            }
+            int k = pairTable[i] - 1;
+            if (multiplicities[k] == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Multiplicity overflow");
+            }
+            multiplicities[k]++;
+            return true;
+        }
+        i = ~i;
+
+        if (edgeCount == values.length) {
+            ensureEdgeCapacity(edgeCount + 1);
+            // the pair table may have been rehashed
+            int mask = pairTable.length - 1;
+            i = pairHash & mask;
+            while (pairTable[i] != 0) {
+                i = (i + 1) & mask;
+            }
+        }
+        int k = (freeEdgeCount > 0) ? freeEdges[--freeEdgeCount] : edgeBound++;
+        pairTable[i] = k + 1;
+        ends[2 * k] = id1;
+        ends[2 * k + 1] = id2;
+        values[k] = e;
+        pairHashes[k] = pairHash;
+        valueHashes[k] = valueHash;
+        if (multiplicities != null) {
+            multiplicities[k] = 1;
+        }
+        slots[2 * k] = appendToRow(id1, k);
+        if (id1 != id2) {
+            slots[2 * k + 1] = appendToRow(id2, k);
+        }
+        if (e == null) {
+            nullEdges++;
+        } else {
+            IdList list = valueMap.get(e);
+            if (list == null) {
+                list = new IdList();
+                valueMap.put(e, list);
+            } else if (list.size == list.ids.length) {
+                list.ids = Arrays.copyOf(list.ids, list.size * 2);
+            }
+            valueSlots[k] = list.size;
+            list.ids[list.size++] = k;
+        }
+        edgeCount++;
+        return true;
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return vertexIds.idOf(v) >= 0;
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return containsValue(e);
+    }
+
+    /**
+     * Returns <code>true</code> if some edge of this graph has the specified
+     * edge value.
+     */
+    private boolean containsValue(Object e) {
+        return (e == null) ? nullEdges > 0 : valueMap.containsKey(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        return id1 >= 0 && id2 >= 0 && findSlot(id1, id2) >= 0;
+    }
+
+    @Override
+    public Set<V> vertexSet() {
+        return new HashSet<V>(vertexIds.values());
+    }
+
+    @Override
+    public Set<E> edgeSet() {
+        Set<E> edgeValues = new HashSet<E>(valueMap.keySet());
+        if (nullEdges > 0) {
+            edgeValues.add(null);
+        }
+        return edgeValues;
+    }
+
+    @Override
+    public Set<E> edgeSet(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return null;
+        }
+        Set<E> returnEdgeSet = new HashSet<E>();
+        int[] row = rows[id];
+        for (int i = 0; i < rowSizes[id]; i++) {
+            returnEdgeSet.add(value(row[i]));
+        }
+        return returnEdgeSet;
+    }
+
+    @Override
+    public Set<V> vertexView() {
+        return vertexIds.values();
+    }
+
+    @Override
+    public Set<E> edgeView() {
+        return new EdgeValueSetView();
+    }
+
+    @Override
+    public Collection<E> edgeView(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        final int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return null;
+        }
+        return new AbstractCollection<E>() {
+
+            @Override
+            public Iterator<E> iterator() {
+                return new Iterator<E>() {
+
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < rowSizes[id];
+                    }
+
+                    @Override
+                    public E next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return value(rows[id][next++]);
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return rowSizes[id];
+            }
+
+        };
+    }
+
+    @Override
+    public int degree(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id = vertexIds.idOf(v);
+        return (id >= 0) ? rowSizes[id] : -1;
+    }
+
+    @Override
+    public boolean forEachNeighbor(V v, Consumer<? super V> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+        int[] row = rows[id];
+        for (int i = 0; i < rowSizes[id]; i++) {
+            action.accept(vertexIds.valueOf(other(row[i], id)));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachIncidentEdge(V v,
+            BiConsumer<? super V,? super E> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+        int[] row = rows[id];
+        for (int i = 0; i < rowSizes[id]; i++) {
+            action.accept(vertexIds.valueOf(other(row[i], id)),
+                    value(row[i]));
+        }
+        return true;
+    }
+
+    @Override
+    public Set<E> edgeSet(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+
+        Set<E> edgesBetween = new HashSet<E>();
+        int pairHash = pairHash(id1, id2);
+        int mask = pairTable.length - 1;
+        for (int i = pairHash & mask, entry; (entry = pairTable[i]) != 0;
+                i = (i + 1) & mask) {
+            int k = entry - 1;
+            if (pairHashes[k] == pairHash && joins(k, id1, id2)) {
+                edgesBetween.add(value(k));
+            }
+        }
+        return edgesBetween;
+    }
+
+    @Override
+    public E getEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+        int slot = findSlot(id1, id2);
+        return (slot >= 0) ? value(pairTable[slot] - 1) : null;
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<? extends E> edges)
+            throws NullPointerException {
+        if (edges == null) {
+            throw new NullPointerException("Edge collection null");
+        }
+
+        boolean modified = false;
+        for (E e : edges) {
+            if (this.removeEdge(e)) {
+                modified = true;
+            }
+        }
+        checkRep();
+        return modified;
+    }
+
+    @Override
+    public Set<E> removeAllEdges(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+
+        Set<E> removed = new HashSet<E>();
+        for (int slot; (slot = findSlot(id1, id2)) >= 0;) {
+            int k = pairTable[slot] - 1;
+            removed.add(value(k));
+            removeEdgeId(k, slot);
+        }
+        checkRep();
+        return removed;
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+        if (vertices == null) {
+            throw new NullPointerException("Vertex collection null");
+        }
+
+        boolean modified = false;
+        for (V vertex : vertices) {
+            if (this.removeVertex(vertex)) {
+                modified = true;
+            }
+        }
+        checkRep();
+        return modified;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: this method removes all duplicate edge values. Removing the
+     * <code>null</code> edge value scans the edge table, as unlabeled edges
+     * are not listed by edge value.
+     */
+    @Override
+    public boolean removeEdge(E e) {
+        if (e == null) {
+            if (nullEdges == 0) {
+                return false;
+            }
+            for (int k = 0; k < edgeBound && nullEdges > 0; k++) {
+                if (ends[2 * k] != FREE && values[k] == null) {
+                    removeEdgeId(k, -1);
+                }
+            }
+        } else {
+            IdList list = valueMap.get(e);
+            if (list == null) {
+                return false;
+            }
+            // the last edge id of the value goes first, so none move
+            while (valueMap.containsKey(e)) {
+                removeEdgeId(list.ids[list.size - 1], -1);
+            }
+        }
+        checkRep();
+        return true;
+    }
+
+    @Override
+    public E removeEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+
+        int slot = findSlot(id1, id2);
+        if (slot < 0) {
+            return null;
+        }
+        int k = pairTable[slot] - 1;
+        E e = value(k);
+        removeEdgeId(k, slot);
+
+        checkRep();
+        return e;
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+
+        // the last edge id of the row goes first, so none move
+        while (rowSizes[id] > 0) {
+            removeEdgeId(rows[id][rowSizes[id] - 1], -1);
+        }
+        rows[id] = null;
+        vertexIds.remove(v);
+
+        checkRep();
+        return true;
+    }
+
+    /**
+     * Returns the multiplicity of the edge with edge value <code>e</code>
+     * connecting vertices <code>v1</code> and <code>v2</code>, which is
+     * always 1 for a contained edge unless this graph counts multiplicities.
+     * 
+     * @param v1 - the first vertex value of the edge
+     * @param v2 - the second vertex value of the edge
+     * @param e - the edge value of the edge
+     * @return number of copies of the edge, or <code>0</code> if this graph
+     *         does not contain it
+     * @throws NullPointerException if vertex value <code>v1</code> or
+     *             <code>v2</code> is <code>null</code>
+     */
+    public int multiplicity(V v1, V v2, E e) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return 0;
+        }
+        int slot = findEdgeSlot(id1, id2, e, pairHash(id1, id2), hash(e));
+        if (slot < 0) {
+            return 0;
+        }
+        return (multiplicities != null) ? multiplicities[pairTable[slot] - 1]
+                : 1;
+    }
+
+    /**
+     * Removes one copy of the edge with edge value <code>e</code> connecting
+     * vertices <code>v1</code> and <code>v2</code>, removing the edge itself
+     * with its last copy.
+     * 
+     * @param v1 - the first vertex value of the edge
+     * @param v2 - the second vertex value of the edge
+     * @param e - the edge value of the edge
+     * @return number of copies of the edge left, or <code>-1</code> if this
+     *         graph did not contain it
+     * @throws NullPointerException if vertex value <code>v1</code> or
+     *             <code>v2</code> is <code>null</code>
+     */
+    public int decrementEdge(V v1, V v2, E e) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return -1;
+        }
+        int slot = findEdgeSlot(id1, id2, e, pairHash(id1, id2), hash(e));
+        if (slot < 0) {
+            return -1;
+        }
+        int k = pairTable[slot] - 1;
+        int left = (multiplicities != null) ? --multiplicities[k] : 0;
+        if (left == 0) {
+            removeEdgeId(k, slot);
+        }
+        checkRep();
+        return left;
+    }
+
+    /**
+     * Returns an immutable compact snapshot of this graph. The snapshot holds
+     * the vertices and edges of this graph at the time of the call and is not
+     * affected by later modifications of this graph.
+     * 
+     * @return compact immutable copy of this graph
+     */
+    public CompactGraph<V,E> freeze() {
+        return CompactGraph.of(indexed());
+    }
+
+    /**
+     * Returns an indexed view of this graph by vertex id, valid until this
+     * graph is next modified.
+     */
+    IndexedGraph<V,E> indexed() {
+        return new Indexed();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder edges = new StringBuilder("[");
+        for (int k = 0; k < edgeBound; k++) {
+            if (ends[2 * k] == FREE) {
+                continue;
+            }
+            if (edges.length() > 1) {
+                edges.append(", ");
+            }
+            edges.append(values[k]).append("=(")
+                    .append(vertexIds.valueOf(ends[2 * k])).append("<->")
+                    .append(vertexIds.valueOf(ends[2 * k + 1])).append(")");
+        }
+        return vertexIds.values() + "\n" + edges.append("]");
+    }
+
+    /**
+     * Returns the pair table slot of the edge with edge value <code>e</code>
+     * between vertex ids <code>id1</code> and <code>id2</code>, of the
+     * specified cached hashes.
+     * 
+     * @return slot of the edge, or the bitwise complement of the empty slot
+     *         ending its probe run if there is none
+     */
+    private int findEdgeSlot(int id1, int id2, E e, int pairHash,
+            int valueHash) {
+        int mask = pairTable.length - 1;
+        int i = pairHash & mask;
+        for (int entry; (entry = pairTable[i]) != 0; i = (i + 1) & mask) {
+            int k = entry - 1;
+            if (pairHashes[k] == pairHash && valueHashes[k] == valueHash
+                    && joins(k, id1, id2) && equal(values[k], e)) {
+                return i;
+            }
+        }
+        return ~i;
+    }
+
+    /**
+     * Returns the pair table slot of the first edge between vertex ids
+     * <code>id1</code> and <code>id2</code>, or <code>-1</code> if there is
+     * none.
+     */
+    private int findSlot(int id1, int id2) {
+        int pairHash = pairHash(id1, id2);
+        int mask = pairTable.length - 1;
+        for (int i = pairHash & mask, entry; (entry = pairTable[i]) != 0;
+                i = (i + 1) & mask) {
+            int k = entry - 1;
+            if (pairHashes[k] == pairHash && joins(k, id1, id2)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes edge id <code>k</code> from the pair table, both rows and its
+     * edge value list, and frees the edge id.
+     * 
+     * @param slot - pair table slot of the edge id, or negative if unknown
+     */
+    private void removeEdgeId(int k, int slot) {
+        if (slot < 0) {
+            int mask = pairTable.length - 1;
+            slot = pairHashes[k] & mask;
+            while (pairTable[slot] != k + 1) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        deleteSlot(slot);
+
+        int id1 = ends[2 * k];
+        int id2 = ends[2 * k + 1];
+        removeFromRow(id1, slots[2 * k]);
+        if (id1 != id2) {
+            removeFromRow(id2, slots[2 * k + 1]);
+        }
+
+        if (values[k] == null) {
+            nullEdges--;
+        } else {
+            IdList list = valueMap.get(values[k]);
+            int last = list.ids[--list.size];
+            list.ids[valueSlots[k]] = last;
+            valueSlots[last] = valueSlots[k];
+            if (list.size == 0) {
+                valueMap.remove(values[k]);
+            }
+        }
+
+        ends[2 * k] = FREE;
+        ends[2 * k + 1] = FREE;
+        values[k] = null;
+        if (freeEdgeCount == freeEdges.length) {
+            freeEdges = Arrays.copyOf(freeEdges, freeEdgeCount * 2);
+        }
+        freeEdges[freeEdgeCount++] = k;
+        edgeCount--;
+    }
+
+    /**
+     * Empties a slot of the pair table, shifting later entries of its probe
+     * run back so that lookups never need tombstones.
+     */
+    private void deleteSlot(int i) {
+        int mask = pairTable.length - 1;
+        for (int j = (i + 1) & mask, entry; (entry = pairTable[j]) != 0;
+                j = (j + 1) & mask) {
+            int home = pairHashes[entry - 1] & mask;
+            // the entry may fill slot i if i lies between its home and j
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                pairTable[i] = entry;
+                i = j;
+            }
+        }
+        pairTable[i] = 0;
+    }
+
+    /**
+     * Appends edge id <code>k</code> to the row of vertex id <code>u</code>
+     * and returns its index in the row.
+     */
+    private int appendToRow(int u, int k) {
+        int size = rowSizes[u];
+        if (size == rows[u].length) {
+            rows[u] = Arrays.copyOf(rows[u], Math.max(MIN_ROW_CAPACITY,
+                    size * 2));
+        }
+        rows[u][size] = k;
+        rowSizes[u] = size + 1;
+        return size;
+    }
+
+    /**
+     * Removes the edge id at the specified index of the row of vertex id
+     * <code>u</code> by moving the last edge id of the row into its place.
+     */
+    private void removeFromRow(int u, int index) {
+        int[] row = rows[u];
+        int size = --rowSizes[u];
+        if (index < size) {
+            int moved = row[size];
+            row[index] = moved;
+            slots[(ends[2 * moved] == u) ? 2 * moved : 2 * moved + 1] = index;
+        }
+    }
+
+    /**
+     * Grows the edge table to hold at least the specified number of edges,
+     * rehashing the pair table from the cached pair hashes.
+     */
+    private void ensureEdgeCapacity(int capacity) {
+        if (capacity > values.length) {
+            int grown = Math.max(capacity, values.length * 2);
+            ends = Arrays.copyOf(ends, 2 * grown);
+            slots = Arrays.copyOf(slots, 2 * grown);
+            values = Arrays.copyOf(values, grown);
+            pairHashes = Arrays.copyOf(pairHashes, grown);
+            valueHashes = Arrays.copyOf(valueHashes, grown);
+            valueSlots = Arrays.copyOf(valueSlots, grown);
+            if (multiplicities != null) {
+                multiplicities = Arrays.copyOf(multiplicities, grown);
+            }
+        }
+        int tableSize = tableSizeFor(values.length);
+        if (tableSize > pairTable.length) {
+            int[] old = pairTable;
+            pairTable = new int[tableSize];
+            int mask = tableSize - 1;
+            for (int entry : old) {
+                if (entry != 0) {
+                    int i = pairHashes[entry - 1] & mask;
+                    while (pairTable[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    pairTable[i] = entry;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the power of two pair table size keeping the specified number
+     * of edges at most half full.
+     */
+    private static int tableSizeFor(int edges) {
+        int size = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, edges));
+        return (size < edges) ? size << 2 : size << 1;
+    }
+
+    /**
+     * Returns the hash of an unordered pair of vertex ids.
+     */
+    private static int pairHash(int id1, int id2) {
+        long pair = (id1 < id2) ? ((long) id1 << 32) | id2
+                : ((long) id2 << 32) | id1;
+        long h = pair * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int hash(Object e) {
+        return (e == null) ? 0 : e.hashCode();
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return (a == null) ? b == null : a.equals(b);
+    }
+
+    /**
+     * Returns <code>true</code> if edge id <code>k</code> joins vertex ids
+     * <code>id1</code> and <code>id2</code>.
+     */
+    private boolean joins(int k, int id1, int id2) {
+        int u = ends[2 * k];
+        int w = ends[2 * k + 1];
+        return (u == id1 && w == id2) || (u == id2 && w == id1);
+    }
+
+    /**
+     * Returns the vertex id at the opposite end of edge id <code>k</code> from
+     * vertex id <code>u</code>.
+     */
+    private int other(int k, int u) {
+        return (ends[2 * k] == u) ? ends[2 * k + 1] : ends[2 * k];
+    }
+
+    @SuppressWarnings("unchecked")
+    private E value(int k) {
+        return (E) values[k];
+    }
+
+    /**
+     * EdgeValueSetView class is an unmodifiable live view of the edge values
+     * of the parent graph, the keys of valueMap followed by null while the
+     * graph holds unlabeled edges.
+     * 
+     * @author Drew Reese
+     */
+    private final class EdgeValueSetView extends AbstractSet<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<E> valueIterator = valueMap.keySet().iterator();
+            return new Iterator<E>() {
+
+                private boolean nullPending = nullEdges > 0;
+
+                @Override
+                public boolean hasNext() {
+                    return valueIterator.hasNext() || nullPending;
+                }
+
+                @Override
+                public E next() {
+                    if (valueIterator.hasNext()) {
+                        return valueIterator.next();
+                    } else if (nullPending) {
+                        nullPending = false;
+                        return null;
+                    }
+                    throw new NoSuchElementException();
+                }
+
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public int size() {
+            return valueMap.size() + (nullEdges > 0 ? 1 : 0);
+        }
+
+    }
+
+    /**
+     * Indexed class is an indexed view of the parent graph by the ids of its
+     * vertex index.
+     * 
+     * @author Drew Reese
+     */
+    private final class Indexed extends IndexedGraph<V,E> {
+
+        @Override
+        int bound() {
+            return vertexIds.bound();
+        }
+
+        @Override
+        int idOf(V v) {
+            return vertexIds.idOf(v);
+        }
+
+        @Override
+        V valueOf(int id) {
+            return vertexIds.valueOf(id);
+        }
+
+        @Override
+        int degree(int id) {
+            return (vertexIds.valueOf(id) != null) ? rowSizes[id] : 0;
+        }
+
+        @Override
+        int findNeighbor(int id, IntPredicate predicate) {
+            if (vertexIds.valueOf(id) != null) {
+                int[] row = rows[id];
+                for (int i = 0; i < rowSizes[id]; i++) {
+                    int w = other(row[i], id);
+                    if (predicate.test(w)) {
+                        return w;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        void forEachEdge(int id, EdgeAction<? super E> action) {
+            if (vertexIds.valueOf(id) != null) {
+                int[] row = rows[id];
+                for (int i = 0; i < rowSizes[id]; i++) {
+                    action.accept(other(row[i], id), value(row[i]));
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Checks that the rep invariant holds
+     */
+    private void checkRep() {
+
+        if (RUN_CHECKREP) {
+            assert (!valueMap.containsKey(null)) : "Null edge value listed";
+            assert (edgeCount == edgeBound - freeEdgeCount) : "Edge count";
+            int unlabeled = 0;
+            int tableEntries = 0;
+            for (int entry : pairTable) {
+                if (entry != 0) {
+                    tableEntries++;
+                }
+            }
+            assert (tableEntries == edgeCount) : "Pair table size";
+            for (int k = 0; k < edgeBound; k++) {
+                int u = ends[2 * k];
+                int w = ends[2 * k + 1];
+                if (u == FREE) {
+                    continue;
+                }
+                assert (vertexIds.valueOf(u) != null
+                        && vertexIds.valueOf(w) != null) : "Edge vertex";
+                assert (rows[u][slots[2 * k]] == k) : "Row slot";
+                assert (u == w || rows[w][slots[2 * k + 1]] == k) : "Row slot";
+                assert (pairHashes[k] == pairHash(u, w)) : "Pair hash";
+                assert (valueHashes[k] == hash(values[k])) : "Value hash";
+                assert (multiplicities == null
+                        || multiplicities[k] > 0) : "Multiplicity";
+                if (values[k] == null) {
+                    unlabeled++;
+                } else {
+                    assert (valueMap.get(values[k]).ids[valueSlots[k]] == k)
+                            : "Value slot";
+                }
+                int mask = pairTable.length - 1;
+                int i = pairHashes[k] & mask;
+                while (pairTable[i] != k + 1) {
+                    assert (pairTable[i] != 0) : "Edge not in pair table";
+                    i = (i + 1) & mask;
+                }
+            }
+            assert (unlabeled == nullEdges) : "Null edge count";
+        }
+    }
+
+}
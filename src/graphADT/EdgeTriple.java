@@ -0,0 +1,116 @@
+package graphADT;
+
+/**
+ * EdgeTriple<V,E> is an immutable (v1, v2, e) record describing an undirected
+ * edge with edge value <code>e</code> connecting vertex values <code>v1</code>
+ * and <code>v2</code>. It is used to pass edges in bulk to and from a graph.
+ * Two triples are equal if they hold equal edge values and equal vertex
+ * values in either order. <br/>
+ * 
+ * @author Drew Reese
+ *
+ * @param <V> - data type of vertex values
+ * @param <E> - data type of edge value
+ * 
+ */
+public final class EdgeTriple<V, E> {
+
+    private final V v1;
+    private final V v2;
+    private final E e;
+
+    /**
+     * Constructs a new edge triple.
+     * 
+     * @param v1 - the first vertex value of edge
+     * @param v2 - the second vertex value of edge
+     * @param e - edge value, can be <code>null</code>
+     * @throws NullPointerException if vertex value <code>v1</code> or
+     *             <code>v2</code> is <code>null</code>
+     */
+    public EdgeTriple(V v1, V v2, E e) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        this.v1 = v1;
+        this.v2 = v2;
+        this.e = e;
+    }
+
+    /**
+     * Returns the first vertex value of this edge.
+     */
+    public V getV1() {
+        return v1;
+    }
+
+    /**
+     * Returns the second vertex value of this edge.
+     */
+    public V getV2() {
+        return v2;
+    }
+
+    /**
+     * Returns the edge value of this edge, can be <code>null</code>.
+     */
+    public E getE() {
+        return e;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((e == null) ? 0 : e.hashCode());
+        result = prime * result + v1.hashCode() + v2.hashCode();
+        return result;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof EdgeTriple)) {
+            return false;
+        }
+
+        EdgeTriple<?,?> other = (EdgeTriple<?,?>) obj;
+        if (!((v1.equals(other.v1) && v2.equals(other.v2))
+                || (v1.equals(other.v2) && v2.equals(other.v1)))) {
+            return false;
+        }
+
+        if (e == null) {
+            if (other.e != null) {
+                return false;
+            }
+        } else if (!e.equals(other.e)) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return e + "=(" + v1 + "<->" + v2 + ")";
+    }
+
+}
@@ -0,0 +1,385 @@
+package graphADT;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphCheckpointer<V,E> keeps an {@link UndirectedGraph} recoverable from a
+ * directory holding a {@link GraphJournal} of its changes and periodic
+ * checkpoints of the whole graph, so {@link #recover} loads the latest
+ * checkpoint and only replays the journal records appended after it. <br/>
+ * 
+ * A checkpoint is taken between two graph operations, after the journal
+ * recorded the first one: the graph is frozen into a {@link CompactGraph}
+ * and the journal offset of the next record is noted on the thread
+ * modifying the graph, which costs an in-memory copy of the graph. The
+ * snapshot is then written as a {@link MappedGraph} snapshot file by a
+ * background thread while graph operations go on, after forcing the journal
+ * up to the noted offset, and is published by atomically renaming it to a
+ * file named after the offset. Older checkpoints are deleted once a newer
+ * one is published, and a crash while writing a checkpoint leaves the
+ * previous one in place. <br/>
+ * 
+ * Periodic checkpoints are taken by the first graph operation after the
+ * checkpoint interval has passed since the last checkpoint was taken, unless
+ * the previous checkpoint is still being written. A failure to write a
+ * checkpoint is rethrown by {@link #close()} unless a later checkpoint was
+ * written, the next periodic checkpoint being tried after the following
+ * interval. <br/>
+ * 
+ * <h5>Directory layout:</h5>
+ * graph.journal - journal of the changes to the graph <br/>
+ * checkpoint-<i>offset</i>.graph - snapshot of the graph when the journal
+ * ended at <i>offset</i>, in 16 hexadecimal digits <br/>
+ * 
+ * @author Drew Reese
+ * 
+ * @param <V> - data type of vertex values
+ * @param <E> - data type of edge values
+ * 
+ */
+public final class GraphCheckpointer<V, E>
+        implements GraphListener<V,E>, Closeable {
+
+    // files of a checkpoint directory
+    private static final String JOURNAL = "graph.journal";
+    private static final String PREFIX  = "checkpoint-";
+    private static final String SUFFIX  = ".graph";
+    private static final String PARTIAL = ".tmp";
+
+    /*
+     * Internal representation of graph checkpointer
+     * 
+     * graph - checkpointed graph. journal - journal of graph, attached before
+     * this checkpointer so it records an operation before this checkpointer
+     * sees it. directory - directory of journal and checkpoints.
+     * vertexSerializer - serializer of vertex values. labelSerializer -
+     * serializer of non-null edge values. interval - nanoseconds between
+     * periodic checkpoints. lastCheckpoint - nanoTime the last checkpoint was
+     * taken. writer - writes checkpoints in the background, one at a time.
+     * pending - last checkpoint taken, null if none. failure - failure of the
+     * last checkpoint written, null if it succeeded. closed - whether the
+     * checkpointer was closed.
+     */
+    private final UndirectedGraph<V,E>  graph;
+    private final GraphJournal<V,E>     journal;
+    private final Path                  directory;
+    private final Serializer<? super V> vertexSerializer;
+    private final Serializer<? super E> labelSerializer;
+    private final long                  interval;
+    private long                        lastCheckpoint;
+    private final ExecutorService       writer;
+    private Future<Path>                pending;
+    private volatile IOException        failure;
+    private boolean                     closed;
+
+    private GraphCheckpointer(UndirectedGraph<V,E> graph,
+            GraphJournal<V,E> journal, Path directory,
+            Serializer<? super V> vertexSerializer,
+            Serializer<? super E> labelSerializer, long interval) {
+        this.graph = graph;
+        this.journal = journal;
+        this.directory = directory;
+        this.vertexSerializer = vertexSerializer;
+        this.labelSerializer = labelSerializer;
+        this.interval = interval;
+        this.lastCheckpoint = System.nanoTime();
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "graph-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts journaling and checkpointing the specified graph to the
+     * specified directory, which is created if missing. The graph must be
+     * empty for a new directory, and be the graph recovered from the
+     * directory otherwise.
+     * 
+     * @param graph - graph to checkpoint
+     * @param directory - directory of the journal and checkpoints
+     * @param vertexSerializer - serializer of vertex values
+     * @param labelSerializer - serializer of non-null edge values
+     * @param syncInterval - time between forcing the journal to storage, zero
+     *            to force every graph operation
+     * @param checkpointInterval - time between periodic checkpoints, zero to
+     *            only take checkpoints by {@link #checkpoint()}
+     * @param unit - unit of <code>syncInterval</code> and
+     *            <code>checkpointInterval</code>
+     * @return checkpointer attached to <code>graph</code>
+     * @throws IOException if the directory or journal cannot be opened, or
+     *             the journal is not a journal of a supported version
+     * @throws NullPointerException if any argument is <code>null</code>
+     * @throws IllegalArgumentException if <code>syncInterval</code> or
+     *             <code>checkpointInterval</code> is negative
+     */
+    public static <V, E> GraphCheckpointer<V,E> attach(
+            UndirectedGraph<V,E> graph, Path directory,
+            Serializer<? super V> vertexSerializer,
+            Serializer<? super E> labelSerializer, long syncInterval,
+            long checkpointInterval, TimeUnit unit) throws IOException,
+            NullPointerException, IllegalArgumentException {
+        if (directory == null) {
+            throw new NullPointerException("Directory null");
+        } else if (unit == null) {
+            throw new NullPointerException("Time unit null");
+        }
+        if (checkpointInterval < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal checkpoint interval: " + checkpointInterval);
+        }
+
+        Files.createDirectories(directory);
+        GraphJournal<V,E> journal = GraphJournal.attach(graph,
+                directory.resolve(JOURNAL), vertexSerializer, labelSerializer,
+                syncInterval, unit);
+        try {
+            // drop checkpoints a crash left partially written
+            try (DirectoryStream<Path> partial = Files.newDirectoryStream(
+                    directory, PREFIX + "*" + PARTIAL)) {
+                for (Path file : partial) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+
+        GraphCheckpointer<V,E> checkpointer = new GraphCheckpointer<V,E>(graph,
+                journal, directory, vertexSerializer, labelSerializer,
+                unit.toNanos(checkpointInterval));
+        graph.addGraphListener(checkpointer);
+        return checkpointer;
+    }
+
+    /**
+     * Rebuilds the graph kept in the specified directory from its latest
+     * checkpoint and the journal records appended after it, up to the first
+     * torn or corrupt record. A missing directory holds the empty graph.
+     * 
+     * @param directory - directory of the journal and checkpoints
+     * @param vertexSerializer - serializer of vertex values
+     * @param labelSerializer - serializer of non-null edge values
+     * @return recovered graph, without a checkpointer attached
+     * @throws IOException if the checkpoint or journal cannot be read, is
+     *             not of a supported version, or the journal ends before the
+     *             checkpoint
+     * @throws NullPointerException if any argument is <code>null</code>
+     */
+    public static <V, E> UndirectedGraph<V,E> recover(Path directory,
+            Serializer<V> vertexSerializer, Serializer<E> labelSerializer)
+            throws IOException, NullPointerException {
+        if (directory == null) {
+            throw new NullPointerException("Directory null");
+        } else if (vertexSerializer == null || labelSerializer == null) {
+            throw new NullPointerException("Serializer null");
+        }
+
+        UndirectedGraph<V,E> graph;
+        Path file = directory.resolve(JOURNAL);
+        Path latest = latestCheckpoint(directory);
+        if (latest == null) {
+            graph = new UndirectedGraph<V,E>();
+            if (Files.exists(file)) {
+                GraphJournal.replay(file, graph, vertexSerializer,
+                        labelSerializer);
+            }
+        } else {
+            graph = restore(MappedGraph.open(latest, vertexSerializer,
+                    labelSerializer));
+            GraphJournal.replay(file, graph, vertexSerializer,
+                    labelSerializer, offsetOf(latest));
+        }
+        return graph;
+    }
+
+    /**
+     * Takes a checkpoint of the graph now and writes it in the background.
+     * Must be called by the thread modifying the graph, between graph
+     * operations.
+     * 
+     * @return checkpoint file once written and published
+     * @throws IllegalStateException if this checkpointer was closed
+     */
+    public Future<Path> checkpoint() throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("Checkpointer closed");
+        }
+        // the graph and journal hold the same operations at this point
+        final CompactGraph<V,E> snapshot = graph.freeze();
+        final long offset = journal.offset();
+        lastCheckpoint = System.nanoTime();
+        pending = writer.submit(() -> write(snapshot, offset));
+        return pending;
+    }
+
+    /**
+     * Forces every journal record appended so far to storage.
+     * 
+     * @throws IOException if the journal failed to write or sync
+     */
+    public void sync() throws IOException {
+        journal.sync();
+    }
+
+    /**
+     * Takes a periodic checkpoint once the checkpoint interval has passed.
+     */
+    @Override
+    public void graphChanged(List<GraphEvent<V,E>> events) {
+        if (interval > 0 && System.nanoTime() - lastCheckpoint >= interval
+                && (pending == null || pending.isDone())) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Stops checkpointing and journaling the graph, waiting for the
+     * checkpoint being written and closing the journal. No checkpoint is
+     * taken on close.
+     * 
+     * @throws IOException if the journal failed to write or sync, or the last
+     *             checkpoint failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        graph.removeGraphListener(this);
+        try {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            journal.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes and publishes a checkpoint of the specified snapshot, taken
+     * when the journal ended at the specified offset.
+     */
+    private Path write(CompactGraph<V,E> snapshot, long offset)
+            throws IOException {
+        Path file = directory.resolve(name(offset, SUFFIX));
+        Path partial = directory.resolve(name(offset, PARTIAL));
+        try {
+            // the checkpoint must not be ahead of the journal after a crash
+            journal.sync();
+            MappedGraph.write(snapshot, partial, vertexSerializer,
+                    labelSerializer);
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            try (DirectoryStream<Path> checkpoints = Files
+                    .newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+                for (Path old : checkpoints) {
+                    if (offsetOf(old) < offset) {
+                        Files.deleteIfExists(old);
+                    }
+                }
+            }
+            failure = null;
+            return file;
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            failure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the checkpoint with the highest journal offset in the specified
+     * directory, or <code>null</code> if none.
+     */
+    private static Path latestCheckpoint(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        Path latest = null;
+        try (DirectoryStream<Path> checkpoints = Files
+                .newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : checkpoints) {
+                long offset = offsetOf(file);
+                if (offset >= 0
+                        && (latest == null || offset > offsetOf(latest))) {
+                    latest = file;
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Returns the file name of the checkpoint at the specified offset.
+     */
+    private static String name(long offset, String suffix) {
+        return String.format("%s%016x%s", PREFIX, offset, suffix);
+    }
+
+    /**
+     * Returns the journal offset of the specified checkpoint file, or
+     * <code>-1</code> if its name is not one of a checkpoint.
+     */
+    private static long offsetOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(),
+                    name.length() - SUFFIX.length()), 16);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Copies the vertices and edges of a checkpoint into a new graph.
+     */
+    private static <V, E> UndirectedGraph<V,E> restore(
+            MappedGraph<V,E> snapshot) {
+        IndexedGraph<V,E> indexed = IndexedGraph.of(snapshot);
+        int n = indexed.bound();
+
+        // decode every vertex value once
+        @SuppressWarnings("unchecked")
+        V[] vertices = (V[]) new Object[n];
+        long slots = 0;
+        for (int u = 0; u < n; u++) {
+            vertices[u] = indexed.valueOf(u);
+            slots += indexed.degree(u);
+        }
+        UndirectedGraph<V,E> graph = new UndirectedGraph<V,E>(n,
+                (int) Math.min(slots / 2, Integer.MAX_VALUE));
+        for (V v : vertices) {
+            graph.addVertex(v);
+        }
+        for (int u = 0; u < n; u++) {
+            final int id1 = u;
+            // every edge is passed from both ends, a self edge once
+            indexed.forEachEdge(u, (id2, e) -> {
+                if (id2 >= id1) {
+                    graph.addEdge(vertices[id1], vertices[id2], e);
+                }
+            });
+        }
+        return graph;
+    }
+
+}
@@ -0,0 +1,101 @@
+package graphADT;
+
+/**
+ * GraphEvent<V,E> is an immutable record of a single change to a graph: a
+ * vertex value added or removed, or an edge with edge value <code>e</code>
+ * connecting vertex values <code>v1</code> and <code>v2</code> added or
+ * removed. Vertex events only hold <code>v1</code>. <br/>
+ * 
+ * @author Drew Reese
+ * 
+ * @param <V> - data type of vertex values
+ * @param <E> - data type of edge value
+ * 
+ */
+public final class GraphEvent<V, E> {
+
+    /**
+     * Kind of change to a graph.
+     */
+    public enum Type {
+        VERTEX_ADDED, VERTEX_REMOVED, EDGE_ADDED, EDGE_REMOVED
+    }
+
+    private final Type type;
+    private final V    v1;
+    private final V    v2;
+    private final E    e;
+
+    private GraphEvent(Type type, V v1, V v2, E e) {
+        this.type = type;
+        this.v1 = v1;
+        this.v2 = v2;
+        this.e = e;
+    }
+
+    /**
+     * Returns an event of a vertex value added to or removed from a graph.
+     */
+    static <V, E> GraphEvent<V,E> vertex(boolean added, V v) {
+        return new GraphEvent<V,E>(
+                added ? Type.VERTEX_ADDED : Type.VERTEX_REMOVED, v, null, null);
+    }
+
+    /**
+     * Returns an event of an edge added to or removed from a graph.
+     */
+    static <V, E> GraphEvent<V,E> edge(boolean added, V v1, V v2, E e) {
+        return new GraphEvent<V,E>(
+                added ? Type.EDGE_ADDED : Type.EDGE_REMOVED, v1, v2, e);
+    }
+
+    /**
+     * Returns the kind of change of this event.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns <code>true</code> if this event adds or removes a vertex.
+     */
+    public boolean isVertexEvent() {
+        return type == Type.VERTEX_ADDED || type == Type.VERTEX_REMOVED;
+    }
+
+    /**
+     * Returns the vertex value of a vertex event, or the first vertex value
+     * of the edge of an edge event.
+     */
+    public V getV1() {
+        return v1;
+    }
+
+    /**
+     * Returns the second vertex value of the edge of an edge event, or
+     * <code>null</code> for a vertex event.
+     */
+    public V getV2() {
+        return v2;
+    }
+
+    /**
+     * Returns the edge value of the edge of an edge event, can be
+     * <code>null</code>, and <code>null</code> for a vertex event.
+     */
+    public E getE() {
+        return e;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return isVertexEvent() ? type + " " + v1
+                : type + " " + e + "=(" + v1 + "<->" + v2 + ")";
+    }
+
+}
@@ -0,0 +1,543 @@
+package graphADT;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * GraphJournal<V,E> is a write-ahead journal of the changes made to an
+ * {@link UndirectedGraph}, appended to a local file so the graph can be
+ * rebuilt by {@link #replay} after the process dies. The journal listens to
+ * the graph and appends a record for every graph operation that changed it,
+ * holding all of its vertex and edge events, so an operation is replayed
+ * entirely or not at all. Each record is framed by its length and a CRC-32
+ * checksum, and replay stops at the first torn or corrupt record, which is
+ * where a crash during an append leaves the file. <br/>
+ * 
+ * Records are appended to an in-memory buffer, written to the file in large
+ * chunks and forced to storage by a background thread once per sync
+ * interval, so a graph operation never waits for the storage device and all
+ * the operations of an interval share a single sync. A crash loses at most
+ * the operations of the last interval. With a sync interval of zero every
+ * operation is forced before it returns. An I/O failure of the journal is
+ * rethrown as an {@link UncheckedIOException} by the next graph operation,
+ * after the graph was changed. A serializer failure also fails the journal,
+ * as the graph operation it could not record is missing from it. <br/>
+ * 
+ * The journal records the changes made after it is attached, so it is
+ * attached to an empty graph, or to a graph restored from a checkpoint taken
+ * when the journal was started. The graph must not be modified concurrently
+ * with {@link #close()}. <br/>
+ * 
+ * <h5>Journal format:</h5>
+ * header: magic, version (int) <br/>
+ * per record: body length, CRC-32 of body (int), body <br/>
+ * body: event count (int), per event: event type (byte), vertex value v1,
+ * for edge events vertex value v2 and edge value e <br/>
+ * value: byte length (int, -1 for a null edge value), serialized bytes <br/>
+ * 
+ * @author Drew Reese
+ * 
+ * @param <V> - data type of vertex values
+ * @param <E> - data type of edge values
+ * 
+ */
+public final class GraphJournal<V, E>
+        implements GraphListener<V,E>, Closeable {
+
+    // journal file header
+    private static final int MAGIC        = 0x474A4E4C;
+    private static final int VERSION      = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    // bytes of the length and checksum framing a record body
+    private static final int FRAME_BYTES = 2 * Integer.BYTES;
+
+    // buffered bytes written to the file without waiting for a sync
+    private static final int WRITE_THRESHOLD = 1 << 16;
+
+    // byte length of a null edge value
+    private static final int NULL_VALUE = -1;
+
+    // event types by their byte in the journal
+    private static final GraphEvent.Type[] TYPES = GraphEvent.Type.values();
+
+    /*
+     * Internal representation of graph journal
+     * 
+     * graph - journaled graph. channel - journal file, positioned at its end.
+     * vertexSerializer - serializer of vertex values. labelSerializer -
+     * serializer of non-null edge values. buffer - records appended but not
+     * yet written to channel. end - file offset after the last appended
+     * record, written or not. checksum - computes record checksums. syncer -
+     * forces channel once per sync interval, null if every record is forced.
+     * failure - first I/O or serializer failure of the journal. closed -
+     * whether the journal was closed.
+     */
+    private final UndirectedGraph<V,E>     graph;
+    private final FileChannel              channel;
+    private final Serializer<? super V>    vertexSerializer;
+    private final Serializer<? super E>    labelSerializer;
+    private ByteBuffer                     buffer;
+    private long                           end;
+    private final CRC32                    checksum;
+    private final ScheduledExecutorService syncer;
+    private IOException                    failure;
+    private boolean                        closed;
+
+    private GraphJournal(UndirectedGraph<V,E> graph, FileChannel channel,
+            Serializer<? super V> vertexSerializer,
+            Serializer<? super E> labelSerializer, long end,
+            long syncInterval, TimeUnit unit) {
+        this.graph = graph;
+        this.channel = channel;
+        this.vertexSerializer = vertexSerializer;
+        this.labelSerializer = labelSerializer;
+        this.buffer = ByteBuffer.allocate(2 * WRITE_THRESHOLD);
+        this.end = end;
+        this.checksum = new CRC32();
+        if (syncInterval > 0) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "graph-journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::groupCommit, syncInterval,
+                    syncInterval, unit);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Starts journaling the changes made to the specified graph to the
+     * specified file. A new file is created, while records are appended to an
+     * existing journal after dropping a torn record at its end.
+     * 
+     * @param graph - graph to journal
+     * @param file - journal file
+     * @param vertexSerializer - serializer of vertex values
+     * @param labelSerializer - serializer of non-null edge values
+     * @param syncInterval - time between forcing the journal to storage, zero
+     *            to force every graph operation
+     * @param unit - unit of <code>syncInterval</code>
+     * @return journal attached to <code>graph</code>
+     * @throws IOException if <code>file</code> cannot be opened, or is not a
+     *             journal of a supported version
+     * @throws NullPointerException if any argument is <code>null</code>
+     * @throws IllegalArgumentException if <code>syncInterval</code> is
+     *             negative
+     */
+    public static <V, E> GraphJournal<V,E> attach(UndirectedGraph<V,E> graph,
+            Path file, Serializer<? super V> vertexSerializer,
+            Serializer<? super E> labelSerializer, long syncInterval,
+            TimeUnit unit) throws IOException, NullPointerException,
+            IllegalArgumentException {
+        if (graph == null) {
+            throw new NullPointerException("Graph null");
+        } else if (file == null) {
+            throw new NullPointerException("File null");
+        } else if (vertexSerializer == null || labelSerializer == null) {
+            throw new NullPointerException("Serializer null");
+        } else if (unit == null) {
+            throw new NullPointerException("Time unit null");
+        }
+        if (syncInterval < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal sync interval: " + syncInterval);
+        }
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                channel.force(true);
+            } else {
+                // drop a torn record so new records stay reachable
+                Reader reader = new Reader(channel, HEADER_BYTES);
+                while (reader.next() != null) {
+                    // skip valid records
+                }
+                channel.truncate(reader.position());
+            }
+            channel.position(channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        GraphJournal<V,E> journal = new GraphJournal<V,E>(graph, channel,
+                vertexSerializer, labelSerializer, channel.size(),
+                syncInterval, unit);
+        graph.addGraphListener(journal);
+        return journal;
+    }
+
+    /**
+     * Applies the changes recorded in the specified journal file to the
+     * specified graph, in the order they were made, up to the first torn or
+     * corrupt record. The graph must hold what the journaled graph held when
+     * the journal was attached, and must not have a journal attached itself.
+     * 
+     * @param file - journal file to replay
+     * @param graph - graph to apply the changes to
+     * @param vertexSerializer - serializer of vertex values
+     * @param labelSerializer - serializer of non-null edge values
+     * @return number of graph operations replayed
+     * @throws IOException if <code>file</code> cannot be read, or is not a
+     *             journal of a supported version
+     * @throws NullPointerException if any argument is <code>null</code>
+     */
+    public static <V, E> long replay(Path file, UndirectedGraph<V,E> graph,
+            Serializer<V> vertexSerializer, Serializer<E> labelSerializer)
+            throws IOException, NullPointerException {
+        return replay(file, graph, vertexSerializer, labelSerializer,
+                HEADER_BYTES);
+    }
+
+    /**
+     * Applies the changes recorded in the specified journal file from the
+     * specified offset on, as returned by {@link #offset()}, to a graph
+     * holding what the journaled graph held at that offset.
+     * 
+     * @throws IOException if <code>file</code> cannot be read, is not a
+     *             journal of a supported version, or ends before
+     *             <code>offset</code>
+     * @see #replay(Path, UndirectedGraph, Serializer, Serializer)
+     */
+    static <V, E> long replay(Path file, UndirectedGraph<V,E> graph,
+            Serializer<V> vertexSerializer, Serializer<E> labelSerializer,
+            long offset) throws IOException, NullPointerException {
+        if (file == null) {
+            throw new NullPointerException("File null");
+        } else if (graph == null) {
+            throw new NullPointerException("Graph null");
+        } else if (vertexSerializer == null || labelSerializer == null) {
+            throw new NullPointerException("Serializer null");
+        }
+
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            Reader reader = new Reader(channel, offset);
+            for (ByteBuffer body; (body = reader.next()) != null; records++) {
+                for (int count = body.getInt(); count > 0; count--) {
+                    GraphEvent.Type type = TYPES[body.get()];
+                    V v1 = readValue(body, vertexSerializer);
+                    switch (type) {
+                    case VERTEX_ADDED:
+                        graph.addVertex(v1);
+                        break;
+                    case VERTEX_REMOVED:
+                        graph.removeVertex(v1);
+                        break;
+                    case EDGE_ADDED:
+                        graph.addEdge(v1, readValue(body, vertexSerializer),
+                                readValue(body, labelSerializer));
+                        break;
+                    case EDGE_REMOVED:
+                        graph.removeEdge(v1, readValue(body, vertexSerializer),
+                                readValue(body, labelSerializer));
+                        break;
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Appends a record of the changes of a graph operation to the journal.
+     * 
+     * @throws UncheckedIOException if the journal failed to write or sync
+     */
+    @Override
+    public void graphChanged(List<GraphEvent<V,E>> events)
+            throws UncheckedIOException {
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal closed");
+            } else if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+            int start = buffer.position();
+            reserve(FRAME_BYTES + Integer.BYTES);
+            buffer.position(start + FRAME_BYTES);
+            buffer.putInt(events.size());
+            try {
+                for (GraphEvent<V,E> event : events) {
+                    reserve(1);
+                    buffer.put((byte) event.getType().ordinal());
+                    writeValue(vertexSerializer.toBytes(event.getV1()));
+                    if (!event.isVertexEvent()) {
+                        writeValue(vertexSerializer.toBytes(event.getV2()));
+                        writeValue((event.getE() == null) ? null
+                                : labelSerializer.toBytes(event.getE()));
+                    }
+                }
+            } catch (RuntimeException e) {
+                // the graph already changed, so no later record would replay
+                // onto the state it was recorded from
+                buffer.position(start);
+                failure = new IOException("Journal failed to serialize: "
+                        + events, e);
+                throw e;
+            }
+            int length = buffer.position() - start - FRAME_BYTES;
+            checksum.reset();
+            checksum.update(buffer.array(), start + FRAME_BYTES, length);
+            buffer.putInt(start, length);
+            buffer.putInt(start + Integer.BYTES, (int) checksum.getValue());
+            end += FRAME_BYTES + length;
+
+            if (buffer.position() >= WRITE_THRESHOLD) {
+                try {
+                    writeBuffer();
+                } catch (IOException e) {
+                    failure = e;
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        if (syncer == null) {
+            try {
+                sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Forces every record appended so far to storage, without waiting for
+     * the next sync interval.
+     * 
+     * @throws IOException if the journal failed to write or sync
+     */
+    public void sync() throws IOException {
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                writeBuffer();
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+        // appends go on while the device syncs
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            synchronized (this) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the file offset after the last record appended so far, where
+     * the record of the next graph operation starts.
+     */
+    synchronized long offset() {
+        return end;
+    }
+
+    /**
+     * Stops journaling the graph, forcing every record appended so far to
+     * storage and closing the journal file.
+     * 
+     * @throws IOException if the journal failed to write or sync
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        // records events the graph still holds for this journal
+        graph.removeGraphListener(this);
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            if (syncer != null) {
+                syncer.shutdown();
+                try {
+                    syncer.awaitTermination(Long.MAX_VALUE,
+                            TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Syncs the journal on the sync interval, keeping a failure for the next
+     * graph operation to rethrow.
+     */
+    private void groupCommit() {
+        try {
+            sync();
+        } catch (IOException e) {
+            // kept in failure by sync
+        }
+    }
+
+    /**
+     * Writes the buffered records to the journal file.
+     */
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Appends a value of the specified bytes, <code>null</code> for a null
+     * edge value, to the buffer.
+     */
+    private void writeValue(byte[] bytes) {
+        if (bytes == null) {
+            reserve(Integer.BYTES);
+            buffer.putInt(NULL_VALUE);
+        } else {
+            reserve(Integer.BYTES + bytes.length);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    /**
+     * Grows the buffer to hold at least the specified number of bytes more.
+     */
+    private void reserve(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(
+                    buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            buffer = grown.put(buffer);
+        }
+    }
+
+    /**
+     * Reads a value written by {@link #writeValue(byte[])}.
+     */
+    private static <T> T readValue(ByteBuffer body, Serializer<T> serializer) {
+        int length = body.getInt();
+        if (length == NULL_VALUE) {
+            return null;
+        }
+        ByteBuffer bytes = body.slice();
+        bytes.limit(length);
+        body.position(body.position() + length);
+        return serializer.fromBytes(bytes);
+    }
+
+    /**
+     * Reader class reads the valid records of a journal file in order.
+     * 
+     * @author Drew Reese
+     */
+    private static final class Reader {
+
+        private final DataInputStream in;
+        private final long            size;
+        private long                  position;
+
+        /**
+         * Constructs a reader of the records of a journal file starting at
+         * the specified offset, checking its header.
+         */
+        public Reader(FileChannel channel, long start) throws IOException {
+            this.size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (size < HEADER_BYTES || channel.read(header, 0) < HEADER_BYTES
+                    || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a graph journal");
+            }
+            int version = header.getInt(Integer.BYTES);
+            if (version != VERSION) {
+                throw new IOException(
+                        "Unsupported journal version: " + version);
+            }
+            if (start < HEADER_BYTES || start > size) {
+                throw new IOException("Illegal journal offset: " + start);
+            }
+            this.in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel.position(start)),
+                    WRITE_THRESHOLD));
+            this.position = start;
+        }
+
+        /**
+         * Returns the body of the next record, or <code>null</code> at the
+         * end of the journal or at a torn or corrupt record.
+         */
+        public ByteBuffer next() throws IOException {
+            if (size - position < FRAME_BYTES) {
+                return null;
+            }
+            int length;
+            int sum;
+            byte[] body;
+            try {
+                length = in.readInt();
+                sum = in.readInt();
+                if (length < Integer.BYTES
+                        || length > size - position - FRAME_BYTES) {
+                    return null;
+                }
+                body = new byte[length];
+                in.readFully(body);
+            } catch (EOFException e) {
+                return null;
+            }
+            CRC32 checksum = new CRC32();
+            checksum.update(body, 0, length);
+            if ((int) checksum.getValue() != sum) {
+                return null;
+            }
+            position += FRAME_BYTES + length;
+            return ByteBuffer.wrap(body);
+        }
+
+        /**
+         * Returns the file position after the last valid record read.
+         */
+        public long position() {
+            return position;
+        }
+
+    }
+
+}
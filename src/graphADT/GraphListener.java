@@ -0,0 +1,29 @@
+package graphADT;
+
+import java.util.List;
+
+/**
+ * GraphListener<V,E> receives the changes made to a graph it is registered
+ * with, as batches of events in the order the changes were made. A batch is
+ * only delivered between graph operations, so the graph is consistent while
+ * the listener runs, and it holds every event of the operations it covers,
+ * including the edge removals cascaded from removing a vertex. <br/>
+ * 
+ * @author Drew Reese
+ * 
+ * @param <V> - data type of vertex values
+ * @param <E> - data type of edge value
+ * 
+ */
+@FunctionalInterface
+public interface GraphListener<V, E> {
+
+    /**
+     * Receives a batch of changes made to the graph. The list is unmodifiable
+     * and is not used by the graph after this method returns.
+     * 
+     * @param events - changes in the order they were made, never empty
+     */
+    void graphChanged(List<GraphEvent<V,E>> events);
+
+}
@@ -0,0 +1,349 @@
+package graphADT;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Graphs class consists of static methods that operate on or return
+ * AbstractGraphs, in the manner of {@link java.util.Collections}. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+public final class Graphs {
+
+    private Graphs() {
+    }
+
+    /**
+     * Returns a thread-safe graph backed by the specified graph, tuned for
+     * workloads that mostly query the graph. Queries run without locking and
+     * are validated afterwards, and only retry under a read lock if a
+     * modification ran concurrently, so concurrent queries do not contend with
+     * each other. Modifications hold an exclusive write lock. <br/>
+     * 
+     * All access to the backing graph must go through the returned graph.
+     * The backing graph's queries must not modify it, and must tolerate
+     * running concurrently with a modification, their result, exception or
+     * error is discarded in that case. Iterating a view returned by the graph
+     * iterates a copy of the view taken under the read lock.
+     * 
+     * @param graph - the graph to be wrapped
+     * @return a read-mostly thread-safe view of the specified graph
+     * @throws NullPointerException if specified graph is <code>null</code>
+     */
+    public static <V, E> AbstractGraph<V,E> readMostlyGraph(
+            AbstractGraph<V,E> graph) throws NullPointerException {
+        if (graph == null) {
+            throw new NullPointerException("Graph null");
+        }
+        return new ReadMostlyGraph<V,E>(graph);
+    }
+
+    /**
+     * ReadMostlyGraph class guards a backing graph with a StampedLock, using
+     * optimistic reads for queries and the write lock for modifications.
+     * 
+     * @author Drew Reese
+     */
+    private static final class ReadMostlyGraph<V, E>
+            implements AbstractGraph<V,E> {
+
+        private final AbstractGraph<V,E> graph;
+        private final StampedLock        lock;
+
+        public ReadMostlyGraph(AbstractGraph<V,E> graph) {
+            this.graph = graph;
+            this.lock = new StampedLock();
+        }
+
+        /**
+         * Runs a query optimistically, then under the read lock if a write
+         * ran concurrently.
+         */
+        private <T> T read(Supplier<T> query) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                try {
+                    T result = query.get();
+                    if (lock.validate(stamp)) {
+                        return result;
+                    }
+                } catch (Throwable t) {
+                    // only a failure of a consistent read is genuine, torn
+                    // state may also raise errors such as StackOverflowError
+                    if (lock.validate(stamp)) {
+                        throw t;
+                    }
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                return query.get();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Runs a modification under the write lock.
+         */
+        private <T> T write(Supplier<T> modification) {
+            long stamp = lock.writeLock();
+            try {
+                return modification.get();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public boolean addVertex(V v) throws NullPointerException {
+            return write(() -> graph.addVertex(v));
+        }
+
+        @Override
+        public boolean addEdge(V v1, V v2) throws NullPointerException {
+            return write(() -> graph.addEdge(v1, v2));
+        }
+
+        @Override
+        public boolean addEdge(V v1, V v2, E e) throws NullPointerException {
+            return write(() -> graph.addEdge(v1, v2, e));
+        }
+
+        @Override
+        public boolean addAllVertices(Collection<? extends V> vertices)
+                throws NullPointerException {
+            return write(() -> graph.addAllVertices(vertices));
+        }
+
+        @Override
+        public boolean addAllEdges(
+                Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+                throws NullPointerException {
+            return write(() -> graph.addAllEdges(edges));
+        }
+
+        @Override
+        public boolean containsVertex(V v) {
+            return read(() -> graph.containsVertex(v));
+        }
+
+        @Override
+        public boolean containsEdge(E e) {
+            return read(() -> graph.containsEdge(e));
+        }
+
+        @Override
+        public boolean containsEdge(V v1, V v2) throws NullPointerException {
+            return read(() -> graph.containsEdge(v1, v2));
+        }
+
+        @Override
+        public Set<V> vertexSet() {
+            return read(() -> graph.vertexSet());
+        }
+
+        @Override
+        public Set<E> edgeSet() {
+            return read(() -> graph.edgeSet());
+        }
+
+        @Override
+        public Set<E> edgeSet(V v) throws NullPointerException {
+            return read(() -> graph.edgeSet(v));
+        }
+
+        @Override
+        public Set<V> vertexView() {
+            return new ReadSet<V>(read(() -> graph.vertexView()));
+        }
+
+        @Override
+        public Set<E> edgeView() {
+            return new ReadSet<E>(read(() -> graph.edgeView()));
+        }
+
+        @Override
+        public Collection<E> edgeView(V v) throws NullPointerException {
+            Collection<E> view = read(() -> graph.edgeView(v));
+            return (view != null) ? new ReadCollection<E>(view) : null;
+        }
+
+        @Override
+        public int degree(V v) throws NullPointerException {
+            return read(() -> graph.degree(v));
+        }
+
+        /**
+         * {@inheritDoc} <br>
+         * 
+         * Note: the action cannot be undone, so the neighbors are iterated
+         * under the read lock instead of optimistically.
+         */
+        @Override
+        public boolean forEachNeighbor(V v, Consumer<? super V> action)
+                throws NullPointerException {
+            long stamp = lock.readLock();
+            try {
+                return graph.forEachNeighbor(v, action);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * {@inheritDoc} <br>
+         * 
+         * Note: the action cannot be undone, so the edges are iterated under
+         * the read lock instead of optimistically.
+         */
+        @Override
+        public boolean forEachIncidentEdge(V v,
+                BiConsumer<? super V,? super E> action)
+                throws NullPointerException {
+            long stamp = lock.readLock();
+            try {
+                return graph.forEachIncidentEdge(v, action);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @Override
+        public Set<E> edgeSet(V v1, V v2) throws NullPointerException {
+            return read(() -> graph.edgeSet(v1, v2));
+        }
+
+        @Override
+        public E getEdge(V v1, V v2) throws NullPointerException {
+            return read(() -> graph.getEdge(v1, v2));
+        }
+
+        @Override
+        public boolean removeAllEdges(Collection<? extends E> edges)
+                throws NullPointerException {
+            return write(() -> graph.removeAllEdges(edges));
+        }
+
+        @Override
+        public Set<E> removeAllEdges(V v1, V v2) throws NullPointerException {
+            return write(() -> graph.removeAllEdges(v1, v2));
+        }
+
+        @Override
+        public boolean removeAllVertices(Collection<? extends V> vertices)
+                throws NullPointerException {
+            return write(() -> graph.removeAllVertices(vertices));
+        }
+
+        @Override
+        public boolean removeEdge(E e) {
+            return write(() -> graph.removeEdge(e));
+        }
+
+        @Override
+        public E removeEdge(V v1, V v2) throws NullPointerException {
+            return write(() -> graph.removeEdge(v1, v2));
+        }
+
+        @Override
+        public boolean removeVertex(V v) {
+            return write(() -> graph.removeVertex(v));
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return read(() -> graph.toString());
+        }
+
+        /**
+         * Returns a copy of a view of the backing graph taken under the read
+         * lock, it is iterated while writes are in progress.
+         */
+        private <T> Collection<T> copyOf(Collection<T> view) {
+            return read(() -> Collections
+                    .unmodifiableCollection(new ArrayList<T>(view)));
+        }
+
+        /**
+         * ReadSet class guards an unmodifiable live set view of the backing
+         * graph.
+         * 
+         * @author Drew Reese
+         */
+        private final class ReadSet<T> extends AbstractSet<T> {
+
+            private final Set<T> view;
+
+            public ReadSet(Set<T> view) {
+                this.view = view;
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return copyOf(view).iterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return read(() -> view.contains(o));
+            }
+
+            @Override
+            public int size() {
+                return read(() -> view.size());
+            }
+
+        }
+
+        /**
+         * ReadCollection class guards an unmodifiable live collection view of
+         * the backing graph.
+         * 
+         * @author Drew Reese
+         */
+        private final class ReadCollection<T> extends AbstractCollection<T> {
+
+            private final Collection<T> view;
+
+            public ReadCollection(Collection<T> view) {
+                this.view = view;
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return copyOf(view).iterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return read(() -> view.contains(o));
+            }
+
+            @Override
+            public int size() {
+                return read(() -> view.size());
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,248 @@
+package graphADT;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * IndexedGraph<V,E> is a read-only view of the vertices and edges of a
+ * graph by dense integer vertex id, used by graph algorithms to keep their
+ * per-vertex state in arrays instead of hash maps. Ids lie in
+ * <code>[0, bound())</code> and may have holes, ids without a vertex value
+ * have no neighbors. An indexed graph is safe for concurrent reads as long as
+ * the graph it views is not modified. <br/>
+ * 
+ * @author Drew Reese
+ *
+ * @param <V> - data type of vertex values
+ * @param <E> - data type of edge values
+ * 
+ */
+abstract class IndexedGraph<V, E> {
+
+    /**
+     * EdgeAction is an action performed for an edge touching a vertex, given
+     * the neighbor id at the other end of the edge and the edge value.
+     */
+    @FunctionalInterface
+    interface EdgeAction<E> {
+
+        void accept(int neighbor, E e);
+
+    }
+
+    /**
+     * Returns one past the highest vertex id, all ids are below this bound.
+     */
+    abstract int bound();
+
+    /**
+     * Returns the id of the specified vertex value.
+     * 
+     * @param v - vertex value to look up
+     * @return id of vertex value <code>v</code>, or <code>-1</code> if not in
+     *         the graph
+     */
+    abstract int idOf(V v);
+
+    /**
+     * Returns the vertex value of the specified id.
+     * 
+     * @param id - vertex id to look up
+     * @return vertex value with id <code>id</code>, or <code>null</code> if id
+     *         is free
+     */
+    abstract V valueOf(int id);
+
+    /**
+     * Returns the number of edges incident to the vertex of the specified id,
+     * counting a self edge once.
+     */
+    abstract int degree(int id);
+
+    /**
+     * Returns the first neighbor id of the vertex of the specified id
+     * accepted by the predicate, stopping at the first accepted neighbor. A
+     * neighbor is tested once per edge.
+     * 
+     * @param id - vertex id whose neighbors to test
+     * @param predicate - test of neighbor ids
+     * @return first accepted neighbor id, or <code>-1</code> if no neighbor
+     *         is accepted
+     */
+    abstract int findNeighbor(int id, IntPredicate predicate);
+
+    /**
+     * Performs the specified action for each edge touching the vertex of the
+     * specified id. A self edge passes <code>id</code> itself as neighbor.
+     * 
+     * @param id - vertex id whose edges to pass
+     * @param action - action performed for each neighbor id and edge value
+     */
+    abstract void forEachEdge(int id, EdgeAction<? super E> action);
+
+    /**
+     * Returns an indexed view of the specified graph. Graphs that keep their
+     * adjacency by id are viewed in place, any other graph is packed into
+     * compressed sparse row arrays first.
+     * 
+     * @param graph - graph to index
+     * @return indexed view of <code>graph</code>
+     */
+    static <V, E> IndexedGraph<V,E> of(AbstractGraph<V,E> graph) {
+        if (graph instanceof CompactGraph) {
+            return ((CompactGraph<V,E>) graph).indexed();
+        } else if (graph instanceof UndirectedGraph) {
+            return ((UndirectedGraph<V,E>) graph).indexed();
+        } else if (graph instanceof MappedGraph) {
+            return ((MappedGraph<V,E>) graph).indexed();
+        } else if (graph instanceof OffHeapGraph) {
+            return ((OffHeapGraph<V,E>) graph).indexed();
+        } else if (graph instanceof EdgeTableGraph) {
+            return ((EdgeTableGraph<V,E>) graph).indexed();
+        }
+        return pack(graph);
+    }
+
+    /**
+     * Packs the vertices and edges of the specified graph into compressed
+     * sparse row arrays. Neighbors added while a thread-safe graph is packed
+     * are only kept if their vertex was already taken.
+     */
+    private static <V, E> IndexedGraph<V,E> pack(AbstractGraph<V,E> graph) {
+        @SuppressWarnings("unchecked")
+        final V[] vertices = (V[]) graph.vertexSet().toArray();
+        final Map<V,Integer> vertexIds = new HashMap<V,Integer>(
+                (int) (vertices.length / 0.75f) + 1);
+        for (int id = 0; id < vertices.length; id++) {
+            vertexIds.put(vertices[id], id);
+        }
+
+        final int[] offsets = new int[vertices.length + 1];
+        final int[][] neighbors = { new int[vertices.length] };
+        @SuppressWarnings("unchecked")
+        final E[][] labels = (E[][]) new Object[][] {
+                new Object[vertices.length] };
+        for (int u = 0; u < vertices.length; u++) {
+            final int row = u;
+            graph.forEachIncidentEdge(vertices[u], (w, e) -> {
+                Integer id = vertexIds.get(w);
+                if (id != null) {
+                    int size = offsets[row + 1];
+                    if (size == neighbors[0].length) {
+                        neighbors[0] = Arrays.copyOf(neighbors[0], size * 2);
+                        labels[0] = Arrays.copyOf(labels[0], size * 2);
+                    }
+                    neighbors[0][size] = id;
+                    labels[0][size] = e;
+                    offsets[row + 1] = size + 1;
+                }
+            });
+            if (u + 1 < vertices.length) {
+                offsets[u + 2] = offsets[u + 1];
+            }
+        }
+        return new Packed<V,E>(vertices, vertexIds, offsets, neighbors[0],
+                labels[0]);
+    }
+
+    /**
+     * Packed class is an indexed graph over compressed sparse row arrays.
+     */
+    static final class Packed<V, E> extends IndexedGraph<V,E> {
+
+        /*
+         * Internal representation of packed indexed graph
+         * 
+         * vertices - maps vertex id to vertex value. vertexIds - maps vertex
+         * value to vertex id. offsets - row boundaries, row of vertex id u is
+         * the range [offsets[u], offsets[u + 1]). neighbors - packed neighbor
+         * vertex ids of every row. labels - edge value of the edge stored in
+         * the matching neighbors slot.
+         */
+        private final V[]            vertices;
+        private final Map<V,Integer> vertexIds;
+        private final int[]          offsets;
+        private final int[]          neighbors;
+        private final E[]            labels;
+
+        /**
+         * Constructs a new packed indexed graph sharing the specified arrays,
+         * which must not be modified afterwards.
+         */
+        Packed(V[] vertices, Map<V,Integer> vertexIds, int[] offsets,
+                int[] neighbors, E[] labels) {
+            this.vertices = vertices;
+            this.vertexIds = vertexIds;
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+            this.labels = labels;
+        }
+
+        @Override
+        int bound() {
+            return vertices.length;
+        }
+
+        @Override
+        int idOf(V v) {
+            Integer id = vertexIds.get(v);
+            return (id != null) ? id : -1;
+        }
+
+        @Override
+        V valueOf(int id) {
+            return vertices[id];
+        }
+
+        @Override
+        int degree(int id) {
+            return offsets[id + 1] - offsets[id];
+        }
+
+        @Override
+        int findNeighbor(int id, IntPredicate predicate) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                if (predicate.test(neighbors[i])) {
+                    return neighbors[i];
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        void forEachEdge(int id, EdgeAction<? super E> action) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                action.accept(neighbors[i], labels[i]);
+            }
+        }
+
+        /**
+         * Returns the row boundaries, row of vertex id u is the range
+         * <code>[offsets[u], offsets[u + 1])</code> of the neighbors. The
+         * returned array must not be modified.
+         */
+        int[] offsets() {
+            return offsets;
+        }
+
+        /**
+         * Returns the packed neighbor vertex ids of every row. The returned
+         * array must not be modified.
+         */
+        int[] neighbors() {
+            return neighbors;
+        }
+
+        /**
+         * Returns the edge values of the matching neighbor slots. The
+         * returned array must not be modified.
+         */
+        E[] labels() {
+            return labels;
+        }
+
+    }
+
+}
@@ -0,0 +1,916 @@
+package graphADT;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * MappedGraph<V,E> represents an immutable undirected multi-graph read from a
+ * binary snapshot file written from a {@link CompactGraph}. The snapshot is
+ * memory-mapped read-only and queries are answered directly from the mapped
+ * buffers, vertex and edge values being found through hash tables stored in
+ * the snapshot and decoded on demand by serializers. Opening a snapshot maps
+ * the file without building any per-vertex or per-edge structure on the heap,
+ * so it takes about the same time whatever the size of the graph. A mapped
+ * graph answers the same queries as the compact graph it was written from,
+ * and is safe for concurrent queries. All operations that would modify this
+ * graph throw {@link UnsupportedOperationException}. <br/>
+ * 
+ * <h5>Snapshot format, version 1:</h5>
+ * All numbers are big-endian, every section directly follows the previous
+ * one.
+ * <ul>
+ * <li>header - magic number, version, vertex count n, slot count s, edge
+ * value count l, flags, byte length of vertex values and byte length of edge
+ * values as longs</li>
+ * <li>vertex dictionary - n + 1 int offsets of the bytes of each vertex id,
+ * and a hash table of vertex id + 1 by hash of the bytes, 0 for free
+ * entries</li>
+ * <li>edge value dictionary - the same for the l distinct edge values other
+ * than null</li>
+ * <li>adjacency - n + 1 int row offsets, s neighbor vertex ids sorted
+ * ascending within each row, and s edge value ids, -1 for null</li>
+ * <li>serialized vertex values, then serialized edge values</li>
+ * </ul>
+ * Sections are mapped as single buffers and are limited to 2GB each, which
+ * allows for about 250 million edges.
+ * 
+ * @author Drew Reese
+ * 
+ * @param <V> - data type to store as vertices
+ * @param <E> - data type to store as edges
+ * 
+ */
+public final class MappedGraph<V, E> implements AbstractGraph<V,E> {
+
+    // "GADT"
+    private static final int MAGIC = 0x47414454;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 40;
+
+    // flag of snapshots with null edge values
+    private static final int NULL_LABELS = 1;
+
+    /*
+     * Internal representation of mapped graph
+     * 
+     * vertices - vertex values by vertex id. labels - distinct non-null edge
+     * values by label id. offsets - row boundaries, row of vertex id u is the
+     * range [offsets[u], offsets[u + 1]). neighbors - packed neighbor vertex
+     * ids of every row, sorted ascending within each row. slotLabels - label
+     * id of the edge stored in the matching neighbors slot, -1 for null.
+     * nullLabels - whether some edge value is null.
+     */
+    private final Dictionary<V> vertices;
+    private final Dictionary<E> labels;
+    private final IntBuffer     offsets;
+    private final IntBuffer     neighbors;
+    private final IntBuffer     slotLabels;
+    private final boolean       nullLabels;
+
+    private MappedGraph(Dictionary<V> vertices, Dictionary<E> labels,
+            IntBuffer offsets, IntBuffer neighbors, IntBuffer slotLabels,
+            boolean nullLabels) {
+        this.vertices = vertices;
+        this.labels = labels;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.slotLabels = slotLabels;
+        this.nullLabels = nullLabels;
+    }
+
+    /**
+     * Writes a snapshot of the specified compact graph to the specified file,
+     * replacing its contents, and forces it to storage.
+     * 
+     * @param graph - graph to write
+     * @param file - file to write to
+     * @param vertexSerializer - serializer of vertex values
+     * @param labelSerializer - serializer of non-null edge values
+     * @throws IOException if <code>file</code> cannot be written, or a
+     *             section of the snapshot would exceed 2GB
+     * @throws NullPointerException if any argument is <code>null</code>
+     */
+    public static <V, E> void write(CompactGraph<V,E> graph, Path file,
+            Serializer<? super V> vertexSerializer,
+            Serializer<? super E> labelSerializer)
+            throws IOException, NullPointerException {
+        if (graph == null) {
+            throw new NullPointerException("Graph null");
+        } else if (file == null) {
+            throw new NullPointerException("File null");
+        } else if (vertexSerializer == null || labelSerializer == null) {
+            throw new NullPointerException("Serializer null");
+        }
+
+        IndexedGraph.Packed<V,E> packed = graph.indexed();
+        int n = packed.bound();
+        int[] offsets = packed.offsets();
+        int[] neighbors = packed.neighbors();
+        E[] slotValues = packed.labels();
+        int slots = offsets[n];
+        if ((long) slots * Integer.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot section too large");
+        }
+
+        List<byte[]> vertexBytes = new ArrayList<byte[]>(n);
+        for (int u = 0; u < n; u++) {
+            vertexBytes.add(vertexSerializer.toBytes(packed.valueOf(u)));
+        }
+
+        // label ids in order of first slot
+        Map<E,Integer> labelIds = new HashMap<E,Integer>();
+        List<byte[]> labelBytes = new ArrayList<byte[]>();
+        int[] slotLabels = new int[slots];
+        int flags = 0;
+        for (int i = 0; i < slots; i++) {
+            E e = slotValues[i];
+            if (e == null) {
+                slotLabels[i] = -1;
+                flags |= NULL_LABELS;
+                continue;
+            }
+            Integer id = labelIds.get(e);
+            if (id == null) {
+                id = labelBytes.size();
+                labelIds.put(e, id);
+                labelBytes.add(labelSerializer.toBytes(e));
+            }
+            slotLabels[i] = id;
+        }
+        long vertexLength = byteLength(vertexBytes);
+        long labelLength = byteLength(labelBytes);
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeInt(slots);
+            out.writeInt(labelBytes.size());
+            out.writeInt(flags);
+            out.writeLong(vertexLength);
+            out.writeLong(labelLength);
+            writeDictionary(out, vertexBytes);
+            writeDictionary(out, labelBytes);
+            writeInts(out, offsets, n + 1);
+            writeInts(out, neighbors, slots);
+            writeInts(out, slotLabels, slots);
+            for (byte[] bytes : vertexBytes) {
+                out.write(bytes);
+            }
+            for (byte[] bytes : labelBytes) {
+                out.write(bytes);
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Opens a snapshot file written by
+     * {@link #write(CompactGraph, Path, Serializer, Serializer)}. The file
+     * must not be modified while the returned graph is in use.
+     * 
+     * @param file - snapshot file to open
+     * @param vertexSerializer - serializer of vertex values
+     * @param labelSerializer - serializer of non-null edge values
+     * @return graph of the vertices and edges of the snapshot
+     * @throws IOException if <code>file</code> cannot be read, or is not a
+     *             snapshot of a supported version
+     * @throws NullPointerException if any argument is <code>null</code>
+     */
+    public static <V, E> MappedGraph<V,E> open(Path file,
+            Serializer<V> vertexSerializer, Serializer<E> labelSerializer)
+            throws IOException, NullPointerException {
+        if (file == null) {
+            throw new NullPointerException("File null");
+        } else if (vertexSerializer == null || labelSerializer == null) {
+            throw new NullPointerException("Serializer null");
+        }
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a graph snapshot: " + file);
+            }
+            ByteBuffer header = map(channel, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a graph snapshot: " + file);
+            } else if (header.getInt(4) != VERSION) {
+                throw new IOException(
+                        "Unsupported snapshot version: " + header.getInt(4));
+            }
+            int n = header.getInt(8);
+            int slots = header.getInt(12);
+            int labelCount = header.getInt(16);
+            int flags = header.getInt(20);
+            long vertexLength = header.getLong(24);
+            long labelLength = header.getLong(32);
+            if (n < 0 || slots < 0 || labelCount < 0 || vertexLength < 0
+                    || labelLength < 0 || size != HEADER_BYTES
+                            + Integer.BYTES * ((n + 1L) + tableSize(n)
+                                    + (labelCount + 1L) + tableSize(labelCount)
+                                    + (n + 1L) + 2L * slots)
+                            + vertexLength + labelLength) {
+                throw new IOException("Corrupt graph snapshot: " + file);
+            }
+
+            long position = HEADER_BYTES;
+            IntBuffer vertexOffsets = ints(channel, position, n + 1);
+            position += Integer.BYTES * (n + 1L);
+            IntBuffer vertexTable = ints(channel, position, tableSize(n));
+            position += Integer.BYTES * (long) tableSize(n);
+            IntBuffer labelOffsets = ints(channel, position, labelCount + 1);
+            position += Integer.BYTES * (labelCount + 1L);
+            IntBuffer labelTable = ints(channel, position,
+                    tableSize(labelCount));
+            position += Integer.BYTES * (long) tableSize(labelCount);
+            IntBuffer offsets = ints(channel, position, n + 1);
+            position += Integer.BYTES * (n + 1L);
+            IntBuffer neighbors = ints(channel, position, slots);
+            position += Integer.BYTES * (long) slots;
+            IntBuffer slotLabels = ints(channel, position, slots);
+            position += Integer.BYTES * (long) slots;
+            ByteBuffer vertexValues = map(channel, position, vertexLength);
+            position += vertexLength;
+            ByteBuffer labelValues = map(channel, position, labelLength);
+
+            return new MappedGraph<V,E>(
+                    new Dictionary<V>(vertexSerializer, vertexOffsets,
+                            vertexTable, vertexValues),
+                    new Dictionary<E>(labelSerializer, labelOffsets,
+                            labelTable, labelValues),
+                    offsets, neighbors, slotLabels,
+                    (flags & NULL_LABELS) != 0);
+        }
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addVertex(V v) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addEdge(V v1, V v2) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addEdge(V v1, V v2, E e) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean addAllEdges(
+            Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+            throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return v != null && vertices.idOf(v) >= 0;
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return (e == null) ? nullLabels : labels.idOf(e) >= 0;
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertices.idOf(v1);
+        int id2 = vertices.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return false;
+        }
+        return firstSlot(id1, id2) >= 0;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the returned set is an unmodifiable view of this graph's vertices,
+     * decoding vertex values as it is iterated.
+     */
+    @Override
+    public Set<V> vertexSet() {
+        return new AbstractSet<V>() {
+
+            @Override
+            public Iterator<V> iterator() {
+                return new DictionaryIterator<V>(vertices, false);
+            }
+
+            @Override
+            public int size() {
+                return vertices.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return vertices.contains(o);
+            }
+
+        };
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the returned set is an unmodifiable view of this graph's edges,
+     * decoding edge values as it is iterated.
+     */
+    @Override
+    public Set<E> edgeSet() {
+        return new AbstractSet<E>() {
+
+            @Override
+            public Iterator<E> iterator() {
+                return new DictionaryIterator<E>(labels, nullLabels);
+            }
+
+            @Override
+            public int size() {
+                return labels.size() + (nullLabels ? 1 : 0);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return (o == null) ? nullLabels : labels.contains(o);
+            }
+
+        };
+    }
+
+    @Override
+    public Set<E> edgeSet(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id = vertices.idOf(v);
+        if (id < 0) {
+            return null;
+        }
+        Set<E> returnEdgeSet = new HashSet<E>();
+        for (int i = offsets.get(id); i < offsets.get(id + 1); i++) {
+            returnEdgeSet.add(label(i));
+        }
+        return returnEdgeSet;
+    }
+
+    @Override
+    public Set<V> vertexView() {
+        return vertexSet();
+    }
+
+    @Override
+    public Set<E> edgeView() {
+        return edgeSet();
+    }
+
+    @Override
+    public Collection<E> edgeView(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        final int id = vertices.idOf(v);
+        if (id < 0) {
+            return null;
+        }
+        return new AbstractList<E>() {
+
+            @Override
+            public E get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index);
+                }
+                return label(offsets.get(id) + index);
+            }
+
+            @Override
+            public int size() {
+                return offsets.get(id + 1) - offsets.get(id);
+            }
+
+        };
+    }
+
+    @Override
+    public int degree(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id = vertices.idOf(v);
+        return (id >= 0) ? offsets.get(id + 1) - offsets.get(id) : -1;
+    }
+
+    @Override
+    public boolean forEachNeighbor(V v, Consumer<? super V> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        int id = vertices.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+        for (int i = offsets.get(id); i < offsets.get(id + 1); i++) {
+            action.accept(vertices.get(neighbors.get(i)));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachIncidentEdge(V v,
+            BiConsumer<? super V,? super E> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        int id = vertices.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+        for (int i = offsets.get(id); i < offsets.get(id + 1); i++) {
+            action.accept(vertices.get(neighbors.get(i)), label(i));
+        }
+        return true;
+    }
+
+    @Override
+    public Set<E> edgeSet(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertices.idOf(v1);
+        int id2 = vertices.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+        Set<E> edgesBetween = new HashSet<E>();
+        int end = offsets.get(id1 + 1);
+        for (int i = firstSlot(id1, id2); i >= 0 && i < end
+                && neighbors.get(i) == id2; i++) {
+            edgesBetween.add(label(i));
+        }
+        return edgesBetween;
+    }
+
+    @Override
+    public E getEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertices.idOf(v1);
+        int id2 = vertices.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+        int slot = firstSlot(id1, id2);
+        return (slot >= 0) ? label(slot) : null;
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean removeAllEdges(Collection<? extends E> edges)
+            throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public Set<E> removeAllEdges(V v1, V v2) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean removeAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean removeEdge(E e) {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public E removeEdge(V v1, V v2) throws NullPointerException {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /**
+     * Unsupported, this graph is immutable.
+     * 
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean removeVertex(V v) {
+        throw new UnsupportedOperationException("Graph is immutable");
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder edges = new StringBuilder("[");
+        for (int u = 0; u < vertices.size(); u++) {
+            for (int i = offsets.get(u); i < offsets.get(u + 1); i++) {
+                // print each edge once, from its lower vertex id row
+                int w = neighbors.get(i);
+                if (u <= w) {
+                    if (edges.length() > 1) {
+                        edges.append(", ");
+                    }
+                    edges.append(label(i)).append("=(")
+                            .append(vertices.get(u)).append("<->")
+                            .append(vertices.get(w)).append(")");
+                }
+            }
+        }
+        return vertexSet() + "\n" + edges.append("]");
+    }
+
+    /**
+     * Returns an indexed view of this graph reading its mapped rows.
+     */
+    IndexedGraph<V,E> indexed() {
+        return new Indexed();
+    }
+
+    /**
+     * Returns the edge value stored in the specified slot.
+     */
+    private E label(int slot) {
+        int id = slotLabels.get(slot);
+        return (id >= 0) ? labels.get(id) : null;
+    }
+
+    /**
+     * Returns the first slot in the row of vertex id <code>u</code> holding
+     * neighbor vertex id <code>w</code>.
+     * 
+     * @param u - the vertex id of the row to search
+     * @param w - the neighbor vertex id to search for
+     * @return index of first slot holding <code>w</code>, or <code>-1</code> if
+     *         <code>u</code> and <code>w</code> are not connected
+     */
+    private int firstSlot(int u, int w) {
+        int low = offsets.get(u);
+        int high = offsets.get(u + 1);
+        int end = high;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (neighbors.get(mid) < w) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (low < end && neighbors.get(low) == w) ? low : -1;
+    }
+
+    /**
+     * Writes the offsets and the hash table of a dictionary of the specified
+     * serialized values.
+     */
+    private static void writeDictionary(DataOutputStream out,
+            List<byte[]> values) throws IOException {
+        int offset = 0;
+        out.writeInt(offset);
+        for (byte[] bytes : values) {
+            offset += bytes.length;
+            out.writeInt(offset);
+        }
+
+        int[] table = new int[tableSize(values.size())];
+        int mask = table.length - 1;
+        for (int id = 0; id < values.size(); id++) {
+            int i = hash(values.get(id)) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = id + 1;
+        }
+        writeInts(out, table, table.length);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values,
+            int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    /**
+     * Returns the total length of the specified serialized values.
+     */
+    private static long byteLength(List<byte[]> values) throws IOException {
+        long length = 0;
+        for (byte[] bytes : values) {
+            length += bytes.length;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot section too large");
+        }
+        return length;
+    }
+
+    /**
+     * Returns the number of entries of the hash table of a dictionary of the
+     * specified size, a power of two leaving at least half of them free.
+     */
+    private static int tableSize(int count) {
+        int size = 2;
+        while (size < 2L * count) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the hash of the specified serialized value, FNV-1a spread by
+     * the MurmurHash3 finalizer. Small big-endian numbers must hash apart,
+     * as the hash tables are probed linearly.
+     */
+    private static int hash(byte[] bytes) {
+        int h = 0x811C9DC5;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+        h = (h ^ (h >>> 16)) * 0x85EBCA6B;
+        h = (h ^ (h >>> 13)) * 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position,
+            long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot section too large");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    private static IntBuffer ints(FileChannel channel, long position,
+            int count) throws IOException {
+        return map(channel, position, Integer.BYTES * (long) count)
+                .asIntBuffer();
+    }
+
+    /**
+     * Dictionary class reads values of a mapped dictionary section by id, and
+     * looks up the id of a value by probing the mapped hash table with the
+     * hash of its bytes.
+     */
+    private static final class Dictionary<T> {
+
+        /*
+         * Internal representation of dictionary
+         * 
+         * serializer - decodes and encodes values. offsets - bytes of id are
+         * the range [offsets[id], offsets[id + 1]) of values. table - open
+         * addressing hash table of id + 1, 0 for free entries. values -
+         * serialized values.
+         */
+        private final Serializer<T> serializer;
+        private final IntBuffer     offsets;
+        private final IntBuffer     table;
+        private final ByteBuffer    values;
+
+        Dictionary(Serializer<T> serializer, IntBuffer offsets,
+                IntBuffer table, ByteBuffer values) {
+            this.serializer = serializer;
+            this.offsets = offsets;
+            this.table = table;
+            this.values = values;
+        }
+
+        int size() {
+            return offsets.capacity() - 1;
+        }
+
+        T get(int id) {
+            ByteBuffer bytes = values.duplicate();
+            bytes.limit(offsets.get(id + 1));
+            bytes.position(offsets.get(id));
+            return serializer.fromBytes(bytes.slice());
+        }
+
+        /**
+         * Returns the id of the specified value, or <code>-1</code> if not
+         * in this dictionary.
+         */
+        int idOf(T value) {
+            byte[] bytes = serializer.toBytes(value);
+            int mask = table.capacity() - 1;
+            for (int i = hash(bytes) & mask;; i = (i + 1) & mask) {
+                int entry = table.get(i);
+                if (entry == 0) {
+                    return -1;
+                } else if (matches(entry - 1, bytes)) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        /**
+         * Returns <code>true</code> if the specified object is a value in this
+         * dictionary.
+         */
+        boolean contains(Object o) {
+            try {
+                @SuppressWarnings("unchecked")
+                T value = (T) o;
+                return o != null && idOf(value) >= 0;
+            } catch (ClassCastException e) {
+                // the serializer does not take values of this type
+                return false;
+            }
+        }
+
+        private boolean matches(int id, byte[] bytes) {
+            int from = offsets.get(id);
+            if (offsets.get(id + 1) - from != bytes.length) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                if (values.get(from + i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+    /**
+     * DictionaryIterator class iterates the values of a dictionary in id
+     * order, optionally followed by null.
+     */
+    private static final class DictionaryIterator<T> implements Iterator<T> {
+
+        private final Dictionary<T> dictionary;
+        private boolean             nullPending;
+        private int                 next;
+
+        DictionaryIterator(Dictionary<T> dictionary, boolean withNull) {
+            this.dictionary = dictionary;
+            this.nullPending = withNull;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < dictionary.size() || nullPending;
+        }
+
+        @Override
+        public T next() {
+            if (next < dictionary.size()) {
+                return dictionary.get(next++);
+            } else if (nullPending) {
+                nullPending = false;
+                return null;
+            }
+            throw new NoSuchElementException();
+        }
+
+    }
+
+    /**
+     * Indexed class is an indexed view of this graph reading its mapped rows.
+     */
+    private final class Indexed extends IndexedGraph<V,E> {
+
+        @Override
+        int bound() {
+            return vertices.size();
+        }
+
+        @Override
+        int idOf(V v) {
+            return vertices.idOf(v);
+        }
+
+        @Override
+        V valueOf(int id) {
+            return vertices.get(id);
+        }
+
+        @Override
+        int degree(int id) {
+            return offsets.get(id + 1) - offsets.get(id);
+        }
+
+        @Override
+        int findNeighbor(int id, IntPredicate predicate) {
+            for (int i = offsets.get(id); i < offsets.get(id + 1); i++) {
+                if (predicate.test(neighbors.get(i))) {
+                    return neighbors.get(i);
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        void forEachEdge(int id, EdgeAction<? super E> action) {
+            for (int i = offsets.get(id); i < offsets.get(id + 1); i++) {
+                action.accept(neighbors.get(i), label(i));
+            }
+        }
+
+    }
+
+}
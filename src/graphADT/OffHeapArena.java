@@ -0,0 +1,249 @@
+package graphADT;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * OffHeapArena allocates blocks of memory outside the Java heap, in pages of
+ * direct byte buffers, and addresses them by long addresses. Block sizes are
+ * rounded up to powers of two and freed blocks are kept in a free list per
+ * size for reuse, the links of a free list being stored in the free blocks
+ * themselves. A block larger than a page gets a direct buffer of its own,
+ * which is released as soon as the block is freed. {@link #close()} releases
+ * the memory of every page, explicitly where the runtime allows it, and
+ * otherwise by the garbage collector once the pages are unreachable. An arena
+ * is not thread-safe. <br/>
+ * 
+ * @author Drew Reese
+ * 
+ */
+final class OffHeapArena implements AutoCloseable {
+
+    // bytes per shared page
+    private static final int PAGE_SHIFT = 22;
+    private static final int PAGE_BYTES = 1 << PAGE_SHIFT;
+
+    // smallest and largest block, the largest fitting a single buffer
+    private static final int MIN_SHIFT = 3;
+    private static final int MAX_SHIFT = 30;
+
+    // empty free list
+    private static final long NONE = -1L;
+
+    // sun.misc.Unsafe and its invokeCleaner method, on Java 9 and later
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    // DirectBuffer.cleaner() and Cleaner.clean() methods, on Java 8
+    private static final Method CLEANER;
+    private static final Method CLEAN;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        Method cleaner = null;
+        Method clean = null;
+        if (invokeCleaner == null) {
+            try {
+                cleaner = Class.forName("sun.nio.ch.DirectBuffer")
+                        .getMethod("cleaner");
+                clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // pages are left to the garbage collector
+                cleaner = null;
+                clean = null;
+            }
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+        CLEANER = cleaner;
+        CLEAN = clean;
+    }
+
+    /*
+     * Internal representation of off-heap arena
+     * 
+     * pages - direct buffers by page index, null for released pages, the
+     * address of a block is its page index in the upper and its offset in the
+     * lower 32 bits. freeBlocks - address of the first free block by size
+     * shift, NONE if there is none. current - index of the page blocks are
+     * bumped from, -1 if none. used - bytes of current page bumped already.
+     * reservedBytes - bytes of all pages not yet released.
+     */
+    private ArrayList<ByteBuffer> pages;
+    private final long[]          freeBlocks;
+    private int                   current;
+    private int                   used;
+    private long                  reservedBytes;
+
+    /**
+     * Constructs a new empty arena, pages are only allocated when needed.
+     */
+    OffHeapArena() {
+        this.pages = new ArrayList<ByteBuffer>();
+        this.freeBlocks = new long[MAX_SHIFT + 1];
+        Arrays.fill(freeBlocks, NONE);
+        this.current = -1;
+    }
+
+    /**
+     * Allocates a block of at least the specified number of bytes. The
+     * contents of a new block are undefined.
+     * 
+     * @param bytes - number of bytes to allocate
+     * @return address of the new block
+     * @throws IllegalArgumentException if <code>bytes</code> exceeds 1GB
+     */
+    long allocate(int bytes) throws IllegalArgumentException {
+        int shift = shiftOf(bytes);
+        int size = 1 << shift;
+        if (size > PAGE_BYTES) {
+            return (long) addPage(size) << 32;
+        } else if (freeBlocks[shift] != NONE) {
+            long address = freeBlocks[shift];
+            freeBlocks[shift] = getLong(address);
+            return address;
+        }
+        if (current < 0 || used + size > PAGE_BYTES) {
+            // the rest of a full page is left unused
+            current = addPage(PAGE_BYTES);
+            used = 0;
+        }
+        long address = ((long) current << 32) | used;
+        used += size;
+        return address;
+    }
+
+    /**
+     * Frees a block allocated with the specified number of bytes.
+     * 
+     * @param address - address of the block
+     * @param bytes - number of bytes the block was allocated with
+     */
+    void free(long address, int bytes) {
+        int shift = shiftOf(bytes);
+        if ((1 << shift) > PAGE_BYTES) {
+            ByteBuffer page = pages.set((int) (address >>> 32), null);
+            reservedBytes -= page.capacity();
+            release(page);
+            return;
+        }
+        putLong(address, freeBlocks[shift]);
+        freeBlocks[shift] = address;
+    }
+
+    int getInt(long address) {
+        return pages.get((int) (address >>> 32)).getInt((int) address);
+    }
+
+    void putInt(long address, int value) {
+        pages.get((int) (address >>> 32)).putInt((int) address, value);
+    }
+
+    long getLong(long address) {
+        return pages.get((int) (address >>> 32)).getLong((int) address);
+    }
+
+    void putLong(long address, long value) {
+        pages.get((int) (address >>> 32)).putLong((int) address, value);
+    }
+
+    /**
+     * Copies the specified number of bytes, a multiple of 4, between blocks.
+     */
+    void copy(long from, long to, int bytes) {
+        ByteBuffer source = pages.get((int) (from >>> 32));
+        ByteBuffer target = pages.get((int) (to >>> 32));
+        for (int i = 0; i < bytes; i += Integer.BYTES) {
+            target.putInt((int) to + i, source.getInt((int) from + i));
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the block allocated for the specified
+     * number of bytes.
+     */
+    static int blockSize(int bytes) throws IllegalArgumentException {
+        return 1 << shiftOf(bytes);
+    }
+
+    /**
+     * Returns the number of bytes of the pages of this arena, including free
+     * blocks.
+     */
+    long reservedBytes() {
+        return reservedBytes;
+    }
+
+    /**
+     * Releases the memory of all pages, invalidating every block.
+     */
+    @Override
+    public void close() {
+        for (ByteBuffer page : pages) {
+            if (page != null) {
+                release(page);
+            }
+        }
+        pages = new ArrayList<ByteBuffer>();
+        Arrays.fill(freeBlocks, NONE);
+        current = -1;
+        reservedBytes = 0;
+    }
+
+    /**
+     * Adds a new page of the specified size and returns its index.
+     */
+    private int addPage(int size) {
+        pages.add(ByteBuffer.allocateDirect(size)
+                .order(ByteOrder.nativeOrder()));
+        reservedBytes += size;
+        return pages.size() - 1;
+    }
+
+    /**
+     * Returns the size shift of a block of the specified number of bytes.
+     */
+    private static int shiftOf(int bytes) {
+        int shift = Math.max(MIN_SHIFT,
+                Integer.SIZE - Integer.numberOfLeadingZeros(bytes - 1));
+        if (bytes < 0 || shift > MAX_SHIFT) {
+            throw new IllegalArgumentException("Illegal block size: " + bytes);
+        }
+        return shift;
+    }
+
+    /**
+     * Releases the memory of the specified direct buffer now if the runtime
+     * allows it.
+     */
+    private static void release(ByteBuffer page) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, page);
+            } else if (CLEANER != null) {
+                Object cleaner = CLEANER.invoke(page);
+                if (cleaner != null) {
+                    CLEAN.invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // left to the garbage collector
+        }
+    }
+
+}
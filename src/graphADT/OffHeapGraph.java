@@ -0,0 +1,1002 @@
+package graphADT;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * OffHeapGraph<V,E> represents a mutable undirected multi-graph storing its
+ * adjacency outside the Java heap, for graphs whose edges would not fit the
+ * heap as objects. It stores the same vertices and edges as
+ * {@link UndirectedGraph}: non-null vertex values, null-able edge values, and
+ * multiple edges between vertices as long as their edge values differ. <br/>
+ * 
+ * Vertex values are interned as dense ids on the heap, and so are distinct
+ * edge values, which are usually far fewer than edges. Each vertex id has a
+ * row of (neighbor id, edge value id, twin slot index) int slots in memory
+ * allocated from an off-heap arena, so an edge costs 24 bytes off the heap
+ * and nothing on it, and the garbage collector never visits edges. The twin
+ * slot index locates the other slot of the same edge, in the row of the
+ * neighbor, so removing an edge found in one row takes constant time. Adding
+ * an edge checks for a duplicate by scanning the shorter row of its two
+ * vertices, removing edges by edge value scans all rows. <br/>
+ * 
+ * The off-heap memory is released by {@link #close()}, after which every
+ * operation throws {@link IllegalStateException}. This graph is not
+ * thread-safe. <br/>
+ * 
+ * <h5>Abstract Invariant:</h5>
+ * foreach vertex in graph
+ * <ul>
+ * <li>vertex value is not null</li>
+ * <li>vertex value is unique</li>
+ * </ul>
+ * foreach edge connecting vertices in graph
+ * <ul>
+ * <li>edge value can be null</li>
+ * <li>edge vertices in graph</li>
+ * </ul>
+ * 
+ * @author Drew Reese
+ * 
+ * @param <V> - data type to store as vertices
+ * @param <E> - data type to store as edges
+ * 
+ */
+public final class OffHeapGraph<V, E>
+        implements AbstractGraph<V,E>, AutoCloseable {
+
+    // DEBUGGING EXPENSIVE CHECKREP FLAG
+    private static final boolean RUN_CHECKREP = false;
+
+    // row headers per header block
+    private static final int HEADER_SHIFT = 12;
+    private static final int HEADER_MASK  = (1 << HEADER_SHIFT) - 1;
+
+    // bytes per row header: row address, row size and row capacity
+    private static final int HEADER_BYTES = 16;
+
+    // bytes per row slot: neighbor id, edge value id and twin slot index
+    private static final int SLOT_BYTES = 12;
+
+    // capacity of a new row
+    private static final int MIN_ROW_CAPACITY = 2;
+
+    // address of a row without capacity
+    private static final long NO_ROW = -1L;
+
+    /*
+     * Internal representation of off-heap graph
+     * 
+     * vertexIds - interns vertex values as dense vertex ids. arena - off-heap
+     * memory of row headers and rows. headerBlocks - address of the header
+     * block of every 2^HEADER_SHIFT vertex ids. labelIds - interns edge values
+     * as dense edge value ids. labelValues - edge value by edge value id, null
+     * for free ids. labelCounts - number of edges by edge value id.
+     * freeLabels - stack of free edge value ids. closed - whether the
+     * off-heap memory was released.
+     */
+    private final VertexIndex<V>  vertexIds;
+    private final OffHeapArena    arena;
+    private long[]                headerBlocks;
+    private final Map<E,Integer>  labelIds;
+    private final ArrayList<E>    labelValues;
+    private int[]                 labelCounts;
+    private int[]                 freeLabels;
+    private int                   freeLabelCount;
+    private boolean               closed;
+
+    /*
+     * Abstraction Function:
+     * 
+     * An off-heap graph stores the edges touching vertex id u as the slots of
+     * row u, each slot holding the id of the vertex at the other end, the edge
+     * value id and the index of the twin slot in the row of the other end. An
+     * edge between distinct vertices u and w occupies one slot in the row of u
+     * and one slot in the row of w, twins of each other, while a self edge of
+     * u occupies a single slot in the row of u, its own twin. The header of u
+     * holds the address, size and capacity of its row.
+     */
+
+    // Representation Invariant:
+    //
+    // foreach vertex id u in vertexIds
+    // row size of u <= row capacity of u
+    // foreach slot i = (w, label, t) in row u
+    // w in vertexIds
+    // labelValues.get(label) is the edge value, labelCounts[label] > 0
+    // slot t of row w is (u, label, i)
+    //
+    // foreach edge value e in labelIds
+    // labelValues.get(labelIds.get(e)) == e
+    // labelCounts[labelIds.get(e)] == number of edges with value e
+
+    /**
+     * Constructs a new empty graph.
+     */
+    public OffHeapGraph() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new empty graph sized to hold the expected number of
+     * vertices without rehashing.
+     * 
+     * @param expectedVertices - expected number of vertices
+     * @throws IllegalArgumentException if expected number of vertices is
+     *             negative
+     */
+    public OffHeapGraph(int expectedVertices) throws IllegalArgumentException {
+        if (expectedVertices < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal expected vertex count: " + expectedVertices);
+        }
+        this.vertexIds = new VertexIndex<V>(expectedVertices);
+        this.arena = new OffHeapArena();
+        this.headerBlocks = new long[0];
+        this.labelIds = new HashMap<E,Integer>();
+        this.labelValues = new ArrayList<E>();
+        this.labelCounts = new int[16];
+        this.freeLabels = new int[16];
+        checkRep();
+    }
+
+    @Override
+    public boolean addVertex(V v) throws NullPointerException {
+        ensureOpen();
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+
+        if (containsVertex(v)) {
+            return false;
+        } else {
+            insertVertex(v);
+            checkRep();
+            return true;
+        }
+    }
+
+    @Override
+    public boolean addAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+        ensureOpen();
+        if (vertices == null) {
+            throw new NullPointerException("Vertex collection null");
+        }
+        for (V vertex : vertices) {
+            if (vertex == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+        }
+
+        vertexIds.ensureCapacity(vertexIds.size() + vertices.size());
+
+        boolean modified = false;
+        for (V vertex : vertices) {
+            if (!containsVertex(vertex)) {
+                insertVertex(vertex);
+                modified = true;
+            }
+        }
+        checkRep();
+        return modified;
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) throws NullPointerException {
+        return addEdge(v1, v2, null);
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2, E e) throws NullPointerException {
+        ensureOpen();
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return false;
+        }
+
+        boolean modified = insertEdge(id1, id2, e);
+        checkRep();
+        return modified;
+    }
+
+    @Override
+    public boolean addAllEdges(
+            Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+            throws NullPointerException {
+        ensureOpen();
+        if (edges == null) {
+            throw new NullPointerException("Edge collection null");
+        }
+        for (EdgeTriple<? extends V,? extends E> edge : edges) {
+            if (edge == null) {
+                throw new NullPointerException("Edge triple null");
+            }
+        }
+
+        boolean modified = false;
+        for (EdgeTriple<? extends V,? extends E> edge : edges) {
+            int id1 = vertexIds.idOf(edge.getV1());
+            int id2 = vertexIds.idOf(edge.getV2());
+            if (id1 >= 0 && id2 >= 0 && insertEdge(id1, id2, edge.getE())) {
+                modified = true;
+            }
+        }
+        checkRep();
+        return modified;
+    }
+
+    /**
+     * Adds a new vertex value not already contained in this graph.
+     */
+    private void insertVertex(V v) {
+        int id = vertexIds.add(v);
+        int block = id >>> HEADER_SHIFT;
+        if (block == headerBlocks.length) {
+            headerBlocks = Arrays.copyOf(headerBlocks, block + 1);
+            headerBlocks[block] = arena.allocate(HEADER_BYTES << HEADER_SHIFT);
+        }
+        setRow(id, NO_ROW, 0, 0);
+    }
+
+    /**
+     * Adds a new edge between two vertex ids contained in this graph.
+     * 
+     * @return <code>true</code> iff edge was added to graph, <code>false</code>
+     *         if graph already contained the edge
+     */
+    private boolean insertEdge(int id1, int id2, E e) {
+        Integer known = labelIds.get(e);
+        if (known != null && findLabel(id1, id2, known) >= 0) {
+            return false;
+        }
+        int label = (known != null) ? known : internLabel(e);
+        labelCounts[label]++;
+        int slot1 = rowSize(id1);
+        if (id1 == id2) {
+            appendSlot(id1, id2, label, slot1);
+        } else {
+            int slot2 = rowSize(id2);
+            appendSlot(id1, id2, label, slot2);
+            appendSlot(id2, id1, label, slot1);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        ensureOpen();
+        return vertexIds.idOf(v) >= 0;
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        ensureOpen();
+        return labelIds.containsKey(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) throws NullPointerException {
+        ensureOpen();
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        return id1 >= 0 && id2 >= 0 && findLabel(id1, id2, -1) >= 0;
+    }
+
+    @Override
+    public Set<V> vertexSet() {
+        ensureOpen();
+        return new HashSet<V>(vertexIds.values());
+    }
+
+    @Override
+    public Set<E> edgeSet() {
+        ensureOpen();
+        return new HashSet<E>(labelIds.keySet());
+    }
+
+    @Override
+    public Set<E> edgeSet(V v) throws NullPointerException {
+        ensureOpen();
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return null;
+        }
+        Set<E> returnEdgeSet = new HashSet<E>();
+        long row = rowAddress(id);
+        for (int i = 0; i < rowSize(id); i++) {
+            returnEdgeSet.add(labelValues.get(slotLabel(row, i)));
+        }
+        return returnEdgeSet;
+    }
+
+    @Override
+    public Set<V> vertexView() {
+        ensureOpen();
+        return vertexIds.values();
+    }
+
+    @Override
+    public Set<E> edgeView() {
+        ensureOpen();
+        return Collections.unmodifiableSet(labelIds.keySet());
+    }
+
+    @Override
+    public Collection<E> edgeView(V v) throws NullPointerException {
+        ensureOpen();
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        final int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return null;
+        }
+        return new AbstractCollection<E>() {
+
+            @Override
+            public Iterator<E> iterator() {
+                return new Iterator<E>() {
+
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < rowSize(id);
+                    }
+
+                    @Override
+                    public E next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return labelValues
+                                .get(slotLabel(rowAddress(id), next++));
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return rowSize(id);
+            }
+
+        };
+    }
+
+    @Override
+    public int degree(V v) throws NullPointerException {
+        ensureOpen();
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id = vertexIds.idOf(v);
+        return (id >= 0) ? rowSize(id) : -1;
+    }
+
+    @Override
+    public boolean forEachNeighbor(V v, Consumer<? super V> action)
+            throws NullPointerException {
+        ensureOpen();
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+        long row = rowAddress(id);
+        for (int i = 0; i < rowSize(id); i++) {
+            action.accept(vertexIds.valueOf(slotNeighbor(row, i)));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachIncidentEdge(V v,
+            BiConsumer<? super V,? super E> action)
+            throws NullPointerException {
+        ensureOpen();
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+        long row = rowAddress(id);
+        for (int i = 0; i < rowSize(id); i++) {
+            action.accept(vertexIds.valueOf(slotNeighbor(row, i)),
+                    labelValues.get(slotLabel(row, i)));
+        }
+        return true;
+    }
+
+    @Override
+    public Set<E> edgeSet(V v1, V v2) throws NullPointerException {
+        ensureOpen();
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+        if (rowSize(id2) < rowSize(id1)) {
+            int swap = id1;
+            id1 = id2;
+            id2 = swap;
+        }
+        Set<E> edgesBetween = new HashSet<E>();
+        long row = rowAddress(id1);
+        for (int i = 0; i < rowSize(id1); i++) {
+            if (slotNeighbor(row, i) == id2) {
+                edgesBetween.add(labelValues.get(slotLabel(row, i)));
+            }
+        }
+        return edgesBetween;
+    }
+
+    @Override
+    public E getEdge(V v1, V v2) throws NullPointerException {
+        ensureOpen();
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+        int label = findLabel(id1, id2, -1);
+        return (label >= 0) ? labelValues.get(label) : null;
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<? extends E> edges)
+            throws NullPointerException {
+        ensureOpen();
+        if (edges == null) {
+            throw new NullPointerException("Edge collection null");
+        }
+
+        boolean modified = false;
+        for (E e : edges) {
+            if (this.removeEdge(e)) {
+                modified = true;
+            }
+        }
+        checkRep();
+        return modified;
+    }
+
+    @Override
+    public Set<E> removeAllEdges(V v1, V v2) throws NullPointerException {
+        ensureOpen();
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+
+        Set<E> removed = new HashSet<E>();
+        // backwards, as removing a slot moves the last slot into its place
+        for (int i = rowSize(id1) - 1; i >= 0; i--) {
+            long row = rowAddress(id1);
+            if (slotNeighbor(row, i) == id2) {
+                int label = slotLabel(row, i);
+                removed.add(labelValues.get(label));
+                removeEdgeAt(id1, i);
+                releaseLabel(label);
+            }
+        }
+        checkRep();
+        return removed;
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+        ensureOpen();
+        if (vertices == null) {
+            throw new NullPointerException("Vertex collection null");
+        }
+
+        boolean modified = false;
+        for (V vertex : vertices) {
+            if (this.removeVertex(vertex)) {
+                modified = true;
+            }
+        }
+        checkRep();
+        return modified;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: this method removes all duplicate edge values, scanning the rows
+     * of all vertices.
+     */
+    @Override
+    public boolean removeEdge(E e) {
+        ensureOpen();
+        Integer known = labelIds.get(e);
+        if (known == null) {
+            return false;
+        }
+
+        // every edge with the value goes, so rows are pruned independently
+        int label = known;
+        for (int u = 0; u < vertexIds.bound(); u++) {
+            if (vertexIds.valueOf(u) == null) {
+                continue;
+            }
+            for (int i = rowSize(u) - 1; i >= 0; i--) {
+                long row = rowAddress(u);
+                if (slotLabel(row, i) == label) {
+                    // count each edge once, from its lower vertex id row
+                    if (u <= slotNeighbor(row, i)) {
+                        releaseLabel(label);
+                    }
+                    removeSlot(u, i);
+                }
+            }
+        }
+        checkRep();
+        return true;
+    }
+
+    @Override
+    public E removeEdge(V v1, V v2) throws NullPointerException {
+        ensureOpen();
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return null;
+        }
+
+        if (rowSize(id2) < rowSize(id1)) {
+            int swap = id1;
+            id1 = id2;
+            id2 = swap;
+        }
+        int slot = scan(id1, id2, -1);
+        if (slot < 0) {
+            return null;
+        }
+        int label = slotLabel(rowAddress(id1), slot);
+        E e = labelValues.get(label);
+        removeEdgeAt(id1, slot);
+        releaseLabel(label);
+
+        checkRep();
+        return e;
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        ensureOpen();
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+
+        // twins moved within neighbor rows update their slots in this row
+        long row = rowAddress(id);
+        for (int i = 0; i < rowSize(id); i++) {
+            int w = slotNeighbor(row, i);
+            if (w != id) {
+                removeSlot(w, slotTwin(row, i));
+            }
+            releaseLabel(slotLabel(row, i));
+        }
+        if (row != NO_ROW) {
+            arena.free(row, rowCapacity(id) * SLOT_BYTES);
+        }
+        setRow(id, NO_ROW, 0, 0);
+        vertexIds.remove(v);
+
+        checkRep();
+        return true;
+    }
+
+    /**
+     * Returns an immutable compact snapshot of this graph. The snapshot holds
+     * the vertices and edges of this graph at the time of the call and is not
+     * affected by later modifications of this graph.
+     * 
+     * @return compact immutable copy of this graph
+     * @throws IllegalStateException if this graph is closed
+     */
+    public CompactGraph<V,E> freeze() throws IllegalStateException {
+        ensureOpen();
+        return CompactGraph.of(indexed());
+    }
+
+    /**
+     * Returns the number of bytes of off-heap memory held by this graph,
+     * including memory of removed edges kept for reuse.
+     * 
+     * @return bytes of off-heap memory held
+     */
+    public long offHeapBytes() {
+        return arena.reservedBytes();
+    }
+
+    /**
+     * Releases the off-heap memory of this graph. Any later operation on this
+     * graph, except closing it again, throws
+     * {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            arena.close();
+            headerBlocks = null;
+        }
+    }
+
+    /**
+     * Returns an indexed view of this graph by vertex id, valid until this
+     * graph is next modified.
+     */
+    IndexedGraph<V,E> indexed() {
+        ensureOpen();
+        return new Indexed();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        if (closed) {
+            return "[closed]";
+        }
+        StringBuilder edges = new StringBuilder("[");
+        for (int u = 0; u < vertexIds.bound(); u++) {
+            if (vertexIds.valueOf(u) == null) {
+                continue;
+            }
+            long row = rowAddress(u);
+            for (int i = 0; i < rowSize(u); i++) {
+                // print each edge once, from its lower vertex id row
+                int w = slotNeighbor(row, i);
+                if (u <= w) {
+                    if (edges.length() > 1) {
+                        edges.append(", ");
+                    }
+                    edges.append(labelValues.get(slotLabel(row, i)))
+                            .append("=(").append(vertexIds.valueOf(u))
+                            .append("<->").append(vertexIds.valueOf(w))
+                            .append(")");
+                }
+            }
+        }
+        return vertexIds.values() + "\n" + edges.append("]");
+    }
+
+    /**
+     * Returns the edge value id of an edge between vertex ids <code>u</code>
+     * and <code>w</code> with the specified edge value id, or with any edge
+     * value id if it is negative, scanning the shorter row of the two.
+     *
+     * @return edge value id of the edge, or <code>-1</code> if there is none
+     */
+    private int findLabel(int u, int w, int label) {
+        if (rowSize(w) < rowSize(u)) {
+            int swap = u;
+            u = w;
+            w = swap;
+        }
+        int slot = scan(u, w, label);
+        return (slot >= 0) ? slotLabel(rowAddress(u), slot) : -1;
+    }
+
+    /**
+     * Scans the row of vertex id <code>u</code> for the first slot holding
+     * neighbor <code>w</code> and the specified edge value id, or any edge
+     * value id if it is negative.
+     */
+    private int scan(int u, int w, int label) {
+        long row = rowAddress(u);
+        for (int i = 0; i < rowSize(u); i++) {
+            if (slotNeighbor(row, i) == w
+                    && (label < 0 || slotLabel(row, i) == label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends a slot to the row of vertex id <code>u</code>, doubling the
+     * capacity of a full row.
+     */
+    private void appendSlot(int u, int w, int label, int twin) {
+        long row = rowAddress(u);
+        int size = rowSize(u);
+        int capacity = rowCapacity(u);
+        if (size == capacity) {
+            int grown = capacityFor(Math.max(MIN_ROW_CAPACITY, capacity * 2));
+            long moved = arena.allocate(grown * SLOT_BYTES);
+            if (row != NO_ROW) {
+                arena.copy(row, moved, size * SLOT_BYTES);
+                arena.free(row, capacity * SLOT_BYTES);
+            }
+            row = moved;
+            capacity = grown;
+        }
+        long slot = row + (long) size * SLOT_BYTES;
+        arena.putInt(slot, w);
+        arena.putInt(slot + Integer.BYTES, label);
+        arena.putInt(slot + 2 * Integer.BYTES, twin);
+        setRow(u, row, size + 1, capacity);
+    }
+
+    /**
+     * Removes the edge of the specified slot of the row of vertex id
+     * <code>u</code> from both rows it occupies, leaving its edge value id
+     * counted.
+     */
+    private void removeEdgeAt(int u, int index) {
+        long row = rowAddress(u);
+        int w = slotNeighbor(row, index);
+        int twin = slotTwin(row, index);
+        // slots only move within their own row, so the twin stays put
+        removeSlot(u, index);
+        if (w != u) {
+            removeSlot(w, twin);
+        }
+    }
+
+    /**
+     * Removes a slot from the row of vertex id <code>u</code> by moving the
+     * last slot into its place and pointing the twin of the moved slot to its
+     * new index, halving the capacity of a row a quarter full.
+     */
+    private void removeSlot(int u, int index) {
+        long row = rowAddress(u);
+        int size = rowSize(u) - 1;
+        int capacity = rowCapacity(u);
+        if (index < size) {
+            int w = slotNeighbor(row, size);
+            int label = slotLabel(row, size);
+            int twin = (w == u) ? index : slotTwin(row, size);
+            long slot = row + (long) index * SLOT_BYTES;
+            arena.putInt(slot, w);
+            arena.putInt(slot + Integer.BYTES, label);
+            arena.putInt(slot + 2 * Integer.BYTES, twin);
+            if (w != u) {
+                arena.putInt(rowAddress(w) + (long) twin * SLOT_BYTES
+                        + 2 * Integer.BYTES, index);
+            }
+        }
+        int shrunk = capacityFor(capacity / 2);
+        if (capacity > MIN_ROW_CAPACITY && size <= capacity / 4
+                && shrunk < capacity) {
+            long moved = arena.allocate(shrunk * SLOT_BYTES);
+            arena.copy(row, moved, size * SLOT_BYTES);
+            arena.free(row, capacity * SLOT_BYTES);
+            row = moved;
+            capacity = shrunk;
+        }
+        setRow(u, row, size, capacity);
+    }
+
+    /**
+     * Returns the number of slots of the arena block holding at least the
+     * specified number of slots.
+     */
+    private static int capacityFor(int slots) {
+        return OffHeapArena.blockSize(slots * SLOT_BYTES) / SLOT_BYTES;
+    }
+
+    /**
+     * Returns the id of a new edge value, reusing a free id if possible.
+     */
+    private int internLabel(E e) {
+        int label;
+        if (freeLabelCount > 0) {
+            label = freeLabels[--freeLabelCount];
+            labelValues.set(label, e);
+        } else {
+            label = labelValues.size();
+            labelValues.add(e);
+            if (label == labelCounts.length) {
+                labelCounts = Arrays.copyOf(labelCounts, label * 2);
+            }
+        }
+        labelIds.put(e, label);
+        return label;
+    }
+
+    /**
+     * Counts one edge less with the specified edge value id, freeing the id
+     * of an edge value without edges.
+     */
+    private void releaseLabel(int label) {
+        if (--labelCounts[label] == 0) {
+            labelIds.remove(labelValues.set(label, null));
+            if (freeLabelCount == freeLabels.length) {
+                freeLabels = Arrays.copyOf(freeLabels, freeLabelCount * 2);
+            }
+            freeLabels[freeLabelCount++] = label;
+        }
+    }
+
+    private long headerAddress(int u) {
+        return headerBlocks[u >>> HEADER_SHIFT]
+                + (long) (u & HEADER_MASK) * HEADER_BYTES;
+    }
+
+    private long rowAddress(int u) {
+        return arena.getLong(headerAddress(u));
+    }
+
+    private int rowSize(int u) {
+        return arena.getInt(headerAddress(u) + Long.BYTES);
+    }
+
+    private int rowCapacity(int u) {
+        return arena.getInt(headerAddress(u) + Long.BYTES + Integer.BYTES);
+    }
+
+    private void setRow(int u, long row, int size, int capacity) {
+        long header = headerAddress(u);
+        arena.putLong(header, row);
+        arena.putInt(header + Long.BYTES, size);
+        arena.putInt(header + Long.BYTES + Integer.BYTES, capacity);
+    }
+
+    private int slotNeighbor(long row, int i) {
+        return arena.getInt(row + (long) i * SLOT_BYTES);
+    }
+
+    private int slotLabel(long row, int i) {
+        return arena.getInt(row + (long) i * SLOT_BYTES + Integer.BYTES);
+    }
+
+    private int slotTwin(long row, int i) {
+        return arena.getInt(row + (long) i * SLOT_BYTES + 2 * Integer.BYTES);
+    }
+
+    /**
+     * Throws an {@link IllegalStateException} if this graph is closed.
+     */
+    private void ensureOpen() throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("Graph closed");
+        }
+    }
+
+    /**
+     * Indexed class is an indexed view of the parent graph by the ids of its
+     * vertex index.
+     * 
+     * @author Drew Reese
+     */
+    private final class Indexed extends IndexedGraph<V,E> {
+
+        @Override
+        int bound() {
+            return vertexIds.bound();
+        }
+
+        @Override
+        int idOf(V v) {
+            return vertexIds.idOf(v);
+        }
+
+        @Override
+        V valueOf(int id) {
+            return vertexIds.valueOf(id);
+        }
+
+        @Override
+        int degree(int id) {
+            return (vertexIds.valueOf(id) != null) ? rowSize(id) : 0;
+        }
+
+        @Override
+        int findNeighbor(int id, IntPredicate predicate) {
+            if (vertexIds.valueOf(id) != null) {
+                long row = rowAddress(id);
+                for (int i = 0; i < rowSize(id); i++) {
+                    int w = slotNeighbor(row, i);
+                    if (predicate.test(w)) {
+                        return w;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        void forEachEdge(int id, EdgeAction<? super E> action) {
+            if (vertexIds.valueOf(id) != null) {
+                long row = rowAddress(id);
+                for (int i = 0; i < rowSize(id); i++) {
+                    action.accept(slotNeighbor(row, i),
+                            labelValues.get(slotLabel(row, i)));
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Checks that the rep invariant holds
+     */
+    private void checkRep() {
+
+        if (RUN_CHECKREP) {
+            int[] counts = new int[labelValues.size()];
+            for (int u = 0; u < vertexIds.bound(); u++) {
+                if (vertexIds.valueOf(u) == null) {
+                    continue;
+                }
+                assert (rowSize(u) <= rowCapacity(u)) : "Row size";
+                long row = rowAddress(u);
+                for (int i = 0; i < rowSize(u); i++) {
+                    int w = slotNeighbor(row, i);
+                    int label = slotLabel(row, i);
+                    assert (vertexIds.valueOf(w) != null) : "Neighbor";
+                    assert (labelCounts[label] > 0) : "Edge value";
+                    int t = slotTwin(row, i);
+                    long twinRow = rowAddress(w);
+                    assert (slotNeighbor(twinRow, t) == u
+                            && slotLabel(twinRow, t) == label
+                            && slotTwin(twinRow, t) == i) : "Twin";
+                    if (u <= w) {
+                        counts[label]++;
+                    }
+                }
+            }
+            for (Map.Entry<E,Integer> entry : labelIds.entrySet()) {
+                int label = entry.getValue();
+                assert (labelValues.get(label) == entry.getKey()) : "Label";
+                assert (labelCounts[label] == counts[label]) : "Edge count";
+            }
+        }
+    }
+
+}
@@ -0,0 +1,400 @@
+package graphADT;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * PageRank ranks the vertices of a graph by the stationary distribution of a
+ * random walk that follows a uniformly chosen edge of its current vertex with
+ * probability of the damping factor, and jumps to a uniformly chosen vertex
+ * otherwise. A vertex without edges jumps to a uniformly chosen vertex. Every
+ * edge counts, so a neighbor connected by multiple edges is walked to in
+ * proportion to the number of edges. <br/>
+ * 
+ * The adjacency of the graph is packed into primitive arrays once per
+ * ranking, {@link CompactGraph} reusing its own arrays, and every iteration
+ * updates the double rank vector in ranges of vertex ids run as tasks of a
+ * {@link ForkJoinPool}. Iteration stops once the sum of the absolute rank
+ * changes falls below the tolerance, or after the maximum number of
+ * iterations. Ranks are summed in the same order whatever the parallelism of
+ * the pool, so equal graphs always rank equal. The graph must not be modified
+ * during a ranking. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+public final class PageRank {
+
+    private static final double DEFAULT_DAMPING = 0.85;
+
+    private static final double DEFAULT_TOLERANCE = 1e-6;
+
+    private static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    // vertices per task
+    private static final int GRAIN = 1024;
+
+    /*
+     * Internal representation of page rank
+     * 
+     * damping - probability of following an edge. tolerance - sum of the
+     * absolute rank changes of an iteration to stop below. maxIterations -
+     * greatest number of iterations.
+     */
+    private final double damping;
+    private final double tolerance;
+    private final int    maxIterations;
+
+    /**
+     * Constructs a new page rank with a damping factor of 0.85, a tolerance
+     * of 1e-6 and at most 100 iterations.
+     */
+    public PageRank() {
+        this(DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Constructs a new page rank with the specified damping factor, tolerance
+     * and maximum number of iterations.
+     * 
+     * @param damping - probability of following an edge, in [0, 1]
+     * @param tolerance - sum of the absolute rank changes of an iteration to
+     *            stop below
+     * @param maxIterations - greatest number of iterations
+     * @throws IllegalArgumentException if damping factor is not in [0, 1],
+     *             tolerance is negative or NaN, or maximum number of
+     *             iterations is not positive
+     */
+    public PageRank(double damping, double tolerance, int maxIterations)
+            throws IllegalArgumentException {
+        if (!(damping >= 0.0 && damping <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "Illegal damping factor: " + damping);
+        }
+        if (!(tolerance >= 0.0)) {
+            throw new IllegalArgumentException(
+                    "Illegal tolerance: " + tolerance);
+        }
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException(
+                    "Illegal maximum iterations: " + maxIterations);
+        }
+        this.damping = damping;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Ranks the vertices of the specified graph on the common fork join
+     * pool.
+     * 
+     * @param graph - graph to rank
+     * @return ranks of the vertices of <code>graph</code>
+     * @throws NullPointerException if <code>graph</code> is <code>null</code>
+     */
+    public <V> Result<V> rank(AbstractGraph<V,?> graph)
+            throws NullPointerException {
+        return rank(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Ranks the vertices of the specified graph on the specified fork join
+     * pool.
+     * 
+     * @param graph - graph to rank
+     * @param pool - pool to run ranking tasks on
+     * @return ranks of the vertices of <code>graph</code>
+     * @throws NullPointerException if <code>graph</code> or <code>pool</code>
+     *             is <code>null</code>
+     */
+    public <V> Result<V> rank(AbstractGraph<V,?> graph, ForkJoinPool pool)
+            throws NullPointerException {
+        if (graph == null) {
+            throw new NullPointerException("Graph null");
+        } else if (pool == null) {
+            throw new NullPointerException("Pool null");
+        }
+        return new Ranking<V>(IndexedGraph.of(graph), pool).run();
+    }
+
+    /**
+     * Result class holds the ranks found by a ranking. A result describes the
+     * graph at the time of the ranking, vertices added to or removed from the
+     * graph after the ranking have no rank.
+     * 
+     * @author Drew Reese
+     * 
+     * @param <V> - data type of vertex values
+     */
+    public static final class Result<V> {
+
+        /*
+         * Internal representation of ranking result
+         * 
+         * graph - indexed graph ranked. values - vertex value by vertex id,
+         * null for free ids. ranks - rank by vertex id, 0 for free ids.
+         * iterations - number of iterations run. converged - whether the rank
+         * changes fell below the tolerance.
+         */
+        private final IndexedGraph<V,?> graph;
+        private final V[]               values;
+        private final double[]          ranks;
+        private final int               iterations;
+        private final boolean           converged;
+
+        private Result(IndexedGraph<V,?> graph, V[] values, double[] ranks,
+                int iterations, boolean converged) {
+            this.graph = graph;
+            this.values = values;
+            this.ranks = ranks;
+            this.iterations = iterations;
+            this.converged = converged;
+        }
+
+        /**
+         * Returns the rank of the specified vertex. The ranks of all vertices
+         * sum to one.
+         * 
+         * @param v - vertex to get rank of
+         * @return rank of <code>v</code>, or <code>0</code> if <code>v</code>
+         *         was not ranked
+         * @throws NullPointerException if <code>v</code> is <code>null</code>
+         */
+        public double rank(V v) throws NullPointerException {
+            if (v == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+            int id = graph.idOf(v);
+            return (id >= 0 && id < values.length && v.equals(values[id]))
+                    ? ranks[id] : 0.0;
+        }
+
+        /**
+         * Returns a map of every ranked vertex to its rank.
+         * 
+         * @return unmodifiable map of vertices to ranks
+         */
+        public Map<V,Double> ranks() {
+            Map<V,Double> ranked = new HashMap<V,Double>(
+                    (int) (values.length / 0.75f) + 1);
+            for (int u = 0; u < values.length; u++) {
+                if (values[u] != null) {
+                    ranked.put(values[u], ranks[u]);
+                }
+            }
+            return Collections.unmodifiableMap(ranked);
+        }
+
+        /**
+         * Returns the number of iterations run.
+         */
+        public int iterations() {
+            return iterations;
+        }
+
+        /**
+         * Returns <code>true</code> if the rank changes fell below the
+         * tolerance before the maximum number of iterations was reached.
+         */
+        public boolean converged() {
+            return converged;
+        }
+
+    }
+
+    /**
+     * Ranking class holds the state of a single ranking.
+     */
+    private final class Ranking<V> {
+
+        /*
+         * Internal representation of ranking
+         * 
+         * graph - indexed graph ranked. pool - pool running tasks. n - bound
+         * of vertex ids. offsets - row boundaries, row of vertex id u is the
+         * range [offsets[u], offsets[u + 1]) of neighbors. neighbors - packed
+         * neighbor vertex ids of every row. values - vertex value by vertex
+         * id, null for free ids. count - number of vertices.
+         */
+        private final IndexedGraph<V,?> graph;
+        private final ForkJoinPool      pool;
+        private final int               n;
+        private final int[]             offsets;
+        private final int[]             neighbors;
+        private final V[]               values;
+        private int                     count;
+
+        Ranking(IndexedGraph<V,?> graph, ForkJoinPool pool) {
+            this.graph = graph;
+            this.pool = pool;
+            this.n = graph.bound();
+
+            @SuppressWarnings("unchecked")
+            V[] values = (V[]) new Object[n];
+            for (int u = 0; u < n; u++) {
+                values[u] = graph.valueOf(u);
+                if (values[u] != null) {
+                    count++;
+                }
+            }
+            this.values = values;
+
+            if (graph instanceof IndexedGraph.Packed) {
+                IndexedGraph.Packed<V,?> packed =
+                        (IndexedGraph.Packed<V,?>) graph;
+                this.offsets = packed.offsets();
+                this.neighbors = packed.neighbors();
+            } else {
+                this.offsets = new int[n + 1];
+                for (int u = 0; u < n; u++) {
+                    offsets[u + 1] = offsets[u] + graph.degree(u);
+                }
+                final int[] neighbors = new int[offsets[n]];
+                for (int u = 0; u < n; u++) {
+                    final int[] cursor = { offsets[u] };
+                    graph.forEachEdge(u, (w, e) -> {
+                        neighbors[cursor[0]++] = w;
+                    });
+                }
+                this.neighbors = neighbors;
+            }
+        }
+
+        /**
+         * Runs the ranking.
+         */
+        Result<V> run() {
+            double[] ranks = new double[n];
+            double[] shares = new double[n];
+            double dangling = 0.0;
+            for (int u = 0; u < n; u++) {
+                if (values[u] != null) {
+                    ranks[u] = 1.0 / count;
+                    int degree = offsets[u + 1] - offsets[u];
+                    if (degree > 0) {
+                        shares[u] = ranks[u] / degree;
+                    } else {
+                        dangling += ranks[u];
+                    }
+                }
+            }
+
+            double[] next = new double[n];
+            double[] nextShares = new double[n];
+            int iterations = 0;
+            boolean converged = (count == 0);
+            while (!converged && iterations < maxIterations) {
+                double base = ((1.0 - damping) + damping * dangling) / count;
+                List<Step> steps = new ArrayList<Step>();
+                for (int from = 0; from < n; from += GRAIN) {
+                    steps.add(new Step(ranks, shares, next, nextShares, base,
+                            from, Math.min(n, from + GRAIN)));
+                }
+                invokeAll(steps);
+
+                // sum in task order so the result does not depend on timing
+                double change = 0.0;
+                dangling = 0.0;
+                for (Step step : steps) {
+                    change += step.change;
+                    dangling += step.dangling;
+                }
+                iterations++;
+                converged = change < tolerance;
+
+                double[] swap = ranks;
+                ranks = next;
+                next = swap;
+                swap = shares;
+                shares = nextShares;
+                nextShares = swap;
+            }
+            return new Result<V>(graph, values, ranks, iterations, converged);
+        }
+
+        /**
+         * Runs the specified tasks on the pool and waits for all of them.
+         */
+        private void invokeAll(final List<Step> steps) {
+            if (steps.size() == 1) {
+                // a single task runs in the calling thread
+                steps.get(0).invoke();
+                return;
+            }
+            pool.invoke(new RecursiveAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(steps);
+                }
+
+            });
+        }
+
+        /**
+         * Step class is a task computing the next rank of a range of vertex
+         * ids by pulling the shares of their neighbors. It sums the absolute
+         * rank changes and the next ranks of vertices without edges.
+         */
+        private final class Step extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final double[] ranks;
+            private final double[] shares;
+            private final double[] next;
+            private final double[] nextShares;
+            private final double   base;
+            private final int      from;
+            private final int      to;
+            double                 change;
+            double                 dangling;
+
+            Step(double[] ranks, double[] shares, double[] next,
+                    double[] nextShares, double base, int from, int to) {
+                this.ranks = ranks;
+                this.shares = shares;
+                this.next = next;
+                this.nextShares = nextShares;
+                this.base = base;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                for (int u = from; u < to; u++) {
+                    if (values[u] == null) {
+                        continue;
+                    }
+                    double sum = 0.0;
+                    int end = offsets[u + 1];
+                    for (int i = offsets[u]; i < end; i++) {
+                        sum += shares[neighbors[i]];
+                    }
+                    double rank = base + damping * sum;
+                    next[u] = rank;
+                    change += Math.abs(rank - ranks[u]);
+                    int degree = end - offsets[u];
+                    if (degree > 0) {
+                        nextShares[u] = rank / degree;
+                    } else {
+                        nextShares[u] = 0.0;
+                        dangling += rank;
+                    }
+                }
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,461 @@
+package graphADT;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * PersistentHashMap<K,V> is an immutable hash array mapped trie. Every
+ * modification returns a new map that shares all nodes not on the path to
+ * the modified key with the map it was derived from, so copies are cheap and
+ * old versions stay valid. Keys and values must not be null. <br/>
+ * 
+ * Each trie node consumes five bits of a key's hash. A node stores a bitmap
+ * of its occupied slots and a packed array holding, per occupied slot, either
+ * a key and its value or a <code>null</code> key and a child node. Keys whose
+ * whole hashes collide share a collision node.
+ * 
+ * @author Drew Reese
+ *
+ * @param <K> - data type of keys
+ * @param <V> - data type of values
+ */
+final class PersistentHashMap<K, V> {
+
+    // bits of hash consumed by each trie level
+    private static final int BITS = 5;
+
+    private static final Node EMPTY_NODE = new BitmapNode(0, new Object[0]);
+
+    private static final PersistentHashMap<?,?> EMPTY =
+            new PersistentHashMap<Object,Object>(EMPTY_NODE, 0);
+
+    /**
+     * Node class is a trie node. Its array holds key and value pairs, where
+     * a <code>null</code> key marks a child node in place of the value.
+     */
+    private abstract static class Node {
+
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(int shift, int hash, Object key, Object value,
+                boolean[] added);
+
+        abstract Node remove(int shift, int hash, Object key);
+
+    }
+
+    /**
+     * BitmapNode class is a trie node with up to 32 occupied slots.
+     */
+    private static final class BitmapNode extends Node {
+
+        private final int bitmap;
+
+        BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int i = 2 * index(bit);
+            Object k = array[i];
+            if (k == null) {
+                return ((Node) array[i + 1]).find(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? array[i + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value,
+                boolean[] added) {
+            int bit = bit(hash, shift);
+            int i = 2 * index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, i);
+                newArray[i] = key;
+                newArray[i + 1] = value;
+                System.arraycopy(array, i, newArray, i + 2, array.length - i);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).put(shift + BITS, hash, key, value,
+                        added);
+                return (child == v) ? this : with(i + 1, null, child);
+            } else if (key.equals(k)) {
+                return (value == v) ? this : with(i + 1, k, value);
+            }
+
+            // slot holds another key, push both down into a new child
+            added[0] = true;
+            return with(i + 1, null, pair(shift + BITS, k, v, hash, key,
+                    value));
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = 2 * index(bit);
+            Object k = array[i];
+            if (k == null) {
+                Node child = (Node) array[i + 1];
+                Node newChild = child.remove(shift + BITS, hash, key);
+                if (newChild == child) {
+                    return this;
+                } else if (newChild == null) {
+                    return without(bit, i);
+                } else if (newChild.array.length == 2
+                        && newChild.array[0] != null) {
+                    // pull a lone remaining pair up into this node
+                    Object[] newArray = array.clone();
+                    newArray[i] = newChild.array[0];
+                    newArray[i + 1] = newChild.array[1];
+                    return new BitmapNode(bitmap, newArray);
+                }
+                return with(i + 1, null, newChild);
+            }
+            return key.equals(k) ? without(bit, i) : this;
+        }
+
+        /**
+         * Returns the index among occupied slots of the slot of bit.
+         */
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        /**
+         * Returns a copy of this node with the pair ending at index i
+         * replaced.
+         */
+        private Node with(int i, Object key, Object value) {
+            Object[] newArray = array.clone();
+            newArray[i - 1] = key;
+            newArray[i] = value;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        /**
+         * Returns a copy of this node with the pair at index i and its slot
+         * removed, or <code>null</code> if it was the only pair.
+         */
+        private Node without(int bit, int i) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            return new BitmapNode(bitmap ^ bit, newArray);
+        }
+
+    }
+
+    /**
+     * CollisionNode class holds the pairs of keys whose hashes are equal.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+
+        CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int i = indexOf(key);
+            return (i >= 0) ? array[i + 1] : null;
+        }
+
+        @Override
+        Node put(int shift, int hash, Object key, Object value,
+                boolean[] added) {
+            if (hash != this.hash) {
+                // nest this node below a node telling the hashes apart
+                Node parent = new BitmapNode(bit(this.hash, shift),
+                        new Object[] { null, this });
+                return parent.put(shift, hash, key, value, added);
+            }
+
+            int i = indexOf(key);
+            if (i >= 0) {
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                Object[] newArray = array.clone();
+                newArray[i + 1] = value;
+                return new CollisionNode(hash, newArray);
+            }
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            } else if (array.length == 4) {
+                // one pair left, parent pulls it up
+                int j = (i == 0) ? 2 : 0;
+                return new BitmapNode(bit(this.hash, shift),
+                        new Object[] { array[j], array[j + 1] });
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            return new CollisionNode(hash, newArray);
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+    }
+
+    /**
+     * EntryIterator class walks the pairs of a trie depth first.
+     */
+    private static final class EntryIterator<K, V>
+            implements Iterator<Map.Entry<K,V>> {
+
+        // arrays of the nodes on the path to the next pair, and the index
+        // of the next pair within each
+        private final Object[][] arrays = new Object[8][];
+        private final int[]      indices = new int[8];
+        private int              depth;
+
+        EntryIterator(Node root) {
+            arrays[0] = root.array;
+            advance();
+        }
+
+        /**
+         * Moves to the next pair at or after the current position.
+         */
+        private void advance() {
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int i = indices[depth];
+                if (i >= array.length) {
+                    depth--;
+                    if (depth >= 0) {
+                        indices[depth] += 2;
+                    }
+                } else if (array[i] == null) {
+                    depth++;
+                    arrays[depth] = ((Node) array[i + 1]).array;
+                    indices[depth] = 0;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K,V> next() {
+            if (depth < 0) {
+                throw new NoSuchElementException();
+            }
+            Object[] array = arrays[depth];
+            int i = indices[depth];
+            Map.Entry<K,V> entry = new AbstractMap.SimpleImmutableEntry<K,V>(
+                    (K) array[i], (V) array[i + 1]);
+            indices[depth] += 2;
+            advance();
+            return entry;
+        }
+
+    }
+
+    /**
+     * KeySet class is a set view of the keys of this map.
+     */
+    private final class KeySet extends AbstractSet<K> {
+
+        @Override
+        public Iterator<K> iterator() {
+            final Iterator<Map.Entry<K,V>> entries = entryIterator();
+            return new Iterator<K>() {
+
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public K next() {
+                    return entries.next().getKey();
+                }
+
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+    /*
+     * Internal representation of persistent hash map
+     * 
+     * root - root node of the trie, empty node for an empty map. size -
+     * number of keys in the map.
+     */
+    private final Node root;
+    private final int  size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K,V> empty() {
+        return (PersistentHashMap<K,V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value mapped to key, or <code>null</code> if key is not in
+     * this map.
+     */
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        return (key == null) ? null : (V) root.find(0, hash(key), key);
+    }
+
+    boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a map holding the pairs of this map with key mapped to value,
+     * or this map if it already maps key to the same value.
+     * 
+     * @throws NullPointerException if key or value is <code>null</code>
+     */
+    PersistentHashMap<K,V> put(K key, V value) throws NullPointerException {
+        if (key == null || value == null) {
+            throw new NullPointerException("Key or value null");
+        }
+        boolean[] added = new boolean[1];
+        Node newRoot = root.put(0, hash(key), key, value, added);
+        return (newRoot == root) ? this
+                : new PersistentHashMap<K,V>(newRoot,
+                        added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map holding the pairs of this map without key, or this map if
+     * key is not in it.
+     */
+    PersistentHashMap<K,V> remove(Object key) {
+        if (key == null) {
+            return this;
+        }
+        Node newRoot = root.remove(0, hash(key), key);
+        if (newRoot == root) {
+            return this;
+        }
+        return (newRoot == null) ? PersistentHashMap.<K,V> empty()
+                : new PersistentHashMap<K,V>(newRoot, size - 1);
+    }
+
+    /**
+     * Returns an iterator over the pairs of this map.
+     */
+    Iterator<Map.Entry<K,V>> entryIterator() {
+        return new EntryIterator<K,V>(root);
+    }
+
+    /**
+     * Returns an unmodifiable set view of the keys of this map.
+     */
+    Set<K> keySet() {
+        return new KeySet();
+    }
+
+    /**
+     * Returns the trie slot bit of hash at the trie level of shift.
+     */
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns a node holding two pairs with different keys.
+     */
+    private static Node pair(int shift, Object k1, Object v1, int h2,
+            Object k2, Object v2) {
+        int h1 = hash(k1);
+        if (h1 == h2) {
+            return new CollisionNode(h1, new Object[] { k1, v1, k2, v2 });
+        }
+        boolean[] added = new boolean[1];
+        return EMPTY_NODE.put(shift, h1, k1, v1, added).put(shift, h2, k2, v2,
+                added);
+    }
+
+}
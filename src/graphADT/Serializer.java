@@ -0,0 +1,94 @@
+package graphADT;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializer<T> converts values to and from bytes, to store vertex and edge
+ * values of a graph in files. Equal values must serialize to equal bytes,
+ * as stored values are looked up by their bytes, and a value read back must
+ * be equal to the value written. A serializer is never given
+ * <code>null</code>. <br/>
+ * 
+ * @author Drew Reese
+ *
+ * @param <T> - data type of serialized values
+ * 
+ */
+public interface Serializer<T> {
+
+    /**
+     * Returns the bytes of the specified value.
+     * 
+     * @param value - value to serialize, not <code>null</code>
+     * @return bytes of <code>value</code>
+     */
+    byte[] toBytes(T value);
+
+    /**
+     * Returns the value of the remaining bytes of the specified buffer. The
+     * buffer may be read-only and is not used after this method returns.
+     * 
+     * @param bytes - buffer holding the bytes of a single value
+     * @return value of <code>bytes</code>
+     */
+    T fromBytes(ByteBuffer bytes);
+
+    /**
+     * Returns a serializer of strings as UTF-8 bytes.
+     */
+    static Serializer<String> strings() {
+        return new Serializer<String>() {
+
+            @Override
+            public byte[] toBytes(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String fromBytes(ByteBuffer bytes) {
+                return StandardCharsets.UTF_8.decode(bytes).toString();
+            }
+
+        };
+    }
+
+    /**
+     * Returns a serializer of integers as four big-endian bytes.
+     */
+    static Serializer<Integer> integers() {
+        return new Serializer<Integer>() {
+
+            @Override
+            public byte[] toBytes(Integer value) {
+                return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+            }
+
+            @Override
+            public Integer fromBytes(ByteBuffer bytes) {
+                return bytes.getInt(bytes.position());
+            }
+
+        };
+    }
+
+    /**
+     * Returns a serializer of longs as eight big-endian bytes.
+     */
+    static Serializer<Long> longs() {
+        return new Serializer<Long>() {
+
+            @Override
+            public byte[] toBytes(Long value) {
+                return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+            }
+
+            @Override
+            public Long fromBytes(ByteBuffer bytes) {
+                return bytes.getLong(bytes.position());
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,469 @@
+package graphADT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ShortestPaths<V,E> finds weighted shortest paths in a graph with Dijkstra's
+ * algorithm, the weight of an edge being extracted from its edge value. Edge
+ * weights must not be negative or NaN. Multiple edges between two vertices
+ * are all relaxed, so a shortest path always takes the cheapest of them. <br/>
+ * 
+ * Vertices are kept in an indexed binary heap of vertex ids keyed by their
+ * tentative distance, so decreasing a distance moves the vertex within the
+ * heap instead of queueing another entry. A point-to-point query stops once
+ * the target is settled and reuses the arrays of the previous query, only
+ * resetting the vertices it touches. {@link CompactGraph} and
+ * {@link UndirectedGraph} are searched in place, other graphs are packed
+ * into a compact adjacency once when the shortest paths are created. The
+ * graph must not be modified while its shortest paths are in use, and
+ * shortest paths are not safe for use by multiple threads. <br/>
+ * 
+ * @author Drew Reese
+ * 
+ * @param <V> - data type of vertex values
+ * @param <E> - data type of edge values
+ * 
+ */
+public final class ShortestPaths<V, E> {
+
+    /*
+     * Internal representation of shortest paths
+     * 
+     * graph - indexed graph searched. weight - extracts edge weight from edge
+     * value. scratch - search state reused by point-to-point queries.
+     */
+    private final IndexedGraph<V,E>           graph;
+    private final ToDoubleFunction<? super E> weight;
+    private final Search<E>                   scratch;
+
+    /**
+     * Constructs shortest paths over the specified graph weighted by the
+     * specified weight extractor.
+     * 
+     * @param graph - graph to search
+     * @param weight - extracts the weight of an edge from its edge value, is
+     *            passed <code>null</code> for null-labeled edges
+     * @throws NullPointerException if <code>graph</code> or
+     *             <code>weight</code> is <code>null</code>
+     */
+    public ShortestPaths(AbstractGraph<V,E> graph,
+            ToDoubleFunction<? super E> weight) throws NullPointerException {
+        if (graph == null) {
+            throw new NullPointerException("Graph null");
+        } else if (weight == null) {
+            throw new NullPointerException("Weight null");
+        }
+        this.graph = IndexedGraph.of(graph);
+        this.weight = weight;
+        this.scratch = new Search<E>(this.graph, weight);
+    }
+
+    /**
+     * Finds the shortest paths from the specified source vertex to every
+     * vertex reachable from it.
+     * 
+     * @param source - vertex to search from
+     * @return result of search, or <code>null</code> if <code>source</code>
+     *         is not in the graph
+     * @throws NullPointerException if <code>source</code> is
+     *             <code>null</code>
+     * @throws IllegalArgumentException if the weight of an edge reached is
+     *             negative or NaN
+     */
+    public Result<V> search(V source)
+            throws NullPointerException, IllegalArgumentException {
+        if (source == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id = graph.idOf(source);
+        if (id < 0) {
+            return null;
+        }
+        Search<E> search = new Search<E>(graph, weight);
+        search.run(id, -1);
+
+        int n = search.distances.length;
+        @SuppressWarnings("unchecked")
+        V[] values = (V[]) new Object[n];
+        int reached = 0;
+        for (int u = 0; u < n; u++) {
+            if (search.settled(u)) {
+                values[u] = graph.valueOf(u);
+                reached++;
+            }
+        }
+        return new Result<V>(graph, source, values, search.distances,
+                search.parents, reached);
+    }
+
+    /**
+     * Finds a shortest path between the specified vertices, stopping as soon
+     * as the target vertex is settled.
+     * 
+     * @param source - vertex the path starts at
+     * @param target - vertex the path ends at
+     * @return shortest path from <code>source</code> to <code>target</code>,
+     *         or <code>null</code> if either vertex is not in the graph or
+     *         <code>target</code> is not reachable from <code>source</code>
+     * @throws NullPointerException if <code>source</code> or
+     *             <code>target</code> is <code>null</code>
+     * @throws IllegalArgumentException if the weight of an edge reached is
+     *             negative or NaN
+     */
+    public Path<V> path(V source, V target)
+            throws NullPointerException, IllegalArgumentException {
+        if (source == null || target == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int sourceId = graph.idOf(source);
+        int targetId = graph.idOf(target);
+        if (sourceId < 0 || targetId < 0) {
+            return null;
+        }
+        scratch.run(sourceId, targetId);
+        if (!scratch.settled(targetId)) {
+            return null;
+        }
+
+        List<V> vertices = new ArrayList<V>();
+        for (int u = targetId; u != sourceId; u = scratch.parents[u]) {
+            vertices.add(graph.valueOf(u));
+        }
+        vertices.add(source);
+        Collections.reverse(vertices);
+        return new Path<V>(vertices, scratch.distances[targetId]);
+    }
+
+    /**
+     * Result class holds the distances and parents found by a single-source
+     * search.
+     * 
+     * @author Drew Reese
+     * 
+     * @param <V> - data type of vertex values
+     */
+    public static final class Result<V> {
+
+        /*
+         * Internal representation of search result
+         * 
+         * graph - indexed graph searched. source - vertex searched from.
+         * values - vertex value of every reached vertex id, null for ids not
+         * reached. distances - path weight by vertex id. parents - parent
+         * vertex id by vertex id. reached - number of vertices reached.
+         */
+        private final IndexedGraph<V,?> graph;
+        private final V                 source;
+        private final V[]               values;
+        private final double[]          distances;
+        private final int[]             parents;
+        private final int               reached;
+
+        private Result(IndexedGraph<V,?> graph, V source, V[] values,
+                double[] distances, int[] parents, int reached) {
+            this.graph = graph;
+            this.source = source;
+            this.values = values;
+            this.distances = distances;
+            this.parents = parents;
+            this.reached = reached;
+        }
+
+        /**
+         * Returns the vertex searched from.
+         */
+        public V source() {
+            return source;
+        }
+
+        /**
+         * Returns the number of vertices reached, including the source.
+         */
+        public int reachedCount() {
+            return reached;
+        }
+
+        /**
+         * Returns the weight of a shortest path from the source to the
+         * specified vertex.
+         * 
+         * @param v - vertex to get distance of
+         * @return path weight to <code>v</code>, or
+         *         {@link Double#POSITIVE_INFINITY} if <code>v</code> was not
+         *         reached
+         * @throws NullPointerException if <code>v</code> is <code>null</code>
+         */
+        public double distance(V v) throws NullPointerException {
+            int id = idOf(v);
+            return (id >= 0) ? distances[id] : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Returns the vertex preceding the specified vertex on a shortest
+         * path from the source.
+         * 
+         * @param v - vertex to get parent of
+         * @return parent of <code>v</code>, or <code>null</code> if
+         *         <code>v</code> is the source or was not reached
+         * @throws NullPointerException if <code>v</code> is <code>null</code>
+         */
+        public V parent(V v) throws NullPointerException {
+            int id = idOf(v);
+            if (id < 0 || parents[id] == id) {
+                return null;
+            }
+            return values[parents[id]];
+        }
+
+        /**
+         * Returns the vertices of a shortest path from the source to the
+         * specified vertex, both included.
+         * 
+         * @param v - vertex to get path to
+         * @return list of vertices from source to <code>v</code>, or
+         *         <code>null</code> if <code>v</code> was not reached
+         * @throws NullPointerException if <code>v</code> is <code>null</code>
+         */
+        public List<V> pathTo(V v) throws NullPointerException {
+            int id = idOf(v);
+            if (id < 0) {
+                return null;
+            }
+            List<V> path = new ArrayList<V>();
+            for (int u = id; parents[u] != u; u = parents[u]) {
+                path.add(values[u]);
+            }
+            path.add(source);
+            Collections.reverse(path);
+            return path;
+        }
+
+        /**
+         * Returns the id of the specified vertex if it was reached, or
+         * <code>-1</code> otherwise.
+         */
+        private int idOf(V v) throws NullPointerException {
+            if (v == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+            int id = graph.idOf(v);
+            return (id >= 0 && id < values.length && v.equals(values[id]))
+                    ? id : -1;
+        }
+
+    }
+
+    /**
+     * Path class is a shortest path between two vertices.
+     * 
+     * @author Drew Reese
+     * 
+     * @param <V> - data type of vertex values
+     */
+    public static final class Path<V> {
+
+        private final List<V> vertices;
+        private final double  distance;
+
+        private Path(List<V> vertices, double distance) {
+            this.vertices = Collections.unmodifiableList(vertices);
+            this.distance = distance;
+        }
+
+        /**
+         * Returns the vertices of this path from source to target, both
+         * included.
+         */
+        public List<V> vertices() {
+            return vertices;
+        }
+
+        /**
+         * Returns the sum of the edge weights of this path.
+         */
+        public double distance() {
+            return distance;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return vertices + " (" + distance + ")";
+        }
+
+    }
+
+    /**
+     * Search class holds the state of a search and its indexed heap. The
+     * state of a vertex id is only valid while its mark equals the epoch of
+     * the current search, so starting a search does not clear the arrays.
+     */
+    private static final class Search<E>
+            implements IndexedGraph.EdgeAction<E> {
+
+        // heap slot of a vertex no longer in the heap
+        private static final int SETTLED = -1;
+
+        /*
+         * Internal representation of search
+         * 
+         * graph - indexed graph searched. weight - extracts edge weight.
+         * distances - tentative path weight by vertex id. parents - parent
+         * vertex id by vertex id, the source is its own parent. slots - heap
+         * slot by vertex id, SETTLED once removed from the heap. marks - epoch
+         * a vertex id was last reached in. epoch - number of the current
+         * search. heap - vertex ids ordered as a binary min heap by distance.
+         * size - number of vertex ids in the heap. current - vertex id whose
+         * edges are relaxed.
+         */
+        private final IndexedGraph<?,E>           graph;
+        private final ToDoubleFunction<? super E> weight;
+        private final double[]                    distances;
+        private final int[]                       parents;
+        private final int[]                       slots;
+        private final int[]                       marks;
+        private int                               epoch;
+        private final int[]                       heap;
+        private int                               size;
+        private int                               current;
+
+        Search(IndexedGraph<?,E> graph, ToDoubleFunction<? super E> weight) {
+            this.graph = graph;
+            this.weight = weight;
+            int n = graph.bound();
+            this.distances = new double[n];
+            this.parents = new int[n];
+            this.slots = new int[n];
+            this.marks = new int[n];
+            this.heap = new int[Math.max(n, 1)];
+        }
+
+        /**
+         * Returns <code>true</code> iff the vertex of the specified id was
+         * settled by the current search.
+         */
+        boolean settled(int u) {
+            return marks[u] == epoch && slots[u] == SETTLED;
+        }
+
+        /**
+         * Runs the search from the vertex of the specified source id until
+         * the vertex of the specified target id is settled, or every
+         * reachable vertex if the target id is <code>-1</code>.
+         */
+        void run(int sourceId, int targetId) {
+            if (++epoch == 0) {
+                // epoch wrapped around, old marks could match again
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+            size = 0;
+            reach(sourceId, sourceId, 0.0);
+            while (size > 0) {
+                current = poll();
+                if (current == targetId) {
+                    return;
+                }
+                graph.forEachEdge(current, this);
+            }
+        }
+
+        /**
+         * Relaxes the edge from the current vertex to the specified
+         * neighbor.
+         */
+        @Override
+        public void accept(int w, E e) {
+            double edgeWeight = weight.applyAsDouble(e);
+            if (!(edgeWeight >= 0.0)) {
+                throw new IllegalArgumentException(
+                        "Illegal edge weight: " + edgeWeight);
+            }
+            reach(w, current, distances[current] + edgeWeight);
+        }
+
+        /**
+         * Reaches the vertex of the specified id through the specified
+         * parent with the specified path weight, inserting it into the heap
+         * or decreasing its key if the path is shorter.
+         */
+        private void reach(int u, int parent, double distance) {
+            if (marks[u] != epoch) {
+                marks[u] = epoch;
+                distances[u] = distance;
+                parents[u] = parent;
+                slots[u] = size;
+                heap[size++] = u;
+                siftUp(slots[u]);
+            } else if (slots[u] != SETTLED && distance < distances[u]) {
+                distances[u] = distance;
+                parents[u] = parent;
+                siftUp(slots[u]);
+            }
+        }
+
+        /**
+         * Removes and returns the vertex id of least distance from the heap.
+         */
+        private int poll() {
+            int u = heap[0];
+            slots[u] = SETTLED;
+            int last = heap[--size];
+            if (size > 0) {
+                heap[0] = last;
+                slots[last] = 0;
+                siftDown(0);
+            }
+            return u;
+        }
+
+        private void siftUp(int slot) {
+            int u = heap[slot];
+            double distance = distances[u];
+            while (slot > 0) {
+                int parentSlot = (slot - 1) >>> 1;
+                int p = heap[parentSlot];
+                if (distances[p] <= distance) {
+                    break;
+                }
+                heap[slot] = p;
+                slots[p] = slot;
+                slot = parentSlot;
+            }
+            heap[slot] = u;
+            slots[u] = slot;
+        }
+
+        private void siftDown(int slot) {
+            int u = heap[slot];
+            double distance = distances[u];
+            int half = size >>> 1;
+            while (slot < half) {
+                int child = 2 * slot + 1;
+                int c = heap[child];
+                if (child + 1 < size
+                        && distances[heap[child + 1]] < distances[c]) {
+                    c = heap[++child];
+                }
+                if (distance <= distances[c]) {
+                    break;
+                }
+                heap[slot] = c;
+                slots[c] = slot;
+                slot = child;
+            }
+            heap[slot] = u;
+            slots[u] = slot;
+        }
+
+    }
+
+}
@@ -0,0 +1,507 @@
+package graphADT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Triangles counts the triangles of a graph, the sets of three distinct
+ * vertices connected pairwise, in total and per vertex, and derives the
+ * clustering coefficients of the graph. Self edges are ignored and multiple
+ * edges between two vertices count as one. <br/>
+ * 
+ * The neighbors of every vertex are packed into a sorted array of vertex ids,
+ * keeping only the neighbors that come later in the order of ascending degree,
+ * so every triangle is found exactly once from its first vertex and no array
+ * holds more than the square root of twice the number of edges. The
+ * triangles of an edge are the intersection of the arrays of its vertices,
+ * merged in step if they are of similar length or by galloping through the
+ * longer array otherwise. Vertices are packed and counted in ranges run as
+ * tasks of a {@link ForkJoinPool}. The graph must not be modified during a
+ * count. <br/>
+ * 
+ * @author Drew Reese
+ *
+ */
+public final class Triangles {
+
+    // vertices per task, small since the work per vertex is skewed
+    private static final int GRAIN = 256;
+
+    // gallop through the longer array once it is this many times longer
+    private static final int GALLOP_RATIO = 32;
+
+    private static final int[] EMPTY_ROW = new int[0];
+
+    private Triangles() {
+    }
+
+    /**
+     * Counts the triangles of the specified graph on the common fork join
+     * pool.
+     * 
+     * @param graph - graph to count triangles of
+     * @return triangle counts of <code>graph</code>
+     * @throws NullPointerException if <code>graph</code> is <code>null</code>
+     */
+    public static <V> Result<V> count(AbstractGraph<V,?> graph)
+            throws NullPointerException {
+        return count(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Counts the triangles of the specified graph on the specified fork join
+     * pool.
+     * 
+     * @param graph - graph to count triangles of
+     * @param pool - pool to run counting tasks on
+     * @return triangle counts of <code>graph</code>
+     * @throws NullPointerException if <code>graph</code> or <code>pool</code>
+     *             is <code>null</code>
+     */
+    public static <V> Result<V> count(AbstractGraph<V,?> graph,
+            ForkJoinPool pool) throws NullPointerException {
+        if (graph == null) {
+            throw new NullPointerException("Graph null");
+        } else if (pool == null) {
+            throw new NullPointerException("Pool null");
+        }
+        return new Count<V>(IndexedGraph.of(graph), pool).run();
+    }
+
+    /**
+     * Result class holds the triangle counts found by a count. A result
+     * describes the graph at the time of the count, vertices added to or
+     * removed from the graph after the count have no triangles.
+     * 
+     * @author Drew Reese
+     * 
+     * @param <V> - data type of vertex values
+     */
+    public static final class Result<V> {
+
+        /*
+         * Internal representation of count result
+         * 
+         * graph - indexed graph counted. values - vertex value by vertex id,
+         * null for free ids. triangles - number of triangles by vertex id.
+         * degrees - number of distinct neighbors other than itself by vertex
+         * id. total - number of triangles. count - number of vertices.
+         */
+        private final IndexedGraph<V,?> graph;
+        private final V[]               values;
+        private final AtomicLongArray   triangles;
+        private final int[]             degrees;
+        private final long              total;
+        private final int               count;
+
+        private Result(IndexedGraph<V,?> graph, V[] values,
+                AtomicLongArray triangles, int[] degrees, long total,
+                int count) {
+            this.graph = graph;
+            this.values = values;
+            this.triangles = triangles;
+            this.degrees = degrees;
+            this.total = total;
+            this.count = count;
+        }
+
+        /**
+         * Returns the number of triangles of the graph.
+         */
+        public long total() {
+            return total;
+        }
+
+        /**
+         * Returns the number of triangles the specified vertex is part of.
+         * 
+         * @param v - vertex to get triangles of
+         * @return number of triangles of <code>v</code>, or <code>-1</code>
+         *         if <code>v</code> was not counted
+         * @throws NullPointerException if <code>v</code> is <code>null</code>
+         */
+        public long triangles(V v) throws NullPointerException {
+            int id = idOf(v);
+            return (id >= 0) ? triangles.get(id) : -1;
+        }
+
+        /**
+         * Returns the local clustering coefficient of the specified vertex,
+         * the fraction of pairs of its neighbors that are connected. A vertex
+         * with less than two neighbors has a coefficient of zero.
+         * 
+         * @param v - vertex to get clustering coefficient of
+         * @return clustering coefficient of <code>v</code>, or
+         *         {@link Double#NaN} if <code>v</code> was not counted
+         * @throws NullPointerException if <code>v</code> is <code>null</code>
+         */
+        public double clusteringCoefficient(V v) throws NullPointerException {
+            int id = idOf(v);
+            return (id >= 0) ? coefficient(id) : Double.NaN;
+        }
+
+        /**
+         * Returns the average of the local clustering coefficients of all
+         * vertices, or zero if the graph has no vertices.
+         */
+        public double averageClusteringCoefficient() {
+            double sum = 0.0;
+            for (int u = 0; u < values.length; u++) {
+                if (values[u] != null) {
+                    sum += coefficient(u);
+                }
+            }
+            return (count > 0) ? sum / count : 0.0;
+        }
+
+        /**
+         * Returns the global clustering coefficient, the fraction of paths of
+         * two edges whose ends are connected, or zero if the graph has no
+         * such paths.
+         */
+        public double globalClusteringCoefficient() {
+            double paths = 0.0;
+            for (int u = 0; u < values.length; u++) {
+                paths += pairs(degrees[u]);
+            }
+            return (paths > 0.0) ? 3.0 * total / paths : 0.0;
+        }
+
+        /**
+         * Returns the clustering coefficient of the vertex of the specified
+         * id.
+         */
+        private double coefficient(int u) {
+            double pairs = pairs(degrees[u]);
+            return (pairs > 0.0) ? triangles.get(u) / pairs : 0.0;
+        }
+
+        /**
+         * Returns the number of unordered pairs of the specified number of
+         * neighbors.
+         */
+        private static double pairs(int degree) {
+            return degree * (degree - 1.0) / 2.0;
+        }
+
+        /**
+         * Returns the id of the specified vertex if it was counted, or
+         * <code>-1</code> otherwise.
+         */
+        private int idOf(V v) throws NullPointerException {
+            if (v == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+            int id = graph.idOf(v);
+            return (id >= 0 && id < values.length && v.equals(values[id]))
+                    ? id : -1;
+        }
+
+    }
+
+    /**
+     * Count class holds the state of a single count.
+     */
+    private static final class Count<V> {
+
+        /*
+         * Internal representation of count
+         * 
+         * graph - indexed graph counted. pool - pool running tasks. n - bound
+         * of vertex ids. values - vertex value by vertex id, null for free
+         * ids. degrees - number of distinct neighbors other than itself by
+         * vertex id. rows - distinct neighbor ids by vertex id, sorted
+         * ascending, first all neighbors then only the later neighbors in
+         * degree order. triangles - number of triangles by vertex id.
+         */
+        private final IndexedGraph<V,?> graph;
+        private final ForkJoinPool      pool;
+        private final int               n;
+        private final V[]               values;
+        private final int[]             degrees;
+        private final int[][]           rows;
+        private final AtomicLongArray   triangles;
+
+        Count(IndexedGraph<V,?> graph, ForkJoinPool pool) {
+            this.graph = graph;
+            this.pool = pool;
+            this.n = graph.bound();
+            @SuppressWarnings("unchecked")
+            V[] values = (V[]) new Object[n];
+            this.values = values;
+            this.degrees = new int[n];
+            this.rows = new int[n][];
+            this.triangles = new AtomicLongArray(n);
+        }
+
+        /**
+         * Runs the count.
+         */
+        Result<V> run() {
+            List<Pack> packs = new ArrayList<Pack>();
+            for (int from = 0; from < n; from += GRAIN) {
+                packs.add(new Pack(from, Math.min(n, from + GRAIN)));
+            }
+            invokeAll(packs);
+
+            // orienting reads the degrees of neighbors, packed by all tasks
+            List<Orient> orients = new ArrayList<Orient>();
+            for (int from = 0; from < n; from += GRAIN) {
+                orients.add(new Orient(from, Math.min(n, from + GRAIN)));
+            }
+            invokeAll(orients);
+
+            List<Intersect> intersects = new ArrayList<Intersect>();
+            for (int from = 0; from < n; from += GRAIN) {
+                intersects.add(new Intersect(from, Math.min(n, from + GRAIN)));
+            }
+            invokeAll(intersects);
+
+            long total = 0;
+            int count = 0;
+            for (Intersect intersect : intersects) {
+                total += intersect.found;
+            }
+            for (Pack pack : packs) {
+                count += pack.count;
+            }
+            return new Result<V>(graph, values, triangles, degrees, total,
+                    count);
+        }
+
+        /**
+         * Runs the specified tasks on the pool and waits for all of them.
+         */
+        private void invokeAll(final List<? extends RecursiveAction> tasks) {
+            if (tasks.size() <= 1) {
+                // a single task runs in the calling thread
+                for (RecursiveAction task : tasks) {
+                    task.invoke();
+                }
+                return;
+            }
+            pool.invoke(new RecursiveAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+
+            });
+        }
+
+        /**
+         * Returns <code>true</code> if vertex id <code>u</code> comes before
+         * vertex id <code>w</code> in the order of ascending degree, ties
+         * broken by id.
+         */
+        private boolean before(int u, int w) {
+            return degrees[u] < degrees[w]
+                    || (degrees[u] == degrees[w] && u < w);
+        }
+
+        /**
+         * Pack class packs the distinct neighbors other than itself of every
+         * vertex of a range of vertex ids into a sorted row.
+         */
+        private final class Pack extends RecursiveAction
+                implements IndexedGraph.EdgeAction<Object> {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+            private int[]     buffer;
+            private int       size;
+            int               count;
+
+            Pack(int from, int to) {
+                this.from = from;
+                this.to = to;
+                this.buffer = new int[16];
+            }
+
+            @Override
+            protected void compute() {
+                for (int u = from; u < to; u++) {
+                    values[u] = graph.valueOf(u);
+                    if (values[u] == null) {
+                        rows[u] = EMPTY_ROW;
+                        continue;
+                    }
+                    count++;
+                    size = 0;
+                    graph.forEachEdge(u, this);
+                    Arrays.sort(buffer, 0, size);
+
+                    // drop self edges and repeated neighbors in place
+                    int distinct = 0;
+                    for (int i = 0; i < size; i++) {
+                        int w = buffer[i];
+                        if (w != u && (distinct == 0
+                                || buffer[distinct - 1] != w)) {
+                            buffer[distinct++] = w;
+                        }
+                    }
+                    rows[u] = Arrays.copyOf(buffer, distinct);
+                    degrees[u] = distinct;
+                }
+            }
+
+            @Override
+            public void accept(int w, Object e) {
+                if (size == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, size * 2);
+                }
+                buffer[size++] = w;
+            }
+
+        }
+
+        /**
+         * Orient class keeps only the neighbors later in degree order in the
+         * rows of a range of vertex ids.
+         */
+        private final class Orient extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            Orient(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                for (int u = from; u < to; u++) {
+                    int[] row = rows[u];
+                    int later = 0;
+                    for (int i = 0; i < row.length; i++) {
+                        if (before(u, row[i])) {
+                            row[later++] = row[i];
+                        }
+                    }
+                    rows[u] = Arrays.copyOf(row, later);
+                }
+            }
+
+        }
+
+        /**
+         * Intersect class counts the triangles found from every vertex of a
+         * range of vertex ids, the common later neighbors of each vertex and
+         * each of its later neighbors.
+         */
+        private final class Intersect extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+            long              found;
+
+            Intersect(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                for (int u = from; u < to; u++) {
+                    int[] row = rows[u];
+                    long own = 0;
+                    for (int w : row) {
+                        int common = intersect(row, rows[w]);
+                        if (common > 0) {
+                            own += common;
+                            triangles.addAndGet(w, common);
+                        }
+                    }
+                    if (own > 0) {
+                        triangles.addAndGet(u, own);
+                        found += own;
+                    }
+                }
+            }
+
+            /**
+             * Counts the common ids of two sorted rows, adding a triangle to
+             * every common id.
+             */
+            private int intersect(int[] a, int[] b) {
+                if (a.length > b.length) {
+                    int[] swap = a;
+                    a = b;
+                    b = swap;
+                }
+                if (a.length == 0) {
+                    return 0;
+                } else if (b.length / a.length >= GALLOP_RATIO) {
+                    return gallop(a, b);
+                }
+                int common = 0;
+                int i = 0;
+                int j = 0;
+                while (i < a.length && j < b.length) {
+                    if (a[i] < b[j]) {
+                        i++;
+                    } else if (a[i] > b[j]) {
+                        j++;
+                    } else {
+                        triangles.incrementAndGet(a[i]);
+                        common++;
+                        i++;
+                        j++;
+                    }
+                }
+                return common;
+            }
+
+            /**
+             * Counts the common ids of a short and a much longer sorted row,
+             * searching the longer row for each id of the shorter one with
+             * doubling steps from the last position found.
+             */
+            private int gallop(int[] a, int[] b) {
+                int common = 0;
+                int low = 0;
+                for (int x : a) {
+                    // double the step until passing x, then binary search
+                    int step = 1;
+                    int high = low;
+                    while (high < b.length && b[high] < x) {
+                        low = high + 1;
+                        high += step;
+                        step <<= 1;
+                    }
+                    int slot = Arrays.binarySearch(b, low,
+                            Math.min(high + 1, b.length), x);
+                    if (slot >= 0) {
+                        triangles.incrementAndGet(x);
+                        common++;
+                        low = slot + 1;
+                    } else {
+                        low = -slot - 1;
+                    }
+                    if (low >= b.length) {
+                        break;
+                    }
+                }
+                return common;
+            }
+
+        }
+
+    }
+
+}
@@ -1,12 +1,20 @@
 package graphADT;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 
 /**
  * UndirectedGraph<V,E> represents a basic mutable undirected multi-graph.
@@ -16,6 +24,11 @@ import java.util.Set;
  * capable of storing multiple non-duplicate edges between vertices but allows
  * duplicate edges. <br/>
  * 
+ * Changes to the graph can be observed by registering a
+ * {@link GraphListener}, which receives the vertex and edge additions and
+ * removals as batches of {@link GraphEvent}s, each listener with its own
+ * batch size. <br/>
+ * 
  * <h5>Abstract Invariant:</h5>
  * foreach vertex in graph
  * <ul>
@@ -42,28 +55,39 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
     // DEBUGGING EXPENSIVE CHECKREP FLAG
     private static final boolean RUN_CHECKREP = false;
 
+    // initial capacity of vertex edge sets, same as java.util.HashSet
+    private static final int DEFAULT_EDGE_SET_CAPACITY = 16;
+
     /**
-     * Edge class stores vertex pairing that defines an edge in the parent
+     * Edge class stores vertex id pairing that defines an edge in the parent
      * graph.
      * 
      * While edge values e are allowed to be null, by definition the graph
-     * vertices must not be null. The vertices are guaranteed to not be null as
-     * this is enforced by the graph.
+     * vertices must not be null. Vertices are referenced by their interned id,
+     * so comparing edges only compares integers and edge values.
      * 
      * @author Drew Reese
      */
-    private class Edge {
+    private static final class Edge<E> {
 
-        private V v1;
-        private V v2;
-        private E e;
+        private final int v1;
+        private final int v2;
+        private final E   e;
 
-        public Edge(V v1, V v2, E e) {
+        public Edge(int v1, int v2, E e) {
             this.v1 = v1;
             this.v2 = v2;
             this.e = e;
         }
 
+        /**
+         * Returns the id of the vertex at the opposite end of this edge from
+         * vertex id <code>v</code>.
+         */
+        private int other(int v) {
+            return (v == v1) ? v2 : v1;
+        }
+
         /*
          * (non-Javadoc)
          * 
@@ -73,10 +97,8 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
         public int hashCode() {
             final int prime = 31;
             int result = 1;
-            result = prime * result + getOuterType().hashCode();
             result = prime * result + ((e == null) ? 0 : e.hashCode());
-            result = prime * result + ((v1 == null) ? 0 : v1.hashCode())
-                    + ((v2 == null) ? 0 : v2.hashCode());
+            result = prime * result + v1 + v2;
             return result;
         }
 
@@ -90,21 +112,13 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
             if (this == obj) {
                 return true;
             }
-            if (obj == null) {
-                return false;
-            }
-            if (!(obj instanceof UndirectedGraph.Edge)) {
+            if (!(obj instanceof Edge)) {
                 return false;
             }
 
-            @SuppressWarnings("unchecked")
-            Edge other = (Edge) obj;
-            if (!getOuterType().equals(other.getOuterType())) {
-                return false;
-            }
-
-            if (!((v1.equals(other.v1) && v2.equals(other.v2))
-                    || (v1.equals(other.v2) && v2.equals(other.v1)))) {
+            Edge<?> other = (Edge<?>) obj;
+            if (!((v1 == other.v1 && v2 == other.v2)
+                    || (v1 == other.v2 && v2 == other.v1))) {
                 return false;
             }
 
@@ -119,18 +133,166 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
             return true;
         }
 
-        private UndirectedGraph<?,?> getOuterType() {
-            return UndirectedGraph.this;
+    }
+
+    /**
+     * Subscription class holds a registered graph listener and the events
+     * pending delivery to it.
+     * 
+     * @author Drew Reese
+     */
+    private static final class Subscription<V, E> {
+
+        private final GraphListener<V,E>   listener;
+        private final int                  batchSize;
+        private ArrayList<GraphEvent<V,E>> pending;
+
+        public Subscription(GraphListener<V,E> listener, int batchSize) {
+            this.listener = listener;
+            this.batchSize = batchSize;
+            this.pending = new ArrayList<GraphEvent<V,E>>();
+        }
+
+    }
+
+    /**
+     * EdgeValueView class is an unmodifiable live view of the edge values of
+     * the edges touching a vertex in the parent graph.
+     * 
+     * @author Drew Reese
+     */
+    private final class EdgeValueView extends AbstractCollection<E> {
+
+        private final int id;
+
+        public EdgeValueView(int id) {
+            this.id = id;
         }
 
-        /*
-         * (non-Javadoc)
-         * 
-         * @see java.lang.Object#toString()
-         */
         @Override
-        public String toString() {
-            return "(" + v1 + "<->" + v2 + ")";
+        public Iterator<E> iterator() {
+            // resolve edge set on each call, bulk adds replace it
+            final Iterator<Edge<E>> edgeIterator = adjacency.get(id).iterator();
+            return new Iterator<E>() {
+
+                @Override
+                public boolean hasNext() {
+                    return edgeIterator.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return edgeIterator.next().e;
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return adjacency.get(id).size();
+        }
+
+    }
+
+    /**
+     * EdgeValueSetView class is an unmodifiable live view of the edge values
+     * of the parent graph, the values of edgeMap followed by null while the
+     * graph holds unlabeled edges.
+     * 
+     * @author Drew Reese
+     */
+    private final class EdgeValueSetView extends AbstractSet<E> {
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<E> valueIterator = edgeMap.keySet().iterator();
+            return new Iterator<E>() {
+
+                private boolean nullPending = nullEdges > 0;
+
+                @Override
+                public boolean hasNext() {
+                    return valueIterator.hasNext() || nullPending;
+                }
+
+                @Override
+                public E next() {
+                    if (valueIterator.hasNext()) {
+                        return valueIterator.next();
+                    } else if (nullPending) {
+                        nullPending = false;
+                        return null;
+                    }
+                    throw new NoSuchElementException();
+                }
+
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public int size() {
+            return edgeMap.size() + (nullEdges > 0 ? 1 : 0);
+        }
+
+    }
+
+    /**
+     * Indexed class is an indexed view of the parent graph by the ids of its
+     * vertex index.
+     * 
+     * @author Drew Reese
+     */
+    private final class Indexed extends IndexedGraph<V,E> {
+
+        @Override
+        int bound() {
+            return vertexIds.bound();
+        }
+
+        @Override
+        int idOf(V v) {
+            return vertexIds.idOf(v);
+        }
+
+        @Override
+        V valueOf(int id) {
+            return vertexIds.valueOf(id);
+        }
+
+        @Override
+        int degree(int id) {
+            Set<Edge<E>> edges = adjacency.get(id);
+            return (edges != null) ? edges.size() : 0;
+        }
+
+        @Override
+        int findNeighbor(int id, IntPredicate predicate) {
+            Set<Edge<E>> edges = adjacency.get(id);
+            if (edges != null) {
+                for (Edge<E> edge : edges) {
+                    int w = edge.other(id);
+                    if (predicate.test(w)) {
+                        return w;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        void forEachEdge(int id, EdgeAction<? super E> action) {
+            Set<Edge<E>> edges = adjacency.get(id);
+            if (edges != null) {
+                for (Edge<E> edge : edges) {
+                    action.accept(edge.other(id), edge.e);
+                }
+            }
         }
 
     }
@@ -138,11 +300,36 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
     /*
      * Internal representation of basic undirected graph
      * 
-     * vertexMap - maps vertex value to a set of it's connected edges. edgeMap -
-     * maps edge value to a set of edges containing that value.
+     * vertexIds - interns vertex values as dense vertex ids. adjacency - maps
+     * vertex id to a set of it's connected edges. edgeMap - maps non-null edge
+     * value to a set of edges containing that value. nullEdges - number of
+     * edges with null edge value, which are only kept by vertex and by pair so
+     * that unlabeled edges do not pile up in a single set. pairMap - maps
+     * unordered vertex id pair to a set of edges connecting that pair.
+     * edgeSetCapacity - initial capacity of the edge set of a new vertex.
+     * components - connected components of the vertex ids, only kept up to
+     * date while not componentsDirty. componentsDirty - set by removals, which
+     * union-find cannot undo, the components are rebuilt on the next query.
+     * subscriptions - registered graph listeners. retired - listeners
+     * unregistered during a delivery, whose pending events that delivery
+     * still delivers. deferredEvents - depth of bulk operations whose events
+     * are delivered when the outermost ends. delivering - whether events are
+     * being delivered. flushing - whether the delivery delivers every pending
+     * event, not only full batches.
      */
-    private Map<V,Set<Edge>> vertexMap;
-    private Map<E,Set<Edge>> edgeMap;
+    private VertexIndex<V>          vertexIds;
+    private ArrayList<Set<Edge<E>>> adjacency;
+    private Map<E,Set<Edge<E>>>     edgeMap;
+    private int                     nullEdges;
+    private Map<Long,Set<Edge<E>>>  pairMap;
+    private final int               edgeSetCapacity;
+    private final DisjointSets      components;
+    private boolean                 componentsDirty;
+    private List<Subscription<V,E>> subscriptions;
+    private List<Subscription<V,E>> retired;
+    private int                     deferredEvents;
+    private boolean                 delivering;
+    private boolean                 flushing;
 
     /*
      * Abstraction Function:
@@ -150,9 +337,11 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
      * A basic undirected graph is an ADT that contains both vertices and the
      * edges between them. This graph stores a vertex set and an edge set. The
      * vertex set is represented by a Key-Value store where the vertex value is
-     * the key and a set of edges connecting that vertex is the value. Likewise,
-     * the edge set is represented by a Key-Value store where the edge value is
-     * the key and a set of edges representing that edge value is the key.
+     * the key and its vertex id is the value, and the set of edges connecting
+     * a vertex is stored at its vertex id. Edges refer to vertices only by
+     * vertex id. Likewise, the edge set is represented by a Key-Value store
+     * where the edge value is the key and a set of edges representing that edge
+     * value is the key.
      */
 
     // Representation Invariant:
@@ -163,18 +352,103 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
     // e_i element of edge set
     // v_j and v_k elements of vertex set
     //
-    // foreach vertex v in vertexMap
+    // foreach vertex v in vertexIds
     // v != null
     // v element of vertex set
+    // adjacency.get(vertexIds.idOf(v)) != null
+    //
+    // null not in edgeMap
+    // nullEdges == number of edges in pairMap with null edge value
     //
     // foreach edge e in edgeMap
     // e != null
-    // e.v1 in vertexMap
-    // e.v2 in vertexMap
+    // e.v1 in vertexIds
+    // e.v2 in vertexIds
+    // e in pairMap.get(pairKey(e.v1, e.v2))
+    //
+    // if !componentsDirty
+    // components.count() == number of connected components
+    // foreach edge e in edgeMap
+    // components.find(e.v1) == components.find(e.v2)
 
     public UndirectedGraph() {
-        this.vertexMap = new HashMap<V,Set<Edge>>();
-        this.edgeMap = new HashMap<E,Set<Edge>>();
+        this.vertexIds = new VertexIndex<V>(0);
+        this.adjacency = new ArrayList<Set<Edge<E>>>();
+        this.edgeMap = new HashMap<E,Set<Edge<E>>>();
+        this.pairMap = new HashMap<Long,Set<Edge<E>>>();
+        this.edgeSetCapacity = DEFAULT_EDGE_SET_CAPACITY;
+        this.components = new DisjointSets(0);
+        this.subscriptions = new ArrayList<Subscription<V,E>>(0);
+        this.retired = new ArrayList<Subscription<V,E>>(0);
+        checkRep();
+    }
+
+    /**
+     * Constructs a new empty graph sized to hold the expected number of
+     * vertices without rehashing.
+     * 
+     * @param expectedVertices - expected number of vertices
+     * @throws IllegalArgumentException if expected number of vertices is
+     *             negative
+     */
+    public UndirectedGraph(int expectedVertices)
+            throws IllegalArgumentException {
+        this(expectedVertices, 0);
+    }
+
+    /**
+     * Constructs a new empty graph sized to hold the expected number of
+     * vertices and edges without rehashing. The edge sets of vertices are
+     * sized for the average degree of the expected graph.
+     * 
+     * @param expectedVertices - expected number of vertices
+     * @param expectedEdges - expected number of edges
+     * @throws IllegalArgumentException if expected number of vertices or edges
+     *             is negative
+     */
+    public UndirectedGraph(int expectedVertices, int expectedEdges)
+            throws IllegalArgumentException {
+        this(expectedVertices, expectedEdges,
+                averageDegree(expectedVertices, expectedEdges));
+    }
+
+    /**
+     * Constructs a new empty graph sized to hold the expected number of
+     * vertices and edges without rehashing. The edge sets of vertices are
+     * sized for the expected degree, the number of edges touching a vertex.
+     * The edge value index is sized for a distinct value per expected edge,
+     * unlabeled edges are only counted. The edge set of a single value keeps
+     * the default capacity, as few edges share a value.
+     * 
+     * @param expectedVertices - expected number of vertices
+     * @param expectedEdges - expected number of edges
+     * @param expectedDegree - expected number of edges touching a vertex
+     * @throws IllegalArgumentException if expected number of vertices, edges
+     *             or degree is negative
+     */
+    public UndirectedGraph(int expectedVertices, int expectedEdges,
+            int expectedDegree) throws IllegalArgumentException {
+        if (expectedVertices < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal expected vertex count: " + expectedVertices);
+        }
+        if (expectedEdges < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal expected edge count: " + expectedEdges);
+        }
+        if (expectedDegree < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal expected degree: " + expectedDegree);
+        }
+        this.vertexIds = new VertexIndex<V>(expectedVertices);
+        this.adjacency = new ArrayList<Set<Edge<E>>>(expectedVertices);
+        this.edgeMap = new HashMap<E,Set<Edge<E>>>(capacityFor(expectedEdges));
+        this.pairMap = new HashMap<Long,Set<Edge<E>>>(
+                capacityFor(expectedEdges));
+        this.edgeSetCapacity = capacityFor(expectedDegree);
+        this.components = new DisjointSets(expectedVertices);
+        this.subscriptions = new ArrayList<Subscription<V,E>>(0);
+        this.retired = new ArrayList<Subscription<V,E>>(0);
         checkRep();
     }
 
@@ -184,15 +458,49 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
             throw new NullPointerException("Vertex value null");
         }
 
-        if (vertexMap.containsKey(v)) {
+        if (containsVertex(v)) {
             return false;
         } else {
-            vertexMap.put(v, new HashSet<Edge>());
+            insertVertex(v);
             checkRep();
+            deliverEvents();
             return true;
         }
     }
 
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the graph's internal maps are grown once for the whole collection.
+     */
+    @Override
+    public boolean addAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+
+        if (vertices == null) {
+            throw new NullPointerException("Vertex collection null");
+        }
+        for (V vertex : vertices) {
+            if (vertex == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+        }
+
+        vertexIds.ensureCapacity(vertexIds.size() + vertices.size());
+        adjacency.ensureCapacity(vertexIds.size() + vertices.size());
+
+        boolean modified = false;
+        for (V vertex : vertices) {
+            if (!containsVertex(vertex)) {
+                insertVertex(vertex);
+                modified = true;
+            }
+        }
+        checkRep();
+        deliverEvents();
+        return modified;
+    }
+
     @Override
     public boolean addEdge(V v1, V v2) throws NullPointerException {
         return addEdge(v1, v2, null);
@@ -203,38 +511,204 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
         if (v1 == null || v2 == null) {
             throw new NullPointerException("Vertex value null");
         }
-        if (!(containsVertex(v1) && containsVertex(v2))) {
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
             return false;
         }
 
-        if (!edgeMap.containsKey(e)) {
-            edgeMap.put(e, new HashSet<Edge>());
+        boolean modified = insertEdge(id1, id2, e);
+        checkRep();
+        deliverEvents();
+        return modified;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: the graph's internal maps and the edge sets of the touched
+     * vertices are grown once for the whole collection.
+     */
+    @Override
+    public boolean addAllEdges(
+            Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+            throws NullPointerException {
+
+        if (edges == null) {
+            throw new NullPointerException("Edge collection null");
+        }
+
+        // resolve vertex ids once
+        int[] ends1 = new int[edges.size()];
+        int[] ends2 = new int[edges.size()];
+        @SuppressWarnings("unchecked")
+        E[] labels = (E[]) new Object[edges.size()];
+        int i = 0;
+        for (EdgeTriple<? extends V,? extends E> edge : edges) {
+            if (edge == null) {
+                throw new NullPointerException("Edge triple null");
+            }
+            ends1[i] = vertexIds.idOf(edge.getV1());
+            ends2[i] = vertexIds.idOf(edge.getV2());
+            labels[i++] = edge.getE();
         }
-        
-        Edge newEdge = new Edge(v1, v2, e);
-        boolean modified = edgeMap.get(e).add(newEdge);
-        
-        if (modified) {
-            vertexMap.get(v1).add(newEdge);
-            vertexMap.get(v2).add(newEdge);
-        } else {
-            // adding new edge failed, undo edgeMap changes if just mapped
+        return addAllEdges(ends1, ends2, labels, i);
+    }
+
+    /**
+     * Adds a list of edges between vertex ids to this graph. The graph's
+     * internal maps and the edge sets of the touched vertices are grown once
+     * for the whole list. Edges with a negative vertex id are skipped.
+     * 
+     * @param ends1 - first vertex id of each edge
+     * @param ends2 - second vertex id of each edge
+     * @param labels - edge value of each edge
+     * @param count - number of edges in the lists
+     * @return <code>true</code> iff graph was modified
+     */
+    boolean addAllEdges(int[] ends1, int[] ends2, E[] labels, int count) {
+
+        // count new edges per vertex and value
+        int[] degrees = new int[vertexIds.bound()];
+        Map<E,int[]> valueCounts = new HashMap<E,int[]>();
+        for (int i = 0; i < count; i++) {
+            int id1 = ends1[i];
+            int id2 = ends2[i];
+            if (id1 >= 0 && id2 >= 0) {
+                degrees[id1]++;
+                if (id1 != id2) {
+                    degrees[id2]++;
+                }
+                if (labels[i] != null) {
+                    int[] valueCount = valueCounts.get(labels[i]);
+                    if (valueCount == null) {
+                        valueCounts.put(labels[i], new int[] { 1 });
+                    } else {
+                        valueCount[0]++;
+                    }
+                }
+            }
+        }
+
+        // grow edge sets once to their expected size
+        for (int id = 0; id < degrees.length; id++) {
+            if (degrees[id] > 0) {
+                adjacency.set(id, presized(adjacency.get(id), degrees[id]));
+            }
+        }
+        for (Map.Entry<E,int[]> entry : valueCounts.entrySet()) {
+            edgeMap.put(entry.getKey(), presized(edgeMap.get(entry.getKey()),
+                    entry.getValue()[0]));
+        }
+        if (pairMap.size() < count) {
+            // batch would at least double the pair index, rehash it only once
+            Map<Long,Set<Edge<E>>> pairs = new HashMap<Long,Set<Edge<E>>>(
+                    capacityFor(pairMap.size() + count));
+            pairs.putAll(pairMap);
+            pairMap = pairs;
+        }
+
+        boolean modified = false;
+        for (int i = 0; i < count; i++) {
+            if (ends1[i] >= 0 && ends2[i] >= 0
+                    && insertEdge(ends1[i], ends2[i], labels[i])) {
+                modified = true;
+            }
+        }
+
+        // undo edgeMap changes of values that only had duplicate edges
+        for (E e : valueCounts.keySet()) {
             if (edgeMap.get(e).isEmpty()) {
                 edgeMap.remove(e);
             }
         }
         checkRep();
+        deliverEvents();
+        return modified;
+    }
+
+    /**
+     * Adds a new vertex value not already contained in this graph.
+     */
+    private void insertVertex(V v) {
+        int id = vertexIds.add(v);
+        if (id == adjacency.size()) {
+            adjacency.add(new HashSet<Edge<E>>(edgeSetCapacity));
+        } else {
+            adjacency.set(id, new HashSet<Edge<E>>(edgeSetCapacity));
+        }
+        if (!componentsDirty) {
+            components.add(id);
+        }
+        if (!subscriptions.isEmpty()) {
+            emit(GraphEvent.<V,E> vertex(true, v));
+        }
+    }
+
+    /**
+     * Adds a new edge between two vertex ids contained in this graph.
+     * 
+     * @return <code>true</code> iff edge was added to graph, <code>false</code>
+     *         if graph already contained the edge
+     */
+    private boolean insertEdge(int id1, int id2, E e) {
+        Edge<E> newEdge = new Edge<E>(id1, id2, e);
+        boolean modified;
+        if (e == null) {
+            // unlabeled edges are only told apart by their pair
+            modified = !intersection(id1, id2).contains(newEdge);
+            if (modified) {
+                nullEdges++;
+            }
+        } else {
+            if (!edgeMap.containsKey(e)) {
+                edgeMap.put(e, new HashSet<Edge<E>>());
+            }
+            modified = edgeMap.get(e).add(newEdge);
+            if (!modified && edgeMap.get(e).isEmpty()) {
+                // adding new edge failed, undo edgeMap changes if just mapped
+                edgeMap.remove(e);
+            }
+        }
+
+        if (modified) {
+            adjacency.get(id1).add(newEdge);
+            adjacency.get(id2).add(newEdge);
+
+            Long pair = pairKey(id1, id2);
+            Set<Edge<E>> pairEdges = pairMap.get(pair);
+            if (pairEdges == null) {
+                pairEdges = new HashSet<Edge<E>>(2);
+                pairMap.put(pair, pairEdges);
+            }
+            pairEdges.add(newEdge);
+
+            if (!componentsDirty) {
+                components.union(id1, id2);
+            }
+            if (!subscriptions.isEmpty()) {
+                emitEdge(true, newEdge);
+            }
+        }
         return modified;
     }
 
     @Override
     public boolean containsVertex(V v) {
-        return vertexMap.containsKey(v);
+        return vertexIds.idOf(v) >= 0;
     }
 
     @Override
     public boolean containsEdge(E e) {
-        return edgeMap.containsKey(e);
+        return containsValue(e);
+    }
+
+    /**
+     * Returns <code>true</code> if some edge of this graph has the specified
+     * edge value.
+     */
+    private boolean containsValue(Object e) {
+        return (e == null) ? nullEdges > 0 : edgeMap.containsKey(e);
     }
 
     @Override
@@ -242,17 +716,21 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
         if (v1 == null || v2 == null) {
             throw new NullPointerException("Vertex value null");
         }
-        return !intersection(v1, v2).isEmpty();
+        return !intersection(vertexIds.idOf(v1), vertexIds.idOf(v2)).isEmpty();
     }
 
     @Override
     public Set<V> vertexSet() {
-        return new HashSet<V>(vertexMap.keySet());
+        return new HashSet<V>(vertexIds.values());
     }
 
     @Override
     public Set<E> edgeSet() {
-        return new HashSet<E>(edgeMap.keySet());
+        Set<E> edgeValues = new HashSet<E>(edgeMap.keySet());
+        if (nullEdges > 0) {
+            edgeValues.add(null);
+        }
+        return edgeValues;
     }
 
     @Override
@@ -263,12 +741,78 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
             return null;
         }
         Set<E> returnEdgeSet = new HashSet<E>();
-        for (Edge e : vertexMap.get(v)) {
+        for (Edge<E> e : adjacency.get(vertexIds.idOf(v))) {
             returnEdgeSet.add(e.e);
         }
         return returnEdgeSet;
     }
 
+    @Override
+    public Set<V> vertexView() {
+        return vertexIds.values();
+    }
+
+    @Override
+    public Set<E> edgeView() {
+        return new EdgeValueSetView();
+    }
+
+    @Override
+    public Collection<E> edgeView(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (!containsVertex(v)) {
+            return null;
+        }
+        return new EdgeValueView(vertexIds.idOf(v));
+    }
+
+    @Override
+    public int degree(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id = vertexIds.idOf(v);
+        return (id >= 0) ? adjacency.get(id).size() : -1;
+    }
+
+    @Override
+    public boolean forEachNeighbor(V v, Consumer<? super V> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+        for (Edge<E> edge : adjacency.get(id)) {
+            action.accept(vertexIds.valueOf(edge.other(id)));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachIncidentEdge(V v,
+            BiConsumer<? super V,? super E> action)
+            throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        } else if (action == null) {
+            throw new NullPointerException("Action null");
+        }
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
+            return false;
+        }
+        for (Edge<E> edge : adjacency.get(id)) {
+            action.accept(vertexIds.valueOf(edge.other(id)), edge.e);
+        }
+        return true;
+    }
+
     @Override
     public Set<E> edgeSet(V v1, V v2) throws NullPointerException {
         if (v1 == null || v2 == null) {
@@ -276,7 +820,8 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
         } else if (!(containsVertex(v1) && containsVertex(v2))) {
             return null;
         }
-        return extractEdges(intersection(v1, v2));
+        return extractEdges(
+                intersection(vertexIds.idOf(v1), vertexIds.idOf(v2)));
     }
 
     @Override
@@ -286,7 +831,8 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
         } else if (!(containsVertex(v1) && containsVertex(v2))) {
             return null;
         }
-        Edge edge = getEdge(intersection(v1, v2));
+        Edge<E> edge = getEdge(
+                intersection(vertexIds.idOf(v1), vertexIds.idOf(v2)));
         return (edge != null) ? edge.e : null;
     }
 
@@ -299,12 +845,18 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
         }
 
         boolean modified = false;
-        for (E e : edges) {
-            if (this.removeEdge(e)) {
-                modified = true;
+        deferredEvents++;
+        try {
+            for (E e : edges) {
+                if (this.removeEdge(e)) {
+                    modified = true;
+                }
             }
+        } finally {
+            deferredEvents--;
         }
         checkRep();
+        deliverEvents();
         return modified;
     }
 
@@ -316,22 +868,24 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
             return null;
         }
 
-        Set<Edge> edges = intersection(v1, v2);
-
-        vertexMap.get(v1).removeAll(edges);
-        vertexMap.get(v2).removeAll(edges);
-
-        for (Edge edge : edges) {
-            // remove edge from set
-            edgeMap.get(edge.e).remove(edge);
-
-            // remove mapping if now empty
-            if (edgeMap.get(edge.e).isEmpty()) {
-                edgeMap.remove(edge.e);
+        Set<Edge<E>> edges = pairMap
+                .remove(pairKey(vertexIds.idOf(v1), vertexIds.idOf(v2)));
+        if (edges == null) {
+            return new HashSet<E>();
+        }
+        componentsDirty = true;
+
+        for (Edge<E> edge : edges) {
+            adjacency.get(edge.v1).remove(edge);
+            adjacency.get(edge.v2).remove(edge);
+            unmapValue(edge);
+            if (!subscriptions.isEmpty()) {
+                emitEdge(false, edge);
             }
         }
 
         checkRep();
+        deliverEvents();
         return extractEdges(edges);
     }
 
@@ -344,41 +898,90 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
         }
 
         boolean modified = false;
-        for (V vertex : vertices) {
-            if (this.removeVertex(vertex)) {
-                modified = true;
+        deferredEvents++;
+        try {
+            for (V vertex : vertices) {
+                if (this.removeVertex(vertex)) {
+                    modified = true;
+                }
             }
+        } finally {
+            deferredEvents--;
         }
         checkRep();
+        deliverEvents();
         return modified;
     }
 
     /**
      * {@inheritDoc} <br>
      * 
-     * Note: this method removes all duplicate edge values.
+     * Note: this method removes all duplicate edge values. Removing the
+     * <code>null</code> edge value scans the edges of all vertices, as
+     * unlabeled edges are not indexed by value.
      */
     @Override
     public boolean removeEdge(E e) {
 
-        if (!edgeMap.containsKey(e)) {
+        if (e == null) {
+            return removeNullEdges();
+        } else if (!edgeMap.containsKey(e)) {
             return false;
         }
 
         boolean modified = false;
-        Set<Edge> eSet = edgeMap.remove(e);
+        Set<Edge<E>> eSet = edgeMap.remove(e);
         if (eSet != null) {
             modified = true;
-            for (Edge edge : eSet) {
-                vertexMap.get(edge.v1).remove(edge);
-                vertexMap.get(edge.v2).remove(edge);
+            componentsDirty = true;
+            for (Edge<E> edge : eSet) {
+                adjacency.get(edge.v1).remove(edge);
+                adjacency.get(edge.v2).remove(edge);
+                unmapPair(edge);
+                if (!subscriptions.isEmpty()) {
+                    emitEdge(false, edge);
+                }
             }
         }
 
         checkRep();
+        deliverEvents();
         return modified;
     }
 
+    /**
+     * Removes all edges with null edge value.
+     */
+    private boolean removeNullEdges() {
+        if (nullEdges == 0) {
+            return false;
+        }
+        componentsDirty = true;
+        for (int id = 0; id < adjacency.size(); id++) {
+            Set<Edge<E>> edges = adjacency.get(id);
+            if (edges == null) {
+                continue;
+            }
+            for (Iterator<Edge<E>> it = edges.iterator(); it.hasNext();) {
+                Edge<E> edge = it.next();
+                if (edge.e == null) {
+                    it.remove();
+                    if (edge.v1 != edge.v2) {
+                        adjacency.get(edge.other(id)).remove(edge);
+                    }
+                    unmapPair(edge);
+                    if (!subscriptions.isEmpty()) {
+                        emitEdge(false, edge);
+                    }
+                }
+            }
+        }
+        nullEdges = 0;
+        checkRep();
+        deliverEvents();
+        return true;
+    }
+
     @Override
     public E removeEdge(V v1, V v2) throws NullPointerException {
         if (v1 == null || v2 == null) {
@@ -388,56 +991,256 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
         }
 
         // get a single edge from the intersection of the vertices
-        Edge edge = getEdge(intersection(v1, v2));
+        Edge<E> edge = getEdge(
+                intersection(vertexIds.idOf(v1), vertexIds.idOf(v2)));
         if (edge == null) {
             return null;
         }
+        componentsDirty = true;
         
-        vertexMap.get(edge.v1).remove(edge);
-        vertexMap.get(edge.v2).remove(edge);
-        edgeMap.get(edge.e).remove(edge);
-        // remove mapping if now empty
-        if (edgeMap.get(edge.e).isEmpty()) {
-            edgeMap.remove(edge.e);
+        adjacency.get(edge.v1).remove(edge);
+        adjacency.get(edge.v2).remove(edge);
+        unmapPair(edge);
+        unmapValue(edge);
+        if (!subscriptions.isEmpty()) {
+            emitEdge(false, edge);
         }
 
         checkRep();
+        deliverEvents();
         return edge.e;
     }
 
+    /**
+     * Removes the edge with edge value <code>e</code> connecting vertices
+     * <code>v1</code> and <code>v2</code>, leaving any other edge between
+     * them. Used to replay edge removals recorded by graph listeners.
+     * 
+     * @return <code>true</code> iff the graph contained the edge
+     */
+    boolean removeEdge(V v1, V v2, E e) {
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return false;
+        }
+        Edge<E> edge = new Edge<E>(id1, id2, e);
+        if (!intersection(id1, id2).contains(edge)) {
+            return false;
+        }
+        componentsDirty = true;
+
+        adjacency.get(id1).remove(edge);
+        adjacency.get(id2).remove(edge);
+        unmapPair(edge);
+        unmapValue(edge);
+        if (!subscriptions.isEmpty()) {
+            emitEdge(false, edge);
+        }
+
+        checkRep();
+        deliverEvents();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: graph listeners receive the removal of every edge touching the
+     * vertex before the removal of the vertex, in the same batch.
+     */
     @Override
     public boolean removeVertex(V v) {
-        if (!vertexMap.containsKey(v)) {
+        int id = vertexIds.idOf(v);
+        if (id < 0) {
             return false;
         }
+        componentsDirty = true;
 
         boolean modified = false;
-        Set<Edge> edgesToRemove = vertexMap.remove(v);
+        Set<Edge<E>> edgesToRemove = adjacency.set(id, null);
 
         if (edgesToRemove != null) {
             modified = true;
-            for (Edge edge : edgesToRemove) {
+            for (Edge<E> edge : edgesToRemove) {
                 // remove edge from matching vertex
-                if (edge.v1.equals(edge.v2)) {
+                if (edge.v1 == edge.v2) {
                     // special self-edge case
                     // do nothing since already removed above
-                } else if (v.equals(edge.v1)) {
-                    vertexMap.get(edge.v2).remove(edge);
                 } else {
-                    vertexMap.get(edge.v1).remove(edge);
+                    adjacency.get(edge.other(id)).remove(edge);
                 }
-                // remove edge from edge mapping
-                edgeMap.get(edge.e).remove(edge);
-                // remove mapping if now empty
-                if (edgeMap.get(edge.e).isEmpty()) {
-                    edgeMap.remove(edge.e);
+                unmapPair(edge);
+                unmapValue(edge);
+                if (!subscriptions.isEmpty()) {
+                    emitEdge(false, edge);
                 }
             }
         }
+        vertexIds.remove(v);
+        if (!subscriptions.isEmpty()) {
+            emit(GraphEvent.<V,E> vertex(false, v));
+        }
         checkRep();
+        deliverEvents();
         return modified;
     }
 
+    /**
+     * Registers a graph listener receiving every change to this graph as it
+     * is made, in a batch per graph operation.
+     * 
+     * @param listener - graph listener to register
+     * @throws NullPointerException if <code>listener</code> is
+     *             <code>null</code>
+     */
+    public void addGraphListener(GraphListener<V,E> listener)
+            throws NullPointerException {
+        addGraphListener(listener, 1);
+    }
+
+    /**
+     * Registers a graph listener receiving the changes to this graph in
+     * batches of at least the specified number of events. Events accumulate
+     * until a graph operation ends with a full batch pending, so a batch may
+     * be larger when a single operation makes many changes, and is never cut
+     * in the middle of an operation. Bulk additions and removals, including
+     * {@link #removeAllVertices(Collection)}, count as a single operation.
+     * Events left pending are delivered by {@link #flushEvents()}. A listener
+     * registered more than once receives every event once per registration.
+     * 
+     * @param listener - graph listener to register
+     * @param batchSize - number of events to accumulate before delivery
+     * @throws NullPointerException if <code>listener</code> is
+     *             <code>null</code>
+     * @throws IllegalArgumentException if <code>batchSize</code> is not
+     *             positive
+     */
+    public void addGraphListener(GraphListener<V,E> listener, int batchSize)
+            throws NullPointerException, IllegalArgumentException {
+        if (listener == null) {
+            throw new NullPointerException("Listener null");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(
+                    "Illegal batch size: " + batchSize);
+        }
+        subscriptions.add(new Subscription<V,E>(listener, batchSize));
+    }
+
+    /**
+     * Delivers the events pending for a graph listener and unregisters it. A
+     * listener unregistered during a delivery, even by itself, gets its
+     * pending events once the running listener returns.
+     * 
+     * @param listener - graph listener to unregister
+     * @return <code>true</code> iff the listener was registered
+     */
+    public boolean removeGraphListener(GraphListener<V,E> listener) {
+        for (int i = 0; i < subscriptions.size(); i++) {
+            Subscription<V,E> subscription = subscriptions.get(i);
+            if (subscription.listener == listener) {
+                subscriptions.remove(i);
+                retired.add(subscription);
+                deliverEvents();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delivers the events pending for every graph listener, however few. A
+     * listener flushing during a delivery has the events flushed once it
+     * returns.
+     */
+    public void flushEvents() {
+        flushing = true;
+        deliverEvents();
+    }
+
+    /**
+     * Returns <code>true</code> if the specified vertex values are connected
+     * by a path of edges in this graph. A vertex is connected to itself.
+     * Connectivity is kept up to date as vertices and edges are added, so
+     * this takes near constant time unless vertices or edges were removed
+     * since the last query, which rebuilds the connectivity once.
+     * 
+     * @param v1 - the first vertex value to test connectivity of
+     * @param v2 - the second vertex value to test connectivity of
+     * @return <code>true</code> iff this graph contains vertex values
+     *         <code>v1</code> and <code>v2</code> and they are connected,
+     *         <code>false</code> otherwise
+     * @throws NullPointerException if vertex values <code>v1</code> or
+     *             <code>v2</code> are <code>null</code>
+     */
+    public boolean isConnected(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        int id1 = vertexIds.idOf(v1);
+        int id2 = vertexIds.idOf(v2);
+        if (id1 < 0 || id2 < 0) {
+            return false;
+        }
+        rebuildComponents();
+        return components.find(id1) == components.find(id2);
+    }
+
+    /**
+     * Returns the number of connected components of this graph, a vertex
+     * without edges being a component of its own. This takes constant time
+     * unless vertices or edges were removed since the last query, which
+     * rebuilds the connectivity once.
+     * 
+     * @return number of connected components of this graph
+     */
+    public int componentCount() {
+        rebuildComponents();
+        return components.count();
+    }
+
+    /**
+     * Rebuilds the connected components from the vertices and edges of this
+     * graph if a removal left them out of date.
+     */
+    private void rebuildComponents() {
+        if (!componentsDirty) {
+            return;
+        }
+        components.clear(vertexIds.bound());
+        for (int id = 0; id < vertexIds.bound(); id++) {
+            if (vertexIds.valueOf(id) != null) {
+                components.add(id);
+            }
+        }
+        // every pair key holds at least one edge between its vertex ids
+        for (long pair : pairMap.keySet()) {
+            components.union((int) (pair >>> 32), (int) pair);
+        }
+        componentsDirty = false;
+        checkRep();
+    }
+
+    /**
+     * Returns an immutable compact snapshot of this graph. The snapshot holds
+     * the vertices and edges of this graph at the time of the call and is not
+     * affected by later modifications of this graph.
+     * 
+     * @return compact immutable copy of this graph
+     */
+    public CompactGraph<V,E> freeze() {
+        return CompactGraph.of(indexed());
+    }
+
+    /**
+     * Returns an indexed view of this graph by vertex id, valid until this
+     * graph is next modified.
+     */
+    IndexedGraph<V,E> indexed() {
+        return new Indexed();
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -445,34 +1248,204 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
      */
     @Override
     public String toString() {
-        return vertexMap.keySet() + "\n" + edgeMap;
+        StringBuilder edges = new StringBuilder("{");
+        for (Map.Entry<E,Set<Edge<E>>> entry : edgeMap.entrySet()) {
+            appendEdges(edges, entry.getKey(), entry.getValue());
+        }
+        if (nullEdges > 0) {
+            Set<Edge<E>> unlabeled = new HashSet<Edge<E>>();
+            for (Set<Edge<E>> pairEdges : pairMap.values()) {
+                for (Edge<E> edge : pairEdges) {
+                    if (edge.e == null) {
+                        unlabeled.add(edge);
+                    }
+                }
+            }
+            appendEdges(edges, null, unlabeled);
+        }
+        return vertexIds.values() + "\n" + edges.append("}");
     }
 
     /**
-     * Returns a set of edges between two vertices in the graph.
+     * Appends an edge value and its edges to the specified builder.
+     */
+    private void appendEdges(StringBuilder edges, E e, Set<Edge<E>> valueEdges) {
+        if (edges.length() > 1) {
+            edges.append(", ");
+        }
+        edges.append(e).append("=[");
+        String separator = "";
+        for (Edge<E> edge : valueEdges) {
+            edges.append(separator).append("(")
+                    .append(vertexIds.valueOf(edge.v1)).append("<->")
+                    .append(vertexIds.valueOf(edge.v2)).append(")");
+            separator = ", ";
+        }
+        edges.append("]");
+    }
+
+    /**
+     * Returns a set of edges between two vertices in the graph. The returned
+     * set is backed by this graph and must not be modified by the caller.
      * 
-     * @param v1 the first vertex value
-     * @param v2 the second vertex value
-     * @return set of edges between vertices v1 and v2
+     * @param id1 the first vertex id, or -1 if not in graph
+     * @param id2 the second vertex id, or -1 if not in graph
+     * @return set of edges between vertices id1 and id2
+     */
+    private Set<Edge<E>> intersection(int id1, int id2) {
+        Set<Edge<E>> intersection = null;
+
+        if (id1 >= 0 && id2 >= 0) {
+            intersection = pairMap.get(pairKey(id1, id2));
+        }
+
+        return (intersection != null) ? intersection
+                : Collections.<Edge<E>> emptySet();
+    }
+
+    /**
+     * Removes an edge from the pair index, removing the mapping if now empty.
+     */
+    private void unmapPair(Edge<E> edge) {
+        Long pair = pairKey(edge.v1, edge.v2);
+        Set<Edge<E>> pairEdges = pairMap.get(pair);
+        pairEdges.remove(edge);
+        if (pairEdges.isEmpty()) {
+            pairMap.remove(pair);
+        }
+    }
+
+    /**
+     * Removes an edge from the value index, removing the mapping if now empty,
+     * or uncounts an unlabeled edge.
+     */
+    private void unmapValue(Edge<E> edge) {
+        if (edge.e == null) {
+            nullEdges--;
+            return;
+        }
+        Set<Edge<E>> valueEdges = edgeMap.get(edge.e);
+        valueEdges.remove(edge);
+        if (valueEdges.isEmpty()) {
+            edgeMap.remove(edge.e);
+        }
+    }
+
+    /**
+     * Adds an event of an edge with both vertices still interned to the
+     * events pending for every graph listener.
      */
-    private Set<Edge> intersection(V v1, V v2) {
-        Set<Edge> intersection = new HashSet<Edge>();
+    private void emitEdge(boolean added, Edge<E> edge) {
+        emit(GraphEvent.<V,E> edge(added, vertexIds.valueOf(edge.v1),
+                vertexIds.valueOf(edge.v2), edge.e));
+    }
 
-        if (containsVertex(v1) && containsVertex(v2)) {
+    /**
+     * Adds an event to the events pending for every graph listener.
+     */
+    private void emit(GraphEvent<V,E> event) {
+        for (Subscription<V,E> subscription : subscriptions) {
+            subscription.pending.add(event);
+        }
+    }
 
-            if (v1.equals(v2)) {
-                for (Edge edge : vertexMap.get(v1)) {
-                    if (edge.v1.equals(edge.v2)) {
-                        intersection.add(edge);
+    /**
+     * Delivers the full batches pending at the end of a graph operation, the
+     * events of unregistered listeners and, when flushing, every pending
+     * event. Changes, unregistrations and flushes made by a listener are
+     * handled by the running delivery once it returns, never re-entrantly.
+     */
+    private void deliverEvents() {
+        if (delivering) {
+            return;
+        }
+        if (deferredEvents > 0
+                || (subscriptions.isEmpty() && retired.isEmpty())) {
+            flushing = false;
+            return;
+        }
+        delivering = true;
+        try {
+            boolean delivered;
+            do {
+                delivered = false;
+                for (int i = 0; i < subscriptions.size(); i++) {
+                    Subscription<V,E> subscription = subscriptions.get(i);
+                    int pending = subscription.pending.size();
+                    if (flushing || pending >= subscription.batchSize) {
+                        delivered |= deliver(subscription);
                     }
                 }
-            } else {
-                intersection.addAll(vertexMap.get(v1));
-                intersection.retainAll(vertexMap.get(v2));
-            }
+                while (!retired.isEmpty()) {
+                    delivered |= deliver(retired.remove(0));
+                }
+            } while (delivered);
+        } finally {
+            delivering = false;
+            flushing = false;
+        }
+    }
+
+    /**
+     * Delivers the events pending for a graph listener, if any.
+     */
+    private boolean deliver(Subscription<V,E> subscription) {
+        if (subscription.pending.isEmpty()) {
+            return false;
+        }
+        List<GraphEvent<V,E>> batch = Collections
+                .unmodifiableList(subscription.pending);
+        subscription.pending = new ArrayList<GraphEvent<V,E>>();
+        subscription.listener.graphChanged(batch);
+        return true;
+    }
+
+    /**
+     * Returns an edge set holding the edges of the specified set with room to
+     * add the specified number of edges without rehashing. Returns the
+     * specified set itself if it has room already.
+     */
+    private static <E> Set<Edge<E>> presized(Set<Edge<E>> edges,
+            int additional) {
+        if (edges == null) {
+            return new HashSet<Edge<E>>(capacityFor(additional));
+        } else if (additional <= edges.size()) {
+            // set rehashes at most once while adding
+            return edges;
+        }
+        Set<Edge<E>> presizedEdges = new HashSet<Edge<E>>(
+                capacityFor(edges.size() + additional));
+        presizedEdges.addAll(edges);
+        return presizedEdges;
+    }
+
+    /**
+     * Returns the average number of edges touching a vertex in a graph with
+     * the specified number of vertices and edges, rounded up.
+     */
+    private static int averageDegree(int vertices, int edges) {
+        if (vertices <= 0 || edges <= 0) {
+            return 0;
         }
+        // each edge touches two vertices
+        return (int) Math.min((2L * edges + vertices - 1) / vertices,
+                Integer.MAX_VALUE);
+    }
 
-        return intersection;
+    /**
+     * Returns the hash table capacity holding the expected number of entries
+     * without rehashing.
+     */
+    private static int capacityFor(int expectedSize) {
+        return (int) (expectedSize / 0.75f) + 1;
+    }
+
+    /**
+     * Returns the pair index key of an unordered pair of vertex ids.
+     */
+    private static Long pairKey(int id1, int id2) {
+        return (id1 < id2) ? ((long) id1 << 32) | id2
+                : ((long) id2 << 32) | id1;
     }
 
     /**
@@ -481,9 +1454,9 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
      * @param edges set of edges to extract values from
      * @return
      */
-    private Set<E> extractEdges(Set<Edge> edges) {
+    private Set<E> extractEdges(Set<Edge<E>> edges) {
         Set<E> edgesBetween = new HashSet<E>();
-        for (Edge edge : edges) {
+        for (Edge<E> edge : edges) {
             edgesBetween.add(edge.e);
         }
         return edgesBetween;
@@ -492,9 +1465,8 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
     /**
      * Returns a single edge from a set of edges
      */
-    private Edge getEdge(Set<Edge> edgeSet) {
-        List<Edge> edgeList = new ArrayList<Edge>(edgeSet);
-        return edgeList.isEmpty() ? null : edgeList.get(0);
+    private Edge<E> getEdge(Set<Edge<E>> edgeSet) {
+        return edgeSet.isEmpty() ? null : edgeSet.iterator().next();
     }
 
     /**
@@ -504,18 +1476,33 @@ public class UndirectedGraph<V, E> implements AbstractGraph<V,E> {
 
         if (RUN_CHECKREP) {
             // check vertices
-            for (V v : this.vertexMap.keySet()) {
+            for (V v : this.vertexIds.values()) {
                 assert (v != null) : "Null vertex";
+                assert (adjacency.get(vertexIds.idOf(v)) != null) : "No edges";
             }
 
             // check edges
-            for (Map.Entry<E,Set<Edge>> entry : this.edgeMap.entrySet()) {
-                for (Edge e : entry.getValue()) {
+            assert (!edgeMap.containsKey(null)) : "Null edge value indexed";
+            int unlabeled = 0;
+            for (Set<Edge<E>> pairEdges : pairMap.values()) {
+                for (Edge<E> e : pairEdges) {
+                    if (e.e == null) {
+                        unlabeled++;
+                    }
+                }
+            }
+            assert (unlabeled == nullEdges) : "Null edge count";
+            for (Map.Entry<E,Set<Edge<E>>> entry : this.edgeMap.entrySet()) {
+                for (Edge<E> e : entry.getValue()) {
                     assert (e != null) : "Null edge";
-                    assert (vertexMap
-                            .containsKey(e.v1)) : "Vertex 1 not in graph";
-                    assert (vertexMap
-                            .containsKey(e.v2)) : "Vertex 2 not in graph";
+                    assert (vertexIds
+                            .valueOf(e.v1) != null) : "Vertex 1 not in graph";
+                    assert (vertexIds
+                            .valueOf(e.v2) != null) : "Vertex 2 not in graph";
+                    assert (intersection(e.v1, e.v2)
+                            .contains(e)) : "Edge not in pair index";
+                    assert (componentsDirty || components.find(
+                            e.v1) == components.find(e.v2)) : "Component";
                 }
             }
         }
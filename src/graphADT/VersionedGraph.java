@@ -0,0 +1,1207 @@
+package graphADT;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * VersionedGraph<V,E> represents a mutable undirected multi-graph whose every
+ * modification produces a new immutable version of the graph. It stores the
+ * same values and supports the same operations as {@link UndirectedGraph},
+ * and additionally hands out snapshots, read-only graphs frozen at the
+ * version current when they were taken. <br/>
+ * 
+ * Versions are held in persistent hash maps, so a modification copies only
+ * the few map nodes on the paths to the changed vertices and edges and shares
+ * all others with the previous version. Taking a snapshot is therefore
+ * constant time, and a snapshot stays valid and unchanged however long it is
+ * used. Modifications are serialized, queries and snapshots take no locks and
+ * are never blocked by modifications. Each operation, including bulk
+ * operations, is applied atomically as a single new version. <br/>
+ * 
+ * <h5>Abstract Invariant:</h5>
+ * foreach vertex in graph
+ * <ul>
+ * <li>vertex is not null</li>
+ * <li>vertex value is not null</li>
+ * <li>vertex value is unique</li>
+ * </ul>
+ * foreach edge connecting vertices in graph
+ * <ul>
+ * <li>edge is not null</li>
+ * <li>edge value can be null</li>
+ * <li>edge vertices in graph</li>
+ * </ul>
+ * 
+ * @author Drew Reese
+ *
+ * @param <V> - data type to store as vertices
+ * @param <E> - data type to store as edges
+ * 
+ */
+public class VersionedGraph<V, E> implements AbstractGraph<V,E> {
+
+    // DEBUGGING EXPENSIVE CHECKREP FLAG
+    private static final boolean RUN_CHECKREP = false;
+
+    // stands in for null edge values, persistent maps do not allow null keys
+    private static final Object NULL = new Object();
+
+    /**
+     * Edge class stores vertex pairing that defines an edge in the parent
+     * graph.
+     * 
+     * While edge values e are allowed to be null, by definition the graph
+     * vertices must not be null.
+     * 
+     * @author Drew Reese
+     */
+    private static final class Edge<V, E> {
+
+        private final V   v1;
+        private final V   v2;
+        private final E   e;
+        private final int hash;
+
+        public Edge(V v1, V v2, E e) {
+            this.v1 = v1;
+            this.v2 = v2;
+            this.e = e;
+            this.hash = 31 * (31 + ((e == null) ? 0 : e.hashCode()))
+                    + v1.hashCode() + v2.hashCode();
+        }
+
+        /**
+         * Returns the vertex at the opposite end of this edge from vertex
+         * <code>v</code>.
+         */
+        private V other(V v) {
+            return v1.equals(v) ? v2 : v1;
+        }
+
+        /**
+         * Returns <code>true</code> iff this edge connects vertices
+         * <code>u1</code> and <code>u2</code>.
+         */
+        private boolean connects(V u1, V u2) {
+            return (v1.equals(u1) && v2.equals(u2))
+                    || (v1.equals(u2) && v2.equals(u1));
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Edge)) {
+                return false;
+            }
+
+            Edge<?,?> other = (Edge<?,?>) obj;
+            if (hash != other.hash || !((v1.equals(other.v1)
+                    && v2.equals(other.v2))
+                    || (v1.equals(other.v2) && v2.equals(other.v1)))) {
+                return false;
+            }
+
+            if (e == null) {
+                if (other.e != null) {
+                    return false;
+                }
+            } else if (!e.equals(other.e)) {
+                return false;
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * EdgeSet class is an immutable set of edges. Adding or removing an edge
+     * returns a new set sharing structure with this set.
+     * 
+     * @author Drew Reese
+     */
+    private static final class EdgeSet<V, E> implements Iterable<Edge<V,E>> {
+
+        private static final EdgeSet<Object,Object> EMPTY =
+                new EdgeSet<Object,Object>(PersistentHashMap
+                        .<Edge<Object,Object>,Edge<Object,Object>> empty());
+
+        private final PersistentHashMap<Edge<V,E>,Edge<V,E>> edges;
+
+        private EdgeSet(PersistentHashMap<Edge<V,E>,Edge<V,E>> edges) {
+            this.edges = edges;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static <V, E> EdgeSet<V,E> empty() {
+            return (EdgeSet) EMPTY;
+        }
+
+        private boolean contains(Edge<V,E> edge) {
+            return edges.containsKey(edge);
+        }
+
+        private int size() {
+            return edges.size();
+        }
+
+        private boolean isEmpty() {
+            return edges.isEmpty();
+        }
+
+        private EdgeSet<V,E> add(Edge<V,E> edge) {
+            return new EdgeSet<V,E>(edges.put(edge, edge));
+        }
+
+        private EdgeSet<V,E> remove(Edge<V,E> edge) {
+            return new EdgeSet<V,E>(edges.remove(edge));
+        }
+
+        @Override
+        public Iterator<Edge<V,E>> iterator() {
+            return edges.keySet().iterator();
+        }
+
+    }
+
+    /**
+     * Version class is an immutable version of the parent graph. It answers
+     * the queries of both the graph and its snapshots.
+     * 
+     * @author Drew Reese
+     */
+    private static final class Version<V, E> {
+
+        private final long                                   number;
+        private final PersistentHashMap<V,EdgeSet<V,E>>      adjacency;
+        private final PersistentHashMap<Object,EdgeSet<V,E>> edgeMap;
+
+        public Version(long number,
+                PersistentHashMap<V,EdgeSet<V,E>> adjacency,
+                PersistentHashMap<Object,EdgeSet<V,E>> edgeMap) {
+            this.number = number;
+            this.adjacency = adjacency;
+            this.edgeMap = edgeMap;
+        }
+
+        private boolean containsVertex(V v) {
+            return adjacency.containsKey(v);
+        }
+
+        private boolean containsEdge(E e) {
+            return edgeMap.containsKey(maskNull(e));
+        }
+
+        private boolean containsEdge(V v1, V v2) throws NullPointerException {
+            if (v1 == null || v2 == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+            return findEdge(adjacency, v1, v2) != null;
+        }
+
+        private Set<V> vertexSet() {
+            return new HashSet<V>(adjacency.keySet());
+        }
+
+        private Set<E> edgeSet() {
+            return new HashSet<E>(edgeView());
+        }
+
+        private Set<E> edgeSet(V v) throws NullPointerException {
+            Collection<E> view = edgeView(v);
+            return (view != null) ? new HashSet<E>(view) : null;
+        }
+
+        private Set<V> vertexView() {
+            return adjacency.keySet();
+        }
+
+        private Set<E> edgeView() {
+            return new EdgeValueView<E>(edgeMap.keySet());
+        }
+
+        private Collection<E> edgeView(V v) throws NullPointerException {
+            if (v == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+            EdgeSet<V,E> edges = adjacency.get(v);
+            return (edges != null) ? new VertexEdgeView<V,E>(edges) : null;
+        }
+
+        private int degree(V v) throws NullPointerException {
+            if (v == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+            EdgeSet<V,E> edges = adjacency.get(v);
+            return (edges != null) ? edges.size() : -1;
+        }
+
+        private boolean forEachNeighbor(V v, Consumer<? super V> action)
+                throws NullPointerException {
+            if (v == null) {
+                throw new NullPointerException("Vertex value null");
+            } else if (action == null) {
+                throw new NullPointerException("Action null");
+            }
+            EdgeSet<V,E> edges = adjacency.get(v);
+            if (edges == null) {
+                return false;
+            }
+            for (Edge<V,E> edge : edges) {
+                action.accept(edge.other(v));
+            }
+            return true;
+        }
+
+        private boolean forEachIncidentEdge(V v,
+                BiConsumer<? super V,? super E> action)
+                throws NullPointerException {
+            if (v == null) {
+                throw new NullPointerException("Vertex value null");
+            } else if (action == null) {
+                throw new NullPointerException("Action null");
+            }
+            EdgeSet<V,E> edges = adjacency.get(v);
+            if (edges == null) {
+                return false;
+            }
+            for (Edge<V,E> edge : edges) {
+                action.accept(edge.other(v), edge.e);
+            }
+            return true;
+        }
+
+        private Set<E> edgeSet(V v1, V v2) throws NullPointerException {
+            if (v1 == null || v2 == null) {
+                throw new NullPointerException("Vertex value null");
+            } else if (!(containsVertex(v1) && containsVertex(v2))) {
+                return null;
+            }
+            Set<E> edgesBetween = new HashSet<E>();
+            for (Edge<V,E> edge : edgesBetween(adjacency, v1, v2)) {
+                edgesBetween.add(edge.e);
+            }
+            return edgesBetween;
+        }
+
+        private E getEdge(V v1, V v2) throws NullPointerException {
+            if (v1 == null || v2 == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+            Edge<V,E> edge = findEdge(adjacency, v1, v2);
+            return (edge != null) ? edge.e : null;
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            StringBuilder edges = new StringBuilder("{");
+            Iterator<Map.Entry<Object,EdgeSet<V,E>>> entries =
+                    edgeMap.entryIterator();
+            while (entries.hasNext()) {
+                Map.Entry<Object,EdgeSet<V,E>> entry = entries.next();
+                if (edges.length() > 1) {
+                    edges.append(", ");
+                }
+                E value = unmaskNull(entry.getKey());
+                edges.append(value).append("=[");
+                String separator = "";
+                for (Edge<V,E> edge : entry.getValue()) {
+                    edges.append(separator).append("(").append(edge.v1)
+                            .append("<->").append(edge.v2).append(")");
+                    separator = ", ";
+                }
+                edges.append("]");
+            }
+            return adjacency.keySet() + "\n" + edges.append("}");
+        }
+
+    }
+
+    /**
+     * Draft class accumulates the modifications of a single write on top of
+     * the current version of the parent graph. Drafts are only used by the
+     * writer holding the write lock.
+     * 
+     * @author Drew Reese
+     */
+    private static final class Draft<V, E> {
+
+        private PersistentHashMap<V,EdgeSet<V,E>>      adjacency;
+        private PersistentHashMap<Object,EdgeSet<V,E>> edgeMap;
+        private boolean                                modified;
+
+        public Draft(Version<V,E> version) {
+            this.adjacency = version.adjacency;
+            this.edgeMap = version.edgeMap;
+        }
+
+        private boolean addVertex(V v) {
+            if (adjacency.containsKey(v)) {
+                return false;
+            }
+            adjacency = adjacency.put(v,
+                    EdgeSet.<V,E> empty());
+            modified = true;
+            return true;
+        }
+
+        private boolean addEdge(V v1, V v2, E e) {
+            EdgeSet<V,E> edges1 = adjacency.get(v1);
+            if (edges1 == null || !adjacency.containsKey(v2)) {
+                return false;
+            }
+            Edge<V,E> newEdge = new Edge<V,E>(v1, v2, e);
+            if (edges1.contains(newEdge)) {
+                return false;
+            }
+
+            adjacency = adjacency.put(v1, edges1.add(newEdge));
+            adjacency = adjacency.put(v2,
+                    adjacency.get(v2).add(newEdge));
+            Object key = maskNull(e);
+            EdgeSet<V,E> valueEdges = edgeMap.get(key);
+            if (valueEdges == null) {
+                valueEdges = EdgeSet.empty();
+            }
+            edgeMap = edgeMap.put(key, valueEdges.add(newEdge));
+            modified = true;
+            return true;
+        }
+
+        private boolean removeEdge(E e) {
+            EdgeSet<V,E> valueEdges = edgeMap.get(maskNull(e));
+            if (valueEdges == null) {
+                return false;
+            }
+            for (Edge<V,E> edge : valueEdges) {
+                unlink(edge);
+            }
+            return true;
+        }
+
+        private boolean removeVertex(V v) {
+            EdgeSet<V,E> edges = adjacency.get(v);
+            if (edges == null) {
+                return false;
+            }
+            for (Edge<V,E> edge : edges) {
+                V other = edge.other(v);
+                if (!other.equals(v)) {
+                    adjacency = adjacency.put(other,
+                            adjacency.get(other).remove(edge));
+                }
+                unmapValue(edge);
+            }
+            adjacency = adjacency.remove(v);
+            modified = true;
+            return true;
+        }
+
+        /**
+         * Removes an edge contained in this draft.
+         */
+        private void unlink(Edge<V,E> edge) {
+            adjacency = adjacency.put(edge.v1,
+                    adjacency.get(edge.v1).remove(edge));
+            adjacency = adjacency.put(edge.v2,
+                    adjacency.get(edge.v2).remove(edge));
+            unmapValue(edge);
+            modified = true;
+        }
+
+        /**
+         * Removes an edge from the edges with its edge value, removing the
+         * mapping if now empty.
+         */
+        private void unmapValue(Edge<V,E> edge) {
+            Object key = maskNull(edge.e);
+            EdgeSet<V,E> valueEdges = edgeMap.get(key).remove(edge);
+            edgeMap = valueEdges.isEmpty() ? edgeMap.remove(key)
+                    : edgeMap.put(key, valueEdges);
+        }
+
+    }
+
+    /**
+     * EdgeValueView class is an unmodifiable view of the edge values of a
+     * version.
+     * 
+     * @author Drew Reese
+     */
+    private static final class EdgeValueView<E> extends AbstractSet<E> {
+
+        private final Set<Object> keys;
+
+        public EdgeValueView(Set<Object> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<Object> keyIterator = keys.iterator();
+            return new Iterator<E>() {
+
+                @Override
+                public boolean hasNext() {
+                    return keyIterator.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return unmaskNull(keyIterator.next());
+                }
+
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return keys.contains(maskNull(o));
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+    }
+
+    /**
+     * VertexEdgeView class is an unmodifiable view of the edge values of the
+     * edges touching a vertex in a version.
+     * 
+     * @author Drew Reese
+     */
+    private static final class VertexEdgeView<V, E>
+            extends AbstractCollection<E> {
+
+        private final EdgeSet<V,E> edges;
+
+        public VertexEdgeView(EdgeSet<V,E> edges) {
+            this.edges = edges;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<Edge<V,E>> edgeIterator = edges.iterator();
+            return new Iterator<E>() {
+
+                @Override
+                public boolean hasNext() {
+                    return edgeIterator.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return edgeIterator.next().e;
+                }
+
+            };
+        }
+
+        @Override
+        public int size() {
+            return edges.size();
+        }
+
+    }
+
+    /**
+     * Snapshot class is a read-only graph frozen at a version of a
+     * VersionedGraph. All operations that would modify this graph throw
+     * {@link UnsupportedOperationException}.
+     * 
+     * @author Drew Reese
+     *
+     * @param <V> - data type to store as vertices
+     * @param <E> - data type to store as edges
+     */
+    public static final class Snapshot<V, E> implements AbstractGraph<V,E> {
+
+        private final Version<V,E> version;
+
+        private Snapshot(Version<V,E> version) {
+            this.version = version;
+        }
+
+        /**
+         * Returns the version of the graph this snapshot was taken at.
+         * 
+         * @return version number of this snapshot
+         */
+        public long version() {
+            return version.number;
+        }
+
+        @Override
+        public boolean addVertex(V v) throws NullPointerException {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public boolean addEdge(V v1, V v2) throws NullPointerException {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public boolean addEdge(V v1, V v2, E e) throws NullPointerException {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public boolean addAllVertices(Collection<? extends V> vertices)
+                throws NullPointerException {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public boolean addAllEdges(
+                Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+                throws NullPointerException {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public boolean containsVertex(V v) {
+            return version.containsVertex(v);
+        }
+
+        @Override
+        public boolean containsEdge(E e) {
+            return version.containsEdge(e);
+        }
+
+        @Override
+        public boolean containsEdge(V v1, V v2) throws NullPointerException {
+            return version.containsEdge(v1, v2);
+        }
+
+        @Override
+        public Set<V> vertexSet() {
+            return version.vertexSet();
+        }
+
+        @Override
+        public Set<E> edgeSet() {
+            return version.edgeSet();
+        }
+
+        @Override
+        public Set<E> edgeSet(V v) throws NullPointerException {
+            return version.edgeSet(v);
+        }
+
+        @Override
+        public Set<V> vertexView() {
+            return version.vertexView();
+        }
+
+        @Override
+        public Set<E> edgeView() {
+            return version.edgeView();
+        }
+
+        @Override
+        public Collection<E> edgeView(V v) throws NullPointerException {
+            return version.edgeView(v);
+        }
+
+        @Override
+        public int degree(V v) throws NullPointerException {
+            return version.degree(v);
+        }
+
+        @Override
+        public boolean forEachNeighbor(V v, Consumer<? super V> action)
+                throws NullPointerException {
+            return version.forEachNeighbor(v, action);
+        }
+
+        @Override
+        public boolean forEachIncidentEdge(V v,
+                BiConsumer<? super V,? super E> action)
+                throws NullPointerException {
+            return version.forEachIncidentEdge(v, action);
+        }
+
+        @Override
+        public Set<E> edgeSet(V v1, V v2) throws NullPointerException {
+            return version.edgeSet(v1, v2);
+        }
+
+        @Override
+        public E getEdge(V v1, V v2) throws NullPointerException {
+            return version.getEdge(v1, v2);
+        }
+
+        @Override
+        public boolean removeAllEdges(Collection<? extends E> edges)
+                throws NullPointerException {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public Set<E> removeAllEdges(V v1, V v2) throws NullPointerException {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public boolean removeAllVertices(Collection<? extends V> vertices)
+                throws NullPointerException {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public boolean removeEdge(E e) {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public E removeEdge(V v1, V v2) throws NullPointerException {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        @Override
+        public boolean removeVertex(V v) {
+            throw new UnsupportedOperationException("Graph is immutable");
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return version.toString();
+        }
+
+    }
+
+    /*
+     * Internal representation of versioned undirected graph
+     * 
+     * current - the current version of the graph, replaced by every
+     * modification. writeLock - serializes modifications.
+     */
+    private volatile Version<V,E> current;
+    private final Object          writeLock;
+
+    /*
+     * Abstraction Function:
+     * 
+     * A versioned undirected graph is an ADT that contains both vertices and
+     * the edges between them, as of its current version. The vertex set of a
+     * version is represented by a persistent Key-Value store where the vertex
+     * value is the key and the set of edges connecting that vertex is the
+     * value. Likewise, the edge set is represented by a persistent Key-Value
+     * store where the edge value is the key and a set of edges representing
+     * that edge value is the value.
+     */
+
+    // Representation Invariant:
+    //
+    // vertex set = {v_1, v_2, v_3, ..., v_n}
+    // edge set = {e_1, e_2, e_3, ..., e_n}
+    // edge value = (e_i, v_j, v_k) where
+    // e_i element of edge set
+    // v_j and v_k elements of vertex set
+    //
+    // current != null
+    // foreach vertex v in current.adjacency
+    // v != null
+    // foreach edge e in current.adjacency.get(v)
+    // v is e.v1 or e.v2
+    // e in current.adjacency.get(e.other(v))
+    // e in current.edgeMap.get(maskNull(e.e))
+    //
+    // foreach edge set in current.edgeMap
+    // edge set is not empty
+
+    public VersionedGraph() {
+        this.current = new Version<V,E>(0,
+                PersistentHashMap.<V,EdgeSet<V,E>> empty(),
+                PersistentHashMap.<Object,EdgeSet<V,E>> empty());
+        this.writeLock = new Object();
+        checkRep();
+    }
+
+    /**
+     * Returns the current version of this graph. The version starts at 0 and
+     * increases by one with every operation that modifies this graph.
+     * 
+     * @return current version number of this graph
+     */
+    public long version() {
+        return current.number;
+    }
+
+    /**
+     * Returns a read-only snapshot of this graph frozen at its current
+     * version. The snapshot shares its structure with this graph, taking it
+     * does not copy any vertices or edges, and it is not affected by later
+     * modifications of this graph.
+     * 
+     * @return read-only snapshot of the current version of this graph
+     */
+    public Snapshot<V,E> snapshot() {
+        return new Snapshot<V,E>(current);
+    }
+
+    @Override
+    public boolean addVertex(V v) throws NullPointerException {
+        if (v == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            boolean modified = draft.addVertex(v);
+            commit(draft);
+            return modified;
+        }
+    }
+
+    @Override
+    public boolean addAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+
+        if (vertices == null) {
+            throw new NullPointerException("Vertex collection null");
+        }
+        for (V vertex : vertices) {
+            if (vertex == null) {
+                throw new NullPointerException("Vertex value null");
+            }
+        }
+
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            for (V vertex : vertices) {
+                draft.addVertex(vertex);
+            }
+            commit(draft);
+            return draft.modified;
+        }
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2) throws NullPointerException {
+        return addEdge(v1, v2, null);
+    }
+
+    @Override
+    public boolean addEdge(V v1, V v2, E e) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            boolean modified = draft.addEdge(v1, v2, e);
+            commit(draft);
+            return modified;
+        }
+    }
+
+    @Override
+    public boolean addAllEdges(
+            Collection<? extends EdgeTriple<? extends V,? extends E>> edges)
+            throws NullPointerException {
+
+        if (edges == null) {
+            throw new NullPointerException("Edge collection null");
+        }
+        for (EdgeTriple<? extends V,? extends E> edge : edges) {
+            if (edge == null) {
+                throw new NullPointerException("Edge triple null");
+            }
+        }
+
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            for (EdgeTriple<? extends V,? extends E> edge : edges) {
+                draft.addEdge(edge.getV1(), edge.getV2(), edge.getE());
+            }
+            commit(draft);
+            return draft.modified;
+        }
+    }
+
+    @Override
+    public boolean containsVertex(V v) {
+        return current.containsVertex(v);
+    }
+
+    @Override
+    public boolean containsEdge(E e) {
+        return current.containsEdge(e);
+    }
+
+    @Override
+    public boolean containsEdge(V v1, V v2) throws NullPointerException {
+        return current.containsEdge(v1, v2);
+    }
+
+    @Override
+    public Set<V> vertexSet() {
+        return current.vertexSet();
+    }
+
+    @Override
+    public Set<E> edgeSet() {
+        return current.edgeSet();
+    }
+
+    @Override
+    public Set<E> edgeSet(V v) throws NullPointerException {
+        return current.edgeSet(v);
+    }
+
+    @Override
+    public Set<V> vertexView() {
+        return new AbstractSet<V>() {
+
+            @Override
+            public Iterator<V> iterator() {
+                return current.vertexView().iterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return current.adjacency.containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return current.adjacency.size();
+            }
+
+        };
+    }
+
+    @Override
+    public Set<E> edgeView() {
+        return new AbstractSet<E>() {
+
+            @Override
+            public Iterator<E> iterator() {
+                return current.edgeView().iterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return current.edgeMap.containsKey(maskNull(o));
+            }
+
+            @Override
+            public int size() {
+                return current.edgeMap.size();
+            }
+
+        };
+    }
+
+    @Override
+    public Collection<E> edgeView(final V v) throws NullPointerException {
+        if (current.edgeView(v) == null) {
+            return null;
+        }
+        return new AbstractCollection<E>() {
+
+            @Override
+            public Iterator<E> iterator() {
+                Collection<E> view = current.edgeView(v);
+                return (view != null) ? view.iterator()
+                        : Collections.<E> emptyIterator();
+            }
+
+            @Override
+            public int size() {
+                Collection<E> view = current.edgeView(v);
+                return (view != null) ? view.size() : 0;
+            }
+
+        };
+    }
+
+    @Override
+    public int degree(V v) throws NullPointerException {
+        return current.degree(v);
+    }
+
+    @Override
+    public boolean forEachNeighbor(V v, Consumer<? super V> action)
+            throws NullPointerException {
+        return current.forEachNeighbor(v, action);
+    }
+
+    @Override
+    public boolean forEachIncidentEdge(V v,
+            BiConsumer<? super V,? super E> action)
+            throws NullPointerException {
+        return current.forEachIncidentEdge(v, action);
+    }
+
+    @Override
+    public Set<E> edgeSet(V v1, V v2) throws NullPointerException {
+        return current.edgeSet(v1, v2);
+    }
+
+    @Override
+    public E getEdge(V v1, V v2) throws NullPointerException {
+        return current.getEdge(v1, v2);
+    }
+
+    @Override
+    public boolean removeAllEdges(Collection<? extends E> edges)
+            throws NullPointerException {
+
+        if (edges == null) {
+            throw new NullPointerException("Edge collection null");
+        }
+
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            for (E e : edges) {
+                draft.removeEdge(e);
+            }
+            commit(draft);
+            return draft.modified;
+        }
+    }
+
+    @Override
+    public Set<E> removeAllEdges(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            if (!(draft.adjacency.containsKey(v1)
+                    && draft.adjacency.containsKey(v2))) {
+                return null;
+            }
+            Set<E> removed = new HashSet<E>();
+            for (Edge<V,E> edge : edgesBetween(draft.adjacency, v1, v2)) {
+                draft.unlink(edge);
+                removed.add(edge.e);
+            }
+            commit(draft);
+            return removed;
+        }
+    }
+
+    @Override
+    public boolean removeAllVertices(Collection<? extends V> vertices)
+            throws NullPointerException {
+
+        if (vertices == null) {
+            throw new NullPointerException("Vertex collection null");
+        }
+
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            for (V vertex : vertices) {
+                if (vertex != null) {
+                    draft.removeVertex(vertex);
+                }
+            }
+            commit(draft);
+            return draft.modified;
+        }
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * 
+     * Note: this method removes all duplicate edge values.
+     */
+    @Override
+    public boolean removeEdge(E e) {
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            boolean modified = draft.removeEdge(e);
+            commit(draft);
+            return modified;
+        }
+    }
+
+    @Override
+    public E removeEdge(V v1, V v2) throws NullPointerException {
+        if (v1 == null || v2 == null) {
+            throw new NullPointerException("Vertex value null");
+        }
+
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            Edge<V,E> edge = findEdge(draft.adjacency, v1, v2);
+            if (edge == null) {
+                return null;
+            }
+            draft.unlink(edge);
+            commit(draft);
+            return edge.e;
+        }
+    }
+
+    @Override
+    public boolean removeVertex(V v) {
+        if (v == null) {
+            return false;
+        }
+
+        synchronized (writeLock) {
+            Draft<V,E> draft = new Draft<V,E>(current);
+            boolean modified = draft.removeVertex(v);
+            commit(draft);
+            return modified;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return current.toString();
+    }
+
+    /**
+     * Publishes the modifications of a draft as the next version of this
+     * graph, if there are any. The write lock must be held.
+     */
+    private void commit(Draft<V,E> draft) {
+        if (draft.modified) {
+            current = new Version<V,E>(current.number + 1, draft.adjacency,
+                    draft.edgeMap);
+            checkRep();
+        }
+    }
+
+    /**
+     * Returns an edge connecting the specified vertices, or <code>null</code>
+     * if they are not connected or either is not in the graph.
+     */
+    private static <V, E> Edge<V,E> findEdge(
+            PersistentHashMap<V,EdgeSet<V,E>> adjacency,
+            V v1, V v2) {
+        EdgeSet<V,E> edges1 = adjacency.get(v1);
+        EdgeSet<V,E> edges2 = adjacency.get(v2);
+        if (edges1 == null || edges2 == null) {
+            return null;
+        }
+        for (Edge<V,E> edge : smaller(edges1, edges2)) {
+            if (edge.connects(v1, v2)) {
+                return edge;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the edges connecting the specified vertices, which must both
+     * be in the graph.
+     */
+    private static <V, E> List<Edge<V,E>> edgesBetween(
+            PersistentHashMap<V,EdgeSet<V,E>> adjacency,
+            V v1, V v2) {
+        List<Edge<V,E>> edgesBetween = new ArrayList<Edge<V,E>>();
+        for (Edge<V,E> edge : smaller(adjacency.get(v1),
+                adjacency.get(v2))) {
+            if (edge.connects(v1, v2)) {
+                edgesBetween.add(edge);
+            }
+        }
+        return edgesBetween;
+    }
+
+    /**
+     * Returns the smaller of two edge sets, the cheaper one to scan for the
+     * edges between two vertices.
+     */
+    private static <V, E> EdgeSet<V,E> smaller(
+            EdgeSet<V,E> edges1,
+            EdgeSet<V,E> edges2) {
+        return (edges1.size() <= edges2.size()) ? edges1 : edges2;
+    }
+
+    /**
+     * Returns the edge map key of an edge value.
+     */
+    private static Object maskNull(Object e) {
+        return (e == null) ? NULL : e;
+    }
+
+    /**
+     * Returns the edge value of an edge map key.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> E unmaskNull(Object key) {
+        return (key == NULL) ? null : (E) key;
+    }
+
+    /**
+     * Checks that the rep invariant holds for the current version
+     */
+    private void checkRep() {
+
+        if (RUN_CHECKREP) {
+            Version<V,E> version = current;
+            assert (version != null) : "No version";
+
+            // check vertices
+            for (V v : version.adjacency.keySet()) {
+                assert (v != null) : "Null vertex";
+                for (Edge<V,E> edge : version.adjacency.get(v)) {
+                    assert (edge.v1.equals(v)
+                            || edge.v2.equals(v)) : "Edge not touching vertex";
+                    assert (version.adjacency.get(edge.other(v))
+                            .contains(edge)) : "Edge not in vertex edges";
+                    assert (version.edgeMap.get(maskNull(edge.e))
+                            .contains(edge)) : "Edge not in map";
+                }
+            }
+
+            // check edges
+            for (Object key : version.edgeMap.keySet()) {
+                assert (!version.edgeMap.get(key)
+                        .isEmpty()) : "Empty edge set";
+            }
+        }
+    }
+
+}
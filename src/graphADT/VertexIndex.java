@@ -0,0 +1,215 @@
+package graphADT;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * VertexIndex<V> interns vertex values as dense non-negative integer ids. Ids
+ * of removed vertex values are recycled by later additions so the id space
+ * stays close to the number of vertex values stored. Graphs use the index to
+ * store adjacency and edges by id, touching vertex values only at their API
+ * boundary. <br/>
+ * 
+ * @author Drew Reese
+ *
+ * @param <V> - data type of interned vertex values
+ * 
+ */
+final class VertexIndex<V> {
+
+    // DEBUGGING EXPENSIVE CHECKREP FLAG
+    private static final boolean RUN_CHECKREP = false;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /*
+     * Internal representation of vertex index
+     * 
+     * ids - maps vertex value to its id. values - maps id to its vertex value,
+     * or null if id is free. freeIds - stack of free ids below bound. bound -
+     * one past the highest id ever handed out. capacity - number of vertex
+     * values ids was sized for.
+     */
+    private Map<V,Integer> ids;
+    private V[]            values;
+    private int[]          freeIds;
+    private int            freeCount;
+    private int            bound;
+    private int            capacity;
+
+    // Representation Invariant:
+    //
+    // ids.size() + freeCount == bound
+    // foreach vertex value v in ids
+    // v != null
+    // values[ids.get(v)] == v
+    //
+    // foreach id in freeIds[0, freeCount)
+    // values[id] == null
+
+    /**
+     * Constructs a new empty vertex index sized for the expected number of
+     * vertex values.
+     * 
+     * @param expectedSize - expected number of vertex values
+     */
+    VertexIndex(int expectedSize) {
+        int capacity = Math.max(expectedSize, DEFAULT_CAPACITY);
+        this.ids = new HashMap<V,Integer>((int) (capacity / 0.75f) + 1);
+        this.capacity = capacity;
+        @SuppressWarnings("unchecked")
+        V[] values = (V[]) new Object[capacity];
+        this.values = values;
+        this.freeIds = new int[DEFAULT_CAPACITY];
+        checkRep();
+    }
+
+    /**
+     * Returns the id of the specified vertex value.
+     * 
+     * @param v - vertex value to look up
+     * @return id of vertex value <code>v</code>, or <code>-1</code> if not
+     *         interned
+     */
+    int idOf(Object v) {
+        Integer id = ids.get(v);
+        return (id != null) ? id : -1;
+    }
+
+    /**
+     * Returns the vertex value of the specified id.
+     * 
+     * @param id - id to look up
+     * @return vertex value with id <code>id</code>, or <code>null</code> if id
+     *         is free
+     */
+    V valueOf(int id) {
+        return values[id];
+    }
+
+    /**
+     * Interns the specified vertex value, which must not already be interned.
+     * 
+     * @param v - non-null vertex value to intern
+     * @return id assigned to vertex value <code>v</code>
+     */
+    int add(V v) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (bound == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            id = bound++;
+        }
+        values[id] = v;
+        ids.put(v, id);
+        checkRep();
+        return id;
+    }
+
+    /**
+     * Removes the specified vertex value and frees its id for reuse.
+     * 
+     * @param v - vertex value to remove
+     * @return id vertex value <code>v</code> had, or <code>-1</code> if not
+     *         interned
+     */
+    int remove(Object v) {
+        Integer id = ids.remove(v);
+        if (id == null) {
+            return -1;
+        }
+        values[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = id;
+        checkRep();
+        return id;
+    }
+
+    /**
+     * Grows this index, if necessary, to hold the expected number of vertex
+     * values without rehashing.
+     * 
+     * @param expectedSize - expected number of vertex values
+     */
+    void ensureCapacity(int expectedSize) {
+        if (expectedSize > values.length) {
+            values = Arrays.copyOf(values, expectedSize);
+        }
+        if (expectedSize > capacity) {
+            Map<V,Integer> presizedIds = new HashMap<V,Integer>(
+                    (int) (expectedSize / 0.75f) + 1);
+            presizedIds.putAll(ids);
+            ids = presizedIds;
+            capacity = expectedSize;
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns the number of interned vertex values.
+     */
+    int size() {
+        return ids.size();
+    }
+
+    /**
+     * Returns one past the highest id in use, all ids are below this bound.
+     */
+    int bound() {
+        return bound;
+    }
+
+    /**
+     * Returns an unmodifiable live view of the interned vertex values.
+     */
+    Set<V> values() {
+        // resolve ids on each call, ensureCapacity replaces the map
+        return new AbstractSet<V>() {
+
+            @Override
+            public Iterator<V> iterator() {
+                return Collections.unmodifiableSet(ids.keySet()).iterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return ids.containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return ids.size();
+            }
+
+        };
+    }
+
+    /**
+     * Checks that the rep invariant holds
+     */
+    private void checkRep() {
+
+        if (RUN_CHECKREP) {
+            assert (ids.size() + freeCount == bound) : "Id count";
+            for (Map.Entry<V,Integer> entry : ids.entrySet()) {
+                assert (entry.getKey() != null) : "Null vertex";
+                assert (values[entry.getValue()] == entry
+                        .getKey()) : "Vertex id";
+            }
+            for (int i = 0; i < freeCount; i++) {
+                assert (values[freeIds[i]] == null) : "Free id in use";
+            }
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BreadthFirstSearchTest {
+
+    // test graphs
+    UndirectedGraph<String,String> testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four", "five", "six" };
+
+    ForkJoinPool pool;
+
+    /**
+     * Construct a new graph and pool before each test
+     */
+    @Before
+    public void setUp() {
+        testGraph = new UndirectedGraph<String,String>();
+        for (String s : strings) {
+            testGraph.addVertex(s);
+        }
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "one", "two-one");
+        testGraph.addEdge("two", "three", "two-three");
+        testGraph.addEdge("three", "three", "self-edge");
+        testGraph.addEdge("three", "four");
+        testGraph.addEdge("one", "four", "one-four");
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Unit test for searching small graphs
+     */
+    @Test
+    public void search() {
+        AbstractGraph<String,String> concurrent;
+        concurrent = new ConcurrentUndirectedGraph<String,String>();
+        concurrent.addAllVertices(testGraph.vertexSet());
+        concurrent.addEdge("one", "two", "one-two");
+        concurrent.addEdge("two", "three", "two-three");
+        concurrent.addEdge("three", "four", null);
+        concurrent.addEdge("four", "one", "one-four");
+
+        // graphs searched in place and packed graphs give equal results
+        for (AbstractGraph<String,String> graph : Arrays.asList(testGraph,
+                testGraph.freeze(), concurrent)) {
+            BreadthFirstSearch.Result<String> result;
+            result = BreadthFirstSearch.search(graph, "two", pool);
+            assertEquals("two", result.source());
+            assertEquals(4, result.reachedCount());
+            assertEquals(2, result.depth());
+            assertEquals(0, result.distance("two"));
+            assertEquals(1, result.distance("one"));
+            assertEquals(1, result.distance("three"));
+            assertEquals(2, result.distance("four"));
+            assertEquals(-1, result.distance("five"));
+            assertEquals(-1, result.distance("seven"));
+
+            assertNull(result.parent("two"));
+            assertEquals("two", result.parent("three"));
+            assertTrue(Arrays.asList("one", "three")
+                    .contains(result.parent("four")));
+            assertNull(result.parent("six"));
+            assertEquals(Arrays.asList("two"), result.pathTo("two"));
+            assertEquals(Arrays.asList("two", result.parent("four"), "four"),
+                    result.pathTo("four"));
+            assertNull(result.pathTo("five"));
+
+            result = BreadthFirstSearch.search(graph, "five", pool);
+            assertEquals(1, result.reachedCount());
+            assertEquals(0, result.depth());
+            assertEquals(-1, result.distance("one"));
+            assertNull(BreadthFirstSearch.search(graph, "seven", pool));
+        }
+    }
+
+    /**
+     * Unit test for results of a graph modified after the search
+     */
+    @Test
+    public void modifiedGraph() {
+        BreadthFirstSearch.Result<String> result;
+        result = BreadthFirstSearch.search(testGraph, "one");
+        testGraph.removeVertex("three");
+        testGraph.addVertex("seven");
+        testGraph.addEdge("one", "seven");
+
+        // vertices added or removed since are not reached, seven may reuse
+        // the vertex id of three
+        assertEquals(1, result.distance("four"));
+        assertEquals(-1, result.distance("three"));
+        assertEquals(-1, result.distance("seven"));
+        assertEquals(4, result.reachedCount());
+    }
+
+    /**
+     * Unit test for search argument checks
+     */
+    @Test
+    public void nullArguments() {
+        try {
+            BreadthFirstSearch.search(null, "one");
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Graph null", npe.getMessage());
+        }
+        try {
+            BreadthFirstSearch.search(testGraph, null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+        try {
+            BreadthFirstSearch.search(testGraph, "one", null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Pool null", npe.getMessage());
+        }
+        try {
+            BreadthFirstSearch.search(testGraph, "one").distance(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for searching large random graphs, which switch between
+     * top-down and bottom-up levels, against a sequential search
+     */
+    @Test
+    public void randomGraphs() {
+        Random random = new Random(12);
+        for (int degree : new int[] { 1, 3, 16 }) {
+            int n = 20000;
+            UndirectedGraph<Integer,Integer> graph;
+            graph = new UndirectedGraph<Integer,Integer>(n, degree);
+            List<Integer> vertices = new ArrayList<Integer>();
+            List<EdgeTriple<Integer,Integer>> edges;
+            edges = new ArrayList<EdgeTriple<Integer,Integer>>();
+            for (int v = 0; v < n; v++) {
+                vertices.add(v);
+            }
+            for (int e = 0; e < n * degree / 2; e++) {
+                edges.add(new EdgeTriple<Integer,Integer>(random.nextInt(n),
+                        random.nextInt(n), e));
+            }
+            graph.addAllVertices(vertices);
+            // leave holes in the vertex ids, edges of removed vertices are
+            // not added
+            for (int v = 0; v < n; v += 97) {
+                graph.removeVertex(v);
+            }
+            graph.addAllEdges(edges);
+
+            Map<Integer,Integer> expected = distances(graph, 1);
+            for (AbstractGraph<Integer,Integer> searched : Arrays.asList(
+                    graph, graph.freeze())) {
+                BreadthFirstSearch.Result<Integer> result;
+                result = BreadthFirstSearch.search(searched, 1, pool);
+                assertEquals(expected.size(), result.reachedCount());
+                for (Integer v : graph.vertexSet()) {
+                    Integer distance = expected.get(v);
+                    assertEquals((distance != null) ? distance : -1,
+                            result.distance(v));
+                    if (distance != null && distance > 0) {
+                        // parents are neighbors one level closer
+                        Integer parent = result.parent(v);
+                        assertTrue(graph.containsEdge(parent, v));
+                        assertEquals(distance - 1, result.distance(parent));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the hop distances of the vertices reachable from source, found
+     * by a sequential search
+     */
+    private static Map<Integer,Integer> distances(
+            AbstractGraph<Integer,Integer> graph, Integer source) {
+        final Map<Integer,Integer> distances = new HashMap<Integer,Integer>();
+        final Queue<Integer> queue = new ArrayDeque<Integer>();
+        distances.put(source, 0);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            final Integer u = queue.remove();
+            graph.forEachNeighbor(u, (w) -> {
+                if (!distances.containsKey(w)) {
+                    distances.put(w, distances.get(u) + 1);
+                    queue.add(w);
+                }
+            });
+        }
+        return distances;
+    }
+
+}
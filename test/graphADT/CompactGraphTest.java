@@ -0,0 +1,249 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompactGraphTest {
+
+    // test graphs
+    UndirectedGraph<String,String> sourceGraph;
+    CompactGraph<String,String>    testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four" };
+
+    /**
+     * Construct and freeze a new graph before each test
+     */
+    @Before
+    public void setUp() {
+        sourceGraph = new UndirectedGraph<String,String>();
+        for (String s : strings) {
+            sourceGraph.addVertex(s);
+        }
+        sourceGraph.addEdge("one", "two", "one-two");
+        sourceGraph.addEdge("two", "one", "two-one");
+        sourceGraph.addEdge("two", "three", "two-three");
+        sourceGraph.addEdge("three", "three", "self-edge");
+        sourceGraph.addEdge("one", "three");
+        testGraph = sourceGraph.freeze();
+    }
+
+    /**
+     * Unit test for freezing graphs
+     */
+    @Test
+    public void freeze() {
+        assertEquals(sourceGraph.vertexSet(), testGraph.vertexSet());
+        assertEquals(sourceGraph.edgeSet(), testGraph.edgeSet());
+
+        // empty graph freezes to empty compact graph
+        CompactGraph<String,String> empty = new UndirectedGraph<String,String>()
+                .freeze();
+        assertTrue(empty.vertexSet().isEmpty());
+        assertTrue(empty.edgeSet().isEmpty());
+
+        // later modifications do not affect frozen graph
+        sourceGraph.addVertex("five");
+        sourceGraph.addEdge("four", "five", "four-five");
+        sourceGraph.removeVertex("one");
+        assertFalse(testGraph.containsVertex("five"));
+        assertFalse(testGraph.containsEdge("four-five"));
+        assertTrue(testGraph.containsVertex("one"));
+        assertTrue(testGraph.containsEdge("one", "two"));
+    }
+
+    /**
+     * Unit test to check if vertex contained in a graph
+     */
+    @Test
+    public void containsVertex() {
+        for (String s : strings) {
+            assertTrue(testGraph.containsVertex(s));
+        }
+        assertFalse(testGraph.containsVertex("five"));
+        assertFalse(testGraph.containsVertex(null));
+    }
+
+    /**
+     * Unit test to check if edge contained in a graph
+     */
+    @Test
+    public void containsEdge() {
+        assertTrue(testGraph.containsEdge("one-two"));
+        assertTrue(testGraph.containsEdge("self-edge"));
+        assertTrue(testGraph.containsEdge((String) null));
+        assertFalse(testGraph.containsEdge("four"));
+
+        assertTrue(testGraph.containsEdge("one", "two"));
+        assertTrue(testGraph.containsEdge("two", "one"));
+        assertTrue(testGraph.containsEdge("three", "two"));
+        assertTrue(testGraph.containsEdge("three", "one"));
+        assertTrue(testGraph.containsEdge("three", "three"));
+        assertFalse(testGraph.containsEdge("one", "one"));
+        assertFalse(testGraph.containsEdge("one", "four"));
+        assertFalse(testGraph.containsEdge("four", "four"));
+        assertFalse(testGraph.containsEdge("one", "five"));
+
+        try {
+            testGraph.containsEdge("one", null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for graph edge sets
+     */
+    @Test
+    public void edgeSet() {
+        Set<String> expected = new HashSet<String>(
+                Arrays.asList("one-two", "two-one", null));
+        assertEquals(expected, testGraph.edgeSet("one"));
+
+        expected = new HashSet<String>(
+                Arrays.asList("one-two", "two-one", "two-three"));
+        assertEquals(expected, testGraph.edgeSet("two"));
+
+        expected = new HashSet<String>(
+                Arrays.asList("two-three", "self-edge", null));
+        assertEquals(expected, testGraph.edgeSet("three"));
+        assertTrue(testGraph.edgeSet("four").isEmpty());
+        assertNull(testGraph.edgeSet("five"));
+
+        expected = new HashSet<String>(Arrays.asList("one-two", "two-one"));
+        assertEquals(expected, testGraph.edgeSet("one", "two"));
+        assertEquals(expected, testGraph.edgeSet("two", "one"));
+        assertEquals(new HashSet<String>(Arrays.asList("self-edge")),
+                testGraph.edgeSet("three", "three"));
+        assertTrue(testGraph.edgeSet("one", "four").isEmpty());
+        assertNull(testGraph.edgeSet("one", "five"));
+
+        try {
+            testGraph.edgeSet().add("four");
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            // expected, compact graph sets are unmodifiable
+        }
+    }
+
+    /**
+     * Unit test for unmodifiable graph views
+     */
+    @Test
+    public void views() {
+        assertEquals(sourceGraph.vertexSet(), testGraph.vertexView());
+        assertEquals(sourceGraph.edgeSet(), testGraph.edgeView());
+
+        Collection<String> incidentView = testGraph.edgeView("two");
+        assertEquals(3, incidentView.size());
+        assertEquals(testGraph.edgeSet("two"),
+                new HashSet<String>(incidentView));
+        assertTrue(testGraph.edgeView("four").isEmpty());
+        assertNull(testGraph.edgeView("five"));
+
+        try {
+            incidentView.clear();
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertTrue(testGraph.containsEdge("two-three"));
+        }
+    }
+
+    /**
+     * Unit test for degrees and neighbor iteration
+     */
+    @Test
+    public void neighbors() {
+        assertEquals(3, testGraph.degree("three"));
+        assertEquals(0, testGraph.degree("four"));
+        assertEquals(-1, testGraph.degree("five"));
+
+        // a self-edge passes its vertex once
+        final List<String> neighbors = new ArrayList<String>();
+        assertTrue(testGraph.forEachNeighbor("three", neighbors::add));
+        Collections.sort(neighbors);
+        assertEquals(Arrays.asList("one", "three", "two"), neighbors);
+
+        final Map<String,String> incident = new HashMap<String,String>();
+        assertTrue(testGraph.forEachIncidentEdge("one", (other, e) -> {
+            assertNull(incident.put(e, other));
+        }));
+        assertEquals(3, incident.size());
+        assertEquals("two", incident.get("two-one"));
+        assertEquals("three", incident.get(null));
+        assertFalse(testGraph.forEachNeighbor("five", neighbors::add));
+        assertEquals(3, neighbors.size());
+
+        try {
+            testGraph.forEachIncidentEdge("one", null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Action null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for getting edges from graphs
+     */
+    @Test
+    public void getEdge() {
+        assertTrue(Arrays.asList("one-two", "two-one")
+                .contains(testGraph.getEdge("two", "one")));
+        assertEquals("self-edge", testGraph.getEdge("three", "three"));
+        assertNull(testGraph.getEdge("one", "three"));
+        assertNull(testGraph.getEdge("one", "four"));
+        assertNull(testGraph.getEdge("one", "five"));
+    }
+
+    /**
+     * Unit test for modifying immutable graphs
+     */
+    @Test
+    public void immutable() {
+        try {
+            testGraph.addVertex("five");
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertEquals("Graph is immutable", uoe.getMessage());
+        }
+        try {
+            testGraph.addEdge("one", "four");
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertEquals("Graph is immutable", uoe.getMessage());
+        }
+        try {
+            testGraph.removeEdge("one-two");
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertEquals("Graph is immutable", uoe.getMessage());
+        }
+        try {
+            testGraph.removeVertex("one");
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertEquals("Graph is immutable", uoe.getMessage());
+        }
+        assertTrue(testGraph.containsVertex("one"));
+        assertTrue(testGraph.containsEdge("one-two"));
+    }
+
+}
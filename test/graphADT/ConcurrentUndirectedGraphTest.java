@@ -0,0 +1,396 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentUndirectedGraphTest {
+
+    // number of threads in concurrent tests
+    private static final int THREADS = 8;
+
+    // test graphs
+    ConcurrentUndirectedGraph<String,String>   testGraph;
+    ConcurrentUndirectedGraph<Integer,Integer> testGraphIntegerInteger;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four" };
+
+    /**
+     * Construct new graphs before each test
+     */
+    @Before
+    public void setUp() {
+        testGraph = new ConcurrentUndirectedGraph<String,String>();
+        for (String s : strings) {
+            testGraph.addVertex(s);
+        }
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "one", "two-one");
+        testGraph.addEdge("two", "three", "two-three");
+        testGraph.addEdge("three", "three", "self-edge");
+        testGraph.addEdge("one", "three");
+
+        // single stripe, every edge shares a lock
+        testGraphIntegerInteger = new ConcurrentUndirectedGraph<Integer,Integer>(
+                0, 1);
+    }
+
+    /**
+     * Unit test for ConcurrentUndirectedGraph constructors
+     */
+    @Test
+    public void constructor() {
+        ConcurrentUndirectedGraph<String,String> graph;
+        graph = new ConcurrentUndirectedGraph<String,String>(100, 64);
+        assertTrue(graph.vertexSet().isEmpty());
+        assertTrue(graph.edgeSet().isEmpty());
+
+        try {
+            new ConcurrentUndirectedGraph<String,String>(-1);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal expected vertex count: -1", iae.getMessage());
+        }
+        try {
+            new ConcurrentUndirectedGraph<String,String>(0, 0);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal concurrency level: 0", iae.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for adding vertices and edges to a graph
+     */
+    @Test
+    public void add() {
+        assertFalse(testGraph.addVertex("one"));
+        assertTrue(testGraph.addVertex("five"));
+        assertTrue(testGraph.containsVertex("five"));
+
+        // duplicate edges are rejected, parallel edges are not
+        assertFalse(testGraph.addEdge("two", "one", "one-two"));
+        assertTrue(testGraph.addEdge("two", "one", "another"));
+        assertFalse(testGraph.addEdge("three", "one"));
+        assertFalse(testGraph.addEdge("three", "three", "self-edge"));
+
+        // edges need both vertices in graph
+        assertFalse(testGraph.addEdge("one", "six", "one-six"));
+        assertFalse(testGraph.containsEdge("one-six"));
+
+        assertTrue(testGraph.addAllVertices(Arrays.asList("five", "six")));
+        assertFalse(testGraph.addAllVertices(Arrays.asList("five", "six")));
+        assertTrue(testGraph.addAllEdges(Arrays.asList(
+                new EdgeTriple<String,String>("five", "six", "five-six"),
+                new EdgeTriple<String,String>("one", "seven", "one-seven"))));
+        assertTrue(testGraph.containsEdge("five", "six"));
+        assertFalse(testGraph.containsEdge("one-seven"));
+
+        try {
+            testGraph.addVertex(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+        try {
+            testGraph.addEdge("one", null, "one-null");
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for graph queries
+     */
+    @Test
+    public void queries() {
+        assertEquals(new HashSet<String>(Arrays.asList(strings)),
+                testGraph.vertexSet());
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one",
+                "two-three", "self-edge", null)), testGraph.edgeSet());
+
+        assertTrue(testGraph.containsVertex("four"));
+        assertFalse(testGraph.containsVertex(null));
+        assertTrue(testGraph.containsEdge((String) null));
+        assertTrue(testGraph.containsEdge("three", "one"));
+        assertTrue(testGraph.containsEdge("three", "three"));
+        assertFalse(testGraph.containsEdge("one", "four"));
+
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one",
+                null)), testGraph.edgeSet("one"));
+        assertTrue(testGraph.edgeSet("four").isEmpty());
+        assertNull(testGraph.edgeSet("five"));
+
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one")),
+                testGraph.edgeSet("two", "one"));
+        assertTrue(testGraph.edgeSet("one", "four").isEmpty());
+        assertNull(testGraph.edgeSet("one", "five"));
+
+        assertEquals("two-three", testGraph.getEdge("three", "two"));
+        assertEquals("self-edge", testGraph.getEdge("three", "three"));
+        assertNull(testGraph.getEdge("one", "four"));
+        assertNull(testGraph.getEdge("one", "five"));
+    }
+
+    /**
+     * Unit test for removing vertices and edges from a graph
+     */
+    @Test
+    public void remove() {
+        assertTrue(testGraph.removeEdge((String) null));
+        assertFalse(testGraph.containsEdge("one", "three"));
+        assertFalse(testGraph.removeEdge((String) null));
+
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one")),
+                testGraph.removeAllEdges("one", "two"));
+        assertTrue(testGraph.removeAllEdges("one", "two").isEmpty());
+        assertNull(testGraph.removeAllEdges("one", "five"));
+        assertTrue(testGraph.edgeSet("one").isEmpty());
+
+        assertEquals("two-three", testGraph.removeEdge("two", "three"));
+        assertNull(testGraph.removeEdge("two", "three"));
+        assertNull(testGraph.removeEdge("two", "five"));
+
+        assertTrue(testGraph.removeVertex("three"));
+        assertFalse(testGraph.removeVertex("three"));
+        assertFalse(testGraph.removeVertex(null));
+        assertFalse(testGraph.containsEdge("self-edge"));
+        assertTrue(testGraph.edgeSet().isEmpty());
+
+        // removing a vertex removes its edges from its neighbors
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "four", "two-four");
+        assertTrue(testGraph.removeAllVertices(Arrays.asList("two", "five")));
+        assertEquals(new HashSet<String>(Arrays.asList("one", "four")),
+                testGraph.vertexSet());
+        assertTrue(testGraph.edgeSet("one").isEmpty());
+        assertTrue(testGraph.edgeSet("four").isEmpty());
+        assertTrue(testGraph.edgeSet().isEmpty());
+
+        // re-added vertex has no edges
+        assertTrue(testGraph.addVertex("two"));
+        assertTrue(testGraph.edgeSet("two").isEmpty());
+        assertTrue(testGraph.addEdge("one", "two", "one-two"));
+    }
+
+    /**
+     * Unit test for views of a graph
+     */
+    @Test
+    public void views() {
+        Set<String> vertexView = testGraph.vertexView();
+        Set<String> edgeView = testGraph.edgeView();
+        Collection<String> incidentView = testGraph.edgeView("one");
+        assertEquals(testGraph.vertexSet(), vertexView);
+        assertEquals(testGraph.edgeSet(), edgeView);
+        assertEquals(3, incidentView.size());
+        assertNull(testGraph.edgeView("five"));
+
+        // views reflect later changes
+        testGraph.addEdge("one", "four", "one-four");
+        testGraph.removeVertex("two");
+        assertEquals(3, vertexView.size());
+        assertTrue(edgeView.contains("one-four"));
+        assertFalse(edgeView.contains("two-three"));
+        assertTrue(edgeView.contains(null));
+        assertEquals(new HashSet<String>(Arrays.asList("one-four", null)),
+                new HashSet<String>(incidentView));
+
+        try {
+            edgeView.clear();
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertTrue(testGraph.containsEdge("one-four"));
+        }
+        try {
+            incidentView.add("five");
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertFalse(testGraph.containsEdge("five"));
+        }
+    }
+
+    /**
+     * Unit test for degrees and neighbor iteration
+     */
+    @Test
+    public void neighbors() {
+        assertEquals(3, testGraph.degree("three"));
+        assertEquals(0, testGraph.degree("four"));
+        assertEquals(-1, testGraph.degree("five"));
+
+        // a self-edge passes its vertex once
+        final List<String> neighbors = new ArrayList<String>();
+        assertTrue(testGraph.forEachNeighbor("three", neighbors::add));
+        Collections.sort(neighbors);
+        assertEquals(Arrays.asList("one", "three", "two"), neighbors);
+
+        final Map<String,String> incident = new HashMap<String,String>();
+        assertTrue(testGraph.forEachIncidentEdge("one", (other, e) -> {
+            assertNull(incident.put(e, other));
+        }));
+        assertEquals(3, incident.size());
+        assertEquals("two", incident.get("two-one"));
+        assertEquals("three", incident.get(null));
+        assertFalse(testGraph.forEachNeighbor("five", neighbors::add));
+        assertEquals(3, neighbors.size());
+
+        try {
+            testGraph.forEachIncidentEdge("one", null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Action null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for threads adding edges between disjoint vertices
+     */
+    @Test
+    public void concurrentAdd() throws InterruptedException {
+        final ConcurrentUndirectedGraph<Integer,Integer> graph;
+        graph = new ConcurrentUndirectedGraph<Integer,Integer>();
+        final int perThread = 1000;
+
+        runThreads(new Worker() {
+
+            @Override
+            public void run(int thread) {
+                int base = thread * perThread;
+                for (int i = 0; i < perThread; i++) {
+                    graph.addVertex(base + i);
+                }
+                for (int i = 0; i < perThread; i++) {
+                    // labeled ring plus shared null-labeled chords
+                    assertTrue(graph.addEdge(base + i,
+                            base + (i + 1) % perThread, base + i));
+                    assertTrue(graph.addEdge(base + i,
+                            base + (i + 7) % perThread));
+                }
+            }
+
+        });
+
+        assertEquals(THREADS * perThread, graph.vertexSet().size());
+        assertEquals(THREADS * perThread + 1, graph.edgeSet().size());
+        for (int v = 0; v < THREADS * perThread; v++) {
+            assertEquals(4, graph.edgeView(v).size());
+        }
+    }
+
+    /**
+     * Unit test for threads adding and removing overlapping vertices and edges
+     */
+    @Test
+    public void concurrentAddRemove() throws InterruptedException {
+        final ConcurrentUndirectedGraph<Integer,Integer> graph;
+        graph = testGraphIntegerInteger;
+        final int vertices = 16;
+
+        runThreads(new Worker() {
+
+            @Override
+            public void run(int thread) {
+                for (int i = 0; i < 20000; i++) {
+                    int v1 = (i * 7 + thread) % vertices;
+                    int v2 = (i * 13 + thread * 3) % vertices;
+                    switch ((i + thread) % 6) {
+                    case 0:
+                        graph.addVertex(v1);
+                        break;
+                    case 1:
+                        graph.addEdge(v1, v2, i % 4);
+                        break;
+                    case 2:
+                        graph.addEdge(v1, v2);
+                        break;
+                    case 3:
+                        graph.removeEdge(v1, v2);
+                        break;
+                    case 4:
+                        graph.removeEdge(Integer.valueOf(i % 4));
+                        break;
+                    default:
+                        if (i % 50 == 0) {
+                            graph.removeVertex(v1);
+                        }
+                    }
+                }
+            }
+
+        });
+
+        // every edge touches vertices in graph, and every edge value in graph
+        // touches a vertex
+        Set<Integer> touchingValues = new HashSet<Integer>();
+        for (Integer v : graph.vertexSet()) {
+            for (Integer e : graph.edgeSet(v)) {
+                assertTrue(graph.containsEdge(e));
+                touchingValues.add(e);
+            }
+        }
+        assertEquals(touchingValues, graph.edgeSet());
+    }
+
+    /**
+     * Worker runs the body of a concurrent test on one thread
+     */
+    private interface Worker {
+
+        void run(int thread);
+
+    }
+
+    /**
+     * Runs a worker on each of the test threads starting at once, and fails
+     * if any worker throws
+     */
+    private void runThreads(final Worker worker) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<Throwable>();
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            threads[t] = new Thread() {
+
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        worker.run(thread);
+                    } catch (Throwable failure) {
+                        failures.add(failure);
+                    }
+                }
+
+            };
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue("Worker failed: " + failures, failures.isEmpty());
+    }
+
+}
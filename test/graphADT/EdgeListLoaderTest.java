@@ -0,0 +1,165 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EdgeListLoaderTest {
+
+    // test loaders
+    EdgeListLoader<String,String> stringLoader;
+    EdgeListLoader<Integer,Integer> intLoader;
+
+    Path file;
+
+    ForkJoinPool pool;
+
+    /**
+     * Construct new loaders, a temporary file and a pool before each test
+     */
+    @Before
+    public void setUp() throws IOException {
+        stringLoader = new EdgeListLoader<String,String>(Function.identity(),
+                Function.identity());
+        intLoader = new EdgeListLoader<Integer,Integer>(Integer::valueOf,
+                Integer::valueOf);
+        file = Files.createTempFile("edges", ".txt");
+        pool = new ForkJoinPool(4);
+    }
+
+    /**
+     * Delete the temporary file and shut down the pool after each test
+     */
+    @After
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    private void write(String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void load() throws IOException {
+        write("# edge list\n"
+                + "one two one-two\n"
+                + "\n"
+                + "two\tthree  two three \r\n"
+                + "  three one\n"
+                + "one two one-two\n"
+                + "four four loop");
+        UndirectedGraph<String,String> graph = stringLoader.load(file, pool);
+
+        assertEquals(new HashSet<String>(Arrays.asList("one", "two", "three",
+                "four")), graph.vertexSet());
+        assertEquals(new HashSet<String>(Arrays.asList("one-two")),
+                graph.edgeSet("one", "two"));
+        assertEquals(new HashSet<String>(Arrays.asList("two three")),
+                graph.edgeSet("two", "three"));
+        assertEquals(new HashSet<String>(Arrays.asList("loop")),
+                graph.edgeSet("four", "four"));
+        assertTrue(graph.containsEdge("three", "one"));
+        assertNull(graph.getEdge("three", "one"));
+        assertEquals(2, graph.degree("one"));
+        assertFalse(graph.containsEdge("one", "four"));
+    }
+
+    @Test
+    public void loadEmpty() throws IOException {
+        write("");
+        assertTrue(stringLoader.load(file, pool).vertexSet().isEmpty());
+        assertTrue(stringLoader.loadCompact(file, pool).vertexSet().isEmpty());
+    }
+
+    @Test
+    public void loadMalformed() throws IOException {
+        write("1 2 3\n4\n5 6\n");
+        try {
+            intLoader.load(file, pool);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains(": 4"));
+        }
+
+        try {
+            new EdgeListLoader<String,String>(s -> null, Function.identity())
+                    .load(file, pool);
+            fail("Expected NullPointerException");
+        } catch (NullPointerException e) {
+        }
+    }
+
+    @Test
+    public void loadCompact() throws IOException {
+        // random multigraph with self edges and repeated records
+        Random random = new Random(17);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            int v1 = random.nextInt(500);
+            int v2 = random.nextInt(500);
+            text.append(v1).append(' ').append(v2);
+            if (random.nextInt(4) > 0) {
+                text.append(' ').append(random.nextInt(50));
+            }
+            text.append('\n');
+        }
+        write(text.toString());
+
+        UndirectedGraph<Integer,Integer> graph = intLoader.load(file, pool);
+        CompactGraph<Integer,Integer> compact;
+        compact = intLoader.loadCompact(file, pool);
+        CompactGraph<Integer,Integer> frozen = graph.freeze();
+
+        assertEquals(frozen.vertexSet(), compact.vertexSet());
+        assertEquals(frozen.edgeSet(), compact.edgeSet());
+        for (Integer v : frozen.vertexSet()) {
+            assertEquals(frozen.degree(v), compact.degree(v));
+            for (Integer w : frozen.vertexSet()) {
+                assertEquals(frozen.edgeSet(v, w), compact.edgeSet(v, w));
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void loadCompactRepeatedPair() throws IOException {
+        // one pair repeated in both directions with many distinct labels
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 300000; i++) {
+            text.append((i % 2 == 0) ? "1 2" : "2 1");
+            if (i % 7 > 0) {
+                text.append(' ').append(i % 50000);
+            }
+            text.append('\n');
+        }
+        text.append("2 2 0\n");
+        write(text.toString());
+
+        CompactGraph<Integer,Integer> compact;
+        compact = intLoader.loadCompact(file, pool);
+        assertEquals(50001, compact.edgeSet(1, 2).size());
+        assertTrue(compact.edgeSet(1, 2).contains(null));
+        assertEquals(compact.edgeSet(1, 2), compact.edgeSet(2, 1));
+        assertEquals(50001, compact.degree(1));
+        assertEquals(50002, compact.degree(2));
+        assertEquals(intLoader.load(file, pool).edgeSet(1, 2),
+                compact.edgeSet(1, 2));
+    }
+
+}
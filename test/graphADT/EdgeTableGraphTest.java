@@ -0,0 +1,232 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class EdgeTableGraphTest {
+
+    // test graphs
+    EdgeTableGraph<String,String> testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four", "five" };
+
+    /**
+     * Construct a new graph with a self edge, multiple edges, an unlabeled
+     * edge and an isolated vertex before each test
+     */
+    @Before
+    public void setUp() {
+        testGraph = new EdgeTableGraph<String,String>();
+        for (String s : strings) {
+            testGraph.addVertex(s);
+        }
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "one", "two-one");
+        testGraph.addEdge("two", "three", "two-three");
+        testGraph.addEdge("three", "three", "loop");
+        testGraph.addEdge("three", "four");
+    }
+
+    @Test
+    public void queries() {
+        assertFalse(testGraph.addEdge("one", "two", "one-two"));
+        assertFalse(testGraph.addEdge("two", "one", "one-two"));
+        assertFalse(testGraph.addEdge("four", "three"));
+        assertFalse(testGraph.addEdge("one", "six", "one-six"));
+
+        assertEquals(new HashSet<String>(Arrays.asList(strings)),
+                testGraph.vertexSet());
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one",
+                "two-three", "loop", null)), testGraph.edgeSet());
+        assertEquals(testGraph.edgeSet(), testGraph.edgeView());
+        assertTrue(testGraph.containsEdge((String) null));
+        assertTrue(testGraph.containsEdge("one", "two"));
+        assertFalse(testGraph.containsEdge("one", "three"));
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one")),
+                testGraph.edgeSet("two", "one"));
+        assertNull(testGraph.edgeSet("one", "six"));
+        assertEquals("loop", testGraph.getEdge("three", "three"));
+        assertNull(testGraph.getEdge("three", "four"));
+
+        assertEquals(3, testGraph.degree("three"));
+        assertEquals(0, testGraph.degree("five"));
+        assertEquals(-1, testGraph.degree("six"));
+        assertEquals(3, testGraph.edgeView("two").size());
+
+        List<String> neighbors = new ArrayList<String>();
+        assertTrue(testGraph.forEachNeighbor("three", neighbors::add));
+        assertEquals(new HashSet<String>(Arrays.asList("two", "three",
+                "four")), new HashSet<String>(neighbors));
+    }
+
+    @Test
+    public void removals() {
+        assertEquals("loop", testGraph.removeEdge("three", "three"));
+        assertFalse(testGraph.containsEdge("loop"));
+        assertEquals(2, testGraph.degree("three"));
+
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one")),
+                testGraph.removeAllEdges("one", "two"));
+        assertEquals(0, testGraph.degree("one"));
+        assertEquals(1, testGraph.degree("two"));
+
+        assertTrue(testGraph.removeEdge((String) null));
+        assertFalse(testGraph.removeEdge((String) null));
+        assertFalse(testGraph.containsEdge((String) null));
+        assertEquals(0, testGraph.degree("four"));
+
+        assertTrue(testGraph.removeVertex("three"));
+        assertFalse(testGraph.removeVertex("three"));
+        assertEquals(0, testGraph.degree("two"));
+        assertTrue(testGraph.edgeSet().isEmpty());
+
+        // freed edge ids and vertex ids are reused
+        assertTrue(testGraph.addVertex("three"));
+        assertTrue(testGraph.addEdge("three", "one", "one-two"));
+        assertEquals("one-two", testGraph.getEdge("one", "three"));
+    }
+
+    @Test
+    public void matchesUndirected() {
+        // random mix of additions and removals mirrored on both graphs
+        Random random = new Random(21);
+        UndirectedGraph<Integer,Integer> expected;
+        expected = new UndirectedGraph<Integer,Integer>();
+        EdgeTableGraph<Integer,Integer> graph;
+        graph = new EdgeTableGraph<Integer,Integer>();
+        for (int step = 0; step < 20000; step++) {
+            Integer v1 = random.nextInt(200);
+            Integer v2 = (random.nextInt(10) == 0) ? v1 : random.nextInt(200);
+            Integer e = (random.nextInt(4) > 0) ? random.nextInt(40) : null;
+            switch (random.nextInt(20)) {
+            case 0:
+                assertEquals(expected.removeVertex(v1), graph.removeVertex(v1));
+                break;
+            case 1:
+                assertEquals(expected.removeEdge(e), graph.removeEdge(e));
+                break;
+            case 2:
+                assertEquals(expected.removeAllEdges(v1, v2),
+                        graph.removeAllEdges(v1, v2));
+                break;
+            case 3:
+            case 4:
+                // the removed edge is unspecified, resync the pair
+                boolean had = graph.containsVertex(v1)
+                        && graph.containsVertex(v2)
+                        && graph.containsEdge(v1, v2);
+                Integer removed = graph.removeEdge(v1, v2);
+                if (had) {
+                    assertTrue(expected.removeAllEdges(v1, v2)
+                            .contains(removed));
+                    for (Integer left : graph.edgeSet(v1, v2)) {
+                        expected.addEdge(v1, v2, left);
+                    }
+                }
+                break;
+            default:
+                expected.addVertex(v1);
+                graph.addVertex(v1);
+                assertEquals(expected.addEdge(v1, v2, e),
+                        graph.addEdge(v1, v2, e));
+            }
+        }
+
+        assertEquals(expected.vertexSet(), graph.vertexSet());
+        assertEquals(expected.edgeSet(), graph.edgeSet());
+        for (Integer v : expected.vertexSet()) {
+            assertEquals(expected.degree(v), graph.degree(v));
+            assertEquals(expected.edgeSet(v), graph.edgeSet(v));
+            for (Integer w : expected.vertexSet()) {
+                assertEquals(expected.edgeSet(v, w), graph.edgeSet(v, w));
+            }
+        }
+        CompactGraph<Integer,Integer> frozen = graph.freeze();
+        for (Integer v : expected.vertexSet()) {
+            assertEquals(expected.edgeSet(v), frozen.edgeSet(v));
+        }
+        assertEquals(Triangles.count(expected).total(),
+                Triangles.count(graph).total());
+    }
+
+    @Test
+    public void multiplicities() {
+        // without counting, edges are single copies
+        assertEquals(1, testGraph.multiplicity("two", "one", "one-two"));
+        assertEquals(0, testGraph.multiplicity("one", "three", null));
+        assertEquals(0, testGraph.multiplicity("one", "six", null));
+        assertEquals(0, testGraph.decrementEdge("four", "three", null));
+        assertEquals(-1, testGraph.decrementEdge("four", "three", null));
+        assertFalse(testGraph.containsEdge((String) null));
+
+        EdgeTableGraph<String,String> counted;
+        counted = new EdgeTableGraph<String,String>(0, 0, true);
+        for (String s : strings) {
+            counted.addVertex(s);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(counted.addEdge("one", "two"));
+            assertTrue(counted.addEdge("two", "one", "one-two"));
+        }
+        counted.addAllEdges(Arrays.asList(
+                new EdgeTriple<String,String>("one", "two", null),
+                new EdgeTriple<String,String>("three", "three", "loop"),
+                new EdgeTriple<String,String>("three", "three", "loop")));
+        assertEquals(1001, counted.multiplicity("two", "one", null));
+        assertEquals(1000, counted.multiplicity("one", "two", "one-two"));
+        assertEquals(2, counted.multiplicity("three", "three", "loop"));
+        assertEquals(2, counted.degree("one"));
+        assertEquals(new HashSet<String>(Arrays.asList(null, "one-two")),
+                counted.edgeSet("one", "two"));
+
+        assertEquals(1, counted.decrementEdge("three", "three", "loop"));
+        assertEquals(0, counted.decrementEdge("three", "three", "loop"));
+        assertEquals(-1, counted.decrementEdge("three", "three", "loop"));
+        assertFalse(counted.containsEdge("loop"));
+        assertEquals(1000, counted.decrementEdge("one", "two", null));
+
+        // other removals remove every copy
+        assertTrue(counted.removeEdge("one-two"));
+        assertEquals(0, counted.multiplicity("one", "two", "one-two"));
+        assertTrue(counted.addEdge("one", "two", "one-two"));
+        assertEquals(1, counted.multiplicity("one", "two", "one-two"));
+        assertTrue(counted.removeVertex("two"));
+        assertEquals(0, counted.multiplicity("one", "two", null));
+        assertTrue(counted.edgeSet().isEmpty());
+    }
+
+    @Test
+    public void addAllEdges() {
+        // bulk additions grow the edge table past its initial capacity
+        EdgeTableGraph<Integer,Integer> graph;
+        graph = new EdgeTableGraph<Integer,Integer>();
+        List<Integer> vertices = new ArrayList<Integer>();
+        List<EdgeTriple<Integer,Integer>> edges;
+        edges = new ArrayList<EdgeTriple<Integer,Integer>>();
+        for (int i = 0; i < 1000; i++) {
+            vertices.add(i);
+            edges.add(new EdgeTriple<Integer,Integer>(i, (i * 7) % 1000, i));
+            edges.add(new EdgeTriple<Integer,Integer>(i, (i * 7) % 1000, i));
+        }
+        assertTrue(graph.addAllVertices(vertices));
+        assertTrue(graph.addAllEdges(edges));
+        assertFalse(graph.addAllEdges(edges));
+        assertEquals(1000, graph.edgeSet().size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(graph.edgeSet((i * 7) % 1000, i).contains(i));
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GraphCheckpointerTest {
+
+    // test graphs
+    UndirectedGraph<String,String> testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four", "five" };
+
+    Path directory;
+
+    /**
+     * Construct a new empty graph and a temporary directory before each test
+     */
+    @Before
+    public void setUp() throws IOException {
+        testGraph = new UndirectedGraph<String,String>();
+        directory = Files.createTempDirectory("graph");
+    }
+
+    /**
+     * Delete the temporary directory after each test
+     */
+    @After
+    public void tearDown() throws IOException {
+        for (Path file : files("*")) {
+            Files.delete(file);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private GraphCheckpointer<String,String> attach(long checkpointMillis)
+            throws IOException {
+        return GraphCheckpointer.attach(testGraph, directory,
+                Serializer.strings(), Serializer.strings(), 1,
+                checkpointMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private UndirectedGraph<String,String> recover() throws IOException {
+        return GraphCheckpointer.recover(directory, Serializer.strings(),
+                Serializer.strings());
+    }
+
+    private List<Path> files(String glob) throws IOException {
+        List<Path> files = new ArrayList<Path>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                glob)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private void assertSameGraph(UndirectedGraph<String,String> expected,
+            UndirectedGraph<String,String> actual) {
+        assertEquals(expected.vertexSet(), actual.vertexSet());
+        assertEquals(expected.edgeSet(), actual.edgeSet());
+        for (String v : expected.vertexSet()) {
+            assertEquals(expected.degree(v), actual.degree(v));
+            for (String w : expected.vertexSet()) {
+                assertEquals(expected.edgeSet(v, w), actual.edgeSet(v, w));
+            }
+        }
+    }
+
+    private void mutate(Random random, int steps) {
+        for (int step = 0; step < steps; step++) {
+            String v1 = "v" + random.nextInt(50);
+            String v2 = "v" + random.nextInt(50);
+            String e = (random.nextInt(4) > 0) ? "e" + random.nextInt(20)
+                    : null;
+            switch (random.nextInt(10)) {
+            case 0:
+                testGraph.removeVertex(v1);
+                break;
+            case 1:
+                testGraph.removeEdge(e);
+                break;
+            case 2:
+                testGraph.removeEdge(v1, v2);
+                break;
+            default:
+                testGraph.addVertex(v1);
+                testGraph.addVertex(v2);
+                testGraph.addEdge(v1, v2, e);
+            }
+        }
+    }
+
+    @Test
+    public void recoversCheckpointAndTail()
+            throws IOException, InterruptedException, ExecutionException {
+        // a new directory holds the empty graph
+        assertTrue(recover().vertexSet().isEmpty());
+
+        GraphCheckpointer<String,String> checkpointer = attach(0);
+        testGraph.addAllVertices(Arrays.asList(strings));
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "one");
+        testGraph.addEdge("three", "three", "loop");
+        checkpointer.sync();
+        assertSameGraph(testGraph, recover());
+
+        Path checkpoint = checkpointer.checkpoint().get();
+        assertEquals(Arrays.asList(checkpoint), files("checkpoint-*"));
+        testGraph.removeVertex("one");
+        testGraph.addEdge("four", "five", "four-five");
+        checkpointer.close();
+
+        // records before the checkpoint are not replayed
+        try (FileChannel channel = FileChannel.open(
+                directory.resolve("graph.journal"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(16), Integer.BYTES * 2);
+        }
+        assertSameGraph(testGraph, recover());
+    }
+
+    @Test
+    public void periodicCheckpoints() throws IOException, InterruptedException {
+        Random random = new Random(25);
+        GraphCheckpointer<String,String> checkpointer = attach(1);
+        for (int round = 0; round < 20; round++) {
+            mutate(random, 500);
+            Thread.sleep(2);
+        }
+        checkpointer.close();
+        assertEquals(1, files("checkpoint-*.graph").size());
+        assertSameGraph(testGraph, recover());
+
+        // a recovered graph goes on with the same directory
+        testGraph = recover();
+        checkpointer = attach(1);
+        mutate(random, 2000);
+        checkpointer.close();
+        assertEquals(1, files("checkpoint-*.graph").size());
+        assertTrue(files("*.tmp").isEmpty());
+        assertSameGraph(testGraph, recover());
+    }
+
+    @Test
+    public void closedCheckpointer() throws IOException {
+        GraphCheckpointer<String,String> checkpointer = attach(0);
+        testGraph.addVertex("one");
+        checkpointer.close();
+        checkpointer.close();
+        testGraph.addVertex("two");
+        assertEquals(testGraph.vertexSet().size() - 1,
+                recover().vertexSet().size());
+        try {
+            checkpointer.checkpoint();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("Checkpointer closed", e.getMessage());
+        }
+        try {
+            attach(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Illegal checkpoint interval: -1", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,247 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GraphJournalTest {
+
+    // test graphs
+    UndirectedGraph<String,String> testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four", "five" };
+
+    Path file;
+
+    /**
+     * Construct a new empty graph and a temporary journal file before each
+     * test
+     */
+    @Before
+    public void setUp() throws IOException {
+        testGraph = new UndirectedGraph<String,String>();
+        file = Files.createTempFile("graph", ".journal");
+    }
+
+    /**
+     * Delete the temporary file after each test
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private GraphJournal<String,String> attach(long syncMillis)
+            throws IOException {
+        return GraphJournal.attach(testGraph, file, Serializer.strings(),
+                Serializer.strings(), syncMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private UndirectedGraph<String,String> replay() throws IOException {
+        UndirectedGraph<String,String> graph;
+        graph = new UndirectedGraph<String,String>();
+        GraphJournal.replay(file, graph, Serializer.strings(),
+                Serializer.strings());
+        return graph;
+    }
+
+    private void assertSameGraph(UndirectedGraph<String,String> expected,
+            UndirectedGraph<String,String> actual) {
+        assertEquals(expected.vertexSet(), actual.vertexSet());
+        assertEquals(expected.edgeSet(), actual.edgeSet());
+        for (String v : expected.vertexSet()) {
+            assertEquals(expected.degree(v), actual.degree(v));
+            for (String w : expected.vertexSet()) {
+                assertEquals(expected.edgeSet(v, w), actual.edgeSet(v, w));
+            }
+        }
+    }
+
+    @Test
+    public void replaysMutations() throws IOException {
+        GraphJournal<String,String> journal = attach(0);
+        testGraph.addAllVertices(Arrays.asList(strings));
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "one", "two-one");
+        testGraph.addEdge("two", "three", "two-three");
+        testGraph.addEdge("three", "three", "loop");
+        testGraph.addEdge("three", "four");
+        testGraph.addAllEdges(Arrays.asList(
+                new EdgeTriple<String,String>("four", "five", "four-five"),
+                new EdgeTriple<String,String>("one", "five", null)));
+        assertFalse(testGraph.addEdge("one", "two", "one-two"));
+
+        // only the removed edge between one and two goes
+        testGraph.removeEdge("one", "two");
+        testGraph.removeEdge("loop");
+        testGraph.removeVertex("five");
+        assertSameGraph(testGraph, replay());
+
+        testGraph.removeAllVertices(Arrays.asList("two", "six"));
+        testGraph.removeEdge((String) null);
+        journal.close();
+        journal.close();
+        assertSameGraph(testGraph, replay());
+
+        // closed journals no longer record changes
+        testGraph.addVertex("six");
+        assertFalse(replay().containsVertex("six"));
+    }
+
+    @Test
+    public void randomMutations() throws IOException {
+        Random random = new Random(24);
+        GraphJournal<String,String> journal = attach(5);
+        for (int step = 0; step < 5000; step++) {
+            String v1 = "v" + random.nextInt(50);
+            String v2 = "v" + random.nextInt(50);
+            String e = (random.nextInt(4) > 0) ? "e" + random.nextInt(20)
+                    : null;
+            switch (random.nextInt(10)) {
+            case 0:
+                testGraph.removeVertex(v1);
+                break;
+            case 1:
+                testGraph.removeEdge(e);
+                break;
+            case 2:
+                testGraph.removeEdge(v1, v2);
+                break;
+            default:
+                testGraph.addVertex(v1);
+                testGraph.addVertex(v2);
+                testGraph.addEdge(v1, v2, e);
+            }
+        }
+        journal.sync();
+        assertSameGraph(testGraph, replay());
+        journal.close();
+    }
+
+    @Test
+    public void tornRecord() throws IOException {
+        GraphJournal<String,String> journal = attach(0);
+        testGraph.addAllVertices(Arrays.asList(strings));
+        testGraph.addEdge("one", "two", "one-two");
+        journal.close();
+        long complete = Files.size(file);
+
+        // a crash during an append leaves part of a record
+        journal = attach(0);
+        testGraph.addEdge("two", "three", "two-three");
+        journal.close();
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+        UndirectedGraph<String,String> graph = replay();
+        assertTrue(graph.containsEdge("one-two"));
+        assertFalse(graph.containsEdge("two-three"));
+
+        // reattaching drops the torn record and appends after the last
+        testGraph.removeEdge("two-three");
+        journal = attach(0);
+        assertEquals(complete, Files.size(file));
+        testGraph.addEdge("three", "four", "three-four");
+        journal.close();
+        assertSameGraph(testGraph, replay());
+    }
+
+    @Test
+    public void serializerFailure() throws IOException {
+        Serializer<String> labels = new Serializer<String>() {
+
+            @Override
+            public byte[] toBytes(String value) {
+                if (value.equals("bad")) {
+                    throw new IllegalArgumentException("Unserializable");
+                }
+                return Serializer.strings().toBytes(value);
+            }
+
+            @Override
+            public String fromBytes(ByteBuffer bytes) {
+                return Serializer.strings().fromBytes(bytes);
+            }
+
+        };
+        GraphJournal<String,String> journal = GraphJournal.attach(testGraph,
+                file, Serializer.strings(), labels, 0, TimeUnit.MILLISECONDS);
+        testGraph.addAllVertices(Arrays.asList(strings));
+        testGraph.addEdge("one", "two", "one-two");
+        try {
+            testGraph.addEdge("two", "three", "bad");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unserializable", e.getMessage());
+        }
+        assertTrue(testGraph.containsEdge("bad"));
+
+        // the journal lacks the edge, so it records nothing after it
+        try {
+            testGraph.addEdge("three", "four", "three-four");
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            assertTrue(e.getCause()
+                    .getCause() instanceof IllegalArgumentException);
+        }
+        assertTrue(testGraph.containsEdge("three-four"));
+        try {
+            journal.sync();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // journal failed
+        }
+        try {
+            journal.close();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // journal failed
+        }
+        UndirectedGraph<String,String> graph = replay();
+        assertTrue(graph.containsEdge("one-two"));
+        assertFalse(graph.containsEdge("bad"));
+        assertFalse(graph.containsEdge("three-four"));
+    }
+
+    @Test
+    public void illegalJournals() throws IOException {
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        try {
+            replay();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Not a graph journal", e.getMessage());
+        }
+        try {
+            attach(0);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Not a graph journal", e.getMessage());
+        }
+        try {
+            attach(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Illegal sync interval: -1", e.getMessage());
+        }
+    }
+
+}
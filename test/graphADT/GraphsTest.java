@@ -0,0 +1,222 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GraphsTest {
+
+    // test graphs
+    UndirectedGraph<String,String> backingGraph;
+    AbstractGraph<String,String>   testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three" };
+
+    /**
+     * Construct and wrap a new graph before each test
+     */
+    @Before
+    public void setUp() {
+        backingGraph = new UndirectedGraph<String,String>();
+        testGraph = Graphs.readMostlyGraph(backingGraph);
+        for (String s : strings) {
+            testGraph.addVertex(s);
+        }
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "three", "two-three");
+        testGraph.addEdge("three", "three");
+    }
+
+    /**
+     * Unit test for read-mostly graph delegating to the backing graph
+     */
+    @Test
+    public void readMostlyGraph() {
+        assertEquals(backingGraph.vertexSet(), testGraph.vertexSet());
+        assertEquals(backingGraph.edgeSet(), testGraph.edgeSet());
+        assertTrue(testGraph.containsVertex("one"));
+        assertTrue(testGraph.containsEdge("one-two"));
+        assertTrue(testGraph.containsEdge("three", "three"));
+        assertEquals("two-three", testGraph.getEdge("three", "two"));
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-three")),
+                testGraph.edgeSet("two"));
+        assertNull(testGraph.edgeSet("one", "four"));
+        assertEquals(2, testGraph.degree("three"));
+        final Set<String> neighbors = new HashSet<String>();
+        assertTrue(testGraph.forEachNeighbor("two", neighbors::add));
+        assertEquals(new HashSet<String>(Arrays.asList("one", "three")),
+                neighbors);
+
+        assertTrue(testGraph.addAllEdges(Arrays.asList(
+                new EdgeTriple<String,String>("one", "three", "one-three"))));
+        assertEquals("one-three", testGraph.removeEdge("three", "one"));
+        assertTrue(testGraph.removeEdge("one-two"));
+        assertTrue(testGraph.removeVertex("three"));
+        assertFalse(backingGraph.containsVertex("three"));
+        assertTrue(backingGraph.edgeSet().isEmpty());
+
+        // genuine exceptions of the backing graph are rethrown
+        try {
+            testGraph.containsEdge("one", null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+        try {
+            Graphs.readMostlyGraph(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Graph null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for views of a read-mostly graph
+     */
+    @Test
+    public void views() {
+        Set<String> vertexView = testGraph.vertexView();
+        Set<String> edgeView = testGraph.edgeView();
+        Collection<String> incidentView = testGraph.edgeView("two");
+        assertEquals(3, vertexView.size());
+        assertTrue(edgeView.contains(null));
+        assertEquals(2, incidentView.size());
+        assertNull(testGraph.edgeView("four"));
+
+        // iterating a view is not disturbed by writes
+        Iterator<String> vertices = vertexView.iterator();
+        testGraph.addVertex("four");
+        testGraph.removeVertex("one");
+        Set<String> iterated = new HashSet<String>();
+        while (vertices.hasNext()) {
+            iterated.add(vertices.next());
+        }
+        assertEquals(new HashSet<String>(Arrays.asList(strings)), iterated);
+        assertEquals(testGraph.vertexSet(), vertexView);
+        assertEquals(1, incidentView.size());
+
+        try {
+            edgeView.clear();
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertTrue(testGraph.containsEdge("two-three"));
+        }
+    }
+
+    /**
+     * Unit test for readers querying while a writer modifies the graph
+     */
+    @Test
+    public void concurrentReads() throws InterruptedException {
+        final AbstractGraph<Integer,Integer> graph = Graphs
+                .readMostlyGraph(new UndirectedGraph<Integer,Integer>());
+        for (int v = 0; v < 64; v++) {
+            graph.addVertex(v);
+        }
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<Throwable>();
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread() {
+
+                @Override
+                public void run() {
+                    try {
+                        int i = 0;
+                        while (!done.get()) {
+                            int v = i++ & 63;
+                            // edge v-(v+1) is only ever labeled v
+                            Integer e = graph.getEdge(v, (v + 1) & 63);
+                            assertTrue(e == null || e == v);
+                            Set<Integer> edges = graph.edgeSet(v);
+                            assertTrue(edges == null || edges.size() <= 2);
+                            graph.containsEdge(Integer.valueOf(v));
+                        }
+                    } catch (Throwable failure) {
+                        failures.add(failure);
+                    }
+                }
+
+            };
+            readers[t].start();
+        }
+
+        for (int i = 0; i < 20000; i++) {
+            int v = i & 63;
+            graph.addEdge(v, (v + 1) & 63, v);
+            if ((i & 7) == 0) {
+                graph.removeVertex((v + 32) & 63);
+                graph.addVertex((v + 32) & 63);
+            } else {
+                graph.removeEdge(Integer.valueOf((v + 32) & 63));
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertTrue("Reader failed: " + failures, failures.isEmpty());
+    }
+
+    /**
+     * Unit test for errors of torn optimistic reads retrying under the read
+     * lock, and errors of consistent reads propagating
+     */
+    @Test
+    public void tornReadErrors() {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicReference<AbstractGraph<String,String>> wrapper;
+        wrapper = new AtomicReference<AbstractGraph<String,String>>();
+        UndirectedGraph<String,String> backing;
+        backing = new UndirectedGraph<String,String>() {
+
+            @Override
+            public boolean containsVertex(String v) {
+                if (v.equals("consistent")) {
+                    throw new StackOverflowError();
+                } else if (calls.getAndIncrement() > 0) {
+                    return super.containsVertex(v);
+                }
+                // a write lands during the first, optimistic call
+                Thread writer = new Thread(() -> wrapper.get().addVertex(v));
+                writer.start();
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new StackOverflowError();
+            }
+
+        };
+        wrapper.set(Graphs.readMostlyGraph(backing));
+
+        // the retry sees the vertex added by the write
+        assertTrue(wrapper.get().containsVertex("torn"));
+        try {
+            wrapper.get().containsVertex("consistent");
+            fail("Expected StackOverflowError");
+        } catch (StackOverflowError e) {
+            // genuine error of a consistent read
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedGraphTest {
+
+    // test graphs
+    UndirectedGraph<String,String> testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four", "five" };
+
+    Path file;
+
+    /**
+     * Construct a new graph with a self edge, multiple edges, an unlabeled
+     * edge and an isolated vertex, and a temporary file before each test
+     */
+    @Before
+    public void setUp() throws IOException {
+        testGraph = new UndirectedGraph<String,String>();
+        for (String s : strings) {
+            testGraph.addVertex(s);
+        }
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "one", "two-one");
+        testGraph.addEdge("two", "three", "two-three");
+        testGraph.addEdge("three", "three", "loop");
+        testGraph.addEdge("three", "four");
+        file = Files.createTempFile("graph", ".snapshot");
+    }
+
+    /**
+     * Delete the temporary file after each test
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private MappedGraph<String,String> snapshot(
+            UndirectedGraph<String,String> graph) throws IOException {
+        MappedGraph.write(graph.freeze(), file, Serializer.strings(),
+                Serializer.strings());
+        return MappedGraph.open(file, Serializer.strings(),
+                Serializer.strings());
+    }
+
+    @Test
+    public void queries() throws IOException {
+        MappedGraph<String,String> graph = snapshot(testGraph);
+
+        assertEquals(testGraph.vertexSet(), graph.vertexSet());
+        assertEquals(testGraph.edgeSet(), graph.edgeSet());
+        assertTrue(graph.containsVertex("five"));
+        assertFalse(graph.containsVertex("six"));
+        assertFalse(graph.containsVertex(null));
+        assertTrue(graph.containsEdge("loop"));
+        assertTrue(graph.containsEdge((String) null));
+        assertFalse(graph.containsEdge("one-three"));
+        assertTrue(graph.containsEdge("one", "two"));
+        assertFalse(graph.containsEdge("one", "three"));
+        assertFalse(graph.containsEdge("one", "six"));
+
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one")),
+                graph.edgeSet("two", "one"));
+        assertEquals(new HashSet<String>(), graph.edgeSet("one", "five"));
+        assertNull(graph.edgeSet("one", "six"));
+        assertNull(graph.getEdge("three", "four"));
+        assertEquals("loop", graph.getEdge("three", "three"));
+        assertEquals(testGraph.edgeSet("three"), graph.edgeSet("three"));
+        assertNull(graph.edgeSet("six"));
+
+        assertEquals(3, graph.degree("three"));
+        assertEquals(0, graph.degree("five"));
+        assertEquals(-1, graph.degree("six"));
+        assertEquals(3, graph.edgeView("two").size());
+
+        List<String> neighbors = new ArrayList<String>();
+        assertTrue(graph.forEachNeighbor("three", neighbors::add));
+        assertEquals(Arrays.asList("two", "three", "four"), neighbors);
+        assertFalse(graph.forEachNeighbor("six", neighbors::add));
+
+        try {
+            graph.addVertex("six");
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            graph.vertexSet().remove("one");
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+        }
+    }
+
+    @Test
+    public void matchesCompact() throws IOException {
+        // random multigraph with self edges and unlabeled edges
+        Random random = new Random(18);
+        UndirectedGraph<Integer,Integer> source;
+        source = new UndirectedGraph<Integer,Integer>();
+        for (int v = 0; v < 300; v++) {
+            source.addVertex(v * 7);
+        }
+        for (int i = 0; i < 3000; i++) {
+            Integer label = (random.nextInt(5) > 0) ? random.nextInt(100) : null;
+            source.addEdge(random.nextInt(300) * 7, random.nextInt(300) * 7,
+                    label);
+        }
+        CompactGraph<Integer,Integer> compact = source.freeze();
+        MappedGraph.write(compact, file, Serializer.integers(),
+                Serializer.integers());
+        MappedGraph<Integer,Integer> graph = MappedGraph.open(file,
+                Serializer.integers(), Serializer.integers());
+
+        assertEquals(compact.vertexSet(), graph.vertexSet());
+        assertEquals(compact.edgeSet(), graph.edgeSet());
+        for (Integer v : compact.vertexSet()) {
+            assertEquals(compact.degree(v), graph.degree(v));
+            assertEquals(new ArrayList<Integer>(compact.edgeView(v)),
+                    new ArrayList<Integer>(graph.edgeView(v)));
+            for (Integer w : compact.vertexSet()) {
+                assertEquals(compact.edgeSet(v, w), graph.edgeSet(v, w));
+            }
+        }
+        String edges = compact.toString();
+        assertTrue(graph.toString().endsWith(
+                edges.substring(edges.indexOf('\n'))));
+
+        // algorithms read the mapped rows in place
+        assertEquals(Triangles.count(compact).total(),
+                Triangles.count(graph).total());
+    }
+
+    @Test(timeout = 10000)
+    public void consecutiveIntegers() throws IOException {
+        // serialized consecutive integers differ in their last bytes only
+        int n = 200000;
+        UndirectedGraph<Integer,Integer> source;
+        source = new UndirectedGraph<Integer,Integer>(n, n);
+        for (int v = 0; v < n; v++) {
+            source.addVertex(v);
+        }
+        for (int v = 1; v < n; v++) {
+            source.addEdge(v - 1, v, v);
+        }
+        MappedGraph.write(source.freeze(), file, Serializer.integers(),
+                Serializer.integers());
+        MappedGraph<Integer,Integer> graph = MappedGraph.open(file,
+                Serializer.integers(), Serializer.integers());
+
+        for (int v = 1; v < n; v++) {
+            assertTrue(graph.containsVertex(v));
+            assertTrue(graph.containsEdge(v));
+        }
+        assertFalse(graph.containsVertex(n));
+        assertFalse(graph.containsEdge(0));
+        assertEquals(Integer.valueOf(n / 2),
+                graph.getEdge(n / 2 - 1, n / 2));
+    }
+
+    @Test
+    public void empty() throws IOException {
+        MappedGraph<String,String> graph;
+        graph = snapshot(new UndirectedGraph<String,String>());
+        assertTrue(graph.vertexSet().isEmpty());
+        assertTrue(graph.edgeSet().isEmpty());
+        assertFalse(graph.containsEdge((String) null));
+    }
+
+    @Test
+    public void corrupt() throws IOException {
+        snapshot(testGraph);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        try {
+            MappedGraph.open(file, Serializer.strings(), Serializer.strings());
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Corrupt graph snapshot"));
+        }
+
+        bytes[7] = 2;
+        Files.write(file, bytes);
+        try {
+            MappedGraph.open(file, Serializer.strings(), Serializer.strings());
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Unsupported snapshot version: 2", e.getMessage());
+        }
+
+        Files.write(file, "not a snapshot of a graph, too".getBytes());
+        try {
+            MappedGraph.open(file, Serializer.strings(), Serializer.strings());
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Not a graph snapshot"));
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PageRankTest {
+
+    // test graphs
+    UndirectedGraph<String,String> testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four", "five" };
+
+    ForkJoinPool pool;
+
+    /**
+     * Construct a new graph and pool before each test
+     */
+    @Before
+    public void setUp() {
+        testGraph = new UndirectedGraph<String,String>();
+        for (String s : strings) {
+            testGraph.addVertex(s);
+        }
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Unit test for ranking small graphs
+     */
+    @Test
+    public void rank() {
+        // a cycle ranks all vertices equal
+        for (int i = 0; i < strings.length; i++) {
+            testGraph.addEdge(strings[i], strings[(i + 1) % strings.length],
+                    "cycle-" + i);
+        }
+        PageRank.Result<String> result = new PageRank().rank(testGraph, pool);
+        assertTrue(result.converged());
+        assertEquals(1, result.iterations());
+        for (String s : strings) {
+            assertEquals(0.2, result.rank(s), 1e-12);
+        }
+        assertEquals(0.0, result.rank("six"), 0.0);
+
+        // a star ranks its center highest, leaves equal
+        testGraph.removeAllEdges(testGraph.edgeSet());
+        for (int i = 1; i < strings.length; i++) {
+            testGraph.addEdge(strings[0], strings[i], "star-" + i);
+        }
+        for (AbstractGraph<String,String> graph : Arrays.asList(testGraph,
+                testGraph.freeze())) {
+            result = new PageRank().rank(graph, pool);
+            assertTrue(result.converged());
+            Map<String,Double> ranks = result.ranks();
+            assertEquals(5, ranks.size());
+            assertEquals(1.0, sum(ranks), 1e-9);
+            // center is walked to from every leaf, leaves from the center
+            double leaf = ranks.get(strings[1]);
+            assertEquals((1.0 - 0.85) / 5 + 0.85 * leaf * 4,
+                    ranks.get(strings[0]), 1e-6);
+            for (int i = 2; i < strings.length; i++) {
+                assertEquals(leaf, ranks.get(strings[i]), 1e-12);
+            }
+        }
+    }
+
+    /**
+     * Unit test for multiple edges counting toward edge weight
+     */
+    @Test
+    public void multipleEdges() {
+        testGraph.addEdge("one", "two", "a");
+        testGraph.addEdge("one", "two", "b");
+        testGraph.addEdge("one", "three", "c");
+
+        PageRank.Result<String> result;
+        result = new PageRank(0.85, 1e-12, 1000).rank(testGraph);
+        assertTrue(result.converged());
+        assertEquals(1.0, sum(result.ranks()), 1e-9);
+
+        // vertices without edges only get the uniform jump, which two and
+        // three get on top of their share of one, two having twice the edges
+        double jump = result.rank("four");
+        assertEquals(jump, result.rank("five"), 1e-12);
+        assertEquals(2.0 * (result.rank("three") - jump),
+                result.rank("two") - jump, 1e-9);
+    }
+
+    /**
+     * Unit test for iteration limits and argument checks
+     */
+    @Test
+    public void limits() {
+        testGraph.addEdge("one", "two", "a");
+        testGraph.addEdge("two", "three", "b");
+        PageRank.Result<String> result;
+        result = new PageRank(0.85, 0.0, 3).rank(testGraph, pool);
+        assertFalse(result.converged());
+        assertEquals(3, result.iterations());
+
+        result = new PageRank().rank(new UndirectedGraph<String,String>());
+        assertTrue(result.converged());
+        assertEquals(0, result.iterations());
+        assertTrue(result.ranks().isEmpty());
+
+        for (double damping : new double[] { -0.1, 1.1, Double.NaN }) {
+            try {
+                new PageRank(damping, 1e-6, 10);
+                fail("Expected IllegalArgumentException!");
+            } catch (IllegalArgumentException iae) {
+                assertEquals("Illegal damping factor: " + damping,
+                        iae.getMessage());
+            }
+        }
+        try {
+            new PageRank(0.85, -1.0, 10);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal tolerance: -1.0", iae.getMessage());
+        }
+        try {
+            new PageRank(0.85, 1e-6, 0);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal maximum iterations: 0", iae.getMessage());
+        }
+        try {
+            new PageRank().rank(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Graph null", npe.getMessage());
+        }
+        try {
+            new PageRank().rank(testGraph, null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Pool null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for ranking a large random graph, equal for every graph
+     * implementation and pool parallelism
+     */
+    @Test
+    public void randomGraph() {
+        Random random = new Random(15);
+        int n = 10000;
+        UndirectedGraph<Integer,Integer> graph;
+        graph = new UndirectedGraph<Integer,Integer>(n, 4 * n);
+        AbstractGraph<Integer,Integer> concurrent;
+        concurrent = new ConcurrentUndirectedGraph<Integer,Integer>();
+        for (int v = 0; v < n; v++) {
+            graph.addVertex(v);
+            concurrent.addVertex(v);
+        }
+        for (int e = 0; e < 4 * n; e++) {
+            int v1 = random.nextInt(n);
+            int v2 = random.nextInt(n);
+            graph.addEdge(v1, v2, e);
+            concurrent.addEdge(v1, v2, e);
+        }
+        // leave holes in the vertex ids
+        for (int v = 0; v < n; v += 101) {
+            graph.removeVertex(v);
+            concurrent.removeVertex(v);
+        }
+
+        PageRank pageRank = new PageRank();
+        ForkJoinPool single = new ForkJoinPool(1);
+        PageRank.Result<Integer> expected = pageRank.rank(graph, single);
+        single.shutdown();
+        assertTrue(expected.converged());
+        assertEquals(1.0, sum(expected.ranks()), 1e-9);
+
+        // ranks are summed in the same order for any parallelism
+        PageRank.Result<Integer> result = pageRank.rank(graph, pool);
+        assertEquals(expected.iterations(), result.iterations());
+        assertEquals(expected.ranks(), result.ranks());
+
+        // other graphs order neighbors differently
+        for (AbstractGraph<Integer,Integer> ranked : Arrays
+                .asList(graph.freeze(), concurrent)) {
+            result = pageRank.rank(ranked, pool);
+            assertEquals(graph.vertexSet().size(), result.ranks().size());
+            for (Integer v : graph.vertexSet()) {
+                assertEquals(expected.rank(v), result.rank(v), 1e-12);
+            }
+        }
+    }
+
+    /**
+     * Returns the sum of the specified ranks
+     */
+    private static double sum(Map<?,Double> ranks) {
+        double sum = 0.0;
+        for (double rank : ranks.values()) {
+            sum += rank;
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,225 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ShortestPathsTest {
+
+    // test graphs
+    UndirectedGraph<String,Double> testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four", "five" };
+
+    /**
+     * Construct a new weighted graph before each test
+     */
+    @Before
+    public void setUp() {
+        testGraph = new UndirectedGraph<String,Double>();
+        for (String s : strings) {
+            testGraph.addVertex(s);
+        }
+        testGraph.addEdge("one", "two", 7.0);
+        testGraph.addEdge("one", "two", 2.0);
+        testGraph.addEdge("two", "three", 3.0);
+        testGraph.addEdge("one", "three", 6.0);
+        testGraph.addEdge("three", "three", 0.5);
+        testGraph.addEdge("three", "four", 1.0);
+    }
+
+    /**
+     * Unit test for single-source search
+     */
+    @Test
+    public void search() {
+        AbstractGraph<String,Double> concurrent;
+        concurrent = new ConcurrentUndirectedGraph<String,Double>();
+        concurrent.addAllVertices(testGraph.vertexSet());
+        concurrent.addEdge("one", "two", 2.0);
+        concurrent.addEdge("two", "one", 7.0);
+        concurrent.addEdge("two", "three", 3.0);
+        concurrent.addEdge("three", "one", 6.0);
+        concurrent.addEdge("four", "three", 1.0);
+
+        // graphs searched in place and packed graphs give equal results
+        for (AbstractGraph<String,Double> graph : Arrays.asList(testGraph,
+                testGraph.freeze(), concurrent)) {
+            ShortestPaths<String,Double> paths;
+            paths = new ShortestPaths<String,Double>(graph,
+                    Double::doubleValue);
+            ShortestPaths.Result<String> result = paths.search("one");
+            assertEquals("one", result.source());
+            assertEquals(4, result.reachedCount());
+            assertEquals(0.0, result.distance("one"), 0.0);
+            // cheapest of the parallel edges is taken
+            assertEquals(2.0, result.distance("two"), 0.0);
+            assertEquals(5.0, result.distance("three"), 0.0);
+            assertEquals(6.0, result.distance("four"), 0.0);
+            assertEquals(Double.POSITIVE_INFINITY, result.distance("five"),
+                    0.0);
+            assertEquals(Double.POSITIVE_INFINITY, result.distance("six"),
+                    0.0);
+
+            assertNull(result.parent("one"));
+            assertEquals("one", result.parent("two"));
+            assertEquals("two", result.parent("three"));
+            assertNull(result.parent("five"));
+            assertEquals(Arrays.asList("one"), result.pathTo("one"));
+            assertEquals(Arrays.asList("one", "two", "three", "four"),
+                    result.pathTo("four"));
+            assertNull(result.pathTo("five"));
+
+            assertNull(paths.search("six"));
+        }
+    }
+
+    /**
+     * Unit test for point-to-point paths
+     */
+    @Test
+    public void path() {
+        for (AbstractGraph<String,Double> graph : Arrays.asList(testGraph,
+                testGraph.freeze())) {
+            ShortestPaths<String,Double> paths;
+            paths = new ShortestPaths<String,Double>(graph,
+                    Double::doubleValue);
+            ShortestPaths.Path<String> path = paths.path("four", "one");
+            assertEquals(Arrays.asList("four", "three", "two", "one"),
+                    path.vertices());
+            assertEquals(6.0, path.distance(), 0.0);
+
+            // queries reuse the search arrays
+            path = paths.path("two", "three");
+            assertEquals(Arrays.asList("two", "three"), path.vertices());
+            assertEquals(3.0, path.distance(), 0.0);
+            path = paths.path("three", "three");
+            assertEquals(Arrays.asList("three"), path.vertices());
+            assertEquals(0.0, path.distance(), 0.0);
+
+            assertNull(paths.path("one", "five"));
+            assertNull(paths.path("one", "six"));
+            assertNull(paths.path("six", "one"));
+        }
+    }
+
+    /**
+     * Unit test for edge weights that are not allowed
+     */
+    @Test
+    public void illegalWeights() {
+        testGraph.addEdge("four", "five", -1.0);
+        ShortestPaths<String,Double> paths;
+        paths = new ShortestPaths<String,Double>(testGraph,
+                Double::doubleValue);
+        try {
+            paths.search("one");
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal edge weight: -1.0", iae.getMessage());
+        }
+        // the failed search does not affect the next query
+        assertEquals(5.0, paths.path("one", "three").distance(), 0.0);
+
+        testGraph.removeEdge(-1.0);
+        testGraph.addEdge("four", "five", Double.NaN);
+        paths = new ShortestPaths<String,Double>(testGraph,
+                Double::doubleValue);
+        try {
+            paths.path("one", "five");
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal edge weight: NaN", iae.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for argument checks
+     */
+    @Test
+    public void nullArguments() {
+        try {
+            new ShortestPaths<String,Double>(null, Double::doubleValue);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Graph null", npe.getMessage());
+        }
+        try {
+            new ShortestPaths<String,Double>(testGraph, null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Weight null", npe.getMessage());
+        }
+        ShortestPaths<String,Double> paths;
+        paths = new ShortestPaths<String,Double>(testGraph,
+                Double::doubleValue);
+        try {
+            paths.search(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+        try {
+            paths.path("one", null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for point-to-point paths of a large random graph against
+     * single-source search
+     */
+    @Test
+    public void randomGraph() {
+        Random random = new Random(13);
+        int n = 5000;
+        UndirectedGraph<Integer,Double> graph;
+        graph = new UndirectedGraph<Integer,Double>(n, 4 * n);
+        for (int v = 0; v < n; v++) {
+            graph.addVertex(v);
+        }
+        for (int e = 0; e < 4 * n; e++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n),
+                    random.nextInt(1000) + e / (double) n);
+        }
+
+        ShortestPaths<Integer,Double> paths;
+        paths = new ShortestPaths<Integer,Double>(graph.freeze(),
+                Double::doubleValue);
+        ShortestPaths.Result<Integer> result = paths.search(0);
+        for (int i = 0; i < 200; i++) {
+            Integer target = random.nextInt(n);
+            ShortestPaths.Path<Integer> path = paths.path(0, target);
+            if (path == null) {
+                assertEquals(Double.POSITIVE_INFINITY,
+                        result.distance(target), 0.0);
+                continue;
+            }
+            assertEquals(result.distance(target), path.distance(), 0.0);
+
+            // path is connected and weighs its distance
+            double weight = 0.0;
+            for (int j = 1; j < path.vertices().size(); j++) {
+                double cheapest = Double.POSITIVE_INFINITY;
+                for (Double e : graph.edgeSet(path.vertices().get(j - 1),
+                        path.vertices().get(j))) {
+                    cheapest = Math.min(cheapest, e);
+                }
+                assertTrue(cheapest < Double.POSITIVE_INFINITY);
+                weight += cheapest;
+            }
+            assertEquals(path.distance(), weight, 1e-9);
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TrianglesTest {
+
+    // test graphs
+    UndirectedGraph<String,String> testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four", "five" };
+
+    ForkJoinPool pool;
+
+    /**
+     * Construct a new graph of two triangles sharing an edge, with a self
+     * edge, a multiple edge, a pendant vertex and an isolated vertex, and a
+     * pool before each test
+     */
+    @Before
+    public void setUp() {
+        testGraph = new UndirectedGraph<String,String>();
+        for (String s : strings) {
+            testGraph.addVertex(s);
+        }
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "one", "two-one");
+        testGraph.addEdge("two", "three", "two-three");
+        testGraph.addEdge("three", "one", "three-one");
+        testGraph.addEdge("three", "four", "three-four");
+        testGraph.addEdge("four", "one", "four-one");
+        testGraph.addEdge("four", "four", "self-edge");
+        testGraph.addVertex("six");
+        testGraph.addEdge("six", "four", "six-four");
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Unit test for counting triangles of small graphs
+     */
+    @Test
+    public void count() {
+        for (AbstractGraph<String,String> graph : Arrays.asList(testGraph,
+                testGraph.freeze())) {
+            Triangles.Result<String> result = Triangles.count(graph, pool);
+            assertEquals(2, result.total());
+            assertEquals(2, result.triangles("one"));
+            assertEquals(1, result.triangles("two"));
+            assertEquals(2, result.triangles("three"));
+            assertEquals(1, result.triangles("four"));
+            assertEquals(0, result.triangles("five"));
+            assertEquals(0, result.triangles("six"));
+            assertEquals(-1, result.triangles("seven"));
+
+            // multiple and self edges do not count as neighbors
+            assertEquals(2.0 / 3.0, result.clusteringCoefficient("one"),
+                    1e-12);
+            assertEquals(1.0, result.clusteringCoefficient("two"), 0.0);
+            assertEquals(1.0 / 3.0, result.clusteringCoefficient("four"),
+                    1e-12);
+            assertEquals(0.0, result.clusteringCoefficient("five"), 0.0);
+            assertEquals(0.0, result.clusteringCoefficient("six"), 0.0);
+            assertTrue(Double.isNaN(result.clusteringCoefficient("seven")));
+            assertEquals((2.0 / 3.0 + 1.0 + 2.0 / 3.0 + 1.0 / 3.0) / 6.0,
+                    result.averageClusteringCoefficient(), 1e-12);
+            // 2 triangles over 3 + 1 + 3 + 3 paths of two edges
+            assertEquals(3.0 * 2.0 / 10.0,
+                    result.globalClusteringCoefficient(), 1e-12);
+        }
+
+        Triangles.Result<String> result;
+        result = Triangles.count(new UndirectedGraph<String,String>());
+        assertEquals(0, result.total());
+        assertEquals(0.0, result.averageClusteringCoefficient(), 0.0);
+        assertEquals(0.0, result.globalClusteringCoefficient(), 0.0);
+    }
+
+    /**
+     * Unit test for argument checks
+     */
+    @Test
+    public void nullArguments() {
+        try {
+            Triangles.count(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Graph null", npe.getMessage());
+        }
+        try {
+            Triangles.count(testGraph, null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Pool null", npe.getMessage());
+        }
+        try {
+            Triangles.count(testGraph).triangles(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for counting triangles of a large random graph with hubs,
+     * whose rows are intersected by galloping, against a brute force count
+     */
+    @Test
+    public void randomGraph() {
+        Random random = new Random(16);
+        int n = 3000;
+        UndirectedGraph<Integer,Integer> graph;
+        graph = new UndirectedGraph<Integer,Integer>(n, 10 * n);
+        for (int v = 0; v < n; v++) {
+            graph.addVertex(v);
+        }
+        for (int e = 0; e < 10 * n; e++) {
+            // a tenth of the edges touch one of ten hubs
+            int v1 = (e % 10 == 0) ? random.nextInt(10) : random.nextInt(n);
+            graph.addEdge(v1, random.nextInt(n), e);
+        }
+
+        long[] expected = new long[n];
+        long total = 0;
+        for (int u = 0; u < n; u++) {
+            Set<Integer> neighbors = neighbors(graph, u);
+            for (int w : neighbors) {
+                for (int x : neighbors(graph, w)) {
+                    if (u < w && w < x && neighbors.contains(x)) {
+                        expected[u]++;
+                        expected[w]++;
+                        expected[x]++;
+                        total++;
+                    }
+                }
+            }
+        }
+
+        for (AbstractGraph<Integer,Integer> counted : Arrays.asList(graph,
+                graph.freeze())) {
+            Triangles.Result<Integer> result = Triangles.count(counted, pool);
+            assertEquals(total, result.total());
+            for (int v = 0; v < n; v++) {
+                assertEquals(expected[v], result.triangles(v));
+            }
+        }
+    }
+
+    /**
+     * Returns the distinct neighbors of a vertex other than itself
+     */
+    private static Set<Integer> neighbors(AbstractGraph<Integer,?> graph,
+            Integer v) {
+        Set<Integer> neighbors = new HashSet<Integer>();
+        graph.forEachNeighbor(v, neighbors::add);
+        neighbors.remove(v);
+        return neighbors;
+    }
+
+}
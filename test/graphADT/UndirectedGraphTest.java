@@ -8,8 +8,12 @@ import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Before;
@@ -63,6 +67,56 @@ public class UndirectedGraphTest {
         assertTrue(testGraphIntegerInteger.edgeSet().isEmpty());
     }
 
+    /**
+     * Unit test for UndirectedGraph capacity hint constructors
+     */
+    @Test
+    public void capacityConstructors() {
+        List<UndirectedGraph<String,String>> graphs;
+        graphs = new ArrayList<UndirectedGraph<String,String>>();
+        graphs.add(new UndirectedGraph<String,String>(0));
+        graphs.add(new UndirectedGraph<String,String>(2));
+        graphs.add(new UndirectedGraph<String,String>(100, 400));
+        graphs.add(new UndirectedGraph<String,String>(0, 10));
+        graphs.add(new UndirectedGraph<String,String>(3, 3, 2));
+
+        for (UndirectedGraph<String,String> graph : graphs) {
+            assertTrue(graph.vertexSet().isEmpty());
+            assertTrue(graph.edgeSet().isEmpty());
+
+            // hints are not limits
+            for (int i = 0; i < 50; i++) {
+                assertTrue(graph.addVertex("v" + i));
+            }
+            for (int i = 0; i < 50; i++) {
+                assertTrue(graph.addEdge("v" + i, "v" + ((i + 1) % 50),
+                        "e" + i));
+            }
+            assertEquals(50, graph.vertexSet().size());
+            assertEquals(50, graph.edgeSet().size());
+            assertTrue(graph.containsEdge("v49", "v0"));
+        }
+
+        try {
+            new UndirectedGraph<String,String>(-1);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal expected vertex count: -1", iae.getMessage());
+        }
+        try {
+            new UndirectedGraph<String,String>(1, -1);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal expected edge count: -1", iae.getMessage());
+        }
+        try {
+            new UndirectedGraph<String,String>(1, 1, -1);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal expected degree: -1", iae.getMessage());
+        }
+    }
+
     /**
      * Unit test for adding vertices to graphs.
      */
@@ -231,6 +285,103 @@ public class UndirectedGraphTest {
         assertFalse(testGraphStringString.addEdge("four", "five"));
     }
 
+    /**
+     * Unit test for adding vertices to graphs in bulk.
+     */
+    @Test
+    public void addAllVertices() {
+        assertTrue(testGraphStringString.addAllVertices(Arrays.asList(strings)));
+        assertEquals(new HashSet<String>(Arrays.asList(strings)),
+                testGraphStringString.vertexSet());
+
+        // duplicates are skipped
+        assertFalse(testGraphStringString
+                .addAllVertices(Arrays.asList(strings[0], strings[1])));
+        assertTrue(testGraphStringString
+                .addAllVertices(Arrays.asList(strings[0], "four", "four")));
+        assertEquals(4, testGraphStringString.vertexSet().size());
+
+        // many vertices at once keep views live
+        Set<Integer> vertexView = testGraphIntegerInteger.vertexView();
+        List<Integer> manyIntegers = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            manyIntegers.add(i);
+        }
+        assertTrue(testGraphIntegerInteger.addAllVertices(manyIntegers));
+        assertEquals(1000, vertexView.size());
+        assertTrue(vertexView.contains(999));
+
+        try {
+            testGraphStringString.addAllVertices(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex collection null", npe.getMessage());
+        }
+        try {
+            testGraphStringString
+                    .addAllVertices(Arrays.asList("five", null, "six"));
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+        // nothing was added by failed call
+        assertFalse(testGraphStringString.containsVertex("five"));
+    }
+
+    /**
+     * Unit test for adding edges to graphs in bulk.
+     */
+    @Test
+    public void addAllEdges() {
+        loadVertices();
+        List<EdgeTriple<String,String>> edges;
+        edges = new ArrayList<EdgeTriple<String,String>>();
+        for (int i = 0; i <= 2; i++) { // i = {0, 1, 2}
+            edges.add(new EdgeTriple<String,String>(strings[i % 3],
+                    strings[(i + 1) % 3],
+                    strings[i % 3] + "-" + strings[(i + 1) % 3]));
+        }
+        edges.add(new EdgeTriple<String,String>(strings[0], strings[0], null));
+        // duplicate within batch and edge to unknown vertex are skipped
+        edges.add(new EdgeTriple<String,String>(strings[1], strings[0],
+                strings[0] + "-" + strings[1]));
+        edges.add(new EdgeTriple<String,String>(strings[0], "four", "bad"));
+
+        Collection<String> incidentView = testGraphStringString
+                .edgeView(strings[0]);
+        assertTrue(testGraphStringString.addAllEdges(edges));
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-three",
+                "three-one", null)), testGraphStringString.edgeSet());
+        for (int i = 0; i <= 2; i++) { // i = {0, 1, 2}
+            assertEquals(strings[i % 3] + "-" + strings[(i + 1) % 3],
+                    testGraphStringString.getEdge(strings[(i + 1) % 3],
+                            strings[i % 3]));
+        }
+        assertTrue(testGraphStringString.containsEdge((String) null));
+        assertTrue(testGraphStringString.containsEdge(strings[0], strings[0]));
+        assertFalse(testGraphStringString.containsEdge("bad"));
+        assertEquals(3, incidentView.size());
+
+        // all duplicates leaves graph unmodified
+        assertFalse(testGraphStringString.addAllEdges(edges));
+        assertFalse(testGraphStringString.addAllEdges(
+                new ArrayList<EdgeTriple<String,String>>()));
+        assertEquals(4, testGraphStringString.edgeSet().size());
+
+        try {
+            testGraphStringString.addAllEdges(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Edge collection null", npe.getMessage());
+        }
+        try {
+            new EdgeTriple<String,String>(strings[0], null, "bad");
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+    }
+
     /**
      * Unit test to check if vertex contained in a graph
      */
@@ -1884,6 +2035,375 @@ public class UndirectedGraphTest {
         assertTrue(testGraphStringString.containsEdge("self-edge"));
     }
 
+    /**
+     * Unit test for re-adding removed vertices, which reuses freed internal
+     * vertex ids.
+     */
+    @Test
+    public void reAddVertex() {
+        loadGraphData();
+        testGraphStringString.addEdge(strings[1], strings[1], "self-edge");
+        assertTrue(testGraphStringString.removeVertex(strings[1]));
+        assertTrue(testGraphStringString.addVertex("four"));
+        assertTrue(testGraphStringString.addVertex(strings[1]));
+
+        // no edges carried over to vertices taking freed ids
+        assertTrue(testGraphStringString.edgeSet("four").isEmpty());
+        assertTrue(testGraphStringString.edgeSet(strings[1]).isEmpty());
+        assertFalse(testGraphStringString.containsEdge("self-edge"));
+        assertFalse(testGraphStringString.containsEdge(strings[0], "four"));
+        assertTrue(testGraphStringString.containsEdge(strings[2], strings[0]));
+
+        assertTrue(testGraphStringString.addEdge("four", strings[1], "new"));
+        assertEquals("new", testGraphStringString.getEdge(strings[1], "four"));
+        assertEquals(new HashSet<String>(Arrays.asList("one", "two", "three",
+                "four")), testGraphStringString.vertexSet());
+    }
+
+    /**
+     * Unit test for vertex pair lookups staying consistent across the
+     * different edge removal operations.
+     */
+    @Test
+    public void pairLookups() {
+        loadVertices();
+        testGraphStringString.addEdge(strings[0], strings[1], "a");
+        testGraphStringString.addEdge(strings[1], strings[0], "b");
+        testGraphStringString.addEdge(strings[0], strings[2], "a");
+        testGraphStringString.addEdge(strings[1], strings[2], "c");
+
+        assertEquals(new HashSet<String>(Arrays.asList("a", "b")),
+                testGraphStringString.edgeSet(strings[1], strings[0]));
+
+        // removing by value only removes that value from the pair
+        assertTrue(testGraphStringString.removeEdge("a"));
+        assertEquals("b", testGraphStringString.getEdge(strings[0], strings[1]));
+        assertFalse(testGraphStringString.containsEdge(strings[2], strings[0]));
+
+        // removing the last edge between a pair disconnects it
+        assertEquals("b",
+                testGraphStringString.removeEdge(strings[0], strings[1]));
+        assertFalse(testGraphStringString.containsEdge(strings[0], strings[1]));
+        assertTrue(testGraphStringString.edgeSet(strings[0], strings[1])
+                .isEmpty());
+
+        // removing a vertex disconnects all of its pairs
+        testGraphStringString.addEdge(strings[0], strings[1], "d");
+        assertTrue(testGraphStringString.removeVertex(strings[2]));
+        assertTrue(testGraphStringString.addVertex(strings[2]));
+        assertFalse(testGraphStringString.containsEdge(strings[1], strings[2]));
+        assertTrue(testGraphStringString.containsEdge(strings[1], strings[0]));
+    }
+
+    /**
+     * Unit test for live unmodifiable graph views
+     */
+    @Test
+    public void views() {
+        Set<String> vertexView = testGraphStringString.vertexView();
+        Set<String> edgeView = testGraphStringString.edgeView();
+        assertTrue(vertexView.isEmpty());
+        assertTrue(edgeView.isEmpty());
+
+        // views reflect later changes
+        loadGraphData();
+        Collection<String> incidentView = testGraphStringString
+                .edgeView(strings[0]);
+        assertEquals(testGraphStringString.vertexSet(), vertexView);
+        assertEquals(testGraphStringString.edgeSet(), edgeView);
+        assertEquals(testGraphStringString.edgeSet(strings[0]),
+                new HashSet<String>(incidentView));
+        assertEquals(2, incidentView.size());
+
+        testGraphStringString.addEdge(strings[0], strings[1], "extra");
+        testGraphStringString.addEdge(strings[0], strings[2], "extra");
+        assertEquals(4, incidentView.size());
+        assertTrue(incidentView.contains("extra"));
+        assertTrue(edgeView.contains("extra"));
+
+        testGraphStringString.removeVertex(strings[1]);
+        assertEquals(2, vertexView.size());
+        assertEquals(2, incidentView.size());
+        assertNull(testGraphStringString.edgeView("four"));
+
+        // views are unmodifiable
+        try {
+            vertexView.remove(strings[0]);
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertTrue(testGraphStringString.containsVertex(strings[0]));
+        }
+        try {
+            edgeView.clear();
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertTrue(testGraphStringString.containsEdge("extra"));
+        }
+        try {
+            incidentView.add("four");
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertFalse(testGraphStringString.containsEdge("four"));
+        }
+
+        try {
+            testGraphStringString.edgeView(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for degrees and neighbor iteration
+     */
+    @Test
+    public void neighbors() {
+        loadGraphData();
+        testGraphStringString.addEdge(strings[0], strings[0], "self-edge");
+        assertEquals(3, testGraphStringString.degree(strings[0]));
+        assertEquals(2, testGraphStringString.degree(strings[1]));
+        assertEquals(-1, testGraphStringString.degree("four"));
+
+        // a self-edge passes its vertex once
+        final List<String> neighbors = new ArrayList<String>();
+        assertTrue(testGraphStringString.forEachNeighbor(strings[0],
+                neighbors::add));
+        Collections.sort(neighbors);
+        assertEquals(Arrays.asList("one", "three", "two"), neighbors);
+        assertFalse(testGraphStringString.forEachNeighbor("four",
+                neighbors::add));
+        assertEquals(3, neighbors.size());
+
+        final Map<Integer,Integer> incident = new HashMap<Integer,Integer>();
+        assertTrue(testGraphIntegerInteger.forEachIncidentEdge(integers[1],
+                (other, e) -> assertNull(incident.put(e, other))));
+        assertEquals(2, incident.size());
+        assertEquals(integers[0], incident.get(integers[0]));
+        assertEquals(integers[2], incident.get(integers[1]));
+
+        // neighbors of removed vertices are no longer passed
+        testGraphStringString.removeVertex(strings[1]);
+        neighbors.clear();
+        testGraphStringString.forEachNeighbor(strings[0], neighbors::add);
+        Collections.sort(neighbors);
+        assertEquals(Arrays.asList("one", "three"), neighbors);
+
+        try {
+            testGraphStringString.degree(null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+        try {
+            testGraphStringString.forEachNeighbor(strings[0], null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Action null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for connectivity and component counts
+     */
+    @Test
+    public void components() {
+        assertEquals(0, testGraphStringString.componentCount());
+        loadVertices();
+        testGraphStringString.addVertex("four");
+        testGraphStringString.addVertex("five");
+        assertEquals(5, testGraphStringString.componentCount());
+        assertTrue(testGraphStringString.isConnected("four", "four"));
+        assertFalse(testGraphStringString.isConnected(strings[0], "four"));
+
+        loadEdges();
+        testGraphStringString.addEdge("four", "five", "four-five");
+        assertEquals(2, testGraphStringString.componentCount());
+        assertTrue(testGraphStringString.isConnected(strings[0], strings[2]));
+        assertTrue(testGraphStringString.isConnected("five", "four"));
+        assertFalse(testGraphStringString.isConnected(strings[1], "five"));
+        assertFalse(testGraphStringString.isConnected(strings[1], "six"));
+
+        // removing one edge of a cycle keeps it connected
+        testGraphStringString.removeEdge(strings[0], strings[1]);
+        assertEquals(2, testGraphStringString.componentCount());
+        assertTrue(testGraphStringString.isConnected(strings[0], strings[1]));
+
+        // removals split components, additions join them again
+        testGraphStringString.removeEdge("four-five");
+        assertEquals(3, testGraphStringString.componentCount());
+        assertFalse(testGraphStringString.isConnected("four", "five"));
+        testGraphStringString.removeVertex(strings[2]);
+        assertEquals(4, testGraphStringString.componentCount());
+        assertFalse(testGraphStringString.isConnected(strings[0], strings[1]));
+        testGraphStringString.addVertex("six");
+        testGraphStringString.addEdge("six", strings[0], "six-one");
+        testGraphStringString.addEdge("six", "four", "six-four");
+        assertEquals(3, testGraphStringString.componentCount());
+        assertTrue(testGraphStringString.isConnected(strings[0], "four"));
+        testGraphStringString.removeAllEdges("six", "four");
+        testGraphStringString.removeAllVertices(Arrays.asList(strings[1]));
+        assertEquals(3, testGraphStringString.componentCount());
+        assertFalse(testGraphStringString.isConnected(strings[0], "four"));
+
+        try {
+            testGraphStringString.isConnected(strings[0], null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+    }
+
+    @Test
+    public void unlabeledEdges() {
+        loadGraphData();
+        UndirectedGraph<String,String> graph = testGraphStringStringNull;
+        assertTrue(graph.containsEdge((String) null));
+        assertFalse(graph.addEdge(strings[1], strings[0]));
+        assertTrue(graph.addEdge(strings[0], strings[1], "one-two"));
+        assertTrue(graph.addEdge(strings[0], strings[0]));
+        assertEquals(new HashSet<String>(Arrays.asList(null, "one-two")),
+                graph.edgeSet());
+        assertEquals(2, graph.edgeView().size());
+        assertTrue(graph.edgeView().contains(null));
+
+        // unlabeled edges are removed with their vertices and pairs
+        assertNull(graph.removeEdge(strings[0], strings[0]));
+        graph.removeAllEdges(strings[1], strings[2]);
+        graph.removeVertex(strings[2]);
+        assertTrue(graph.containsEdge((String) null));
+        assertEquals(2, graph.degree(strings[0]));
+
+        assertTrue(graph.removeEdge((String) null));
+        assertFalse(graph.removeEdge((String) null));
+        assertFalse(graph.containsEdge((String) null));
+        assertFalse(graph.edgeView().contains(null));
+        assertEquals(Collections.singleton("one-two"), graph.edgeSet());
+        assertEquals(1, graph.degree(strings[1]));
+        assertTrue(graph.addEdge(strings[1], strings[0]));
+        assertTrue(graph.containsEdge((String) null));
+    }
+
+    @Test
+    public void graphListeners() {
+        UndirectedGraph<String,String> graph = testGraphStringString;
+        List<List<GraphEvent<String,String>>> immediate;
+        immediate = new ArrayList<List<GraphEvent<String,String>>>();
+        List<List<GraphEvent<String,String>>> batched;
+        batched = new ArrayList<List<GraphEvent<String,String>>>();
+        GraphListener<String,String> listener = immediate::add;
+        graph.addGraphListener(listener);
+        graph.addGraphListener(batched::add, 10);
+
+        loadGraphData();
+        assertFalse(graph.addEdge(strings[0], strings[1], "one-two"));
+        assertEquals(6, immediate.size());
+        assertEquals(GraphEvent.Type.VERTEX_ADDED,
+                immediate.get(0).get(0).getType());
+        assertEquals(1, immediate.get(0).size());
+        GraphEvent<String,String> added = immediate.get(3).get(0);
+        assertEquals(GraphEvent.Type.EDGE_ADDED, added.getType());
+        assertFalse(added.isVertexEvent());
+        assertEquals("one-two", added.getE());
+        assertEquals(strings[0], added.getV1());
+        assertEquals(strings[1], added.getV2());
+        assertTrue(batched.isEmpty());
+
+        // cascaded edge removals are delivered with their vertex removal
+        immediate.clear();
+        graph.removeAllVertices(Arrays.asList(strings[0], strings[1]));
+        assertEquals(1, immediate.size());
+        List<GraphEvent<String,String>> removed = immediate.get(0);
+        assertEquals(5, removed.size());
+        Set<String> removedEdges = new HashSet<String>();
+        int vertexEvents = 0;
+        for (GraphEvent<String,String> event : removed) {
+            if (event.isVertexEvent()) {
+                assertEquals(GraphEvent.Type.VERTEX_REMOVED, event.getType());
+                vertexEvents++;
+            } else {
+                assertEquals(GraphEvent.Type.EDGE_REMOVED, event.getType());
+                assertTrue(removedEdges.add(event.getE()));
+            }
+        }
+        assertEquals(2, vertexEvents);
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-three",
+                "three-one")), removedEdges);
+        assertEquals(1, batched.size());
+        assertEquals(11, batched.get(0).size());
+
+        graph.removeVertex(strings[2]);
+        assertEquals(1, batched.size());
+        graph.flushEvents();
+        assertEquals(2, batched.size());
+        assertEquals(1, batched.get(1).size());
+        assertEquals(GraphEvent.Type.VERTEX_REMOVED,
+                batched.get(1).get(0).getType());
+
+        assertTrue(graph.removeGraphListener(listener));
+        assertFalse(graph.removeGraphListener(listener));
+        immediate.clear();
+        graph.addVertex("four");
+        assertTrue(immediate.isEmpty());
+        try {
+            graph.addGraphListener(listener, 0);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException iae) {
+            assertEquals("Illegal batch size: 0", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void reentrantListeners() {
+        final UndirectedGraph<String,String> graph = testGraphStringString;
+        final List<List<GraphEvent<String,String>>> flushed;
+        flushed = new ArrayList<List<GraphEvent<String,String>>>();
+        final List<List<GraphEvent<String,String>>> received;
+        received = new ArrayList<List<GraphEvent<String,String>>>();
+        final int[] depth = new int[1];
+
+        // a huge batch size only delivers on flush
+        graph.addGraphListener(flushed::add, Integer.MAX_VALUE);
+        graph.addGraphListener(new GraphListener<String,String>() {
+
+            @Override
+            public void graphChanged(List<GraphEvent<String,String>> events) {
+                assertEquals(0, depth[0]++);
+                received.add(events);
+                if (events.get(0).getV1().equals("a")) {
+                    graph.addVertex("b");
+                    graph.flushEvents();
+                } else if (events.get(0).getV1().equals("c")) {
+                    graph.addVertex("d");
+                    assertTrue(graph.removeGraphListener(this));
+                }
+                depth[0]--;
+            }
+
+        }, Integer.MAX_VALUE);
+
+        graph.addVertex("a");
+        assertTrue(flushed.isEmpty());
+        graph.flushEvents();
+        assertEquals(2, flushed.size());
+        assertEquals(2, received.size());
+        assertEquals("b", flushed.get(1).get(0).getV1());
+        assertEquals("b", received.get(1).get(0).getV1());
+
+        // a listener removing itself still gets its last changes afterwards
+        graph.addVertex("c");
+        graph.flushEvents();
+        assertEquals(4, received.size());
+        assertEquals("d", received.get(3).get(0).getV1());
+        graph.addVertex("e");
+        graph.flushEvents();
+        assertEquals(4, received.size());
+        assertEquals(5, flushed.size());
+        assertEquals(Arrays.asList("c", "d"),
+                Arrays.asList(flushed.get(2).get(0).getV1(),
+                        flushed.get(3).get(0).getV1()));
+    }
+
     /**
      * Clears graph data
      */
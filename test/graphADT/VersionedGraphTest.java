@@ -0,0 +1,282 @@
+package graphADT;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class VersionedGraphTest {
+
+    // test graphs
+    VersionedGraph<String,String> testGraph;
+
+    // test data sets
+    String[] strings = { "one", "two", "three", "four" };
+
+    /**
+     * Construct a new graph before each test
+     */
+    @Before
+    public void setUp() {
+        testGraph = new VersionedGraph<String,String>();
+        for (String s : strings) {
+            testGraph.addVertex(s);
+        }
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.addEdge("two", "one", "two-one");
+        testGraph.addEdge("two", "three", "two-three");
+        testGraph.addEdge("three", "three", "self-edge");
+        testGraph.addEdge("one", "three");
+    }
+
+    /**
+     * Unit test for graph operations on the current version
+     */
+    @Test
+    public void operations() {
+        assertEquals(new HashSet<String>(Arrays.asList(strings)),
+                testGraph.vertexSet());
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one",
+                "two-three", "self-edge", null)), testGraph.edgeSet());
+        assertFalse(testGraph.addEdge("one", "two", "one-two"));
+        assertFalse(testGraph.addEdge("one", "five", "one-five"));
+        assertTrue(testGraph.containsEdge((String) null));
+        assertTrue(testGraph.containsEdge("three", "one"));
+        assertFalse(testGraph.containsEdge("one", "four"));
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one")),
+                testGraph.edgeSet("two", "one"));
+        assertEquals("self-edge", testGraph.getEdge("three", "three"));
+        assertNull(testGraph.edgeSet("five"));
+        assertNull(testGraph.edgeSet("one", "five"));
+
+        assertTrue(testGraph.removeEdge((String) null));
+        assertFalse(testGraph.containsEdge("one", "three"));
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one")),
+                testGraph.removeAllEdges("one", "two"));
+        assertNull(testGraph.removeEdge("one", "two"));
+        assertTrue(testGraph.removeVertex("three"));
+        assertFalse(testGraph.containsEdge("self-edge"));
+        assertFalse(testGraph.containsEdge("two-three"));
+        assertTrue(testGraph.edgeSet("two").isEmpty());
+        assertTrue(testGraph.edgeSet().isEmpty());
+
+        try {
+            testGraph.addEdge(null, "one");
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Vertex value null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for version numbers
+     */
+    @Test
+    public void version() {
+        assertEquals(0, new VersionedGraph<String,String>().version());
+        long version = testGraph.version();
+        assertEquals(9, version);
+
+        // operations that do not modify the graph keep the version
+        testGraph.addVertex("one");
+        testGraph.addEdge("one", "two", "one-two");
+        testGraph.removeEdge("four-five");
+        assertEquals(version, testGraph.version());
+
+        // bulk operations make a single version
+        testGraph.addAllVertices(Arrays.asList("five", "six"));
+        testGraph.addAllEdges(Arrays.asList(
+                new EdgeTriple<String,String>("five", "six", "five-six"),
+                new EdgeTriple<String,String>("four", "five", "four-five")));
+        testGraph.removeAllVertices(Arrays.asList("one", "two"));
+        assertEquals(version + 3, testGraph.version());
+    }
+
+    /**
+     * Unit test for snapshots not seeing later modifications
+     */
+    @Test
+    public void snapshot() {
+        VersionedGraph.Snapshot<String,String> snapshot = testGraph.snapshot();
+        Set<String> vertices = testGraph.vertexSet();
+        Set<String> edges = testGraph.edgeSet();
+        assertEquals(testGraph.version(), snapshot.version());
+
+        testGraph.removeVertex("two");
+        testGraph.addVertex("five");
+        testGraph.addEdge("four", "five", "four-five");
+        testGraph.removeEdge((String) null);
+
+        assertEquals(vertices, snapshot.vertexSet());
+        assertEquals(edges, snapshot.edgeSet());
+        assertEquals(vertices, snapshot.vertexView());
+        assertTrue(snapshot.containsEdge("one", "two"));
+        assertTrue(snapshot.containsEdge("one", "three"));
+        assertFalse(snapshot.containsVertex("five"));
+        assertEquals(new HashSet<String>(Arrays.asList("one-two", "two-one",
+                "two-three")), snapshot.edgeSet("two"));
+        assertEquals(3, snapshot.edgeView("two").size());
+        assertEquals("two-three", snapshot.getEdge("three", "two"));
+
+        assertFalse(testGraph.containsVertex("two"));
+        assertTrue(testGraph.containsEdge("four-five"));
+        assertTrue(testGraph.snapshot().containsEdge("four-five"));
+
+        try {
+            snapshot.addVertex("six");
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertEquals("Graph is immutable", uoe.getMessage());
+        }
+        try {
+            snapshot.removeVertex("one");
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertTrue(snapshot.containsVertex("one"));
+        }
+    }
+
+    /**
+     * Unit test for live views of the current version
+     */
+    @Test
+    public void views() {
+        Set<String> vertexView = testGraph.vertexView();
+        Set<String> edgeView = testGraph.edgeView();
+        Collection<String> incidentView = testGraph.edgeView("one");
+        assertEquals(3, incidentView.size());
+        assertNull(testGraph.edgeView("five"));
+
+        testGraph.addEdge("one", "four", "one-four");
+        testGraph.removeVertex("two");
+        assertEquals(3, vertexView.size());
+        assertFalse(vertexView.contains("two"));
+        assertTrue(edgeView.contains("one-four"));
+        assertTrue(edgeView.contains(null));
+        assertEquals(new HashSet<String>(Arrays.asList("one-four", null)),
+                new HashSet<String>(incidentView));
+
+        try {
+            edgeView.clear();
+            fail("Expected UnsupportedOperationException!");
+        } catch (UnsupportedOperationException uoe) {
+            assertTrue(testGraph.containsEdge("one-four"));
+        }
+    }
+
+    /**
+     * Unit test for degrees and neighbor iteration
+     */
+    @Test
+    public void neighbors() {
+        assertEquals(3, testGraph.degree("three"));
+        assertEquals(0, testGraph.degree("four"));
+        assertEquals(-1, testGraph.degree("five"));
+
+        // a self-edge passes its vertex once
+        final List<String> neighbors = new ArrayList<String>();
+        assertTrue(testGraph.forEachNeighbor("three", neighbors::add));
+        Collections.sort(neighbors);
+        assertEquals(Arrays.asList("one", "three", "two"), neighbors);
+
+        final Map<String,String> incident = new HashMap<String,String>();
+        assertTrue(testGraph.forEachIncidentEdge("one", (other, e) -> {
+            assertNull(incident.put(e, other));
+        }));
+        assertEquals(3, incident.size());
+        assertEquals("two", incident.get("two-one"));
+        assertEquals("three", incident.get(null));
+        assertFalse(testGraph.forEachNeighbor("five", neighbors::add));
+        assertEquals(3, neighbors.size());
+
+        // snapshots iterate their own version
+        AbstractGraph<String,String> snapshot = testGraph.snapshot();
+        testGraph.removeVertex("two");
+        assertEquals(2, testGraph.degree("three"));
+        assertEquals(3, snapshot.degree("three"));
+        neighbors.clear();
+        assertTrue(snapshot.forEachNeighbor("one", neighbors::add));
+        assertEquals(3, neighbors.size());
+
+        try {
+            testGraph.forEachIncidentEdge("one", null);
+            fail("Expected NullPointerException!");
+        } catch (NullPointerException npe) {
+            assertEquals("Action null", npe.getMessage());
+        }
+    }
+
+    /**
+     * Unit test for a reader traversing a snapshot while a writer modifies
+     * the graph
+     */
+    @Test
+    public void concurrentSnapshot() throws InterruptedException {
+        final VersionedGraph<Integer,Integer> graph;
+        graph = new VersionedGraph<Integer,Integer>();
+        for (int v = 0; v < 64; v++) {
+            graph.addVertex(v);
+            graph.addEdge(v, (v + 1) & 63, v);
+        }
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<Throwable>();
+        Thread reader = new Thread() {
+
+            @Override
+            public void run() {
+                try {
+                    while (!done.get()) {
+                        // a snapshot is a consistent graph, edges in the
+                        // edge set of a vertex connect it to a vertex
+                        AbstractGraph<Integer,Integer> snapshot;
+                        snapshot = graph.snapshot();
+                        Set<Integer> vertices = snapshot.vertexSet();
+                        for (Integer v : vertices) {
+                            for (Integer e : snapshot.edgeSet(v)) {
+                                assertTrue(snapshot.containsEdge(e));
+                                assertTrue(vertices.contains(e));
+                                assertTrue(vertices.contains((e + 1) & 63));
+                            }
+                        }
+                        assertEquals(vertices, snapshot.vertexSet());
+                    }
+                } catch (Throwable failure) {
+                    failures.add(failure);
+                }
+            }
+
+        };
+        reader.start();
+
+        for (int i = 0; i < 20000; i++) {
+            int v = i & 63;
+            graph.removeVertex(v);
+            graph.addVertex(v);
+            graph.addEdge(v, (v + 1) & 63, v);
+            graph.addEdge((v + 63) & 63, v, (v + 63) & 63);
+        }
+        done.set(true);
+        reader.join();
+        assertTrue("Reader failed: " + failures, failures.isEmpty());
+        assertEquals(64, graph.edgeSet().size());
+    }
+
+}